@@ -0,0 +1,375 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Christoph Läubrich and others.
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *    Christoph Läubrich - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.tycho.p2maven.transport;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.channels.FileLock;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.zip.CRC32;
+
+/**
+ * Stores the headers of all cache lines in one append-only binary log instead of one properties
+ * file per cache line. The log is memory mapped when the store is opened and records are only
+ * decoded when requested, updates are appended as new records that supersede older ones for the
+ * same file. If the log contains mostly superseded records it is compacted when opened, this
+ * happens while holding an exclusive lock on <code>headers-v1.bin.lock</code> so only one process
+ * at a time creates or compacts the log.
+ * <p>
+ * Other processes (e.g. a running maven daemon) might have the log mapped, so it is never shrunk in
+ * place: a compacted or broken log is replaced by a new file and the format version is part of the
+ * file name. If the log was replaced by another process, this store appends to the new file from
+ * then on.
+ * <p>
+ * Each record is written with a single append and carries a checksum, so incomplete records (e.g.
+ * from a crashed process) are simply skipped. As this is only a cache, records appended by other
+ * processes after this store was opened are not visible, and records appended by other processes
+ * while a compaction takes place might get lost, in both cases the file is simply validated again
+ * with the remote server.
+ */
+final class BinaryHeaderStore implements HeaderStore {
+
+	// "TYHC"
+	private static final int MAGIC = 0x54594843;
+	private static final int VERSION = 1;
+
+	static final String FILE_NAME = "headers-v" + VERSION + ".bin";
+	static final String LOCK_FILE_NAME = FILE_NAME + ".lock";
+	private static final int FILE_HEADER_SIZE = 8;
+	private static final int RECORD_HEADER_SIZE = 8;
+	/**
+	 * Size of a record with an empty key and no headers
+	 */
+	private static final int MIN_RECORD_SIZE = RECORD_HEADER_SIZE + 2 * Integer.BYTES;
+	private static final int MIN_COMPACT_RECORDS = Integer.getInteger("tycho.p2.transport.cache.compact-records",
+			1000);
+
+	private final Path root;
+	private final Path logFile;
+	/**
+	 * Offsets of the most recent record of a key in the mapped log
+	 */
+	private final Map<String, Integer> mappedRecords = new ConcurrentHashMap<>();
+	/**
+	 * Records written since the log was mapped
+	 */
+	private final Map<String, Properties> updatedRecords = new ConcurrentHashMap<>();
+	private final ByteBuffer mapped;
+	private final Object appendLock = new Object();
+	private FileChannel appendChannel;
+	/**
+	 * Identifies the file {@link #appendChannel} was opened for
+	 */
+	private Object appendFileKey;
+	private boolean closed;
+
+	BinaryHeaderStore(File cacheLocation) throws IOException {
+		this(cacheLocation, MIN_COMPACT_RECORDS);
+	}
+
+	BinaryHeaderStore(File cacheLocation, int minCompactRecords) throws IOException {
+		root = cacheLocation.getCanonicalFile().toPath();
+		logFile = root.resolve(FILE_NAME);
+		Files.createDirectories(root);
+		try (FileChannel lockChannel = FileChannel.open(root.resolve(LOCK_FILE_NAME), StandardOpenOption.CREATE,
+				StandardOpenOption.WRITE); FileLock lock = lockChannel.lock()) {
+			initialize(minCompactRecords);
+		}
+		mapped = map();
+		scan(mapped, mappedRecords);
+	}
+
+	@Override
+	public Properties load(File file) {
+		String key = getKey(file);
+		Properties updated = updatedRecords.get(key);
+		if (updated != null) {
+			return copy(updated);
+		}
+		Integer offset = mappedRecords.get(key);
+		if (offset != null) {
+			try {
+				ByteBuffer payload = payload(mapped.duplicate(), offset);
+				readString(payload);
+				int count = payload.getInt();
+				Properties properties = new Properties();
+				for (int i = 0; i < count; i++) {
+					properties.setProperty(readString(payload), readString(payload));
+				}
+				return properties;
+			} catch (BufferUnderflowException | IllegalArgumentException e) {
+				// can't use the headers then...
+			}
+		}
+		return new Properties();
+	}
+
+	@Override
+	public void store(File file, Properties header) throws IOException {
+		String key = getKey(file);
+		Properties properties = copy(header);
+		ByteBuffer record = encode(key, properties);
+		synchronized (appendLock) {
+			FileChannel channel = getAppendChannel();
+			while (channel != null && record.hasRemaining()) {
+				channel.write(record);
+			}
+		}
+		updatedRecords.put(key, properties);
+	}
+
+	@Override
+	public void close() throws IOException {
+		synchronized (appendLock) {
+			closed = true;
+			if (appendChannel != null) {
+				appendChannel.close();
+				appendChannel = null;
+			}
+		}
+	}
+
+	/**
+	 * @return the channel to append records to the current log or <code>null</code> if there is no
+	 *         log (anymore)
+	 */
+	private FileChannel getAppendChannel() throws IOException {
+		if (closed) {
+			throw new ClosedChannelException();
+		}
+		Object fileKey;
+		try {
+			fileKey = Files.readAttributes(logFile, BasicFileAttributes.class).fileKey();
+		} catch (NoSuchFileException e) {
+			// deleted, keep the records in memory only
+			return null;
+		}
+		if (appendChannel == null || fileKey != null && !fileKey.equals(appendFileKey)) {
+			// first write or the log was replaced (compacted) by another process
+			if (appendChannel != null) {
+				appendChannel.close();
+			}
+			appendChannel = FileChannel.open(logFile, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+			appendFileKey = fileKey;
+		}
+		return appendChannel;
+	}
+
+	/**
+	 * Creates the log if necessary and compacts it if it contains mostly superseded records, must
+	 * be called while holding the lock of the store. Compaction happens before the log is mapped as
+	 * a mapped or opened file can't be replaced on all platforms.
+	 */
+	private void initialize(int minCompactRecords) throws IOException {
+		ByteBuffer log = null;
+		try (FileChannel channel = FileChannel.open(logFile, StandardOpenOption.CREATE, StandardOpenOption.READ,
+				StandardOpenOption.WRITE)) {
+			long size = channel.size();
+			if (size >= FILE_HEADER_SIZE) {
+				ByteBuffer header = ByteBuffer.allocate(FILE_HEADER_SIZE);
+				channel.read(header, 0);
+				header.flip();
+				if (header.getInt() == MAGIC && header.getInt() == VERSION) {
+					if (size < (long) minCompactRecords * MIN_RECORD_SIZE || size > Integer.MAX_VALUE) {
+						// can't contain enough records to be worth compacting
+						return;
+					}
+					log = ByteBuffer.allocate((int) size);
+					while (log.hasRemaining() && channel.read(log, log.position()) >= 0) {
+						// read the whole log...
+					}
+					log.flip();
+				}
+			}
+			if (log == null && size < FILE_HEADER_SIZE) {
+				// new file, it only grows so this is safe even if others have it mapped
+				channel.write(ByteBuffer.allocate(FILE_HEADER_SIZE).putInt(MAGIC).putInt(VERSION).flip(), 0);
+				return;
+			}
+		}
+		if (log == null) {
+			// broken file, start from scratch
+			replaceLog(List.of());
+			return;
+		}
+		compactIfNeeded(log, minCompactRecords);
+	}
+
+	private ByteBuffer map() throws IOException {
+		try (FileChannel channel = FileChannel.open(logFile, StandardOpenOption.READ)) {
+			return channel.map(MapMode.READ_ONLY, 0, channel.size());
+		}
+	}
+
+	/**
+	 * Scans the given log content for valid records
+	 *
+	 * @param records
+	 *            receives the offset of the most recent record of each key
+	 * @return the total number of valid records found
+	 */
+	private static int scan(ByteBuffer log, Map<String, Integer> records) {
+		ByteBuffer buffer = log.duplicate();
+		buffer.position(FILE_HEADER_SIZE);
+		int count = 0;
+		while (buffer.remaining() >= RECORD_HEADER_SIZE) {
+			int offset = buffer.position();
+			int length = buffer.getInt();
+			int checksum = buffer.getInt();
+			if (length <= 0 || length > buffer.remaining()) {
+				// truncated record at the end of the log
+				break;
+			}
+			ByteBuffer payload = buffer.slice(buffer.position(), length);
+			buffer.position(buffer.position() + length);
+			if (checksum(payload) != checksum) {
+				continue;
+			}
+			try {
+				records.put(readString(payload), offset);
+				count++;
+			} catch (BufferUnderflowException | IllegalArgumentException e) {
+				// skip broken record
+			}
+		}
+		return count;
+	}
+
+	/**
+	 * Rewrites the log so that it only contains the most recent record for each key if it contains
+	 * mostly superseded records. The new log is written to a temporary file that then replaces the
+	 * current one.
+	 */
+	private void compactIfNeeded(ByteBuffer log, int minCompactRecords) throws IOException {
+		Map<String, Integer> records = new HashMap<>();
+		int count = scan(log, records);
+		if (count < minCompactRecords || count <= 2 * records.size()) {
+			return;
+		}
+		List<ByteBuffer> current = records.values().stream().sorted(Comparator.naturalOrder())
+				.map(offset -> log.slice(offset, RECORD_HEADER_SIZE + log.getInt(offset))).toList();
+		try {
+			replaceLog(current);
+		} catch (IOException e) {
+			// the file might be in use by another process (e.g. on windows), simply try again next
+			// time...
+		}
+	}
+
+	/**
+	 * Replaces the log by a new one with the given records. The new log is written to a temporary
+	 * file that then replaces the current one, so processes that have the current log mapped can
+	 * continue to use it.
+	 */
+	private void replaceLog(Collection<ByteBuffer> records) throws IOException {
+		Path tempFile = Files.createTempFile(root, FILE_NAME, ".tmp");
+		try {
+			try (FileChannel out = FileChannel.open(tempFile, StandardOpenOption.WRITE)) {
+				out.write(ByteBuffer.allocate(FILE_HEADER_SIZE).putInt(MAGIC).putInt(VERSION).flip());
+				for (ByteBuffer record : records) {
+					while (record.hasRemaining()) {
+						out.write(record);
+					}
+				}
+			}
+			Files.move(tempFile, logFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+		} finally {
+			Files.deleteIfExists(tempFile);
+		}
+	}
+
+	private String getKey(File file) {
+		Path path = file.toPath();
+		if (path.startsWith(root)) {
+			return root.relativize(path).toString().replace(File.separatorChar, '/');
+		}
+		return path.toString();
+	}
+
+	private static ByteBuffer payload(ByteBuffer buffer, int offset) {
+		int length = buffer.getInt(offset);
+		return buffer.slice(offset + RECORD_HEADER_SIZE, length);
+	}
+
+	private static ByteBuffer encode(String key, Properties properties) {
+		byte[][] strings = new byte[1 + properties.size() * 2][];
+		int index = 0;
+		strings[index++] = key.getBytes(StandardCharsets.UTF_8);
+		for (String name : properties.stringPropertyNames()) {
+			strings[index++] = name.getBytes(StandardCharsets.UTF_8);
+			strings[index++] = properties.getProperty(name).getBytes(StandardCharsets.UTF_8);
+		}
+		int length = Integer.BYTES;
+		for (int i = 0; i < index; i++) {
+			length += Integer.BYTES + strings[i].length;
+		}
+		ByteBuffer payload = ByteBuffer.allocate(length);
+		writeString(payload, strings[0]);
+		payload.putInt((index - 1) / 2);
+		for (int i = 1; i < index; i++) {
+			writeString(payload, strings[i]);
+		}
+		payload.flip();
+		ByteBuffer record = ByteBuffer.allocate(RECORD_HEADER_SIZE + length);
+		record.putInt(length);
+		record.putInt(checksum(payload));
+		record.put(payload);
+		return record.flip();
+	}
+
+	private static void writeString(ByteBuffer buffer, byte[] bytes) {
+		buffer.putInt(bytes.length);
+		buffer.put(bytes);
+	}
+
+	private static String readString(ByteBuffer buffer) {
+		int length = buffer.getInt();
+		if (length < 0 || length > buffer.remaining()) {
+			throw new IllegalArgumentException("invalid string length " + length);
+		}
+		byte[] bytes = new byte[length];
+		buffer.get(bytes);
+		return new String(bytes, StandardCharsets.UTF_8);
+	}
+
+	private static int checksum(ByteBuffer payload) {
+		CRC32 crc = new CRC32();
+		crc.update(payload.duplicate());
+		return (int) crc.getValue();
+	}
+
+	private static Properties copy(Properties properties) {
+		Properties copy = new Properties();
+		copy.putAll(properties);
+		return copy;
+	}
+
+}
@@ -26,18 +26,25 @@ import org.eclipse.tycho.TychoConstants;
 @Component(role = TransportCacheConfig.class)
 public class DefaultTransportCacheConfig implements TransportCacheConfig, Initializable {
 
+	private static final String HEADER_FORMAT_PROPERTY = "tycho.p2.transport.cache.headers";
+	private static final String BACKGROUND_REFRESH_PROPERTY = "tycho.p2.transport.cache.background-refresh";
+
 	private boolean offline;
 	private boolean update;
 	private boolean interactive;
+	private boolean backgroundRefresh;
 
 	@Requirement
 	private LegacySupport legacySupport;
 	private File cacheLocation;
+	private HeaderFormat headerFormat;
 
 	@Override
 	public void initialize() throws InitializationException {
 		File repoDir;
 		MavenSession session = legacySupport.getSession();
+		String format = System.getProperty(HEADER_FORMAT_PROPERTY);
+		String refresh = System.getProperty(BACKGROUND_REFRESH_PROPERTY);
 		if (session == null) {
 			repoDir = TychoConstants.DEFAULT_USER_LOCALREPOSITORY;
 			offline = false;
@@ -48,6 +55,14 @@ public class DefaultTransportCacheConfig implements TransportCacheConfig, Initia
 			repoDir = new File(session.getLocalRepository().getBasedir());
 			update = session.getRequest().isUpdateSnapshots();
 			interactive = session.getRequest().isInteractiveMode() && showTransferProgress(session);
+			format = session.getUserProperties().getProperty(HEADER_FORMAT_PROPERTY, format);
+			refresh = session.getUserProperties().getProperty(BACKGROUND_REFRESH_PROPERTY, refresh);
+		}
+		backgroundRefresh = Boolean.parseBoolean(refresh);
+		try {
+			headerFormat = format == null ? HeaderFormat.PROPERTIES : HeaderFormat.valueOf(format.toUpperCase());
+		} catch (IllegalArgumentException e) {
+			throw new InitializationException("Invalid value '" + format + "' for " + HEADER_FORMAT_PROPERTY, e);
 		}
 
 		cacheLocation = new File(repoDir, ".cache/tycho");
@@ -82,4 +97,14 @@ public class DefaultTransportCacheConfig implements TransportCacheConfig, Initia
 		return cacheLocation;
 	}
 
+	@Override
+	public boolean isBackgroundRefresh() {
+		return backgroundRefresh;
+	}
+
+	@Override
+	public HeaderFormat getHeaderFormat() {
+		return headerFormat;
+	}
+
 }
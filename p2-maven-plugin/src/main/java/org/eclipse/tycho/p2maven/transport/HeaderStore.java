@@ -0,0 +1,54 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Christoph Läubrich and others.
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *    Christoph Läubrich - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.tycho.p2maven.transport;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.util.Properties;
+
+/**
+ * Persists the (filtered) response headers of a cached file, these are used to decide if a
+ * cached file is still valid and to remember not found or redirect responses.
+ */
+interface HeaderStore extends Closeable {
+
+	/**
+	 * Loads the headers stored for the given cache file
+	 * 
+	 * @param file
+	 *            the cache file
+	 * @return the stored headers or an empty {@link Properties} object if nothing is stored
+	 */
+	Properties load(File file);
+
+	/**
+	 * Stores the headers for the given cache file replacing any previously stored headers
+	 * 
+	 * @param file
+	 *            the cache file
+	 * @param header
+	 *            the headers to store
+	 * @throws IOException
+	 *             if storing failed
+	 */
+	void store(File file, Properties header) throws IOException;
+
+	/**
+	 * Releases the resources of this store, it must not be used afterwards
+	 */
+	@Override
+	default void close() throws IOException {
+	}
+
+}
@@ -0,0 +1,54 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Christoph Läubrich and others.
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *    Christoph Läubrich - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.tycho.p2maven.transport;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.Properties;
+
+import org.apache.commons.io.FileUtils;
+
+/**
+ * Stores the headers as a <code>.headers</code> properties file next to the cache file.
+ */
+final class PropertiesHeaderStore implements HeaderStore {
+
+	@Override
+	public Properties load(File file) {
+		Properties properties = new Properties();
+		File headerFile = getHeaderFile(file);
+		if (headerFile.isFile()) {
+			try (FileInputStream stream = new FileInputStream(headerFile)) {
+				properties.load(stream);
+			} catch (IOException e) {
+				// can't use the headers then...
+			}
+		}
+		return properties;
+	}
+
+	@Override
+	public void store(File file, Properties header) throws IOException {
+		FileUtils.forceMkdir(file.getParentFile());
+		try (FileOutputStream out = new FileOutputStream(getHeaderFile(file))) {
+			header.store(out, null);
+		}
+	}
+
+	private static File getHeaderFile(File file) {
+		return new File(file.getParent(), file.getName() + ".headers");
+	}
+
+}
@@ -13,23 +13,31 @@
 package org.eclipse.tycho.p2maven.transport;
 
 import java.io.File;
-import java.io.FileInputStream;
 import java.io.FileNotFoundException;
 import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.InterruptedIOException;
 import java.net.HttpURLConnection;
 import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
 import java.text.DateFormat;
 import java.text.ParseException;
 import java.text.SimpleDateFormat;
+import java.util.Comparator;
 import java.util.Date;
-import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.util.Properties;
 import java.util.TimeZone;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.ReentrantLock;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 
@@ -37,11 +45,18 @@ import org.apache.commons.io.FileUtils;
 import org.codehaus.plexus.component.annotations.Component;
 import org.codehaus.plexus.component.annotations.Requirement;
 import org.codehaus.plexus.logging.Logger;
+import org.codehaus.plexus.personality.plexus.lifecycle.phase.Disposable;
+import org.codehaus.plexus.personality.plexus.lifecycle.phase.Initializable;
+import org.codehaus.plexus.personality.plexus.lifecycle.phase.InitializationException;
 import org.eclipse.equinox.internal.p2.repository.AuthenticationFailedException;
 
 @Component(role = HttpCache.class)
-public class SharedHttpCacheStorage implements HttpCache {
+public class SharedHttpCacheStorage implements HttpCache, Initializable, Disposable {
 
+	/**
+	 * Maximum number of cache lines kept in memory, once exceeded the least recently used
+	 * (idle) lines are evicted
+	 */
 	private static final int MAX_CACHE_LINES = Integer.getInteger("tycho.p2.transport.max-cache-lines", 1000);
 	/**
 	 * Assumes the following minimum caching period for remote files in minutes
@@ -49,25 +64,45 @@ public class SharedHttpCacheStorage implements HttpCache {
 	// TODO can we sync this with the time where maven updates snapshots?
 	public static final long MIN_CACHE_PERIOD = Long.getLong("tycho.p2.transport.min-cache-minutes",
 			TimeUnit.HOURS.toMinutes(1));
-	private static final int MAX_IN_MEMORY = 1000;
 
 	@Requirement
 	TransportCacheConfig cacheConfig;
 
-	private final Map<File, CacheLine> entryCache;
+	@Requirement
+	Logger logger;
 
-	public SharedHttpCacheStorage() {
+	private HeaderStore headerStore;
 
-		entryCache = new LinkedHashMap<>(MAX_CACHE_LINES, 0.75f, true) {
+	private final Map<File, CacheLine> entryCache = new ConcurrentHashMap<>();
 
-			private static final long serialVersionUID = 1L;
+	private final AtomicLong accessClock = new AtomicLong();
 
-			@Override
-			protected boolean removeEldestEntry(final Map.Entry<File, CacheLine> eldest) {
-				return (size() > MAX_IN_MEMORY);
+	private final ReentrantLock evictionLock = new ReentrantLock();
+
+	@Override
+	public void initialize() throws InitializationException {
+		if (cacheConfig.getHeaderFormat() == TransportCacheConfig.HeaderFormat.BINARY) {
+			try {
+				headerStore = new BinaryHeaderStore(cacheConfig.getCacheLocation());
+				return;
+			} catch (IOException e) {
+				logger.warn("Can't open binary header store in " + cacheConfig.getCacheLocation()
+						+ ", falling back to properties files: " + e);
 			}
+		}
+		headerStore = new PropertiesHeaderStore();
+	}
 
-		};
+	@Override
+	public void dispose() {
+		if (headerStore == null) {
+			return;
+		}
+		try {
+			headerStore.close();
+		} catch (IOException e) {
+			// nothing we can do...
+		}
 	}
 
 	/**
@@ -137,7 +172,7 @@ public class SharedHttpCacheStorage implements HttpCache {
 		};
 	}
 
-	private synchronized CacheLine getCacheLine(URI uri) {
+	private CacheLine getCacheLine(URI uri) {
 		String cleanPath = uri.normalize().toASCIIString().replace(':', '/').replace('?', '/').replace('&', '/')
 				.replace('*', '/').replaceAll("/+", "/");
 		if (cleanPath.endsWith("/")) {
@@ -152,8 +187,37 @@ public class SharedHttpCacheStorage implements HttpCache {
 		} catch (IOException e) {
 			location = file.getAbsoluteFile();
 		}
-		return entryCache.computeIfAbsent(location, CacheLine::new);
+		CacheLine cacheLine = entryCache.computeIfAbsent(location, CacheLine::new);
+		cacheLine.lastAccess = accessClock.incrementAndGet();
+		if (entryCache.size() > MAX_CACHE_LINES) {
+			evictCacheLines();
+		}
+		return cacheLine;
+	}
 
+	/**
+	 * Removes the least recently used cache lines until the cache is below its limit again. Lines
+	 * that currently have a request in flight are never evicted so concurrent callers still share
+	 * the same line. If another thread is already evicting, this is a no-op as there is no need to
+	 * wait for it.
+	 */
+	private void evictCacheLines() {
+		if (!evictionLock.tryLock()) {
+			return;
+		}
+		try {
+			int excess = entryCache.size() - MAX_CACHE_LINES;
+			if (excess <= 0) {
+				return;
+			}
+			// evict a bit more than needed so we do not need to sort again on the next access
+			int evict = Math.max(excess, MAX_CACHE_LINES / 10);
+			entryCache.entrySet().stream().filter(entry -> !entry.getValue().isBusy())
+					.sorted(Comparator.comparingLong(entry -> entry.getValue().lastAccess)).limit(evict).toList()
+					.forEach(entry -> entryCache.remove(entry.getKey(), entry.getValue()));
+		} finally {
+			evictionLock.unlock();
+		}
 	}
 
 	private final class CacheLine {
@@ -161,43 +225,35 @@ public class SharedHttpCacheStorage implements HttpCache {
 		private static final String RESPONSE_CODE = "HTTP_RESPONSE_CODE";
 		private static final String LAST_UPDATED = "FILE-LAST_UPDATED";
 		private static final String STATUS_LINE = "HTTP_STATUS_LINE";
+		private static final String LOCATION_HEADER = "location";
 		private final File file;
-		private final File headerFile;
-		private Properties header;
+		private volatile Properties header;
 		private final DateFormat httpDateFormat = new SimpleDateFormat("EEE, dd MMM yyyy HH:mm:ss z", Locale.US);
+		private final AtomicReference<CompletableFuture<File>> pendingFetch = new AtomicReference<>();
+		private volatile long lastAccess;
 
 		public CacheLine(File file) {
 			this.file = file;
-			this.headerFile = new File(file.getParent(), file.getName() + ".headers");
 			httpDateFormat.setTimeZone(TimeZone.getTimeZone("GMT"));
 		}
 
-		public synchronized long fetchLastModified(URI uri, HttpTransportFactory transportFactory, Logger logger)
+		public long fetchLastModified(URI uri, HttpTransportFactory transportFactory, Logger logger)
 				throws IOException {
-			// TODO its very likely that the file is downloaded here if it has changed... so
-			// probably just download it right now?
-			HttpTransport transport = transportFactory.createTransport(uri);
-
-			try (Headers response = transport.head()) {
-				int code = response.statusCode();
-				if (isAuthFailure(code)) {
-					throw new AuthenticationFailedException(); // FIXME why is there no constructor to give a cause?
-				}
-				if (isNotFound(code)) {
-					updateHeader(response, code);
-					throw new FileNotFoundException(uri.toString());
-				}
-				if (isRedirected(code)) {
-					updateHeader(response, code);
-					return SharedHttpCacheStorage.this.getCacheEntry(uri, logger).getLastModified(transportFactory);
-				}
-				return response.getLastModified();
-			}
+			// a conditional request costs the same round trip as a HEAD request if the file has not
+			// changed, but if it has changed it is very likely that it will be downloaded next
+			// anyways, so simply fetch the file and use the stored headers
+			fetchFile(uri, transportFactory, logger);
+			return getLastModified(uri, transportFactory, SharedHttpCacheStorage::notCached, logger);
 		}
 
-		public synchronized long getLastModified(URI uri, HttpTransportFactory transportFactory,
+		/**
+		 * Returns the last modified date from the stored headers, this never waits for a request
+		 * in flight but uses the headers that are currently published.
+		 */
+		public long getLastModified(URI uri, HttpTransportFactory transportFactory,
 				Function<URI, IOException> notAviableExceptionSupplier, Logger logger) throws IOException {
-			int code = getResponseCode();
+			Properties offlineHeader = getHeader();
+			int code = getResponseCode(offlineHeader);
 			if (code > 0) {
 				if (isAuthFailure(code)) {
 					throw new AuthenticationFailedException(); // FIXME why is there no constructor to give a cause?
@@ -206,9 +262,10 @@ public class SharedHttpCacheStorage implements HttpCache {
 					throw new FileNotFoundException(uri.toString());
 				}
 				if (isRedirected(code)) {
-					return SharedHttpCacheStorage.this.getCacheEntry(uri, logger).getLastModified(transportFactory);
+					return SharedHttpCacheStorage.this
+							.getCacheEntry(getRedirect(uri, offlineHeader.getProperty(LOCATION_HEADER)), logger)
+							.getLastModified(transportFactory);
 				}
-				Properties offlineHeader = getHeader();
 				Date lastModified = pareHttpDate(offlineHeader.getProperty(Headers.LAST_MODIFIED_HEADER.toLowerCase()));
 				if (lastModified != null) {
 					return lastModified.getTime();
@@ -219,37 +276,119 @@ public class SharedHttpCacheStorage implements HttpCache {
 			}
 		}
 
-		public synchronized File fetchFile(URI uri, HttpTransportFactory transportFactory, Logger logger)
-				throws IOException {
+		boolean isBusy() {
+			return pendingFetch.get() != null;
+		}
+
+		/**
+		 * Fetches the file for this line, if another thread is already fetching it the caller waits
+		 * for that request to complete and shares its result instead of issuing a request on its
+		 * own.
+		 */
+		public File fetchFile(URI uri, HttpTransportFactory transportFactory, Logger logger) throws IOException {
+			if (file.isFile() && mustValidate() && canServeStale()) {
+				// use what we have and refresh it for subsequent calls
+				CompletableFuture<File> future = new CompletableFuture<>();
+				if (pendingFetch.compareAndSet(null, future)) {
+					TychoRepositoryTransport.getDownloadExecutor().execute(() -> {
+						try {
+							runFetch(future, uri, transportFactory, true, logger);
+						} catch (IOException | RuntimeException e) {
+							logger.debug("Background refresh of " + uri + " failed: " + e);
+						}
+					});
+				}
+				return file;
+			}
+			CompletableFuture<File> future = new CompletableFuture<>();
+			CompletableFuture<File> pending = pendingFetch.compareAndExchange(null, future);
+			if (pending != null) {
+				return awaitFetch(pending);
+			}
+			return runFetch(future, uri, transportFactory, false, logger);
+		}
+
+		private File runFetch(CompletableFuture<File> future, URI uri, HttpTransportFactory transportFactory,
+				boolean background, Logger logger) throws IOException {
+			try {
+				File result = doFetchFile(uri, transportFactory, background, logger);
+				future.complete(result);
+				return result;
+			} catch (IOException | RuntimeException e) {
+				future.completeExceptionally(e);
+				throw e;
+			} finally {
+				pendingFetch.set(null);
+			}
+		}
+
+		private File awaitFetch(CompletableFuture<File> pending) throws IOException {
+			try {
+				return pending.get();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				throw new InterruptedIOException();
+			} catch (ExecutionException e) {
+				Throwable cause = e.getCause();
+				if (cause instanceof IOException io) {
+					throw io;
+				}
+				if (cause instanceof RuntimeException rte) {
+					throw rte;
+				}
+				throw new IOException(cause);
+			}
+		}
+
+		/**
+		 * Fetches the file from the server
+		 * 
+		 * @param background
+		 *            <code>true</code> if this is a background refresh of a file that was already
+		 *            served, in this case the cached file and headers are kept if the server
+		 *            responds with an error
+		 */
+		private synchronized File doFetchFile(URI uri, HttpTransportFactory transportFactory, boolean background,
+				Logger logger) throws IOException {
 			boolean exits = file.isFile();
 			if (exits && !mustValidate()) {
 				return file;
 			}
 			HttpTransport transport = transportFactory.createTransport(uri);
 			Properties lastHeader = getHeader();
-			if (exits) {
-				if (lastHeader.containsKey(Headers.ETAG_HEADER.toLowerCase())) {
-					transport.setHeader("If-None-Match", lastHeader.getProperty(Headers.ETAG_HEADER.toLowerCase()));
+			if (exits && getResponseCode() == HttpURLConnection.HTTP_OK) {
+				// only send validators if we actually have the content they refer to
+				String etag = lastHeader.getProperty(Headers.ETAG_HEADER.toLowerCase());
+				if (etag != null) {
+					transport.setHeader(Headers.IF_NONE_MATCH_HEADER, etag);
 				}
-				if (lastHeader.contains(Headers.LAST_MODIFIED_HEADER.toLowerCase())) {
-					transport.setHeader("If-Modified-Since",
-							lastHeader.getProperty(Headers.LAST_MODIFIED_HEADER.toLowerCase()));
+				String lastModified = lastHeader.getProperty(Headers.LAST_MODIFIED_HEADER.toLowerCase());
+				if (lastModified != null) {
+					transport.setHeader(Headers.IF_MODIFIED_SINCE_HEADER, lastModified);
 				}
 			}
 			transport.setHeader(Headers.HEADER_ACCEPT_ENCODING, Headers.ENCODING_GZIP);
 			return transport.get(response -> {
-				File tempFile;
 				int code = response.statusCode();
 				if (exits && code == HttpURLConnection.HTTP_NOT_MODIFIED) {
-					updateHeader(response, getResponseCode());
+					// nothing has changed, a 304 response might only contain a subset of the
+					// headers so we keep the stored ones and only update what was sent
+					storeHeader(lastHeader, response, getResponseCode());
 					return file;
 				}
+				if (background && (isAuthFailure(code) || code >= HttpURLConnection.HTTP_BAD_REQUEST)) {
+					// the stale file was already served and is still valid, a (maybe temporary)
+					// error must not break it so keep the file and headers and try again later
+					throw new IOException("Server returned HTTP code: " + code + " for URL " + uri
+							+ ", keeping the cached file");
+				}
 				if (isAuthFailure(code)) {
 					throw new AuthenticationFailedException(); // FIXME why is there no constructor to give a cause?
 				}
-				updateHeader(response, code);
 				if (isRedirected(code)) {
-					File cachedFile = SharedHttpCacheStorage.this.getCacheEntry(getRedirect(uri), logger)
+					URI redirect = getRedirect(uri, response.getHeader(LOCATION_HEADER));
+					response.close(); // early close before doing unrelated file I/O
+					File cachedFile = SharedHttpCacheStorage.this.getCacheEntry(redirect, logger)
 							.getCacheFile(transportFactory);
 					// https://github.com/eclipse-tycho/tycho/issues/2938
 					// Redirect may change extension. P2's SimpleMetadataRepositoryFactory relies on
@@ -257,15 +396,26 @@ public class SharedHttpCacheStorage implements HttpCache {
 					// Copying file to accommodate original request and its file extension.
 					// Once https://github.com/eclipse-equinox/p2/issues/355 is fixed, cachedFile
 					// may be returned directly without copying.
-					response.close(); // early close before doing unrelated file I/O
-					FileUtils.copyFile(cachedFile, file);
+					File tempFile = createTempFile();
+					try {
+						FileUtils.copyFile(cachedFile, tempFile);
+					} catch (IOException e) {
+						tempFile.delete();
+						throw e;
+					}
+					replaceFile(tempFile);
+					updateHeader(response, code);
 					return file;
 				}
-				if (exits) {
-					FileUtils.forceDelete(file);
+				if (code >= HttpURLConnection.HTTP_BAD_REQUEST) {
+					// remember the error (e.g. a not found response) for subsequent requests
+					updateHeader(response, code);
+					if (exits) {
+						FileUtils.forceDelete(file);
+					}
+					response.checkResponseCode();
 				}
-				response.checkResponseCode();
-				tempFile = File.createTempFile("download", ".tmp", file.getParentFile());
+				File tempFile = createTempFile();
 				try (FileOutputStream os = new FileOutputStream(tempFile)) {
 					response.transferTo(os);
 				} catch (IOException e) {
@@ -273,15 +423,23 @@ public class SharedHttpCacheStorage implements HttpCache {
 					throw e;
 				}
 				response.close(); // early close before doing file I/O
-				FileUtils.moveFile(tempFile, file);
+				replaceFile(tempFile);
+				// only store the headers once the content they describe is in place
+				updateHeader(response, code);
 				return file;
 			});
 
 		}
 
-		public synchronized File getFile(URI uri, HttpTransportFactory transportFactory,
+		/**
+		 * Returns the cached file if the stored headers allow it, like
+		 * {@link #getLastModified(URI, HttpTransportFactory, Function, Logger)} this never waits
+		 * for a request in flight.
+		 */
+		public File getFile(URI uri, HttpTransportFactory transportFactory,
 				Function<URI, IOException> notAviableExceptionSupplier, Logger logger) throws IOException {
-			int code = getResponseCode();
+			Properties offlineHeader = getHeader();
+			int code = getResponseCode(offlineHeader);
 			if (code > 0) {
 				if (isAuthFailure(code)) {
 					throw new AuthenticationFailedException(); // FIXME why is there no constructor to give a cause?
@@ -290,7 +448,8 @@ public class SharedHttpCacheStorage implements HttpCache {
 					throw new FileNotFoundException(uri.toString());
 				}
 				if (isRedirected(code)) {
-					return SharedHttpCacheStorage.this.getCacheEntry(getRedirect(uri), logger)
+					return SharedHttpCacheStorage.this
+							.getCacheEntry(getRedirect(uri, offlineHeader.getProperty(LOCATION_HEADER)), logger)
 							.getCacheFile(transportFactory);
 				}
 				if (file.isFile()) {
@@ -300,6 +459,64 @@ public class SharedHttpCacheStorage implements HttpCache {
 			throw notAviableExceptionSupplier.apply(uri);
 		}
 
+		private File createTempFile() throws IOException {
+			FileUtils.forceMkdir(file.getParentFile());
+			return File.createTempFile("download", ".tmp", file.getParentFile());
+		}
+
+		/**
+		 * Replaces the cached file with the downloaded one, so concurrent readers either see the
+		 * old or the new content but never a missing file.
+		 */
+		private void replaceFile(File tempFile) throws IOException {
+			try {
+				Files.move(tempFile.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING,
+						StandardCopyOption.ATOMIC_MOVE);
+			} catch (IOException e) {
+				// e.g. the file is currently open on windows or atomic moves are not supported
+				if (file.exists()) {
+					FileUtils.forceDelete(file);
+				}
+				FileUtils.moveFile(tempFile, file);
+			}
+		}
+
+		/**
+		 * Checks if a cached file that must be validated can still be used while it is refreshed
+		 * in the background, either because the user enabled this or the server allows it with a
+		 * <code>stale-while-revalidate</code> directive.
+		 */
+		private boolean canServeStale() {
+			if (cacheConfig.isUpdate() || getResponseCode() != HttpURLConnection.HTTP_OK) {
+				return false;
+			}
+			if (cacheConfig.isBackgroundRefresh()) {
+				return true;
+			}
+			long staleWhileRevalidate = getCacheControlSeconds(Headers.STALE_WHILE_REVALIDATE_DIRECTIVE);
+			if (staleWhileRevalidate > 0) {
+				long lastUpdated = parseLong(getHeader().getProperty(LAST_UPDATED));
+				long maxAge = Math.max(0, getCacheControlSeconds(Headers.MAX_AGE_DIRECTIVE));
+				return lastUpdated + TimeUnit.SECONDS.toMillis(maxAge + staleWhileRevalidate) > System
+						.currentTimeMillis();
+			}
+			return false;
+		}
+
+		/**
+		 * @return the value of the given <code>Cache-Control</code> directive in seconds or
+		 *         <code>-1</code> if it is not present
+		 */
+		private long getCacheControlSeconds(String name) {
+			for (String directive : getCacheControl()) {
+				String lc = directive.toLowerCase();
+				if (lc.startsWith(name + "=")) {
+					return parseLong(lc.substring(name.length() + 1));
+				}
+			}
+			return -1;
+		}
+
 		private boolean mustValidate() {
 			if (cacheConfig.isUpdate()) {
 				// user enforced validation
@@ -319,18 +536,16 @@ public class SharedHttpCacheStorage implements HttpCache {
 			}
 			// Cache-Control header with "max-age" directive takes precedence over Expires
 			// Header.
-			for (String directive : cacheControls) {
-				if (directive.toLowerCase().startsWith(Headers.MAX_AGE_DIRECTIVE)) {
-					long maxAge = parseLong(directive.substring(Headers.MAX_AGE_DIRECTIVE.length() + 1));
-					if (maxAge <= 0) {
-						return true;
-					}
-					return (lastUpdated + TimeUnit.SECONDS.toMillis(maxAge)) < System.currentTimeMillis();
+			long maxAge = getCacheControlSeconds(Headers.MAX_AGE_DIRECTIVE);
+			if (maxAge >= 0) {
+				if (maxAge == 0) {
+					return true;
 				}
+				return (lastUpdated + TimeUnit.SECONDS.toMillis(maxAge)) < System.currentTimeMillis();
 			}
 			Date expiresDate = pareHttpDate(properties.getProperty(Headers.EXPIRES_HEADER.toLowerCase()));
 			if (expiresDate != null) {
-				return expiresDate.after(new Date());
+				return !expiresDate.after(new Date());
 			}
 			return true;
 		}
@@ -347,7 +562,7 @@ public class SharedHttpCacheStorage implements HttpCache {
 		}
 
 		private String[] getCacheControl() {
-			String property = getHeader().getProperty(Headers.CACHE_CONTROL_HEADER);
+			String property = getHeader().getProperty(Headers.CACHE_CONTROL_HEADER.toLowerCase());
 			if (property != null) {
 				return property.split(",\\s*");
 			}
@@ -359,7 +574,12 @@ public class SharedHttpCacheStorage implements HttpCache {
 		}
 
 		protected void updateHeader(Headers response, int code) throws IOException, FileNotFoundException {
-			header = new Properties();
+			storeHeader(new Properties(), response, code);
+		}
+
+		private void storeHeader(Properties base, Headers response, int code) throws IOException {
+			Properties header = new Properties();
+			header.putAll(base);
 			header.setProperty(RESPONSE_CODE, String.valueOf(code));
 			header.setProperty(LAST_UPDATED, String.valueOf(System.currentTimeMillis()));
 			Map<String, List<String>> headerFields = response.headers();
@@ -390,30 +610,39 @@ public class SharedHttpCacheStorage implements HttpCache {
 				}
 			}
 			FileUtils.forceMkdir(file.getParentFile());
-			try (FileOutputStream out = new FileOutputStream(headerFile)) {
-				// we store the header here, this might be a 404 response or (permanent)
-				// redirect we probably need to work with later on
-				header.store(out, null);
-			}
+			// we store the header here, this might be a 404 response or (permanent)
+			// redirect we probably need to work with later on
+			headerStore.store(file, header);
+			this.header = header;
 		}
 
-		private synchronized Date pareHttpDate(String input) {
+		private Date pareHttpDate(String input) {
 			if (input != null) {
-				try {
-					return httpDateFormat.parse(input);
-				} catch (ParseException e) {
-					// can't use it then..
+				// not guarded by the line itself as that is held while a file is downloaded
+				synchronized (httpDateFormat) {
+					try {
+						return httpDateFormat.parse(input);
+					} catch (ParseException e) {
+						// can't use it then..
+					}
 				}
 			}
 			return null;
 		}
 
 		public int getResponseCode() {
-			return Integer.parseInt(getHeader().getProperty(RESPONSE_CODE, "-1"));
+			return getResponseCode(getHeader());
+		}
+
+		private static int getResponseCode(Properties header) {
+			return Integer.parseInt(header.getProperty(RESPONSE_CODE, "-1"));
 		}
 
 		public URI getRedirect(URI base) throws FileNotFoundException {
-			String location = getHeader().getProperty("location");
+			return getRedirect(base, getHeader().getProperty(LOCATION_HEADER));
+		}
+
+		private URI getRedirect(URI base, String location) throws FileNotFoundException {
 			if (location == null) {
 				throw new FileNotFoundException(base.toASCIIString());
 			}
@@ -421,17 +650,14 @@ public class SharedHttpCacheStorage implements HttpCache {
 		}
 
 		public Properties getHeader() {
-			if (header == null) {
-				header = new Properties();
-				if (headerFile.isFile()) {
-					try {
-						header.load(new FileInputStream(headerFile));
-					} catch (IOException e) {
-						// can't use the headers then...
-					}
-				}
+			Properties properties = header;
+			if (properties == null) {
+				// cache lines are shared between threads, so only publish the header once it is
+				// fully loaded
+				properties = headerStore.load(file);
+				header = properties;
 			}
-			return header;
+			return properties;
 		}
 	}
 
@@ -443,6 +669,10 @@ public class SharedHttpCacheStorage implements HttpCache {
 		return code == HttpURLConnection.HTTP_NOT_FOUND;
 	}
 
+	private static IOException notCached(URI uri) {
+		return new FileNotFoundException("No cached response for " + uri);
+	}
+
 	private static IOException mavenIsOffline(URI uri) {
 		return new IOException("maven is currently in offline mode requested URL " + uri + " does not exist locally!");
 	}
@@ -23,4 +23,26 @@ public interface TransportCacheConfig {
 	boolean isInteractive();
 
 	File getCacheLocation();
+
+	/**
+	 * @return <code>true</code> if cached files that need to be validated should be used right
+	 *         away while they are refreshed in the background
+	 */
+	boolean isBackgroundRefresh();
+
+	/**
+	 * @return the format used to persist the response headers of cached files
+	 */
+	HeaderFormat getHeaderFormat();
+
+	enum HeaderFormat {
+		/**
+		 * one <code>.headers</code> properties file per cached file
+		 */
+		PROPERTIES,
+		/**
+		 * one memory mapped, append-only binary log for all cached files
+		 */
+		BINARY;
+	}
 }
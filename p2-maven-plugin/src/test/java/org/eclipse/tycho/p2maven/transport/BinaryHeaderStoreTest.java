@@ -0,0 +1,196 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Christoph Läubrich and others.
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *    Christoph Läubrich - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.tycho.p2maven.transport;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Properties;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class BinaryHeaderStoreTest {
+
+	@TempDir
+	Path cacheDir;
+
+	@Test
+	public void testUnknownFileHasNoHeaders() throws IOException {
+		BinaryHeaderStore store = new BinaryHeaderStore(cacheDir.toFile());
+
+		assertTrue(store.load(cacheFile("https/example.org/content.xml")).isEmpty());
+	}
+
+	@Test
+	public void testLookupAfterUpdate() throws IOException {
+		BinaryHeaderStore store = new BinaryHeaderStore(cacheDir.toFile());
+		File file = cacheFile("https/example.org/content.xml");
+
+		store.store(file, headers("200", "\"v1\""));
+		assertEquals(headers("200", "\"v1\""), store.load(file));
+
+		store.store(file, headers("200", "\"v2\""));
+		assertEquals(headers("200", "\"v2\""), store.load(file));
+	}
+
+	@Test
+	public void testLookupAfterReopen() throws IOException {
+		File content = cacheFile("https/example.org/content.xml");
+		File artifacts = cacheFile("https/example.org/artifacts.xml");
+		BinaryHeaderStore store = new BinaryHeaderStore(cacheDir.toFile());
+		store.store(content, headers("200", "\"v1\""));
+		store.store(artifacts, headers("404", null));
+		store.store(content, headers("200", "\"v2\""));
+
+		BinaryHeaderStore reopened = new BinaryHeaderStore(cacheDir.toFile());
+
+		assertEquals(headers("200", "\"v2\""), reopened.load(content));
+		assertEquals(headers("404", null), reopened.load(artifacts));
+	}
+
+	@Test
+	public void testCompactKeepsMostRecentRecords() throws IOException {
+		File content = cacheFile("https/example.org/content.xml");
+		File artifacts = cacheFile("https/example.org/artifacts.xml");
+		BinaryHeaderStore store = new BinaryHeaderStore(cacheDir.toFile(), 5);
+		for (int i = 0; i < 20; i++) {
+			store.store(content, headers("200", "\"v" + i + "\""));
+		}
+		store.store(artifacts, headers("200", "\"a\""));
+		Path logFile = cacheDir.resolve(BinaryHeaderStore.FILE_NAME);
+		long sizeBefore = Files.size(logFile);
+
+		BinaryHeaderStore compacted = new BinaryHeaderStore(cacheDir.toFile(), 5);
+
+		assertTrue(Files.size(logFile) < sizeBefore / 5, "log was not compacted");
+		assertEquals(headers("200", "\"v19\""), compacted.load(content));
+		assertEquals(headers("200", "\"a\""), compacted.load(artifacts));
+		try (Stream<Path> files = Files.list(cacheDir)) {
+			assertTrue(files.noneMatch(file -> file.getFileName().toString().endsWith(".tmp")),
+					"temporary file left behind");
+		}
+
+		// the compacted log can be appended to and read again
+		compacted.store(artifacts, headers("200", "\"b\""));
+		BinaryHeaderStore reopened = new BinaryHeaderStore(cacheDir.toFile(), 5);
+		assertEquals(headers("200", "\"v19\""), reopened.load(content));
+		assertEquals(headers("200", "\"b\""), reopened.load(artifacts));
+	}
+
+	@Test
+	public void testNoCompactBelowThreshold() throws IOException {
+		File content = cacheFile("https/example.org/content.xml");
+		BinaryHeaderStore store = new BinaryHeaderStore(cacheDir.toFile(), 100);
+		for (int i = 0; i < 20; i++) {
+			store.store(content, headers("200", "\"v" + i + "\""));
+		}
+		Path logFile = cacheDir.resolve(BinaryHeaderStore.FILE_NAME);
+		long sizeBefore = Files.size(logFile);
+
+		BinaryHeaderStore reopened = new BinaryHeaderStore(cacheDir.toFile(), 100);
+
+		assertEquals(sizeBefore, Files.size(logFile));
+		assertEquals(headers("200", "\"v19\""), reopened.load(content));
+	}
+
+	@Test
+	public void testTruncatedRecordIsIgnored() throws IOException {
+		File content = cacheFile("https/example.org/content.xml");
+		File artifacts = cacheFile("https/example.org/artifacts.xml");
+		BinaryHeaderStore store = new BinaryHeaderStore(cacheDir.toFile());
+		store.store(content, headers("200", "\"v1\""));
+		Path logFile = cacheDir.resolve(BinaryHeaderStore.FILE_NAME);
+		long validSize = Files.size(logFile);
+		store.store(artifacts, headers("200", "\"a\""));
+		byte[] bytes = Files.readAllBytes(logFile);
+		Files.write(logFile, Arrays.copyOf(bytes, (int) validSize + 10));
+
+		BinaryHeaderStore reopened = new BinaryHeaderStore(cacheDir.toFile());
+
+		assertEquals(headers("200", "\"v1\""), reopened.load(content));
+		assertTrue(reopened.load(artifacts).isEmpty());
+	}
+
+	@Test
+	public void testBrokenLogIsReplacedInsteadOfTruncated() throws IOException {
+		Path logFile = cacheDir.resolve(BinaryHeaderStore.FILE_NAME);
+		Files.write(logFile, new byte[100]);
+		try (FileChannel channel = FileChannel.open(logFile, StandardOpenOption.READ)) {
+			// e.g. another process using the log
+			MappedByteBuffer mapped = channel.map(MapMode.READ_ONLY, 0, 100);
+
+			BinaryHeaderStore store = new BinaryHeaderStore(cacheDir.toFile());
+			File content = cacheFile("https/example.org/content.xml");
+			store.store(content, headers("200", "\"v1\""));
+
+			// would fail with an InternalError if the file had been truncated
+			assertEquals(0, mapped.get(99));
+			assertEquals(headers("200", "\"v1\""), new BinaryHeaderStore(cacheDir.toFile()).load(content));
+		}
+	}
+
+	@Test
+	public void testAppendsToLogCompactedByOtherStore() throws IOException {
+		File content = cacheFile("https/example.org/content.xml");
+		File artifacts = cacheFile("https/example.org/artifacts.xml");
+		BinaryHeaderStore store = new BinaryHeaderStore(cacheDir.toFile(), 5);
+		for (int i = 0; i < 20; i++) {
+			store.store(content, headers("200", "\"v" + i + "\""));
+		}
+		// another process compacts (replaces) the log
+		new BinaryHeaderStore(cacheDir.toFile(), 5);
+
+		store.store(artifacts, headers("200", "\"a\""));
+
+		BinaryHeaderStore reopened = new BinaryHeaderStore(cacheDir.toFile(), 5);
+		assertEquals(headers("200", "\"v19\""), reopened.load(content));
+		assertEquals(headers("200", "\"a\""), reopened.load(artifacts));
+	}
+
+	@Test
+	public void testClosedStoreCantBeUpdated() throws IOException {
+		File content = cacheFile("https/example.org/content.xml");
+		BinaryHeaderStore store = new BinaryHeaderStore(cacheDir.toFile());
+		store.store(content, headers("200", "\"v1\""));
+
+		store.close();
+
+		assertThrows(IOException.class, () -> store.store(content, headers("200", "\"v2\"")));
+		assertEquals(headers("200", "\"v1\""), new BinaryHeaderStore(cacheDir.toFile()).load(content));
+	}
+
+	private File cacheFile(String path) {
+		return cacheDir.resolve(path).toFile();
+	}
+
+	private static Properties headers(String code, String etag) {
+		Properties properties = new Properties();
+		properties.setProperty("HTTP_RESPONSE_CODE", code);
+		if (etag != null) {
+			properties.setProperty("etag", etag);
+		}
+		return properties;
+	}
+}
@@ -0,0 +1,194 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Christoph Läubrich and others.
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *    Christoph Läubrich - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.tycho.p2maven.transport;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.codehaus.plexus.logging.console.ConsoleLogger;
+import org.eclipse.tycho.p2maven.transport.Response.ResponseConsumer;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class SharedHttpCacheStorageTest {
+
+	private static final URI CONTENT = URI.create("https://example.org/content.xml");
+	private static final String LAST_MODIFIED = "Mon, 05 Oct 2026 10:15:00 GMT";
+
+	@TempDir
+	Path cacheDir;
+
+	@Test
+	public void testStaleLastModifiedDoesNotWaitForRefresh() throws Exception {
+		File file = cacheDir.resolve("https/example.org/content.xml").toFile();
+		Files.createDirectories(file.getParentFile().toPath());
+		Files.writeString(file.toPath(), "v1");
+		Properties header = new Properties();
+		header.setProperty("HTTP_RESPONSE_CODE", "200");
+		header.setProperty("FILE-LAST_UPDATED", "1");
+		header.setProperty("last-modified", LAST_MODIFIED);
+		try (BinaryHeaderStore store = new BinaryHeaderStore(cacheDir.toFile())) {
+			store.store(file, header);
+		}
+		SharedHttpCacheStorage storage = createStorage();
+		CountDownLatch requestStarted = new CountDownLatch(1);
+		CountDownLatch releaseResponse = new CountDownLatch(1);
+		HttpTransportFactory transportFactory = uri -> new BlockingTransport(uri, requestStarted, releaseResponse);
+		try {
+			CacheEntry entry = storage.getCacheEntry(CONTENT, storage.logger);
+			assertEquals(file.getCanonicalFile(), entry.getCacheFile(transportFactory).getCanonicalFile());
+			assertTrue(requestStarted.await(10, TimeUnit.SECONDS), "background refresh was not started");
+
+			long lastModified = CompletableFuture.supplyAsync(() -> {
+				try {
+					return storage.getCacheEntry(CONTENT, storage.logger).getLastModified(transportFactory);
+				} catch (IOException e) {
+					throw new RuntimeException(e);
+				}
+			}).get(10, TimeUnit.SECONDS);
+
+			assertEquals(1791195300000L, lastModified);
+			assertEquals(1, releaseResponse.getCount(), "refresh must still be in flight");
+		} finally {
+			releaseResponse.countDown();
+			storage.dispose();
+		}
+	}
+
+	private SharedHttpCacheStorage createStorage() throws Exception {
+		SharedHttpCacheStorage storage = new SharedHttpCacheStorage();
+		storage.logger = new ConsoleLogger();
+		storage.cacheConfig = new TransportCacheConfig() {
+
+			@Override
+			public boolean isOffline() {
+				return false;
+			}
+
+			@Override
+			public boolean isUpdate() {
+				return false;
+			}
+
+			@Override
+			public boolean isInteractive() {
+				return false;
+			}
+
+			@Override
+			public File getCacheLocation() {
+				return cacheDir.toFile();
+			}
+
+			@Override
+			public boolean isBackgroundRefresh() {
+				return true;
+			}
+
+			@Override
+			public HeaderFormat getHeaderFormat() {
+				return HeaderFormat.BINARY;
+			}
+		};
+		storage.initialize();
+		return storage;
+	}
+
+	/**
+	 * A transport that answers every request with a <code>304 Not Modified</code> response, but
+	 * only once it is released.
+	 */
+	private static final class BlockingTransport implements HttpTransport {
+
+		private final URI uri;
+		private final CountDownLatch requestStarted;
+		private final CountDownLatch releaseResponse;
+
+		BlockingTransport(URI uri, CountDownLatch requestStarted, CountDownLatch releaseResponse) {
+			this.uri = uri;
+			this.requestStarted = requestStarted;
+			this.releaseResponse = releaseResponse;
+		}
+
+		@Override
+		public void setHeader(String key, String value) {
+		}
+
+		@Override
+		public <T> T get(ResponseConsumer<T> consumer) throws IOException {
+			requestStarted.countDown();
+			try {
+				releaseResponse.await();
+			} catch (InterruptedException e) {
+				throw new IOException(e);
+			}
+			return consumer.handleResponse(new Response() {
+
+				@Override
+				public int statusCode() {
+					return HttpURLConnection.HTTP_NOT_MODIFIED;
+				}
+
+				@Override
+				public Map<String, List<String>> headers() {
+					return Map.of();
+				}
+
+				@Override
+				public void close() {
+				}
+
+				@Override
+				public URI getURI() {
+					return uri;
+				}
+
+				@Override
+				public String getHeader(String header) {
+					return null;
+				}
+
+				@Override
+				public long getLastModified() {
+					return 0;
+				}
+
+				@Override
+				public void transferTo(OutputStream outputStream, ContentEncoding transportEncoding)
+						throws IOException {
+					throw new IOException("304 has no body");
+				}
+			});
+		}
+
+		@Override
+		public Headers head() throws IOException {
+			throw new IOException("not supported");
+		}
+	}
+
+}
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2011, 2023 SAP AG and others.
+ * Copyright (c) 2011, 2026 SAP AG and others.
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
  * which accompanies this distribution, and is available at
@@ -38,6 +38,26 @@ public interface FileLockService {
      */
     Closeable lock(File file, long timeout);
 
+    /**
+     * Locks the given file for reading only. Any number of processes and threads can hold a shared
+     * lock on a file at the same time, but not while an exclusive lock is held on it.
+     * <p>
+     * This is equivalent to {@link #lockShared(File, long)} with a timeout argument of 10 seconds.
+     * </p>
+     */
+    default Closeable lockShared(File file) {
+        return lockShared(file, 10000L);
+    }
+
+    /**
+     * Locks the given file for reading only. Any number of processes and threads can hold a shared
+     * lock on a file at the same time, but not while an exclusive lock is held on it.
+     * Implementations not supporting shared locks acquire an exclusive lock instead.
+     */
+    default Closeable lockShared(File file, long timeout) {
+        return lock(file, timeout);
+    }
+
     /**
      * Locks the given file for this JVM to protect read/write access from multiple threads in this
      * JVM on it.
@@ -0,0 +1,61 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Christoph Läubrich and others.
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *    Christoph Läubrich - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.tycho.compiler.jdt;
+
+import java.io.File;
+import java.io.IOException;
+
+import org.eclipse.jdt.internal.compiler.batch.ClasspathJar;
+import org.eclipse.jdt.internal.compiler.env.AccessRuleSet;
+import org.eclipse.tycho.compiler.jdt.ClasspathArchiveCache.Archive;
+
+/**
+ * A {@link ClasspathJar} that uses the opened archive and package index of the
+ * {@link ClasspathArchiveCache} instead of opening and scanning the jar itself.
+ */
+class CachedClasspathJar extends ClasspathJar {
+
+    private final ClasspathArchiveCache cache;
+    private Archive archive;
+
+    CachedClasspathJar(File file, AccessRuleSet accessRuleSet, String destinationPath, ClasspathArchiveCache cache) {
+        super(file, true, accessRuleSet, destinationPath);
+        this.cache = cache;
+    }
+
+    @Override
+    public void initialize() throws IOException {
+        if (archive == null && zipFile == null) {
+            archive = cache.acquire(file);
+        }
+        if (archive == null) {
+            super.initialize();
+            return;
+        }
+        // the archive is shared and must not be closed by us
+        closeZipFileAtEnd = false;
+        zipFile = archive.getZipFile();
+        packageCache = archive.getPackages();
+    }
+
+    @Override
+    public void reset() {
+        super.reset();
+        if (archive != null) {
+            zipFile = null;
+            cache.release(archive);
+            archive = null;
+            closeZipFileAtEnd = true;
+        }
+    }
+}
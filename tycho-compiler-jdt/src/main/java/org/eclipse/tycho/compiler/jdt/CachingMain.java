@@ -0,0 +1,49 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Christoph Läubrich and others.
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *    Christoph Läubrich - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.tycho.compiler.jdt;
+
+import java.io.File;
+import java.io.PrintWriter;
+import java.util.ArrayList;
+
+import org.eclipse.jdt.internal.compiler.batch.ClasspathJar;
+import org.eclipse.jdt.internal.compiler.batch.FileSystem.Classpath;
+import org.eclipse.jdt.internal.compiler.batch.Main;
+
+/**
+ * The batch compiler that uses the {@link ClasspathArchiveCache} for the jars on the classpath.
+ */
+class CachingMain extends Main {
+
+    private final ClasspathArchiveCache archiveCache;
+
+    CachingMain(PrintWriter outWriter, PrintWriter errWriter, ClasspathArchiveCache archiveCache) {
+        super(outWriter, errWriter, false, null, null);
+        this.archiveCache = archiveCache;
+    }
+
+    @Override
+    protected ArrayList<Classpath> handleClasspath(ArrayList<String> classpaths, String customEncoding) {
+        ArrayList<Classpath> result = super.handleClasspath(classpaths, customEncoding);
+        if (archiveCache != null) {
+            for (int i = 0; i < result.size(); i++) {
+                // only plain jars, subclasses like multi-release jars have their own handling
+                if (result.get(i) instanceof ClasspathJar jar && jar.getClass() == ClasspathJar.class) {
+                    result.set(i, new CachedClasspathJar(new File(jar.getPath()), jar.accessRuleSet,
+                            jar.destinationPath, archiveCache));
+                }
+            }
+        }
+        return result;
+    }
+}
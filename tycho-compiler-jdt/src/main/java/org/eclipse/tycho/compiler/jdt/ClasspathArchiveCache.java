@@ -0,0 +1,217 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Christoph Läubrich and others.
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *    Christoph Läubrich - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.tycho.compiler.jdt;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Enumeration;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+import org.codehaus.plexus.component.annotations.Component;
+import org.codehaus.plexus.personality.plexus.lifecycle.phase.Disposable;
+import org.eclipse.tycho.core.LRUCache;
+
+/**
+ * Keeps the jars used on the classpath of in-process compilations open together with the index of
+ * the packages they contain, so the same (target platform) jars are not opened and scanned again
+ * for every module of the reactor. Archives are identified by their path, size and modification
+ * time, a changed jar is simply opened again.
+ * <p>
+ * Archives are shared between concurrent compilations, an archive that was evicted from the cache
+ * is only closed once all compilations using it have finished.
+ * <p>
+ * As open jars can't be replaced or deleted on Windows, the cache must be enabled with
+ * <code>-Dtycho.compiler.jdt.archiveCache=true</code> and all archives are closed at the end of
+ * the build (see {@link ClasspathArchiveCacheBuildListener}).
+ */
+@Component(role = ClasspathArchiveCache.class)
+public class ClasspathArchiveCache implements Disposable {
+
+    private static final boolean ENABLED = Boolean.getBoolean("tycho.compiler.jdt.archiveCache");
+
+    private static final int MAX_ARCHIVES = Integer.getInteger("tycho.compiler.jdt.archiveCache.size", 512);
+
+    static final class Archive {
+
+        private final ZipFile zipFile;
+        private final Set<String> packages;
+        private final long size;
+        private final long lastModified;
+        private int users;
+        private boolean retired;
+
+        private Archive(ZipFile zipFile, Set<String> packages, long size, long lastModified) {
+            this.zipFile = zipFile;
+            this.packages = packages;
+            this.size = size;
+            this.lastModified = lastModified;
+        }
+
+        ZipFile getZipFile() {
+            return zipFile;
+        }
+
+        /**
+         * @return all packages (and their parent packages) of the archive in the format used by
+         *         the compiler's package cache
+         */
+        Set<String> getPackages() {
+            return packages;
+        }
+
+        private boolean matches(long size, long lastModified) {
+            return this.size == size && this.lastModified == lastModified;
+        }
+    }
+
+    private final boolean enabled;
+
+    private final Map<String, Archive> archives = new LRUCache<>(MAX_ARCHIVES) {
+
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Archive> eldest) {
+            if (super.removeEldestEntry(eldest)) {
+                retire(eldest.getValue());
+                return true;
+            }
+            return false;
+        }
+    };
+
+    public ClasspathArchiveCache() {
+        this(ENABLED);
+    }
+
+    ClasspathArchiveCache(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Returns the archive for the given file, the caller must {@link #release(Archive)} it once it
+     * is no longer used.
+     *
+     * @return the archive or <code>null</code> if caching is disabled or the file can't be opened
+     */
+    Archive acquire(File file) {
+        if (!enabled || !file.isFile()) {
+            return null;
+        }
+        String key = file.getAbsolutePath();
+        long size = file.length();
+        long lastModified = file.lastModified();
+        synchronized (archives) {
+            Archive archive = archives.get(key);
+            if (archive != null && archive.matches(size, lastModified)) {
+                archive.users++;
+                return archive;
+            }
+        }
+        // open outside the lock so different archives can be opened concurrently
+        Archive opened;
+        try {
+            opened = open(file, size, lastModified);
+        } catch (IOException e) {
+            // let the compiler report the problem
+            return null;
+        }
+        synchronized (archives) {
+            Archive archive = archives.get(key);
+            if (archive != null && archive.matches(size, lastModified)) {
+                // someone else was faster
+                close(opened);
+                archive.users++;
+                return archive;
+            }
+            if (archive != null) {
+                retire(archive);
+            }
+            archives.put(key, opened);
+            opened.users++;
+            return opened;
+        }
+    }
+
+    void release(Archive archive) {
+        synchronized (archives) {
+            archive.users--;
+            if (archive.retired && archive.users == 0) {
+                close(archive);
+            }
+        }
+    }
+
+    /**
+     * Closes all archives, archives that are still in use are closed once they are released. The
+     * cache can be used again afterwards.
+     */
+    void clear() {
+        synchronized (archives) {
+            List<Archive> all = new ArrayList<>(archives.values());
+            archives.clear();
+            all.forEach(this::retire);
+        }
+    }
+
+    @Override
+    public void dispose() {
+        clear();
+    }
+
+    private void retire(Archive archive) {
+        archive.retired = true;
+        if (archive.users == 0) {
+            close(archive);
+        }
+    }
+
+    private static Archive open(File file, long size, long lastModified) throws IOException {
+        ZipFile zipFile = new ZipFile(file);
+        try {
+            Set<String> packages = ConcurrentHashMap.newKeySet();
+            packages.add("");
+            for (Enumeration<? extends ZipEntry> entries = zipFile.entries(); entries.hasMoreElements();) {
+                String name = entries.nextElement().getName();
+                // same as the compiler does, every parent folder of an entry is a package
+                for (int last = name.lastIndexOf('/'); last > 0; last = name.lastIndexOf('/', last - 1)) {
+                    if (!packages.add(name.substring(0, last))) {
+                        break;
+                    }
+                }
+            }
+            return new Archive(zipFile, packages, size, lastModified);
+        } catch (RuntimeException e) {
+            zipFile.close();
+            throw e;
+        }
+    }
+
+    private static void close(Archive archive) {
+        try {
+            archive.zipFile.close();
+        } catch (IOException e) {
+            // nothing we can do...
+        }
+    }
+}
@@ -0,0 +1,46 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Christoph Läubrich and others.
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *    Christoph Läubrich - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.tycho.compiler.jdt;
+
+import org.apache.maven.execution.MavenSession;
+import org.codehaus.plexus.component.annotations.Component;
+import org.codehaus.plexus.component.annotations.Requirement;
+import org.eclipse.tycho.build.BuildListener;
+
+/**
+ * Closes the archives of the {@link ClasspathArchiveCache} when the build has ended, so no jar
+ * stays open (and locked) after the session, e.g. when Maven runs as a daemon.
+ */
+@Component(role = BuildListener.class, hint = "jdt-archive-cache")
+public class ClasspathArchiveCacheBuildListener implements BuildListener {
+
+    @Requirement
+    private ClasspathArchiveCache archiveCache;
+
+    public ClasspathArchiveCacheBuildListener() {
+    }
+
+    ClasspathArchiveCacheBuildListener(ClasspathArchiveCache archiveCache) {
+        this.archiveCache = archiveCache;
+    }
+
+    @Override
+    public void buildStarted(MavenSession session) {
+        //nothing to do
+    }
+
+    @Override
+    public void buildEnded(MavenSession session) {
+        archiveCache.clear();
+    }
+}
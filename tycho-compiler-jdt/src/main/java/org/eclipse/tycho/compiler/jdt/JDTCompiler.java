@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2022 IBM Corporation and others.
+ * Copyright (c) 2000, 2026 IBM Corporation and others.
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
  * which accompanies this distribution, and is available at
@@ -84,6 +84,9 @@ public class JDTCompiler extends AbstractCompiler {
     @Requirement
     private JdkLibraryInfoProvider jdkLibInfoProvider;
 
+    @Requirement
+    private ClasspathArchiveCache archiveCache;
+
     @Requirement
     private Logger logger;
 
@@ -407,7 +410,8 @@ public class JDTCompiler extends AbstractCompiler {
         StringWriter out = new StringWriter();
         StringWriter err = new StringWriter();
 
-        Main compiler = new Main(new PrintWriter(out), new PrintWriter(err), false, null, null);
+        Main compiler = new CachingMain(new PrintWriter(out), new PrintWriter(err),
+                archiveCache.isEnabled() ? archiveCache : null);
         compiler.options.put(CompilerOptions.OPTION_ReportForbiddenReference, CompilerOptions.ERROR);
         List<String> jdtCompilerArgs = new ArrayList<>(Arrays.asList(args));
         if (custom.javaHome != null) {
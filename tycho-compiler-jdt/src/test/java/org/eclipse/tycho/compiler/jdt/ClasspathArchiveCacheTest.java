@@ -0,0 +1,164 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Christoph Läubrich and others.
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *    Christoph Läubrich - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.tycho.compiler.jdt;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Set;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import org.eclipse.tycho.compiler.jdt.ClasspathArchiveCache.Archive;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class ClasspathArchiveCacheTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    public void testDisabledByDefault() throws Exception {
+        File jar = createJar("lib.jar", "a/C.class");
+        ClasspathArchiveCache cache = new ClasspathArchiveCache();
+
+        assertFalse(cache.isEnabled());
+        assertNull(cache.acquire(jar));
+    }
+
+    @Test
+    public void testArchiveIsShared() throws Exception {
+        File jar = createJar("lib.jar", "a/b/C.class", "a/D.class");
+        ClasspathArchiveCache cache = new ClasspathArchiveCache(true);
+
+        Archive archive = cache.acquire(jar);
+        assertSame(archive, cache.acquire(jar));
+        assertEquals(Set.of("", "a", "a/b"), archive.getPackages());
+        cache.release(archive);
+        cache.release(archive);
+    }
+
+    @Test
+    public void testModifiedArchiveIsOpenedAgain() throws Exception {
+        File jar = createJar("lib.jar", "a/C.class");
+        ClasspathArchiveCache cache = new ClasspathArchiveCache(true);
+        Archive archive = cache.acquire(jar);
+
+        createJar("lib.jar", "b/C.class");
+        jar.setLastModified(jar.lastModified() + 10000);
+        Archive modified = cache.acquire(jar);
+        assertNotSame(archive, modified);
+        assertTrue(modified.getPackages().contains("b"));
+        // the old archive is still in use
+        assertTrue(archive.getZipFile().size() > 0);
+        cache.release(archive);
+        assertThrows(IllegalStateException.class, () -> archive.getZipFile().size());
+        cache.release(modified);
+    }
+
+    @Test
+    public void testCompileAgainstCachedArchive() throws Exception {
+        File jar = compileLib();
+        ClasspathArchiveCache cache = new ClasspathArchiveCache(true);
+        Path source = tempDir.resolve("src/user/User.java");
+        Files.createDirectories(source.getParent());
+        Files.writeString(source, "package user; public class User { lib.Lib lib; }");
+
+        for (int i = 0; i < 2; i++) {
+            StringWriter err = new StringWriter();
+            CachingMain compiler = new CachingMain(new PrintWriter(new StringWriter()), new PrintWriter(err), cache);
+            boolean success = compiler.compile(new String[] { "-classpath", jar.getAbsolutePath(), "-d",
+                    tempDir.resolve("out" + i).toString(), "-11", source.toString() });
+            assertTrue(success, err.toString());
+        }
+        // the archive was released after each compilation and is still open
+        Archive archive = cache.acquire(jar);
+        assertTrue(archive.getZipFile().size() > 0);
+        cache.release(archive);
+        cache.dispose();
+        assertThrows(IllegalStateException.class, () -> archive.getZipFile().size());
+    }
+
+    @Test
+    public void testBuildEndClosesArchives() throws Exception {
+        File idleJar = createJar("idle.jar", "a/C.class");
+        File usedJar = createJar("used.jar", "b/C.class");
+        ClasspathArchiveCache cache = new ClasspathArchiveCache(true);
+        Archive idle = cache.acquire(idleJar);
+        cache.release(idle);
+        Archive used = cache.acquire(usedJar);
+
+        new ClasspathArchiveCacheBuildListener(cache).buildEnded(null);
+
+        assertThrows(IllegalStateException.class, () -> idle.getZipFile().size());
+        // closed once the running compilation is done with it
+        assertTrue(used.getZipFile().size() > 0);
+        cache.release(used);
+        assertThrows(IllegalStateException.class, () -> used.getZipFile().size());
+        // the jars can be replaced now (which fails on Windows while they are open)
+        Files.delete(idleJar.toPath());
+        Files.delete(usedJar.toPath());
+
+        // and the cache can be used by the next build
+        File jar = createJar("next.jar", "c/C.class");
+        Archive next = cache.acquire(jar);
+        assertNotSame(used, next);
+        assertTrue(next.getPackages().contains("c"));
+        cache.release(next);
+        cache.dispose();
+    }
+
+    private File compileLib() throws IOException {
+        Path source = tempDir.resolve("libsrc/lib/Lib.java");
+        Files.createDirectories(source.getParent());
+        Files.writeString(source, "package lib; public class Lib {}");
+        Path out = tempDir.resolve("libout");
+        boolean success = new CachingMain(new PrintWriter(new StringWriter()), new PrintWriter(new StringWriter()),
+                null).compile(new String[] { "-d", out.toString(), "-11", source.toString() });
+        assertTrue(success);
+        File jar = tempDir.resolve("lib.jar").toFile();
+        try (ZipOutputStream zip = new ZipOutputStream(Files.newOutputStream(jar.toPath()))) {
+            zip.putNextEntry(new ZipEntry("lib/Lib.class"));
+            zip.write(Files.readAllBytes(out.resolve("lib/Lib.class")));
+            zip.closeEntry();
+        }
+        return jar;
+    }
+
+    private File createJar(String name, String... entries) throws IOException {
+        File file = tempDir.resolve(name).toFile();
+        try (OutputStream stream = Files.newOutputStream(file.toPath());
+                ZipOutputStream zip = new ZipOutputStream(stream)) {
+            for (String entry : entries) {
+                zip.putNextEntry(new ZipEntry(entry));
+                zip.write(entry.getBytes(StandardCharsets.UTF_8));
+                zip.closeEntry();
+            }
+        }
+        return file;
+    }
+}
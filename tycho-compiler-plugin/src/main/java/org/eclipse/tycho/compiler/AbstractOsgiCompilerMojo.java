@@ -57,6 +57,7 @@ import org.codehaus.plexus.compiler.util.scan.InclusionScanException;
 import org.codehaus.plexus.compiler.util.scan.SimpleSourceInclusionScanner;
 import org.codehaus.plexus.compiler.util.scan.SourceInclusionScanner;
 import org.codehaus.plexus.compiler.util.scan.StaleSourceScanner;
+import org.codehaus.plexus.compiler.util.scan.mapping.SourceMapping;
 import org.codehaus.plexus.logging.Logger;
 import org.codehaus.plexus.util.DirectoryScanner;
 import org.codehaus.plexus.util.FileUtils;
@@ -74,6 +75,7 @@ import org.eclipse.tycho.ExecutionEnvironment;
 import org.eclipse.tycho.ReactorProject;
 import org.eclipse.tycho.SourcepathEntry;
 import org.eclipse.tycho.classpath.ClasspathContributor;
+import org.eclipse.tycho.compiler.CompileFingerprint.ClassApi;
 import org.eclipse.tycho.core.BundleProject;
 import org.eclipse.tycho.core.TychoProject;
 import org.eclipse.tycho.core.TychoProjectManager;
@@ -333,6 +335,23 @@ public abstract class AbstractOsgiCompilerMojo extends AbstractCompilerMojo impl
     @Parameter
     private String log;
 
+    /**
+     * If set to <code>true</code> the compiler compares the sources, the compiler configuration and
+     * the API of the classpath with the fingerprint stored by the previous build (in
+     * <code>${project.build.directory}/compile-fingerprints</code>):
+     * <ul>
+     * <li>if nothing has changed, nothing is compiled</li>
+     * <li>if only the content of some sources has changed, only these sources are compiled against
+     * the previously compiled classes. If this changes the API of the compiled classes, all sources
+     * are compiled again so dependent classes are updated as well</li>
+     * <li>otherwise all sources are compiled, regardless of their timestamps</li>
+     * </ul>
+     * If set to <code>false</code> (the default) sources are compiled if they are newer than their
+     * class files.
+     */
+    @Parameter(property = "tycho.compiler.incremental", defaultValue = "false")
+    private boolean incremental;
+
     @Component
     ToolchainProvider toolchainProvider;
 
@@ -361,6 +380,19 @@ public abstract class AbstractOsgiCompilerMojo extends AbstractCompilerMojo impl
 
     private Integer currentRelease;
 
+    /**
+     * The fingerprints and the sources selected for the current {@link #incremental} compilation
+     */
+    private CompileFingerprint currentFingerprint;
+
+    private CompileFingerprint previousFingerprint;
+
+    private Set<File> incrementalSources;
+
+    private boolean partialCompilation;
+
+    private boolean forceFullCompilation;
+
     @Override
     public final void execute() throws MojoExecutionException, MojoFailureException {
         getLog().debug("Manifest BREEs: " + Arrays.toString(getBREE()));
@@ -389,7 +421,7 @@ public abstract class AbstractOsgiCompilerMojo extends AbstractCompilerMojo impl
                     .map(root -> new File(root.toURI().normalize()).toString()).toList();
             this.currentExcludes = entry.getValue().stream().map(SourcepathEntry::getExcludes).filter(Objects::nonNull)
                     .flatMap(Collection::stream).distinct().toList();
-            super.execute();
+            compile();
             doCopyResources();
         }
         //Check for MR JAR compile
@@ -412,7 +444,7 @@ public abstract class AbstractOsgiCompilerMojo extends AbstractCompilerMojo impl
                     }
                 }
                 if (this.currentSourceRoots.size() > 0) {
-                    super.execute();
+                    compile();
                 }
             }
         }
@@ -422,6 +454,74 @@ public abstract class AbstractOsgiCompilerMojo extends AbstractCompilerMojo impl
         this.currentExcludes = null;
     }
 
+    private void compile() throws MojoExecutionException, MojoFailureException {
+        if (!incremental) {
+            super.execute();
+            return;
+        }
+        try {
+            super.execute();
+            if (currentFingerprint == null || incrementalSources.isEmpty()) {
+                // no sources or all classes are up to date
+                return;
+            }
+            File outputDirectory = getOutputDirectory();
+            Map<String, ClassApi> classes = CompileFingerprint.readClasses(outputDirectory);
+            if (partialCompilation && !classes.equals(previousFingerprint.getClasses())) {
+                getLog().info("API of the recompiled classes has changed, compiling all sources");
+                forceFullCompilation = true;
+                super.execute();
+                classes = CompileFingerprint.readClasses(outputDirectory);
+            }
+            currentFingerprint.setClasses(classes);
+            currentFingerprint.write(getFingerprintFile());
+        } catch (IOException e) {
+            throw new MojoExecutionException("Can't write compile fingerprint", e);
+        } finally {
+            currentFingerprint = null;
+            previousFingerprint = null;
+            incrementalSources = null;
+            partialCompilation = false;
+            forceFullCompilation = false;
+        }
+    }
+
+    private void configureIncrementalCompilation(CompilerConfiguration compilerConfiguration)
+            throws MojoExecutionException {
+        File outputDirectory = getOutputDirectory();
+        File fingerprintFile = getFingerprintFile();
+        try {
+            currentFingerprint = CompileFingerprint.compute(compilerConfiguration, compilerId,
+                    getCompileSourceRoots(), includes, excludes, outputDirectory);
+            previousFingerprint = forceFullCompilation ? null : CompileFingerprint.read(fingerprintFile);
+            CompileFingerprint.Plan plan = currentFingerprint.plan(previousFingerprint, outputDirectory);
+            incrementalSources = plan.sources();
+            partialCompilation = plan.partial();
+            if (incrementalSources.isEmpty()) {
+                return;
+            }
+            // a failed compilation must not be considered up to date by the next build
+            Files.deleteIfExists(fingerprintFile.toPath());
+            // classes of recompiled sources (e.g. a removed Outer$Inner) and of removed sources are stale
+            CompileFingerprint.deleteStaleClasses(plan, previousFingerprint, outputDirectory);
+            if (partialCompilation) {
+                getLog().info("Compiling " + incrementalSources.size() + " modified source file(s)");
+                compilerConfiguration.addClasspathEntry(outputDirectory.getAbsolutePath());
+            }
+        } catch (IOException e) {
+            throw new MojoExecutionException("Can't compute compile fingerprint", e);
+        }
+    }
+
+    private File getFingerprintFile() {
+        Path basedir = project.getBasedir().toPath().toAbsolutePath().normalize();
+        Path outputDirectory = getOutputDirectory().toPath().toAbsolutePath().normalize();
+        Path name = outputDirectory.startsWith(basedir) ? basedir.relativize(outputDirectory)
+                : outputDirectory.getFileName();
+        return new File(project.getBuild().getDirectory(),
+                "compile-fingerprints/" + name.toString().replace('\\', '/').replace('/', '_') + ".properties");
+    }
+
     private Collection<Integer> getMultiReleases() {
         File versionFolder = new File(project.getBasedir(), VERSIONS_DIRECTORY);
         if (versionFolder.isDirectory()) {
@@ -689,6 +789,23 @@ public abstract class AbstractOsgiCompilerMojo extends AbstractCompilerMojo impl
 
     @Override
     protected SourceInclusionScanner getSourceInclusionScanner(int staleMillis) {
+        if (incremental && incrementalSources != null) {
+            Set<File> selected = incrementalSources;
+            return new SourceInclusionScanner() {
+
+                @Override
+                public void addSourceMapping(SourceMapping sourceMapping) {
+                    // the sources are selected by their fingerprint
+                }
+
+                @Override
+                public Set<File> getIncludedSources(File sourceDir, File targetDir) {
+                    Path root = sourceDir.toPath();
+                    return selected.stream().filter(file -> file.toPath().startsWith(root))
+                            .collect(Collectors.toSet());
+                }
+            };
+        }
         SourceInclusionScanner scanner = null;
 
         if (includes.isEmpty() && excludes.isEmpty()) {
@@ -763,6 +880,9 @@ public abstract class AbstractOsgiCompilerMojo extends AbstractCompilerMojo impl
                 }
             }
         }
+        if (incremental) {
+            configureIncrementalCompilation(compilerConfiguration);
+        }
         return compilerConfiguration;
     }
 
@@ -0,0 +1,519 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Christoph Läubrich and others.
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Christoph Läubrich - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.tycho.compiler;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Properties;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.codehaus.plexus.compiler.CompilerConfiguration;
+import org.codehaus.plexus.util.DirectoryScanner;
+import org.eclipse.jdt.internal.compiler.classfmt.ClassFileConstants;
+import org.eclipse.jdt.internal.compiler.classfmt.ClassFileReader;
+import org.eclipse.jdt.internal.compiler.classfmt.ClassFormatException;
+import org.eclipse.jdt.internal.compiler.env.ClassSignature;
+import org.eclipse.jdt.internal.compiler.env.EnumConstantSignature;
+import org.eclipse.jdt.internal.compiler.env.IBinaryAnnotation;
+import org.eclipse.jdt.internal.compiler.env.IBinaryElementValuePair;
+import org.eclipse.jdt.internal.compiler.env.IBinaryField;
+import org.eclipse.jdt.internal.compiler.env.IBinaryMethod;
+import org.eclipse.jdt.internal.compiler.env.IBinaryTypeAnnotation;
+import org.eclipse.jdt.internal.compiler.env.IRecordComponent;
+import org.eclipse.jdt.internal.compiler.lookup.TagBits;
+
+/**
+ * Describes the input and output of a compilation into one output directory: a digest of the
+ * compiler configuration (including the classpath), the content digests of all sources and the API
+ * digests of all classes in the output directory. Comparing the fingerprint of the previous build
+ * with the current one tells which sources need to be compiled again.
+ * <p>
+ * The API digest of a class only covers its non-private signatures (including their annotations,
+ * annotation defaults, permitted subclasses and record components), so a dependency that was
+ * recompiled without changing its API does not invalidate the fingerprint.
+ */
+final class CompileFingerprint {
+
+    private static final String CONFIGURATION = "configuration";
+
+    private static final String SOURCE_PREFIX = "source.";
+
+    private static final String CLASS_PREFIX = "class.";
+
+    private static final String CLASS_SUFFIX = ".class";
+
+    private static final String META_INF = "META-INF/";
+
+    /**
+     * The API of a class in the output directory.
+     *
+     * @param source
+     *            the path of the source file the class was compiled from, relative to its source
+     *            root
+     * @param digest
+     *            the API digest of the class
+     */
+    record ClassApi(String source, String digest) {
+    }
+
+    /**
+     * What needs to be compiled to bring an output directory up to date.
+     *
+     * @param sources
+     *            the source files to compile
+     * @param staleSources
+     *            the paths of the sources whose classes must be deleted before the compilation
+     * @param partial
+     *            <code>true</code> if only modified sources are compiled against the previous
+     *            output, <code>false</code> if all sources are compiled
+     */
+    record Plan(Set<File> sources, Set<String> staleSources, boolean partial) {
+    }
+
+    private final String configuration;
+
+    private final Map<String, String> sources;
+
+    private final Map<String, File> sourceFiles;
+
+    private Map<String, ClassApi> classes = Map.of();
+
+    private CompileFingerprint(String configuration, Map<String, String> sources, Map<String, File> sourceFiles) {
+        this.configuration = configuration;
+        this.sources = sources;
+        this.sourceFiles = sourceFiles;
+    }
+
+    /**
+     * Computes the fingerprint of the given compiler configuration and the sources currently found
+     * in the source roots. The classes of the fingerprint are empty until they are
+     * {@link #setClasses(Map) set} after the compilation.
+     */
+    static CompileFingerprint compute(CompilerConfiguration compilerConfiguration, String compilerId,
+            List<String> sourceRoots, Set<String> includes, Set<String> excludes, File outputDirectory)
+            throws IOException {
+        MessageDigest digest = newDigest();
+        update(digest, compilerId);
+        update(digest, compilerConfiguration.getSourceVersion());
+        update(digest, compilerConfiguration.getTargetVersion());
+        update(digest, compilerConfiguration.getReleaseVersion());
+        update(digest, compilerConfiguration.getSourceEncoding());
+        update(digest, compilerConfiguration.getCompilerVersion());
+        update(digest, String.valueOf(compilerConfiguration.isDebug()));
+        update(digest, compilerConfiguration.getDebugLevel());
+        update(digest, String.valueOf(compilerConfiguration.isOptimize()));
+        update(digest, String.valueOf(compilerConfiguration.isParameters()));
+        update(digest, String.valueOf(compilerConfiguration.isEnablePreview()));
+        update(digest, compilerConfiguration.getProc());
+        if (compilerConfiguration.getAnnotationProcessors() != null) {
+            update(digest, String.join(",", compilerConfiguration.getAnnotationProcessors()));
+        }
+        if (compilerConfiguration.getProcessorPathEntries() != null) {
+            for (String entry : compilerConfiguration.getProcessorPathEntries()) {
+                updateClasspathEntry(digest, entry, outputDirectory);
+            }
+        }
+        for (Entry<String, String> argument : compilerConfiguration.getCustomCompilerArgumentsEntries()) {
+            update(digest, argument.getKey());
+            update(digest, argument.getValue());
+            // the log file is written by the compilation itself
+            if (argument.getValue() != null && !"-log".equals(argument.getKey())) {
+                // e.g. the project settings passed with -properties
+                File file = new File(argument.getValue());
+                if (file.isFile()) {
+                    digest.update(Files.readAllBytes(file.toPath()));
+                }
+            }
+        }
+        for (String entry : compilerConfiguration.getClasspathEntries()) {
+            updateClasspathEntry(digest, entry, outputDirectory);
+        }
+        Map<String, String> sources = new TreeMap<>();
+        Map<String, File> sourceFiles = new TreeMap<>();
+        for (String sourceRoot : sourceRoots) {
+            File root = new File(sourceRoot);
+            if (!root.isDirectory()) {
+                continue;
+            }
+            DirectoryScanner scanner = new DirectoryScanner();
+            scanner.setBasedir(root);
+            scanner.setIncludes(includes.isEmpty() ? new String[] { "**/*.java" } : includes.toArray(String[]::new));
+            scanner.setExcludes(excludes.toArray(String[]::new));
+            scanner.scan();
+            for (String path : scanner.getIncludedFiles()) {
+                File file = new File(root, path);
+                String key = path.replace('\\', '/');
+                sources.put(key, toHex(newDigest().digest(Files.readAllBytes(file.toPath()))));
+                sourceFiles.put(key, file);
+            }
+        }
+        return new CompileFingerprint(toHex(digest.digest()), sources, sourceFiles);
+    }
+
+    /**
+     * Reads the API of all classes in the given output directory.
+     */
+    static Map<String, ClassApi> readClasses(File outputDirectory) throws IOException {
+        Map<String, ClassApi> classes = new TreeMap<>();
+        if (!outputDirectory.isDirectory()) {
+            return classes;
+        }
+        Path root = outputDirectory.toPath();
+        try (Stream<Path> stream = Files.walk(root)) {
+            for (Path file : (Iterable<Path>) stream.filter(Files::isRegularFile)
+                    .filter(p -> p.getFileName().toString().endsWith(CLASS_SUFFIX))::iterator) {
+                String path = root.relativize(file).toString().replace('\\', '/');
+                if (path.startsWith(META_INF)) {
+                    // e.g. the classes of a multi-release jar that are compiled separately
+                    continue;
+                }
+                classes.put(path, readClass(path, Files.readAllBytes(file)));
+            }
+        }
+        return classes;
+    }
+
+    /**
+     * @return the stored fingerprint or <code>null</code> if there is none or it can't be read
+     */
+    static CompileFingerprint read(File file) {
+        if (!file.isFile()) {
+            return null;
+        }
+        Properties properties = new Properties();
+        try (InputStream stream = Files.newInputStream(file.toPath())) {
+            properties.load(stream);
+        } catch (IOException | IllegalArgumentException e) {
+            return null;
+        }
+        String configuration = properties.getProperty(CONFIGURATION);
+        if (configuration == null) {
+            return null;
+        }
+        Map<String, String> sources = new TreeMap<>();
+        Map<String, ClassApi> classes = new TreeMap<>();
+        for (String key : properties.stringPropertyNames()) {
+            String value = properties.getProperty(key);
+            if (key.startsWith(SOURCE_PREFIX)) {
+                sources.put(key.substring(SOURCE_PREFIX.length()), value);
+            } else if (key.startsWith(CLASS_PREFIX)) {
+                int separator = value.indexOf(' ');
+                if (separator < 0) {
+                    return null;
+                }
+                classes.put(key.substring(CLASS_PREFIX.length()),
+                        new ClassApi(value.substring(separator + 1), value.substring(0, separator)));
+            }
+        }
+        CompileFingerprint fingerprint = new CompileFingerprint(configuration, sources, Map.of());
+        fingerprint.classes = classes;
+        return fingerprint;
+    }
+
+    void write(File file) throws IOException {
+        Properties properties = new Properties();
+        properties.setProperty(CONFIGURATION, configuration);
+        sources.forEach((path, digest) -> properties.setProperty(SOURCE_PREFIX + path, digest));
+        classes.forEach(
+                (path, api) -> properties.setProperty(CLASS_PREFIX + path, api.digest() + " " + api.source()));
+        file.getParentFile().mkdirs();
+        try (OutputStream stream = Files.newOutputStream(file.toPath())) {
+            properties.store(stream, null);
+        }
+    }
+
+    Map<String, ClassApi> getClasses() {
+        return classes;
+    }
+
+    void setClasses(Map<String, ClassApi> classes) {
+        this.classes = classes;
+    }
+
+    /**
+     * @return all source files of this fingerprint
+     */
+    Set<File> getSourceFiles() {
+        return new TreeSet<>(sourceFiles.values());
+    }
+
+    /**
+     * @return the paths of all sources whose content differs from the given fingerprint
+     */
+    Set<String> getModifiedSources(CompileFingerprint previous) {
+        Set<String> modified = new TreeSet<>();
+        for (Entry<String, String> source : sources.entrySet()) {
+            if (!source.getValue().equals(previous.sources.get(source.getKey()))) {
+                modified.add(source.getKey());
+            }
+        }
+        return modified;
+    }
+
+    /**
+     * @return the paths of all sources of the given fingerprint that no longer exist
+     */
+    Set<String> getRemovedSources(CompileFingerprint previous) {
+        Set<String> removed = new TreeSet<>(previous.sources.keySet());
+        removed.removeAll(sources.keySet());
+        return removed;
+    }
+
+    Set<File> getSourceFiles(Set<String> paths) {
+        Set<File> files = new TreeSet<>();
+        for (String path : paths) {
+            files.add(sourceFiles.get(path));
+        }
+        return files;
+    }
+
+    /**
+     * @return <code>true</code> if this fingerprint can be used as the base of an incremental
+     *         compilation for the given current fingerprint, that is the configuration and the set
+     *         of sources are the same and all classes of the previous compilation are still present
+     */
+    boolean isCompatible(CompileFingerprint current, File outputDirectory) {
+        if (!configuration.equals(current.configuration) || !sources.keySet().equals(current.sources.keySet())) {
+            return false;
+        }
+        if (classes.isEmpty() && !sources.isEmpty()) {
+            return false;
+        }
+        return classes.keySet().stream().allMatch(path -> new File(outputDirectory, path).isFile());
+    }
+
+    /**
+     * Decides what needs to be compiled: only the modified sources if this fingerprint is
+     * {@link #isCompatible(CompileFingerprint, File) compatible} with the previous one, otherwise all
+     * sources.
+     *
+     * @param previous
+     *            the fingerprint of the previous compilation or <code>null</code>
+     */
+    Plan plan(CompileFingerprint previous, File outputDirectory) {
+        if (previous != null && previous.isCompatible(this, outputDirectory)) {
+            Set<String> modified = getModifiedSources(previous);
+            return new Plan(getSourceFiles(modified), modified, !modified.isEmpty());
+        }
+        Set<String> stale = new TreeSet<>(sources.keySet());
+        if (previous != null) {
+            stale.addAll(getRemovedSources(previous));
+        }
+        return new Plan(getSourceFiles(), stale, false);
+    }
+
+    /**
+     * Deletes all classes compiled from the stale sources of the given plan, including their nested
+     * and local classes, so no class of an old version of a source survives its compilation.
+     *
+     * @param previous
+     *            the fingerprint the plan was made with
+     */
+    static void deleteStaleClasses(Plan plan, CompileFingerprint previous, File outputDirectory)
+            throws IOException {
+        // a partial compilation requires all classes of the previous fingerprint to be present
+        Map<String, ClassApi> classes = plan.partial() ? previous.classes : readClasses(outputDirectory);
+        for (Entry<String, ClassApi> entry : classes.entrySet()) {
+            if (plan.staleSources().contains(entry.getValue().source())) {
+                Files.deleteIfExists(new File(outputDirectory, entry.getKey()).toPath());
+            }
+        }
+    }
+
+    private static void updateClasspathEntry(MessageDigest digest, String entry, File outputDirectory)
+            throws IOException {
+        update(digest, entry);
+        // strip the access rules
+        int rules = entry.indexOf('[');
+        File file = new File(rules < 0 ? entry : entry.substring(0, rules));
+        if (file.isFile()) {
+            update(digest, file.length() + ":" + file.lastModified());
+        } else if (file.isDirectory() && !file.getAbsoluteFile().equals(outputDirectory.getAbsoluteFile())) {
+            // most likely the output of another project of the reactor, only its API matters
+            for (Entry<String, ClassApi> api : readClasses(file).entrySet()) {
+                update(digest, api.getKey());
+                update(digest, api.getValue().digest());
+            }
+        } else {
+            update(digest, "-");
+        }
+    }
+
+    private static ClassApi readClass(String path, byte[] content) {
+        int slash = path.lastIndexOf('/');
+        String folder = slash < 0 ? "" : path.substring(0, slash + 1);
+        String name = path.substring(slash + 1, path.length() - CLASS_SUFFIX.length());
+        int dollar = name.indexOf('$');
+        String source = folder + (dollar > 0 ? name.substring(0, dollar) : name) + ".java";
+        ClassFileReader reader;
+        try {
+            reader = new ClassFileReader(content, path.toCharArray());
+        } catch (ClassFormatException e) {
+            return new ClassApi(source, toHex(newDigest().digest(content)));
+        }
+        if (reader.sourceFileName() != null) {
+            // a class might have been declared in a source file with a different name
+            source = folder + new String(reader.sourceFileName());
+        }
+        MessageDigest digest = newDigest();
+        update(digest, String.valueOf(reader.getModifiers()));
+        update(digest, chars(reader.getName()));
+        update(digest, chars(reader.getSuperclassName()));
+        update(digest, chars(reader.getInterfaceNames()));
+        update(digest, chars(reader.getGenericSignature()));
+        update(digest, chars(reader.getPermittedSubtypeNames()));
+        update(digest, String.valueOf(reader.getTagBits() & TagBits.AllStandardAnnotationsMask));
+        update(digest, annotations(reader.getAnnotations()));
+        update(digest, typeAnnotations(reader.getTypeAnnotations()));
+        IRecordComponent[] components = reader.getRecordComponents();
+        if (components != null) {
+            // in declaration order, as this is the order of the canonical constructor
+            for (IRecordComponent component : components) {
+                update(digest, "R " + chars(component.getName()) + " " + chars(component.getTypeName()) + " "
+                        + chars(component.getGenericSignature()) + " " + annotations(component.getAnnotations()) + " "
+                        + typeAnnotations(component.getTypeAnnotations()));
+            }
+        }
+        List<String> members = new ArrayList<>();
+        IBinaryField[] fields = reader.getFields();
+        if (fields != null) {
+            for (IBinaryField field : fields) {
+                if ((field.getModifiers() & ClassFileConstants.AccPrivate) == 0) {
+                    members.add("F " + field.getModifiers() + " " + chars(field.getName()) + " "
+                            + chars(field.getTypeName()) + " " + chars(field.getGenericSignature()) + " "
+                            + field.getConstant() + " " + (field.getTagBits() & TagBits.AllStandardAnnotationsMask)
+                            + " " + annotations(field.getAnnotations()) + " "
+                            + typeAnnotations(field.getTypeAnnotations()));
+                }
+            }
+        }
+        IBinaryMethod[] methods = reader.getMethods();
+        if (methods != null) {
+            for (IBinaryMethod method : methods) {
+                int modifiers = method.getModifiers();
+                if ((modifiers & (ClassFileConstants.AccPrivate | ClassFileConstants.AccSynthetic)) == 0
+                        && !method.isClinit()) {
+                    StringBuilder member = new StringBuilder("M ").append(modifiers).append(' ')
+                            .append(chars(method.getSelector())).append(' ')
+                            .append(chars(method.getMethodDescriptor())).append(' ')
+                            .append(chars(method.getGenericSignature())).append(' ')
+                            .append(chars(method.getExceptionTypeNames())).append(' ')
+                            .append(method.getTagBits() & TagBits.AllStandardAnnotationsMask).append(' ')
+                            .append(annotations(method.getAnnotations())).append(' ')
+                            .append(typeAnnotations(method.getTypeAnnotations()));
+                    for (int i = 0; i < method.getAnnotatedParametersCount(); i++) {
+                        member.append(" P").append(i).append(' ')
+                                .append(annotations(method.getParameterAnnotations(i, reader.getFileName())));
+                    }
+                    Object defaultValue = method.getDefaultValue();
+                    if (defaultValue != null) {
+                        member.append(" default ").append(describe(defaultValue));
+                    }
+                    members.add(member.toString());
+                }
+            }
+        }
+        Collections.sort(members);
+        members.forEach(member -> update(digest, member));
+        return new ClassApi(source, toHex(digest.digest()));
+    }
+
+    private static String annotations(IBinaryAnnotation[] annotations) {
+        if (annotations == null) {
+            return "";
+        }
+        return Arrays.stream(annotations).map(CompileFingerprint::describe).sorted().collect(Collectors.joining(" "));
+    }
+
+    private static String typeAnnotations(IBinaryTypeAnnotation[] annotations) {
+        if (annotations == null) {
+            return "";
+        }
+        return Arrays.stream(annotations)
+                .map(annotation -> annotation.getTargetType() + ":" + annotation.getSupertypeIndex() + ":"
+                        + annotation.getTypeParameterIndex() + ":" + annotation.getBoundIndex() + ":"
+                        + annotation.getMethodFormalParameterIndex() + ":" + annotation.getThrowsTypeIndex() + ":"
+                        + Arrays.toString(annotation.getTypePath()) + describe(annotation.getAnnotation()))
+                .sorted().collect(Collectors.joining(" "));
+    }
+
+    /**
+     * Describes an annotation or the value of an annotation element.
+     */
+    private static String describe(Object value) {
+        if (value instanceof IBinaryAnnotation annotation) {
+            StringBuilder builder = new StringBuilder("@").append(chars(annotation.getTypeName())).append('(');
+            IBinaryElementValuePair[] pairs = annotation.getElementValuePairs();
+            if (pairs != null) {
+                for (IBinaryElementValuePair pair : pairs) {
+                    builder.append(chars(pair.getName())).append('=').append(describe(pair.getValue())).append(',');
+                }
+            }
+            return builder.append(')').toString();
+        } else if (value instanceof Object[] values) {
+            return Arrays.stream(values).map(CompileFingerprint::describe).collect(Collectors.joining(",", "{", "}"));
+        } else if (value instanceof ClassSignature signature) {
+            return chars(signature.getTypeName()) + ".class";
+        } else if (value instanceof EnumConstantSignature constant) {
+            return chars(constant.getTypeName()) + "." + chars(constant.getEnumConstantName());
+        }
+        // a constant
+        return String.valueOf(value);
+    }
+
+    private static String chars(char[] chars) {
+        return chars == null ? "" : new String(chars);
+    }
+
+    private static String chars(char[][] chars) {
+        return chars == null ? "" : String.join(",", Arrays.stream(chars).map(String::new).toList());
+    }
+
+    private static void update(MessageDigest digest, String value) {
+        if (value != null) {
+            digest.update(value.getBytes(StandardCharsets.UTF_8));
+        }
+        // separate the values so "ab","c" and "a","bc" differ
+        digest.update((byte) 0);
+    }
+
+    private static MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    private static String toHex(byte[] bytes) {
+        return HexFormat.of().formatHex(bytes);
+    }
+}
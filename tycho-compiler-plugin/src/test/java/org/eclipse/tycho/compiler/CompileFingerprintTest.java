@@ -0,0 +1,308 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Christoph Läubrich and others.
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Christoph Läubrich - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.tycho.compiler;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.codehaus.plexus.compiler.CompilerConfiguration;
+import org.eclipse.jdt.internal.compiler.batch.Main;
+import org.eclipse.tycho.compiler.CompileFingerprint.ClassApi;
+import org.eclipse.tycho.compiler.CompileFingerprint.Plan;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class CompileFingerprintTest {
+
+    private static final String ANNOTATIONS = """
+            package p;
+            import java.lang.annotation.*;
+            public class Annotations {
+                @Retention(RetentionPolicy.RUNTIME) public @interface Visible { String value() default ""; }
+                @Retention(RetentionPolicy.CLASS) public @interface Invisible {}
+                @Target(ElementType.RECORD_COMPONENT) public @interface Component {}
+            }
+            """;
+
+    @Rule
+    public final TemporaryFolder tempFolder = new TemporaryFolder();
+
+    private File sourceDirectory;
+
+    private File outputDirectory;
+
+    private File fingerprintFile;
+
+    private CompilerConfiguration configuration;
+
+    @Before
+    public void setUp() throws IOException {
+        sourceDirectory = tempFolder.newFolder("src");
+        outputDirectory = tempFolder.newFolder("bin");
+        fingerprintFile = new File(tempFolder.getRoot(), "fingerprint.properties");
+        configuration = new CompilerConfiguration();
+        configuration.setReleaseVersion("17");
+        writeSource("p/Annotations.java", ANNOTATIONS);
+    }
+
+    @Test
+    public void testImplementationIsNoApi() throws Exception {
+        String api = apiOf("p.A", "package p; public class A { public int m() { return 1; } }");
+
+        assertEquals(api, apiOf("p.A", "package p; public class A { public int m() { return 2; } }"));
+        assertEquals(api, apiOf("p.A",
+                "package p; public class A { public int m() { return n(); } private int n() { return 3; } }"));
+        assertNotEquals(api, apiOf("p.A", "package p; public class A { public long m() { return 1; } }"));
+    }
+
+    @Test
+    public void testAnnotationsAreApi() throws Exception {
+        String api = apiOf("p.A", "package p; public class A { public int f; public void m(int i) {} }");
+
+        assertNotEquals(api, apiOf("p.A",
+                "package p; @Annotations.Visible public class A { public int f; public void m(int i) {} }"));
+        assertNotEquals(api, apiOf("p.A",
+                "package p; @Deprecated public class A { public int f; public void m(int i) {} }"));
+        assertNotEquals(api, apiOf("p.A",
+                "package p; public class A { @Annotations.Invisible public int f; public void m(int i) {} }"));
+        assertNotEquals(api, apiOf("p.A",
+                "package p; public class A { public int f; @Annotations.Visible public void m(int i) {} }"));
+        assertNotEquals(api, apiOf("p.A",
+                "package p; public class A { public int f; public void m(@Annotations.Visible int i) {} }"));
+        assertNotEquals(apiOf("p.A",
+                "package p; public class A { public int f; @Annotations.Visible(\"a\") public void m(int i) {} }"),
+                apiOf("p.A",
+                        "package p; public class A { public int f; @Annotations.Visible(\"b\") public void m(int i) {} }"));
+    }
+
+    @Test
+    public void testAnnotationDefaultsAreApi() throws Exception {
+        assertNotEquals(apiOf("p.Ann", "package p; public @interface Ann { int value() default 1; }"),
+                apiOf("p.Ann", "package p; public @interface Ann { int value() default 2; }"));
+    }
+
+    @Test
+    public void testPermittedSubclassesAreApi() throws Exception {
+        writeSource("p/X.java", "package p; public final class X implements S {}");
+        String api = apiOf("p.S", "package p; public sealed interface S permits X {}");
+
+        writeSource("p/Y.java", "package p; public final class Y implements S {}");
+        assertNotEquals(api, apiOf("p.S", "package p; public sealed interface S permits X, Y {}"));
+    }
+
+    @Test
+    public void testRecordComponentsAreApi() throws Exception {
+        assertNotEquals(apiOf("p.R", "package p; public record R(int a) {}"),
+                apiOf("p.R", "package p; public record R(@Annotations.Component int a) {}"));
+    }
+
+    @Test
+    public void testNestedClassesBelongToTheirSource() throws Exception {
+        writeSource("p/A.java", "package p; public class A { class Inner {} Runnable r = new Runnable() { "
+                + "public void run() {} }; } class Other {}");
+        compile(List.of(new File(sourceDirectory, "p/A.java")), false);
+
+        Map<String, ClassApi> classes = CompileFingerprint.readClasses(outputDirectory);
+
+        for (String name : List.of("p/A.class", "p/A$Inner.class", "p/A$1.class", "p/Other.class")) {
+            assertEquals(name, "p/A.java", classes.get(name).source());
+        }
+    }
+
+    @Test
+    public void testFirstBuildCompilesAllSources() throws Exception {
+        writeSource("p/A.java", "package p; public class A {}");
+
+        Plan plan = build();
+
+        assertFalse(plan.partial());
+        assertEquals(Set.of(source("p/A.java"), source("p/Annotations.java")), plan.sources());
+    }
+
+    @Test
+    public void testUnchangedSourcesAreNotCompiled() throws Exception {
+        writeSource("p/A.java", "package p; public class A {}");
+        build();
+
+        Plan plan = build();
+
+        assertTrue(plan.sources().isEmpty());
+    }
+
+    @Test
+    public void testOnlyModifiedSourcesAreCompiled() throws Exception {
+        writeSource("p/A.java", "package p; public class A { int m() { return 1; } }");
+        writeSource("p/B.java", "package p; public class B { A a; }");
+        build();
+
+        writeSource("p/A.java", "package p; public class A { int m() { return 2; } }");
+        Plan plan = build();
+
+        assertTrue(plan.partial());
+        assertEquals(Set.of(source("p/A.java")), plan.sources());
+        assertTrue(new File(outputDirectory, "p/B.class").isFile());
+    }
+
+    @Test
+    public void testPartialCompilationDeletesRemovedNestedClasses() throws Exception {
+        writeSource("p/A.java", "package p; public class A { class Inner {} }");
+        build();
+        assertTrue(new File(outputDirectory, "p/A$Inner.class").isFile());
+
+        writeSource("p/A.java", "package p; public class A {}");
+        Plan plan = build();
+
+        assertTrue(plan.partial());
+        assertFalse(new File(outputDirectory, "p/A$Inner.class").exists());
+    }
+
+    @Test
+    public void testAddedSourceCompilesAllSources() throws Exception {
+        writeSource("p/A.java", "package p; public class A {}");
+        build();
+
+        writeSource("p/B.java", "package p; public class B {}");
+        Plan plan = build();
+
+        assertFalse(plan.partial());
+        assertEquals(3, plan.sources().size());
+    }
+
+    @Test
+    public void testRemovedSourceCompilesAllSourcesAndDeletesItsClasses() throws Exception {
+        writeSource("p/A.java", "package p; public class A {}");
+        writeSource("p/B.java", "package p; public class B { class Inner {} }");
+        build();
+
+        Files.delete(source("p/B.java").toPath());
+        Plan plan = build();
+
+        assertFalse(plan.partial());
+        assertTrue(plan.staleSources().contains("p/B.java"));
+        assertFalse(new File(outputDirectory, "p/B.class").exists());
+        assertFalse(new File(outputDirectory, "p/B$Inner.class").exists());
+    }
+
+    @Test
+    public void testChangedConfigurationCompilesAllSourcesAndDeletesStaleNestedClasses() throws Exception {
+        writeSource("p/A.java", "package p; public class A { class Inner {} }");
+        writeSource("p/B.java", "package p; public class B {}");
+        build();
+
+        configuration.setDebug(!configuration.isDebug());
+        writeSource("p/A.java", "package p; public class A {}");
+        Plan plan = build();
+
+        assertFalse(plan.partial());
+        assertEquals(3, plan.sources().size());
+        assertFalse(new File(outputDirectory, "p/A$Inner.class").exists());
+    }
+
+    @Test
+    public void testChangedClasspathCompilesAllSources() throws Exception {
+        File library = tempFolder.newFile("library.jar");
+        configuration.addClasspathEntry(library.getAbsolutePath());
+        writeSource("p/A.java", "package p; public class A {}");
+        build();
+
+        assertTrue(library.setLastModified(library.lastModified() - 10000));
+        Plan plan = build();
+
+        assertFalse(plan.partial());
+        assertEquals(2, plan.sources().size());
+    }
+
+    @Test
+    public void testMissingClassCompilesAllSources() throws Exception {
+        writeSource("p/A.java", "package p; public class A {}");
+        build();
+
+        Files.delete(new File(outputDirectory, "p/A.class").toPath());
+        Plan plan = build();
+
+        assertFalse(plan.partial());
+        assertEquals(2, plan.sources().size());
+    }
+
+    /**
+     * Performs an incremental compilation the same way as the compiler mojo does.
+     */
+    private Plan build() throws IOException {
+        CompileFingerprint current = CompileFingerprint.compute(configuration, "jdt",
+                List.of(sourceDirectory.getAbsolutePath()), Set.of(), Set.of(), outputDirectory);
+        CompileFingerprint previous = CompileFingerprint.read(fingerprintFile);
+        Plan plan = current.plan(previous, outputDirectory);
+        if (!plan.sources().isEmpty()) {
+            CompileFingerprint.deleteStaleClasses(plan, previous, outputDirectory);
+            compile(plan.sources(), plan.partial());
+            current.setClasses(CompileFingerprint.readClasses(outputDirectory));
+            current.write(fingerprintFile);
+        }
+        return plan;
+    }
+
+    private String apiOf(String type, String source) throws IOException {
+        String path = type.replace('.', '/');
+        File file = writeSource(path + ".java", source);
+        List<File> sources = new ArrayList<>();
+        sources.add(new File(sourceDirectory, "p/Annotations.java"));
+        sources.add(file);
+        for (String other : List.of("p/X.java", "p/Y.java")) {
+            File otherFile = new File(sourceDirectory, other);
+            if (otherFile.isFile()) {
+                sources.add(otherFile);
+            }
+        }
+        compile(sources, false);
+        return CompileFingerprint.readClasses(outputDirectory).get(path + ".class").digest();
+    }
+
+    private void compile(Iterable<File> sources, boolean againstOutput) {
+        List<String> args = new ArrayList<>(List.of("--release", "17", "-proc:none", "-d",
+                outputDirectory.getAbsolutePath()));
+        if (againstOutput) {
+            args.add("-classpath");
+            args.add(outputDirectory.getAbsolutePath());
+        }
+        sources.forEach(source -> args.add(source.getAbsolutePath()));
+        StringWriter errors = new StringWriter();
+        boolean success = new Main(new PrintWriter(new StringWriter()), new PrintWriter(errors), false, null, null)
+                .compile(args.toArray(String[]::new));
+        assertTrue(errors.toString(), success);
+    }
+
+    private File writeSource(String path, String content) throws IOException {
+        File file = source(path);
+        file.getParentFile().mkdirs();
+        Files.writeString(file.toPath(), content);
+        return file;
+    }
+
+    private File source(String path) {
+        return new File(sourceDirectory, path);
+    }
+}
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2011, 2023 SAP AG and others.
+ * Copyright (c) 2011, 2026 SAP AG and others.
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
  * which accompanies this distribution, and is available at
@@ -20,8 +20,12 @@ import java.nio.file.Path;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.concurrent.locks.Lock;
-import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
 
 import org.codehaus.plexus.component.annotations.Component;
 import org.eclipse.tycho.FileLockService;
@@ -29,17 +33,102 @@ import org.eclipse.tycho.LockTimeoutException;
 
 @Component(role = FileLockService.class)
 public class FileLockServiceImpl implements FileLockService {
-    record FileLocks(FileLockerImpl fileLocker, Lock vmLock) {
+    record FileLocks(FileLockerImpl fileLocker, ReadWriteLock vmLock) {
+    }
+
+    /**
+     * Statistics about the locks acquired through this service.
+     *
+     * @param exclusiveLocks
+     *            the number of exclusive locks acquired
+     * @param sharedLocks
+     *            the number of shared locks acquired
+     * @param waitMillis
+     *            the total time spent waiting for locks
+     * @param maxWaitMillis
+     *            the longest time spent waiting for a single lock
+     */
+    public record LockStatistics(long exclusiveLocks, long sharedLocks, long waitMillis, long maxWaitMillis) {
+
+        @Override
+        public String toString() {
+            return exclusiveLocks + " exclusive and " + sharedLocks + " shared locks acquired, waited " + waitMillis
+                    + " ms in total and at most " + maxWaitMillis + " ms for a single lock";
+        }
     }
 
     private final Map<Path, FileLocks> lockers = new ConcurrentHashMap<>();
 
+    private final LongAdder exclusiveLocks = new LongAdder();
+    private final LongAdder sharedLocks = new LongAdder();
+    private final LongAdder waitNanos = new LongAdder();
+    private final LongAccumulator maxWaitNanos = new LongAccumulator(Math::max, 0L);
+
     @Override
     public Closeable lock(File file, long timeout) {
+        long start = System.nanoTime();
         FileLocks locks = getFileLocker(file.toPath());
         FileLockerImpl locker = locks.fileLocker();
+        Lock vmLock = locks.vmLock().writeLock();
+        acquire(vmLock, locker, timeout);
         try {
-            if (!locks.vmLock().tryLock(timeout, TimeUnit.MILLISECONDS)) {
+            locker.lock(timeout);
+        } catch (RuntimeException e) {
+            vmLock.unlock();
+            throw e;
+        }
+        exclusiveLocks.increment();
+        recordWait(start);
+        return () -> {
+            locker.release();
+            vmLock.unlock();
+        };
+    }
+
+    @Override
+    public Closeable lockShared(File file, long timeout) {
+        long start = System.nanoTime();
+        FileLocks locks = getFileLocker(file.toPath());
+        FileLockerImpl locker = locks.fileLocker();
+        Lock vmLock = locks.vmLock().readLock();
+        acquire(vmLock, locker, timeout);
+        try {
+            locker.lockShared(timeout);
+        } catch (RuntimeException e) {
+            vmLock.unlock();
+            throw e;
+        }
+        sharedLocks.increment();
+        recordWait(start);
+        AtomicBoolean released = new AtomicBoolean();
+        return () -> {
+            // the file lock is shared by all readers, so make sure to release our share only once
+            if (released.compareAndSet(false, true)) {
+                locker.releaseShared();
+                vmLock.unlock();
+            }
+        };
+    }
+
+    @Override
+    public Closeable lockVirtually(File file) {
+        FileLocks locks = getFileLocker(file.toPath());
+        Lock vmLock = locks.vmLock().writeLock();
+        vmLock.lock();
+        return vmLock::unlock;
+    }
+
+    /**
+     * @return the statistics about the locks acquired so far
+     */
+    public LockStatistics getStatistics() {
+        return new LockStatistics(exclusiveLocks.sum(), sharedLocks.sum(),
+                TimeUnit.NANOSECONDS.toMillis(waitNanos.sum()), TimeUnit.NANOSECONDS.toMillis(maxWaitNanos.get()));
+    }
+
+    private static void acquire(Lock vmLock, FileLockerImpl locker, long timeout) {
+        try {
+            if (!vmLock.tryLock(timeout, TimeUnit.MILLISECONDS)) {
                 throw new LockTimeoutException("lock timeout: Could not acquire lock on file " + locker.lockMarkerFile
                         + " for " + timeout + " msec");
             }
@@ -47,18 +136,12 @@ public class FileLockServiceImpl implements FileLockService {
             Thread.currentThread().interrupt();
             throw new LockTimeoutException("Interrupted", e);
         }
-        locker.lock(timeout);
-        return () -> {
-            locks.fileLocker().release();
-            locks.vmLock().unlock();
-        };
     }
 
-    @Override
-    public Closeable lockVirtually(File file) {
-        FileLocks locks = getFileLocker(file.toPath());
-        locks.vmLock().lock();
-        return locks.vmLock()::unlock;
+    private void recordWait(long start) {
+        long waited = System.nanoTime() - start;
+        waitNanos.add(waited);
+        maxWaitNanos.accumulate(waited);
     }
 
     FileLocks getFileLocker(Path file) {
@@ -68,7 +151,7 @@ public class FileLockServiceImpl implements FileLockService {
         } catch (IOException e) {
             key = file.toAbsolutePath().normalize();
         }
-        return lockers.computeIfAbsent(key, f -> new FileLocks(new FileLockerImpl(f), new ReentrantLock()));
+        return lockers.computeIfAbsent(key, f -> new FileLocks(new FileLockerImpl(f), new ReentrantReadWriteLock()));
     }
 
 }
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2011, 2023 SAP AG and others.
+ * Copyright (c) 2011, 2026 SAP AG and others.
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
  * which accompanies this distribution, and is available at
@@ -31,6 +31,8 @@ public class FileLockerImpl {
 
     private FileLock lock;
 
+    private int sharedCount;
+
     private Path file;
 
     FileLockerImpl(Path file) {
@@ -56,20 +58,38 @@ public class FileLockerImpl {
         if (lock != null) {
             throw new LockTimeoutException("already locked file " + file);
         }
-        lock = aquireLock(timeout);
+        lock = aquireLock(timeout, false);
+
+    }
 
+    /**
+     * Acquires a shared lock, all threads of this VM holding a shared lock use the same lock on the
+     * marker file.
+     */
+    synchronized void lockShared(long timeout) {
+        if (timeout < 0) {
+            throw new IllegalArgumentException("timeout must not be negative");
+        }
+        if (sharedCount == 0) {
+            if (lock != null) {
+                throw new LockTimeoutException("already locked file " + file);
+            }
+            lock = aquireLock(timeout, true);
+        }
+        sharedCount++;
     }
 
-    private FileLock aquireLock(long timeout) {
+    private FileLock aquireLock(long timeout, boolean shared) {
         final long waitInterval = 50L;
         long maxTries = (timeout / waitInterval) + 1;
         FileChannel channel = null;
         for (long i = 0; i < maxTries; i++) {
             try {
                 if (channel == null) {
-                    channel = FileChannel.open(lockMarkerFile, StandardOpenOption.WRITE, StandardOpenOption.CREATE);
+                    channel = FileChannel.open(lockMarkerFile, StandardOpenOption.READ, StandardOpenOption.WRITE,
+                            StandardOpenOption.CREATE);
                 }
-                FileLock fileLock = channel.tryLock();
+                FileLock fileLock = channel.tryLock(0L, Long.MAX_VALUE, shared);
                 if (fileLock != null) {
                     return fileLock;
                 }
@@ -94,6 +114,17 @@ public class FileLockerImpl {
                 "lock timeout: Could not acquire lock on file " + lockMarkerFile + " for " + timeout + " msec");
     }
 
+    synchronized void releaseShared() {
+        if (sharedCount > 0 && --sharedCount == 0 && lock != null) {
+            try {
+                lock.acquiredBy().close();
+            } catch (Exception e) {
+            }
+            lock = null;
+            // the marker file is kept as other processes might hold a shared lock on it as well
+        }
+    }
+
     synchronized void release() {
         if (lock != null) {
             try {
@@ -57,13 +57,17 @@ import org.eclipse.equinox.p2.metadata.IRequirement;
 import org.eclipse.sisu.equinox.EquinoxServiceFactory;
 import org.eclipse.tycho.BuildFailureException;
 import org.eclipse.tycho.DependencyResolutionException;
+import org.eclipse.tycho.FileLockService;
 import org.eclipse.tycho.TychoConstants;
 import org.eclipse.tycho.build.BuildListeners;
 import org.eclipse.tycho.core.TychoProjectManager;
+import org.eclipse.tycho.core.locking.FileLockServiceImpl;
 import org.eclipse.tycho.core.osgitools.BundleReader;
 import org.eclipse.tycho.core.osgitools.DefaultBundleReader;
 import org.eclipse.tycho.p2maven.MavenProjectDependencyProcessor;
 import org.eclipse.tycho.p2maven.MavenProjectDependencyProcessor.ProjectDependencyClosure;
+import org.eclipse.tycho.p2resolver.P2ResolutionCache;
+import org.eclipse.tycho.p2resolver.TargetDefinitionResolverService;
 import org.eclipse.tycho.resolver.TychoResolver;
 import org.eclipse.tycho.version.TychoVersion;
 
@@ -104,6 +108,15 @@ public class TychoMavenLifecycleParticipant extends AbstractMavenLifecyclePartic
     @Requirement
     TychoProjectManager projectManager;
 
+    @Requirement
+    P2ResolutionCache resolutionCache;
+
+    @Requirement
+    TargetDefinitionResolverService targetDefinitionResolverService;
+
+    @Requirement
+    FileLockService fileLockService;
+
     public TychoMavenLifecycleParticipant() {
         // needed for plexus
     }
@@ -210,6 +223,11 @@ public class TychoMavenLifecycleParticipant extends AbstractMavenLifecyclePartic
     @Override
     public void afterSessionEnd(MavenSession session) throws MavenExecutionException {
         buildListeners.notifyBuildEnd(session);
+        resolutionCache.clear();
+        targetDefinitionResolverService.logStatistics();
+        if (fileLockService instanceof FileLockServiceImpl lockService && log.isDebugEnabled()) {
+            log.debug("File lock statistics: " + lockService.getStatistics());
+        }
         if (plexus.hasComponent(EquinoxServiceFactory.class)) {
             try {
                 EquinoxServiceFactory factory = plexus.lookup(EquinoxServiceFactory.class);
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2008, 2022 Sonatype Inc. and others.
+ * Copyright (c) 2008, 2026 Sonatype Inc. and others.
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
  * which accompanies this distribution, and is available at
@@ -19,8 +19,8 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.nio.file.Files;
 import java.nio.file.StandardCopyOption;
+import java.util.Collections;
 import java.util.Enumeration;
-import java.util.HashMap;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Properties;
@@ -37,15 +37,21 @@ import org.codehaus.plexus.component.annotations.Requirement;
 import org.codehaus.plexus.logging.AbstractLogEnabled;
 import org.eclipse.tycho.FileLockService;
 import org.eclipse.tycho.TychoConstants;
+import org.eclipse.tycho.core.LRUCache;
 
 @Component(role = BundleReader.class)
 public class DefaultBundleReader extends AbstractLogEnabled implements BundleReader {
 
     private static final long LOCK_TIMEOUT = Long.getLong("tycho.bundlereader.lock.timeout", 5 * 60 * 1000L);
+    private static final int MANIFEST_CACHE_SIZE = Integer.getInteger("tycho.bundlereader.cache.size", 10000);
+    private static final boolean MANIFEST_INDEX = Boolean
+            .parseBoolean(System.getProperty("tycho.bundlereader.index", "true"));
     public static final String CACHE_PATH = ".cache/tycho";
-    private final Map<String, OsgiManifest> manifestCache = new HashMap<>();
+    private final Map<String, OsgiManifest> manifestCache = Collections
+            .synchronizedMap(new LRUCache<>(MANIFEST_CACHE_SIZE));
 
     private File cacheDir;
+    private volatile ManifestIndex manifestIndex;
     private ConcurrentMap<String, Optional<File>> extractedFiles = new ConcurrentHashMap<>();
 
     @Requirement
@@ -102,12 +108,26 @@ public class DefaultBundleReader extends AbstractLogEnabled implements BundleRea
             // file but not a jar, assume it is MANIFEST.MF
             return loadManifestFile(bundleLocation);
         }
+        String location = bundleLocation.getAbsolutePath() + "!/" + JarFile.MANIFEST_NAME;
+        ManifestIndex index = manifestIndex;
+        long size = bundleLocation.length();
+        long lastModified = bundleLocation.lastModified();
+        if (index != null) {
+            Map<String, String> headers = index.get(bundleLocation, size, lastModified);
+            if (headers != null) {
+                return OsgiManifest.fromHeaders(headers, location);
+            }
+        }
         try ( // it is a jar, let's see if it has OSGi bundle manifest
                 ZipFile jar = new ZipFile(bundleLocation, ZipFile.OPEN_READ)) {
             ZipEntry manifestEntry = jar.getEntry(JarFile.MANIFEST_NAME);
             if (manifestEntry != null) {
                 InputStream stream = jar.getInputStream(manifestEntry);
-                return OsgiManifest.parse(stream, bundleLocation.getAbsolutePath() + "!/" + JarFile.MANIFEST_NAME);
+                OsgiManifest manifest = OsgiManifest.parse(stream, location);
+                if (index != null) {
+                    index.put(bundleLocation, size, lastModified, manifest.getHeaders());
+                }
+                return manifest;
             }
         }
         throw new OsgiManifestParserException(bundleLocation.getAbsolutePath(),
@@ -162,6 +182,7 @@ public class DefaultBundleReader extends AbstractLogEnabled implements BundleRea
 
     public void setLocationRepository(File basedir) {
         this.cacheDir = new File(basedir, CACHE_PATH);
+        this.manifestIndex = MANIFEST_INDEX ? new ManifestIndex(cacheDir) : null;
     }
 
     @Override
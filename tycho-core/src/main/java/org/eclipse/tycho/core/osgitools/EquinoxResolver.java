@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2008, 2021 Sonatype Inc. and others.
+ * Copyright (c) 2008, 2026 Sonatype Inc. and others.
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
  * which accompanies this distribution, and is available at
@@ -15,10 +15,16 @@
  *******************************************************************************/
 package org.eclipse.tycho.core.osgitools;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
 import java.io.File;
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.EnumSet;
+import java.util.HashMap;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
@@ -26,6 +32,9 @@ import java.util.Objects;
 import java.util.Properties;
 import java.util.Set;
 import java.util.StringJoiner;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
@@ -66,6 +75,7 @@ import org.eclipse.tycho.ExecutionEnvironment;
 import org.eclipse.tycho.ExecutionEnvironmentConfiguration;
 import org.eclipse.tycho.ReactorProject;
 import org.eclipse.tycho.TargetEnvironment;
+import org.eclipse.tycho.core.LRUCache;
 import org.eclipse.tycho.core.TargetPlatformConfiguration;
 import org.eclipse.tycho.core.TychoProjectManager;
 import org.eclipse.tycho.core.ee.ExecutionEnvironmentUtils;
@@ -88,6 +98,8 @@ public class EquinoxResolver implements DependenciesResolver {
 
     public static final String HINT = "equinox";
 
+    private static final int PLATFORM_STATE_CACHE_SIZE = 5;
+
     private static final String FORCE_KEEP_USES = "First attempt at resolving bundle failed. Trying harder by keeping `uses` information... This may drastically slow down your build!";
 
     @Requirement
@@ -108,6 +120,28 @@ public class EquinoxResolver implements DependenciesResolver {
     @Requirement
     private DependencyComputer dependencyComputer;
 
+    /**
+     * Identifies the state of the target platform bundles, it is the same for all projects
+     * resolving against the same bundles with the same execution environment and target
+     * environment.
+     */
+    private record PlatformStateKey(List<File> locations, String systemPackages, String systemCapabilities,
+            boolean keepUses) {
+    }
+
+    /**
+     * The resolved state of the target platform bundles as stored by {@link ModuleDatabase}, and
+     * the revision infos of the modules which are not part of the stored data.
+     */
+    private record PlatformState(byte[] database, Map<String, Object> revisionInfos) {
+    }
+
+    private record ContainerState(ModuleContainer container, ModuleDatabase database) {
+    }
+
+    private final Map<PlatformStateKey, CompletableFuture<PlatformState>> platformStates = new LRUCache<>(
+            PLATFORM_STATE_CACHE_SIZE);
+
     public ModuleContainer newResolvedState(ReactorProject project, MavenSession mavenSession, ExecutionEnvironment ee,
             DependencyArtifacts artifacts) throws BundleException {
         Objects.requireNonNull(artifacts, "DependencyArtifacts can't be null!");
@@ -254,6 +288,203 @@ public class EquinoxResolver implements DependenciesResolver {
 
     protected ModuleContainer newState(DependencyArtifacts artifacts, Properties properties, MavenSession mavenSession,
             ScheduledExecutorService executorService, EquinoxResolverConfiguration config) throws BundleException {
+        List<ArtifactDescriptor> list = artifacts.getArtifacts(ArtifactType.TYPE_ECLIPSE_PLUGIN);
+        if (config.sharedPlatform) {
+            ModuleContainer container = newDerivedState(list, properties, executorService, config);
+            if (container != null) {
+                return container;
+            }
+        }
+        Map<File, OsgiManifest> systemBundles = new LinkedHashMap<>();
+        Map<File, OsgiManifest> externalBundles = new LinkedHashMap<>();
+        Map<File, OsgiManifest> projects = new LinkedHashMap<>();
+
+        for (ArtifactDescriptor artifact : list) {
+            File location = artifact.getLocation(true);
+            OsgiManifest mf = loadManifest(location, artifact);
+            if (isFrameworkImplementation(mf)) {
+                systemBundles.put(location, mf);
+            } else {
+                ReactorProject mavenProject = artifact.getMavenProject();
+                if (mavenProject != null) {
+                    projects.put(location, addAdditionalBundles(mavenProject, mf));
+                } else {
+                    externalBundles.put(location, mf);
+                }
+            }
+        }
+        ContainerState state = newContainer(executorService, config, Map.of());
+        installPlatform(state.container(), systemBundles, externalBundles, properties, config);
+        installProjects(state.container(), projects, config);
+        return state.container();
+    }
+
+    /**
+     * Creates a state by installing the reactor bundles on top of a copy of the shared state of the
+     * target platform bundles.
+     * 
+     * @return the new state or <code>null</code> if the shared state can't be used
+     */
+    private ModuleContainer newDerivedState(List<ArtifactDescriptor> list, Properties properties,
+            ScheduledExecutorService executorService, EquinoxResolverConfiguration config) throws BundleException {
+        List<ArtifactDescriptor> platformArtifacts = new ArrayList<>();
+        Map<File, OsgiManifest> projects = new LinkedHashMap<>();
+        for (ArtifactDescriptor artifact : list) {
+            ReactorProject mavenProject = artifact.getMavenProject();
+            if (mavenProject != null) {
+                File location = artifact.getLocation(true);
+                OsgiManifest mf = loadManifest(location, artifact);
+                if (isFrameworkImplementation(mf)) {
+                    // the framework itself is part of the reactor
+                    return null;
+                }
+                projects.put(location, addAdditionalBundles(mavenProject, mf));
+            } else {
+                platformArtifacts.add(artifact);
+            }
+        }
+        List<File> locations = platformArtifacts.stream().map(artifact -> artifact.getLocation(true)).toList();
+        PlatformStateKey key = new PlatformStateKey(locations,
+                properties.getProperty(Constants.FRAMEWORK_SYSTEMPACKAGES), getSystemExtraCapabilities(properties),
+                config.keepUses);
+        PlatformState platformState = getPlatformState(key,
+                () -> newPlatformState(platformArtifacts, properties, executorService, config));
+        ContainerState state = newContainer(executorService, config, platformState.revisionInfos());
+        try {
+            state.database().load(new DataInputStream(new ByteArrayInputStream(platformState.database())));
+        } catch (IOException e) {
+            throw new BundleException("Loading the state of the target platform failed", e);
+        }
+        installProjects(state.container(), projects, config);
+        return state.container();
+    }
+
+    private PlatformState getPlatformState(PlatformStateKey key, Callable<PlatformState> factory)
+            throws BundleException {
+        CompletableFuture<PlatformState> future;
+        boolean create = false;
+        synchronized (platformStates) {
+            future = platformStates.get(key);
+            if (future == null) {
+                future = new CompletableFuture<>();
+                platformStates.put(key, future);
+                create = true;
+            }
+        }
+        if (create) {
+            try {
+                future.complete(factory.call());
+            } catch (Exception e) {
+                synchronized (platformStates) {
+                    platformStates.remove(key, future);
+                }
+                future.completeExceptionally(e);
+            }
+        }
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof BundleException bundleException) {
+                throw bundleException;
+            }
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw e;
+        }
+    }
+
+    private PlatformState newPlatformState(List<ArtifactDescriptor> platformArtifacts, Properties properties,
+            ScheduledExecutorService executorService, EquinoxResolverConfiguration config)
+            throws BundleException, IOException {
+        Map<File, OsgiManifest> systemBundles = new LinkedHashMap<>();
+        Map<File, OsgiManifest> externalBundles = new LinkedHashMap<>();
+        for (ArtifactDescriptor artifact : platformArtifacts) {
+            File location = artifact.getLocation(true);
+            OsgiManifest mf = loadManifest(location, artifact);
+            if (isFrameworkImplementation(mf)) {
+                systemBundles.put(location, mf);
+            } else {
+                externalBundles.put(location, mf);
+            }
+        }
+        ContainerState state = newContainer(executorService, config, Map.of());
+        installPlatform(state.container(), systemBundles, externalBundles, properties, config);
+        state.container().resolve(null, false);
+        Map<String, Object> revisionInfos = new HashMap<>();
+        for (Module module : state.container().getModules()) {
+            Object revisionInfo = module.getCurrentRevision().getRevisionInfo();
+            if (revisionInfo != null) {
+                revisionInfos.put(module.getLocation(), revisionInfo);
+            }
+        }
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream stream = new DataOutputStream(bytes)) {
+            state.database().store(stream, true);
+        }
+        return new PlatformState(bytes.toByteArray(), revisionInfos);
+    }
+
+    private OsgiManifest addAdditionalBundles(ReactorProject mavenProject, OsgiManifest mf) {
+        Collection<String> additionalBundles = buildPropertiesParser.parse(mavenProject).getAdditionalBundles();
+        if (!additionalBundles.isEmpty()) {
+            List<String> reqb = new ArrayList<>();
+            String value = mf.getValue(Constants.REQUIRE_BUNDLE);
+            if (value != null) {
+                reqb.add(value);
+            }
+            reqb.addAll(additionalBundles.stream().map(b -> b + ";resolution:=optional").toList());
+            mf.getHeaders().put(Constants.REQUIRE_BUNDLE, String.join(",", reqb));
+        }
+        return mf;
+    }
+
+    private void installPlatform(ModuleContainer moduleContainer, Map<File, OsgiManifest> systemBundles,
+            Map<File, OsgiManifest> externalBundles, Properties properties, EquinoxResolverConfiguration config)
+            throws BundleException {
+        String systemExtraCapabilities = getSystemExtraCapabilities(properties);
+
+        Map<String, String> systemBundleManifest;
+        Object systemBundleInfo;
+        if (!systemBundles.isEmpty()) {
+            Map.Entry<File, OsgiManifest> systemBundle = systemBundles.entrySet().iterator().next();
+            systemBundleManifest = systemBundle.getValue().getHeaders();
+            systemBundleInfo = systemBundle.getKey();
+        } else {
+            systemBundleManifest = Map.of(Constants.BUNDLE_SYMBOLICNAME, Constants.SYSTEM_BUNDLE_SYMBOLICNAME);
+            systemBundleInfo = null;
+        }
+
+        ModuleRevisionBuilder systemBundleRevisionBuilder = OSGiManifestBuilderFactory.createBuilder(
+                systemBundleManifest, Constants.SYSTEM_BUNDLE_SYMBOLICNAME,
+                properties.getProperty(Constants.FRAMEWORK_SYSTEMPACKAGES), systemExtraCapabilities);
+        install(moduleContainer, null, Constants.SYSTEM_BUNDLE_LOCATION, systemBundleRevisionBuilder, systemBundleInfo,
+                config);
+
+        for (Map.Entry<File, OsgiManifest> external : externalBundles.entrySet()) {
+            install(moduleContainer, null, external.getKey().getAbsolutePath(),
+                    OSGiManifestBuilderFactory.createBuilder(external.getValue().getHeaders()), external.getKey(),
+                    config);
+        }
+    }
+
+    private static void installProjects(ModuleContainer moduleContainer, Map<File, OsgiManifest> projects,
+            EquinoxResolverConfiguration config) throws BundleException {
+        for (Map.Entry<File, OsgiManifest> entry : projects.entrySet()) {
+            // make sure reactor projects override anything from the target platform
+            // that has the same bundle symbolic name
+            Map<String, String> headers = entry.getValue().getHeaders();
+            ModuleRevisionBuilder builder = OSGiManifestBuilderFactory.createBuilder(headers);
+            install(moduleContainer, null, entry.getKey().getAbsolutePath(), builder, entry.getKey(), config);
+        }
+    }
+
+    /**
+     * @param revisionInfos
+     *            the revision infos of modules loaded from a stored database, by location
+     */
+    private static ContainerState newContainer(ScheduledExecutorService executorService,
+            EquinoxResolverConfiguration config, Map<String, Object> revisionInfos) {
         ModuleContainer[] moduleContainerAccessor = new ModuleContainer[1];
         ModuleContainerAdaptor moduleContainerAdaptor = new ModuleContainerAdaptor() {
 
@@ -345,75 +576,17 @@ public class EquinoxResolver implements DependenciesResolver {
             public ScheduledExecutorService getScheduledExecutor() {
                 return executorService;
             }
+
+            @Override
+            public Object getRevisionInfo(String location, long id) {
+                return revisionInfos.get(location);
+            }
         };
 
         ModuleDatabase moduleDatabase = new ModuleDatabase(moduleContainerAdaptor);
         ModuleContainer moduleContainer = new ModuleContainer(moduleContainerAdaptor, moduleDatabase);
         moduleContainerAccessor[0] = moduleContainer;
-
-        Map<File, OsgiManifest> systemBundles = new LinkedHashMap<>();
-        Map<File, OsgiManifest> externalBundles = new LinkedHashMap<>();
-        Map<File, OsgiManifest> projects = new LinkedHashMap<>();
-
-        List<ArtifactDescriptor> list = artifacts.getArtifacts(ArtifactType.TYPE_ECLIPSE_PLUGIN);
-        for (ArtifactDescriptor artifact : list) {
-            File location = artifact.getLocation(true);
-            OsgiManifest mf = loadManifest(location, artifact);
-            if (isFrameworkImplementation(mf)) {
-                systemBundles.put(location, mf);
-            } else {
-                ReactorProject mavenProject = artifact.getMavenProject();
-                if (mavenProject != null) {
-                    Collection<String> additionalBundles = buildPropertiesParser.parse(mavenProject)
-                            .getAdditionalBundles();
-                    if (!additionalBundles.isEmpty()) {
-                        List<String> reqb = new ArrayList<>();
-                        String value = mf.getValue(Constants.REQUIRE_BUNDLE);
-                        if (value != null) {
-                            reqb.add(value);
-                        }
-                        reqb.addAll(additionalBundles.stream().map(b -> b + ";resolution:=optional").toList());
-                        mf.getHeaders().put(Constants.REQUIRE_BUNDLE, String.join(",", reqb));
-                    }
-                    projects.put(location, mf);
-                } else {
-                    externalBundles.put(location, mf);
-                }
-            }
-        }
-
-        String systemExtraCapabilities = getSystemExtraCapabilities(properties);
-
-        Map<String, String> systemBundleManifest;
-        Object systemBundleInfo;
-        if (!systemBundles.isEmpty()) {
-            Map.Entry<File, OsgiManifest> systemBundle = systemBundles.entrySet().iterator().next();
-            systemBundleManifest = systemBundle.getValue().getHeaders();
-            systemBundleInfo = systemBundle.getKey();
-        } else {
-            systemBundleManifest = Map.of(Constants.BUNDLE_SYMBOLICNAME, Constants.SYSTEM_BUNDLE_SYMBOLICNAME);
-            systemBundleInfo = null;
-        }
-
-        ModuleRevisionBuilder systemBundleRevisionBuilder = OSGiManifestBuilderFactory.createBuilder(
-                systemBundleManifest, Constants.SYSTEM_BUNDLE_SYMBOLICNAME,
-                properties.getProperty(Constants.FRAMEWORK_SYSTEMPACKAGES), systemExtraCapabilities);
-        install(moduleContainer, null, Constants.SYSTEM_BUNDLE_LOCATION, systemBundleRevisionBuilder, systemBundleInfo,
-                config);
-
-        for (Map.Entry<File, OsgiManifest> external : externalBundles.entrySet()) {
-            install(moduleContainer, null, external.getKey().getAbsolutePath(),
-                    OSGiManifestBuilderFactory.createBuilder(external.getValue().getHeaders()), external.getKey(),
-                    config);
-        }
-        for (Map.Entry<File, OsgiManifest> entry : projects.entrySet()) {
-            // make sure reactor projects override anything from the target platform
-            // that has the same bundle symbolic name
-            Map<String, String> headers = entry.getValue().getHeaders();
-            ModuleRevisionBuilder builder = OSGiManifestBuilderFactory.createBuilder(headers);
-            install(moduleContainer, null, entry.getKey().getAbsolutePath(), builder, entry.getKey(), config);
-        }
-        return moduleContainer;
+        return new ContainerState(moduleContainer, moduleDatabase);
     }
 
     private static Module install(ModuleContainer moduleContainer, Module origin, String location,
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2022 Red Hat Inc. and others.
+ * Copyright (c) 2022, 2026 Red Hat Inc. and others.
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
  * which accompanies this distribution, and is available at
@@ -17,11 +17,13 @@ final class EquinoxResolverConfiguration {
     public EquinoxResolverConfiguration() {
         keepUses = Boolean.getBoolean("tycho.equinox.resolver.uses");
         batchSize = System.getProperty("tycho.equinox.resolver.batch.size", keepUses ? null : "1");
+        sharedPlatform = Boolean.getBoolean("tycho.equinox.resolver.shared");
     }
 
     public EquinoxResolverConfiguration(EquinoxResolverConfiguration source, boolean forceKeepUses) {
         keepUses = forceKeepUses;
         batchSize = keepUses ? null : source.batchSize;
+        sharedPlatform = source.sharedPlatform;
     }
 
     /**
@@ -37,6 +39,13 @@ final class EquinoxResolverConfiguration {
      */
     final String batchSize;
 
+    /**
+     * If set to true the bundles of the target platform are installed and resolved only once for
+     * all projects using the same target platform and execution environment, each project then only
+     * installs the reactor bundles on top of a copy of this state
+     */
+    final boolean sharedPlatform;
+
     /**
      * Set the batch timeout to an acceptable timeout before fallback to resolve one bundle at a
      * time, but allow to override this if necessary
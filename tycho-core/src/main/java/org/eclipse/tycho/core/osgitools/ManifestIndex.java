@@ -0,0 +1,194 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Christoph Läubrich and others.
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *    Christoph Läubrich - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.tycho.core.osgitools;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Remembers the manifest headers of jar files, so a jar that was read once does not need to be
+ * opened again as long as its size and modification time are unchanged. The headers are appended
+ * to a binary file in the tycho cache directory that is read at once when the index is created.
+ * <p>
+ * Each record is prefixed by its length, an incomplete record at the end (e.g. from a process that
+ * was killed while writing) is dropped.
+ */
+final class ManifestIndex {
+
+    static final String FILE_NAME = "manifest-index-v1.bin";
+
+    private static final int MIN_COMPACT_RECORDS = 1000;
+
+    private record Entry(long size, long lastModified, Map<String, String> headers) {
+    }
+
+    private final Path storage;
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    private int records;
+
+    ManifestIndex(File cacheDir) {
+        this.storage = new File(cacheDir, FILE_NAME).toPath();
+        load();
+    }
+
+    /**
+     * @return the headers stored for the given file or <code>null</code> if the file is unknown or
+     *         was modified since
+     */
+    Map<String, String> get(File file, long size, long lastModified) {
+        Entry entry = entries.get(file.getAbsolutePath());
+        if (entry != null && entry.size() == size && entry.lastModified() == lastModified) {
+            return entry.headers();
+        }
+        return null;
+    }
+
+    /**
+     * Stores the headers read from the given file.
+     *
+     * @param size
+     *            the size of the file before it was read
+     * @param lastModified
+     *            the modification time of the file before it was read
+     */
+    void put(File file, long size, long lastModified, Map<String, String> headers) {
+        if (file.length() != size || file.lastModified() != lastModified) {
+            // modified while we read it
+            return;
+        }
+        String path = file.getAbsolutePath();
+        Entry entry = new Entry(size, lastModified, Map.copyOf(headers));
+        entries.put(path, entry);
+        append(path, entry);
+    }
+
+    private void load() {
+        if (!Files.isRegularFile(storage)) {
+            return;
+        }
+        boolean incomplete = false;
+        try {
+            ByteBuffer buffer = ByteBuffer.wrap(Files.readAllBytes(storage));
+            while (buffer.hasRemaining()) {
+                if (buffer.remaining() < Integer.BYTES) {
+                    incomplete = true;
+                    break;
+                }
+                int length = buffer.getInt();
+                if (length < 0 || length > buffer.remaining()) {
+                    incomplete = true;
+                    break;
+                }
+                ByteBuffer record = buffer.slice(buffer.position(), length);
+                buffer.position(buffer.position() + length);
+                readRecord(record);
+            }
+            if (incomplete || (records >= MIN_COMPACT_RECORDS && records > 2 * entries.size())) {
+                compact();
+            }
+        } catch (IOException | RuntimeException e) {
+            // the index is only an optimization, the manifests are read from the files then
+        }
+    }
+
+    private void readRecord(ByteBuffer record) {
+        try {
+            String path = readString(record);
+            long size = record.getLong();
+            long lastModified = record.getLong();
+            int count = record.getInt();
+            Map<String, String> headers = new LinkedHashMap<>(count);
+            for (int i = 0; i < count; i++) {
+                headers.put(readString(record), readString(record));
+            }
+            records++;
+            entries.put(path, new Entry(size, lastModified, headers));
+        } catch (RuntimeException e) {
+            // ignore invalid record
+        }
+    }
+
+    private static String readString(ByteBuffer buffer) {
+        byte[] bytes = new byte[buffer.getInt()];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static byte[] toRecord(String path, Entry entry) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            // reserve space for the length
+            out.writeInt(0);
+            writeString(out, path);
+            out.writeLong(entry.size());
+            out.writeLong(entry.lastModified());
+            out.writeInt(entry.headers().size());
+            for (Map.Entry<String, String> header : entry.headers().entrySet()) {
+                writeString(out, header.getKey());
+                writeString(out, header.getValue());
+            }
+        }
+        ByteBuffer record = ByteBuffer.wrap(bytes.toByteArray());
+        record.putInt(0, record.capacity() - Integer.BYTES);
+        return record.array();
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        // not using writeUTF as headers like Export-Package might exceed its 64k limit
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private synchronized void append(String path, Entry entry) {
+        try {
+            Files.createDirectories(storage.getParent());
+            // a single write so concurrent processes do not interleave their records
+            Files.write(storage, toRecord(path, entry), StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+            records++;
+        } catch (IOException e) {
+            // simply read the manifest again next time...
+        }
+    }
+
+    private synchronized void compact() throws IOException {
+        Path tempFile = Files.createTempFile(storage.getParent(), storage.getFileName().toString(), ".tmp");
+        try {
+            int written = 0;
+            try (OutputStream out = Files.newOutputStream(tempFile)) {
+                for (Map.Entry<String, Entry> entry : entries.entrySet()) {
+                    if (new File(entry.getKey()).isFile()) {
+                        out.write(toRecord(entry.getKey(), entry.getValue()));
+                        written++;
+                    }
+                }
+            }
+            Files.move(tempFile, storage, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            records = written;
+        } finally {
+            Files.deleteIfExists(tempFile);
+        }
+    }
+}
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2008, 2022 Sonatype Inc. and others.
+ * Copyright (c) 2008, 2026 Sonatype Inc. and others.
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
  * which accompanies this distribution, and is available at
@@ -150,7 +150,8 @@ public class OsgiBundleProject extends AbstractTychoProject implements BundlePro
         return bundleReader.loadManifest(mavenProject);
     }
 
-    private BundleClassPath resolveClassPath(MavenSession session, MavenProject project) {
+    /** package-private for tests */
+    BundleClassPath resolveClassPath(MavenSession session, MavenProject project) {
         logger.info("Resolving class path of " + project.getName());
         ReactorProject reactorProject = DefaultReactorProject.adapt(project);
         List<AccessRule> strictBootClasspathAccessRules = new ArrayList<>();
@@ -285,21 +286,19 @@ public class OsgiBundleProject extends AbstractTychoProject implements BundlePro
         if (otherProject == null) {
             return null;
         }
-        EclipsePluginProjectImpl pdeProject = (EclipsePluginProjectImpl) otherProject
-                .getContextValue(CTX_ECLIPSE_PLUGIN_PROJECT);
-        if (pdeProject == null) {
+        // class paths of different projects are computed concurrently and might all need this one
+        return otherProject.computeContextValue(CTX_ECLIPSE_PLUGIN_PROJECT, () -> {
             try {
-                pdeProject = new EclipsePluginProjectImpl(otherProject, buildPropertiesParser.parse(otherProject),
-                        classpathParser.parse(otherProject.getBasedir()));
+                EclipsePluginProjectImpl pdeProject = new EclipsePluginProjectImpl(otherProject,
+                        buildPropertiesParser.parse(otherProject), classpathParser.parse(otherProject.getBasedir()));
                 if (otherProject instanceof DefaultReactorProject defaultReactorProject) {
                     populateProperties(defaultReactorProject.project.getProperties(), pdeProject);
                 }
-                otherProject.setContextValue(CTX_ECLIPSE_PLUGIN_PROJECT, pdeProject);
+                return pdeProject;
             } catch (IOException e) {
                 throw new RuntimeException(e);
             }
-        }
-        return pdeProject;
+        });
     }
 
     /**
@@ -326,13 +325,10 @@ public class OsgiBundleProject extends AbstractTychoProject implements BundlePro
         return getBundleClassPath(project).getExtraBootClasspathAccessRules();
     }
 
-    public synchronized BundleClassPath getBundleClassPath(ReactorProject project) {
-        if (project.getContextValue(CTX_CLASSPATH) instanceof BundleClassPath bundleClassPath) {
-            return bundleClassPath;
-        }
-        BundleClassPath cp = resolveClassPath(getMavenSession(project), getMavenProject(project));
-        project.setContextValue(CTX_CLASSPATH, cp);
-        return cp;
+    public BundleClassPath getBundleClassPath(ReactorProject project) {
+        // resolved only once per project, but different projects can be resolved in parallel
+        return project.computeContextValue(CTX_CLASSPATH,
+                () -> resolveClassPath(getMavenSession(project), getMavenProject(project)));
     }
 
     /**
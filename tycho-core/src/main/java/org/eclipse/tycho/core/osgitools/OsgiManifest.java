@@ -38,10 +38,29 @@ public class OsgiManifest {
     private final String[] executionEnvironments;
     private final boolean isDirectoryShape;
 
-    private OsgiManifest(InputStream stream, String location) throws OsgiManifestParserException {
+    private OsgiManifest(CaseInsensitiveDictionaryMap<String, String> headers, String location)
+            throws OsgiManifestParserException {
         this.location = location;
+        this.headers = headers;
+        try {
+            // this will do more strict validation of headers on OSGi semantical level
+            this.bundleSymbolicName = OSGiManifestBuilderFactory.createBuilder(headers).getSymbolicName();
+        } catch (BundleException e) {
+            throw new OsgiManifestParserException(location, e);
+        }
+        if (this.bundleSymbolicName == null) {
+            throw new InvalidOSGiManifestException(location, "Bundle-SymbolicName is missing");
+        }
+        this.bundleVersion = parseBundleVersion();
+        this.bundleClassPath = parseBundleClasspath();
+        this.isDirectoryShape = parseDirectoryShape();
+        this.executionEnvironments = parseExecutionEnvironments();
+    }
+
+    private static CaseInsensitiveDictionaryMap<String, String> readHeaders(InputStream stream, String location)
+            throws OsgiManifestParserException {
+        CaseInsensitiveDictionaryMap<String, String> headers = new CaseInsensitiveDictionaryMap<>();
         try {
-            this.headers = new CaseInsensitiveDictionaryMap<>();
             if (location.endsWith(".bnd")) {
                 Properties properties = new Properties();
                 properties.load(stream);
@@ -58,18 +77,10 @@ public class OsgiManifest {
             } else {
                 ManifestElement.parseBundleManifest(stream, headers);
             }
-            // this will do more strict validation of headers on OSGi semantical level
-            this.bundleSymbolicName = OSGiManifestBuilderFactory.createBuilder(headers).getSymbolicName();
         } catch (IOException | BundleException e) {
             throw new OsgiManifestParserException(location, e);
         }
-        if (this.bundleSymbolicName == null) {
-            throw new InvalidOSGiManifestException(location, "Bundle-SymbolicName is missing");
-        }
-        this.bundleVersion = parseBundleVersion();
-        this.bundleClassPath = parseBundleClasspath();
-        this.isDirectoryShape = parseDirectoryShape();
-        this.executionEnvironments = parseExecutionEnvironments();
+        return headers;
     }
 
     private String[] parseExecutionEnvironments() {
@@ -166,7 +177,17 @@ public class OsgiManifest {
     }
 
     static OsgiManifest parse(InputStream stream, String location) throws OsgiManifestParserException {
-        return new OsgiManifest(stream, location);
+        return new OsgiManifest(readHeaders(stream, location), location);
+    }
+
+    /**
+     * Creates a manifest from headers that were read before, e.g. from the {@link ManifestIndex}.
+     */
+    static OsgiManifest fromHeaders(Map<String, String> headers, String location)
+            throws OsgiManifestParserException {
+        CaseInsensitiveDictionaryMap<String, String> map = new CaseInsensitiveDictionaryMap<>(headers.size());
+        map.putAll(headers);
+        return new OsgiManifest(map, location);
     }
 
     private ManifestElement[] parseHeader(String key) {
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2020, 2023 Christoph Läubrich and others.
+ * Copyright (c) 2020, 2026 Christoph Läubrich and others.
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
  * which accompanies this distribution, and is available at
@@ -18,6 +18,7 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.Enumeration;
 import java.util.HashMap;
 import java.util.Iterator;
@@ -26,8 +27,15 @@ import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.Properties;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Function;
 import java.util.function.Predicate;
+import java.util.function.Supplier;
 import java.util.jar.Attributes;
 import java.util.jar.Attributes.Name;
 import java.util.jar.JarEntry;
@@ -42,6 +50,7 @@ import javax.xml.transform.TransformerException;
 
 import org.apache.commons.io.FilenameUtils;
 import org.apache.maven.RepositoryUtils;
+import org.apache.maven.artifact.ArtifactUtils;
 import org.apache.maven.execution.MavenSession;
 import org.apache.maven.repository.RepositorySystem;
 import org.eclipse.aether.artifact.Artifact;
@@ -82,6 +91,8 @@ import org.eclipse.tycho.p2.resolver.BundlePublisher;
 import org.eclipse.tycho.p2.resolver.FeatureGenerator;
 import org.eclipse.tycho.p2.resolver.FeaturePublisher;
 import org.eclipse.tycho.p2.resolver.WrappedArtifact;
+import org.eclipse.tycho.p2.resolver.WrappedBundleCache;
+import org.eclipse.tycho.p2.resolver.WrappedBundleCache.CachedBundle;
 import org.eclipse.tycho.p2maven.advices.MavenChecksumAdvice;
 import org.eclipse.tycho.p2maven.advices.MavenPropertiesAdvice;
 import org.eclipse.tycho.p2maven.tmp.BundlesAction;
@@ -100,7 +111,10 @@ import org.xml.sax.SAXException;
 public class MavenTargetDefinitionContent implements TargetDefinitionContent {
     private static final String POM_PACKAGING_TYPE = "pom";
     public static final String ECLIPSE_SOURCE_BUNDLE_HEADER = "Eclipse-SourceBundle";
-    private final Map<IArtifactDescriptor, IInstallableUnit> repositoryContent = new HashMap<>();
+    static final String THREADS_PROPERTY = "tycho.target.maven.threads";
+    private static ExecutorService executor;
+    private final Map<IArtifactDescriptor, IInstallableUnit> repositoryContent = Collections
+            .synchronizedMap(new HashMap<>());
     private SupplierMetadataRepository metadataRepository;
     private FileArtifactRepository artifactRepository;
     private MavenContext mavenContext;
@@ -132,37 +146,32 @@ public class MavenTargetDefinitionContent implements TargetDefinitionContent {
                 instructionsMap.put(reference, properties);
                 logger.info((reference.isEmpty() ? "default instructions" : reference) + " = " + properties);
             }
-            List<IInstallableUnit> locationBundles = new ArrayList<>();
-            List<IInstallableUnit> locationSourceBundles = new ArrayList<>();
-            for (MavenDependency mavenDependency : location.getRoots()) {
-                DependencyDepth dependencyDepth = location.getIncludeDependencyDepth();
-                if (dependencyDepth == DependencyDepth.NONE
-                        && POM_PACKAGING_TYPE.equalsIgnoreCase(mavenDependency.getArtifactType())) {
-                    dependencyDepth = DependencyDepth.DIRECT;
-                }
-                int depth = switch (dependencyDepth) {
-                case INFINITE -> MavenDependenciesResolver.DEEP_INFINITE;
-                case DIRECT -> MavenDependenciesResolver.DEEP_DIRECT_CHILDREN;
-                default -> MavenDependenciesResolver.DEEP_NO_DEPENDENCIES;
-                };
-                Collection<?> resolve;
-                try {
-                    resolve = mavenDependenciesResolver.resolve(mavenDependency.getGroupId(),
-                            mavenDependency.getArtifactId(), mavenDependency.getVersion(),
-                            mavenDependency.getArtifactType(), mavenDependency.getClassifier(),
-                            location.getIncludeDependencyScopes(), depth, location.getRepositoryReferences());
-                } catch (DependencyResolutionException e1) {
-                    throw new TargetDefinitionResolutionException("MavenDependency " + mavenDependency + " of location "
-                            + location + " could not be resolved", e1);
-                }
-
-                Iterator<IArtifactFacade> resolvedArtifacts = resolve.stream().filter(IArtifactFacade.class::isInstance)
-                        .map(IArtifactFacade.class::cast).iterator();
-                Properties defaultProperties = WrappedArtifact.createPropertiesForPrefix("wrapped");
-                List<IInstallableUnit> bundles = new ArrayList<>();
-                List<IInstallableUnit> sourceBundles = new ArrayList<>();
-                while (resolvedArtifacts.hasNext()) {
-                    IArtifactFacade mavenArtifact = resolvedArtifacts.next();
+            Properties defaultProperties = WrappedArtifact.createPropertiesForPrefix("wrapped");
+            Function<DependencyNode, Properties> instructionsLookup = node -> instructionsMap
+                    .getOrDefault(getKey(node.getArtifact()), instructionsMap.getOrDefault("", defaultProperties));
+            Map<String, Properties> effectiveInstructions = new HashMap<>(instructionsMap);
+            effectiveInstructions.putIfAbsent("", defaultProperties);
+            // the session is bound to the calling thread, so without one everything has to happen here
+            ArtifactResolver resolver = new ArtifactResolver(location, mavenDependenciesResolver, includeSource,
+                    syncContextFactory, repositorySystem, mavenSession, repositorySystem2, instructionsLookup,
+                    effectiveInstructions, new WrappedBundleCache(mavenContext.getLocalRepositoryRoot()),
+                    mavenSession != null ? getExecutor() : null, logger);
+            List<MavenDependency> roots = List.copyOf(location.getRoots());
+            // resolve the dependency graphs of all roots up-front and process each artifact as soon as the
+            // graph of its root is known, the results are collected in declaration order afterwards
+            List<CompletableFuture<Collection<?>>> resolvedRoots = new ArrayList<>();
+            for (MavenDependency mavenDependency : roots) {
+                resolvedRoots.add(resolver.supplyAsync(() -> resolver.resolveRoot(mavenDependency)));
+            }
+            Map<File, CompletableFuture<ResolvedArtifact>> resolvedArtifacts = new HashMap<>();
+            List<List<CompletableFuture<ResolvedArtifact>>> rootArtifacts = new ArrayList<>();
+            for (int i = 0; i < roots.size(); i++) {
+                MavenDependency mavenDependency = roots.get(i);
+                Iterator<IArtifactFacade> resolvedArtifactFacades = join(resolvedRoots.get(i)).stream()
+                        .filter(IArtifactFacade.class::isInstance).map(IArtifactFacade.class::cast).iterator();
+                List<CompletableFuture<ResolvedArtifact>> artifacts = new ArrayList<>();
+                while (resolvedArtifactFacades.hasNext()) {
+                    IArtifactFacade mavenArtifact = resolvedArtifactFacades.next();
                     if (mavenDependency.isIgnored(mavenArtifact)) {
                         logger.debug("Skip ignored " + mavenArtifact);
                         continue;
@@ -177,145 +186,32 @@ public class MavenTargetDefinitionContent implements TargetDefinitionContent {
                         continue;
                     }
                     logger.debug("Resolved " + mavenArtifact);
-
-                    Feature feature = new FeatureParser().parse(mavenArtifact.getLocation());
-                    if (feature != null) {
-                        feature.setLocation(mavenArtifact.getLocation().getAbsolutePath());
-                        features.add(feature);
-                        continue;
-                    }
-
-                    String symbolicName;
-                    String bundleVersion;
-                    try {
-                        File bundleLocation = mavenArtifact.getLocation();
-                        BundleDescription bundleDescription = BundlesAction.createBundleDescription(bundleLocation);
-                        symbolicName = bundleDescription != null ? bundleDescription.getSymbolicName() : null;
-                        bundleVersion = bundleDescription != null ? bundleDescription.getVersion().toString() : null;
-                        IInstallableUnit unit;
-                        if (symbolicName == null) {
-                            if (location.getMissingManifestStrategy() == MissingManifestStrategy.IGNORE) {
-                                logger.info("Ignoring " + asDebugString(mavenArtifact)
-                                        + " as it is not a bundle and MissingManifestStrategy is set to ignore for this location");
-                                continue;
-                            }
-                            if (location.getMissingManifestStrategy() == MissingManifestStrategy.ERROR) {
-                                throw new TargetDefinitionResolutionException("Artifact " + asDebugString(mavenArtifact)
-                                        + " is not a bundle and MissingManifestStrategy is set to error for this location");
-                            }
-                            try {
-                                List<RemoteRepository> repositories = RepositoryUtils
-                                        .toRepos(MavenDependenciesResolverConfigurer.getEffectiveRepositories(
-                                                mavenSession.getCurrentProject(), location.getRepositoryReferences(),
-                                                repositorySystem));
-                                Function<DependencyNode, Properties> instructionsLookup = node -> instructionsMap
-                                        .getOrDefault(getKey(node.getArtifact()),
-                                                instructionsMap.getOrDefault("", defaultProperties));
-                                WrappedBundle wrappedBundle = MavenBundleWrapper.getWrappedArtifact(
-                                        new DefaultArtifact(mavenArtifact.getGroupId(), mavenArtifact.getArtifactId(),
-                                                mavenArtifact.getClassifier(), mavenArtifact.getPackagingType(),
-                                                mavenArtifact.getVersion()),
-                                        instructionsLookup, repositories, repositorySystem2,
-                                        mavenSession.getRepositorySession(), syncContextFactory);
-                                List<ProcessingMessage> directErrors = wrappedBundle.messages(false)
-                                        .filter(msg -> msg.type() == ProcessingMessage.Type.ERROR).toList();
-                                if (directErrors.isEmpty()) {
-                                    wrappedBundle.messages(true).map(ProcessingMessage::message)
-                                            .forEach(msg -> logger.warn(asDebugString(mavenArtifact) + ": " + msg));
-                                } else {
-                                    throw new RuntimeException(directErrors.stream().map(ProcessingMessage::message)
-                                            .collect(Collectors.joining(System.lineSeparator())));
-                                }
-                                File file = wrappedBundle.getFile().get().toFile();
-                                BundleDescription description = BundlesAction.createBundleDescription(file);
-                                WrappedArtifact wrappedArtifact = new WrappedArtifact(file, mavenArtifact,
-                                        mavenArtifact.getClassifier(), description.getSymbolicName(),
-                                        description.getVersion().toString(), null);
-                                logger.info(asDebugString(mavenArtifact)
-                                        + " is wrapped as a bundle with bundle symbolic name "
-                                        + wrappedArtifact.getWrappedBsn());
-                                logger.info(wrappedArtifact.getReferenceHint());
-                                if (logger.isDebugEnabled()) {
-                                    logger.debug("The following manifest was generated for this artifact:\r\n"
-                                            + wrappedArtifact.getGeneratedManifest());
-                                }
-                                // Maven artifact info for wrapped bundles have to be stored in separate fields
-                                Map<String, String> mavenProperties = new HashMap<>();
-                                mavenProperties.put(TychoConstants.PROP_WRAPPED_GROUP_ID, mavenArtifact.getGroupId());
-                                mavenProperties.put(TychoConstants.PROP_WRAPPED_ARTIFACT_ID,
-                                        mavenArtifact.getArtifactId());
-                                mavenProperties.put(TychoConstants.PROP_WRAPPED_VERSION, mavenArtifact.getVersion());
-                                mavenProperties.put(TychoConstants.PROP_WRAPPED_CLASSIFIER,
-                                        mavenArtifact.getClassifier());
-                                unit = publish(description, file, new MavenPropertiesAdvice(mavenProperties));
-                                symbolicName = wrappedArtifact.getWrappedBsn();
-                                bundleVersion = wrappedArtifact.getWrappedVersion();
-                            } catch (Exception e) {
-                                throw new TargetDefinitionResolutionException("Artifact " + asDebugString(mavenArtifact)
-                                        + " of location " + location + " could not be wrapped as a bundle", e);
-                            }
-
-                        } else {
-                            unit = publish(bundleDescription, bundleLocation, mavenArtifact);
-                        }
-                        bundles.add(unit);
-                        if (logger.isDebugEnabled()) {
-                            logger.debug("MavenResolver: artifact " + asDebugString(mavenArtifact) + " at location "
-                                    + bundleLocation + " resolves installable unit "
-                                    + new VersionedId(unit.getId(), unit.getVersion()));
-                        }
-                    } catch (BundleException | IOException e) {
-                        throw new TargetDefinitionResolutionException("Artifact " + asDebugString(mavenArtifact)
-                                + " of location " + location + " could not be read", e);
+                    // artifacts shared by several roots are only processed once
+                    artifacts.add(resolvedArtifacts.computeIfAbsent(mavenArtifact.getLocation(),
+                            file -> resolver.process(mavenArtifact)));
+                }
+                rootArtifacts.add(artifacts);
+            }
+            List<IInstallableUnit> locationBundles = new ArrayList<>();
+            List<IInstallableUnit> locationSourceBundles = new ArrayList<>();
+            for (int i = 0; i < roots.size(); i++) {
+                MavenDependency mavenDependency = roots.get(i);
+                List<IInstallableUnit> bundles = new ArrayList<>();
+                List<IInstallableUnit> sourceBundles = new ArrayList<>();
+                for (CompletableFuture<ResolvedArtifact> future : rootArtifacts.get(i)) {
+                    ResolvedArtifact resolvedArtifact = join(future);
+                    if (resolvedArtifact.feature() != null) {
+                        features.add(resolvedArtifact.feature());
                     }
-
-                    if (includeSource) {
-                        try {
-                            Collection<?> sourceArtifacts = mavenDependenciesResolver.resolve(
-                                    mavenArtifact.getGroupId(), mavenArtifact.getArtifactId(),
-                                    mavenArtifact.getVersion(), mavenArtifact.getPackagingType(), "sources", null,
-                                    MavenDependenciesResolver.DEEP_NO_DEPENDENCIES, location.getRepositoryReferences());
-                            Iterator<IArtifactFacade> sources = sourceArtifacts.stream()
-                                    .filter(IArtifactFacade.class::isInstance).map(IArtifactFacade.class::cast)
-                                    .iterator();
-                            while (sources.hasNext()) {
-                                IArtifactFacade sourceArtifact = sources.next();
-                                File sourceFile = sourceArtifact.getLocation();
-                                try {
-                                    Manifest manifest;
-                                    try (JarFile jar = new JarFile(sourceFile)) {
-                                        manifest = Objects.requireNonNullElseGet(jar.getManifest(), Manifest::new);
-                                    }
-                                    IInstallableUnit unit;
-                                    if (isValidSourceManifest(manifest)) {
-                                        unit = publish(BundlesAction.createBundleDescription(sourceFile), sourceFile,
-                                                sourceArtifact);
-                                    } else {
-                                        unit = generateSourceBundle(symbolicName, bundleVersion, manifest, sourceFile,
-                                                sourceArtifact);
-                                    }
-                                    sourceBundles.add(unit);
-                                    if (unit != null && logger.isDebugEnabled()) {
-                                        logger.debug("MavenResolver: source-artifact " + asDebugString(sourceArtifact)
-                                                + ":sources at location " + sourceFile + " resolves installable unit "
-                                                + new VersionedId(unit.getId(), unit.getVersion()));
-                                    }
-                                } catch (IOException | BundleException e) {
-                                    logger.warn("MavenResolver: source-artifact " + asDebugString(sourceArtifact)
-                                            + ":sources at location " + sourceFile
-                                            + " cannot be converted to a source bundle: " + e);
-                                    continue;
-                                }
-                            }
-                        } catch (DependencyResolutionException e) {
-                            logger.warn("MavenResolver: source-artifact " + asDebugString(mavenArtifact)
-                                    + ":sources cannot be resolved: " + e);
-                        }
+                    if (resolvedArtifact.unit() != null) {
+                        bundles.add(resolvedArtifact.unit());
+                        sourceBundles.addAll(resolvedArtifact.sourceUnits());
                     }
                 }
                 if (POM_PACKAGING_TYPE.equalsIgnoreCase(mavenDependency.getArtifactType())) {
-                    Optional<File> pomFacade = resolve.stream().filter(IArtifactFacade.class::isInstance)
-                            .map(IArtifactFacade.class::cast).filter(facade -> facade.getDependencyTrail().size() == 1)
+                    Optional<File> pomFacade = join(resolvedRoots.get(i)).stream()
+                            .filter(IArtifactFacade.class::isInstance).map(IArtifactFacade.class::cast)
+                            .filter(facade -> facade.getDependencyTrail().size() == 1)
                             .filter(facade -> facade.getArtifactId().equals(mavenDependency.getArtifactId())
                                     && facade.getGroupId().equals(mavenDependency.getGroupId())
                                     && facade.getVersion().equals(mavenDependency.getVersion())
@@ -354,6 +250,325 @@ public class MavenTargetDefinitionContent implements TargetDefinitionContent {
         }
     }
 
+    /**
+     * The outcome of processing a single resolved artifact, either a feature, a (possibly wrapped)
+     * bundle with its source bundles or nothing if the artifact is ignored.
+     */
+    private static record ResolvedArtifact(Feature feature, IInstallableUnit unit, String symbolicName,
+            String bundleVersion, List<IInstallableUnit> sourceUnits) {
+
+        static final ResolvedArtifact IGNORED = new ResolvedArtifact(null, null, null, null, List.of());
+
+        static ResolvedArtifact bundle(IInstallableUnit unit, String symbolicName, String bundleVersion) {
+            return new ResolvedArtifact(null, unit, symbolicName, bundleVersion, List.of());
+        }
+
+        ResolvedArtifact withSources(List<IInstallableUnit> sourceUnits) {
+            return new ResolvedArtifact(feature, unit, symbolicName, bundleVersion, sourceUnits);
+        }
+    }
+
+    /**
+     * Resolves the roots of a location and turns the resolved artifacts into units. Reading,
+     * wrapping and resolving the sources of artifacts are independent of each other and are
+     * performed on the executor if one is given.
+     */
+    private final class ArtifactResolver {
+
+        private final MavenGAVLocation location;
+        private final MavenDependenciesResolver mavenDependenciesResolver;
+        private final boolean includeSource;
+        private final SyncContextFactory syncContextFactory;
+        private final RepositorySystem repositorySystem;
+        private final MavenSession mavenSession;
+        private final org.eclipse.aether.RepositorySystem repositorySystem2;
+        private final Function<DependencyNode, Properties> instructionsLookup;
+        private final Map<String, Properties> instructions;
+        private final WrappedBundleCache wrappedBundleCache;
+        private final ExecutorService executor;
+        private final MavenLogger logger;
+
+        ArtifactResolver(MavenGAVLocation location, MavenDependenciesResolver mavenDependenciesResolver,
+                boolean includeSource, SyncContextFactory syncContextFactory, RepositorySystem repositorySystem,
+                MavenSession mavenSession, org.eclipse.aether.RepositorySystem repositorySystem2,
+                Function<DependencyNode, Properties> instructionsLookup, Map<String, Properties> instructions,
+                WrappedBundleCache wrappedBundleCache, ExecutorService executor, MavenLogger logger) {
+            this.location = location;
+            this.mavenDependenciesResolver = mavenDependenciesResolver;
+            this.includeSource = includeSource;
+            this.syncContextFactory = syncContextFactory;
+            this.repositorySystem = repositorySystem;
+            this.mavenSession = mavenSession;
+            this.repositorySystem2 = repositorySystem2;
+            this.instructionsLookup = instructionsLookup;
+            this.instructions = instructions;
+            this.wrappedBundleCache = wrappedBundleCache;
+            this.executor = executor;
+            this.logger = logger;
+        }
+
+        Collection<?> resolveRoot(MavenDependency mavenDependency) {
+            DependencyDepth dependencyDepth = location.getIncludeDependencyDepth();
+            if (dependencyDepth == DependencyDepth.NONE
+                    && POM_PACKAGING_TYPE.equalsIgnoreCase(mavenDependency.getArtifactType())) {
+                dependencyDepth = DependencyDepth.DIRECT;
+            }
+            int depth = switch (dependencyDepth) {
+            case INFINITE -> MavenDependenciesResolver.DEEP_INFINITE;
+            case DIRECT -> MavenDependenciesResolver.DEEP_DIRECT_CHILDREN;
+            default -> MavenDependenciesResolver.DEEP_NO_DEPENDENCIES;
+            };
+            try {
+                return mavenDependenciesResolver.resolve(mavenDependency.getGroupId(), mavenDependency.getArtifactId(),
+                        mavenDependency.getVersion(), mavenDependency.getArtifactType(),
+                        mavenDependency.getClassifier(), location.getIncludeDependencyScopes(), depth,
+                        location.getRepositoryReferences(), mavenSession);
+            } catch (DependencyResolutionException e1) {
+                throw new TargetDefinitionResolutionException(
+                        "MavenDependency " + mavenDependency + " of location " + location + " could not be resolved",
+                        e1);
+            }
+        }
+
+        /**
+         * Reads the artifact and, once it is known to be a bundle, wraps it if required while its
+         * sources are resolved at the same time.
+         */
+        CompletableFuture<ResolvedArtifact> process(IArtifactFacade mavenArtifact) {
+            CompletableFuture<ResolvedArtifact> read = supplyAsync(() -> read(mavenArtifact));
+            CompletableFuture<ResolvedArtifact> bundle = read.thenCompose(resolvedArtifact -> resolvedArtifact != null
+                    ? CompletableFuture.completedFuture(resolvedArtifact)
+                    : supplyAsync(() -> wrap(mavenArtifact)));
+            if (!includeSource) {
+                return bundle;
+            }
+            CompletableFuture<Collection<IArtifactFacade>> sources = read
+                    .thenCompose(resolvedArtifact -> resolvedArtifact == null || resolvedArtifact.unit() != null
+                            ? supplyAsync(() -> resolveSources(mavenArtifact))
+                            : CompletableFuture.completedFuture(List.of()));
+            return bundle.thenCompose(resolvedArtifact -> sources.thenCompose(
+                    sourceArtifacts -> supplyAsync(() -> addSources(resolvedArtifact, sourceArtifacts))));
+        }
+
+        /**
+         * @return the artifact as a feature or bundle, {@link ResolvedArtifact#IGNORED} or
+         *         <code>null</code> if the artifact has to be wrapped
+         */
+        private ResolvedArtifact read(IArtifactFacade mavenArtifact) {
+            Feature feature = new FeatureParser().parse(mavenArtifact.getLocation());
+            if (feature != null) {
+                feature.setLocation(mavenArtifact.getLocation().getAbsolutePath());
+                return new ResolvedArtifact(feature, null, null, null, List.of());
+            }
+            try {
+                File bundleLocation = mavenArtifact.getLocation();
+                BundleDescription bundleDescription = BundlesAction.createBundleDescription(bundleLocation);
+                String symbolicName = bundleDescription != null ? bundleDescription.getSymbolicName() : null;
+                if (symbolicName == null) {
+                    if (location.getMissingManifestStrategy() == MissingManifestStrategy.IGNORE) {
+                        logger.info("Ignoring " + asDebugString(mavenArtifact)
+                                + " as it is not a bundle and MissingManifestStrategy is set to ignore for this location");
+                        return ResolvedArtifact.IGNORED;
+                    }
+                    if (location.getMissingManifestStrategy() == MissingManifestStrategy.ERROR) {
+                        throw new TargetDefinitionResolutionException("Artifact " + asDebugString(mavenArtifact)
+                                + " is not a bundle and MissingManifestStrategy is set to error for this location");
+                    }
+                    return null;
+                }
+                IInstallableUnit unit = publish(bundleDescription, bundleLocation, mavenArtifact);
+                debugUnit(mavenArtifact, bundleLocation, unit);
+                return ResolvedArtifact.bundle(unit, symbolicName, bundleDescription.getVersion().toString());
+            } catch (BundleException | IOException e) {
+                throw new TargetDefinitionResolutionException("Artifact " + asDebugString(mavenArtifact)
+                        + " of location " + location + " could not be read", e);
+            }
+        }
+
+        private ResolvedArtifact wrap(IArtifactFacade mavenArtifact) {
+            // the dependencies of a snapshot might change without changing the artifact itself
+            String cacheKey = ArtifactUtils.isSnapshot(mavenArtifact.getVersion()) ? null
+                    : WrappedBundleCache.getKey(mavenArtifact, instructions);
+            CachedBundle cached = wrappedBundleCache.get(cacheKey);
+            if (cached != null && cached.unit() != null) {
+                cached.messages().forEach(msg -> logger.warn(asDebugString(mavenArtifact) + ": " + msg));
+                File file = cached.file();
+                WrappedArtifact wrappedArtifact = new WrappedArtifact(file, mavenArtifact,
+                        mavenArtifact.getClassifier(), cached.symbolicName(), cached.version(), null);
+                logWrapped(mavenArtifact, wrappedArtifact);
+                IInstallableUnit unit = publish(cached.unit(), file);
+                debugUnit(mavenArtifact, mavenArtifact.getLocation(), unit);
+                return ResolvedArtifact.bundle(unit, cached.symbolicName(), cached.version());
+            }
+            try {
+                List<RemoteRepository> repositories = RepositoryUtils
+                        .toRepos(MavenDependenciesResolverConfigurer.getEffectiveRepositories(
+                                mavenSession.getCurrentProject(), location.getRepositoryReferences(),
+                                repositorySystem));
+                WrappedBundle wrappedBundle = MavenBundleWrapper.getWrappedArtifact(
+                        new DefaultArtifact(mavenArtifact.getGroupId(), mavenArtifact.getArtifactId(),
+                                mavenArtifact.getClassifier(), mavenArtifact.getPackagingType(),
+                                mavenArtifact.getVersion()),
+                        instructionsLookup, repositories, repositorySystem2, mavenSession.getRepositorySession(),
+                        syncContextFactory);
+                List<ProcessingMessage> directErrors = wrappedBundle.messages(false)
+                        .filter(msg -> msg.type() == ProcessingMessage.Type.ERROR).toList();
+                List<String> messages = wrappedBundle.messages(true).map(ProcessingMessage::message).toList();
+                if (directErrors.isEmpty()) {
+                    messages.forEach(msg -> logger.warn(asDebugString(mavenArtifact) + ": " + msg));
+                } else {
+                    throw new RuntimeException(directErrors.stream().map(ProcessingMessage::message)
+                            .collect(Collectors.joining(System.lineSeparator())));
+                }
+                File file = wrappedBundle.getFile().get().toFile();
+                BundleDescription description = BundlesAction.createBundleDescription(file);
+                WrappedArtifact wrappedArtifact = new WrappedArtifact(file, mavenArtifact,
+                        mavenArtifact.getClassifier(), description.getSymbolicName(),
+                        description.getVersion().toString(), null);
+                logWrapped(mavenArtifact, wrappedArtifact);
+                // Maven artifact info for wrapped bundles have to be stored in separate fields
+                Map<String, String> mavenProperties = new HashMap<>();
+                mavenProperties.put(TychoConstants.PROP_WRAPPED_GROUP_ID, mavenArtifact.getGroupId());
+                mavenProperties.put(TychoConstants.PROP_WRAPPED_ARTIFACT_ID, mavenArtifact.getArtifactId());
+                mavenProperties.put(TychoConstants.PROP_WRAPPED_VERSION, mavenArtifact.getVersion());
+                mavenProperties.put(TychoConstants.PROP_WRAPPED_CLASSIFIER, mavenArtifact.getClassifier());
+                IInstallableUnit unit = publish(description, file, new MavenPropertiesAdvice(mavenProperties));
+                debugUnit(mavenArtifact, mavenArtifact.getLocation(), unit);
+                wrappedBundleCache.put(cacheKey, new CachedBundle(file, wrappedArtifact.getWrappedBsn(),
+                        wrappedArtifact.getWrappedVersion(), messages, unit));
+                return ResolvedArtifact.bundle(unit, wrappedArtifact.getWrappedBsn(),
+                        wrappedArtifact.getWrappedVersion());
+            } catch (Exception e) {
+                throw new TargetDefinitionResolutionException("Artifact " + asDebugString(mavenArtifact)
+                        + " of location " + location + " could not be wrapped as a bundle", e);
+            }
+        }
+
+        private void logWrapped(IArtifactFacade mavenArtifact, WrappedArtifact wrappedArtifact) {
+            logger.info(asDebugString(mavenArtifact) + " is wrapped as a bundle with bundle symbolic name "
+                    + wrappedArtifact.getWrappedBsn());
+            logger.info(wrappedArtifact.getReferenceHint());
+            if (logger.isDebugEnabled()) {
+                logger.debug("The following manifest was generated for this artifact:\r\n"
+                        + wrappedArtifact.getGeneratedManifest());
+            }
+        }
+
+        private void debugUnit(IArtifactFacade mavenArtifact, File bundleLocation, IInstallableUnit unit) {
+            if (logger.isDebugEnabled()) {
+                logger.debug("MavenResolver: artifact " + asDebugString(mavenArtifact) + " at location "
+                        + bundleLocation + " resolves installable unit "
+                        + new VersionedId(unit.getId(), unit.getVersion()));
+            }
+        }
+
+        private Collection<IArtifactFacade> resolveSources(IArtifactFacade mavenArtifact) {
+            try {
+                return mavenDependenciesResolver
+                        .resolve(mavenArtifact.getGroupId(), mavenArtifact.getArtifactId(),
+                                mavenArtifact.getVersion(), mavenArtifact.getPackagingType(), "sources", null,
+                                MavenDependenciesResolver.DEEP_NO_DEPENDENCIES, location.getRepositoryReferences(),
+                                mavenSession)
+                        .stream().filter(IArtifactFacade.class::isInstance).map(IArtifactFacade.class::cast)
+                        .toList();
+            } catch (DependencyResolutionException e) {
+                logger.warn("MavenResolver: source-artifact " + asDebugString(mavenArtifact)
+                        + ":sources cannot be resolved: " + e);
+                return List.of();
+            }
+        }
+
+        private ResolvedArtifact addSources(ResolvedArtifact resolvedArtifact,
+                Collection<IArtifactFacade> sourceArtifacts) {
+            if (resolvedArtifact.unit() == null || sourceArtifacts.isEmpty()) {
+                return resolvedArtifact;
+            }
+            List<IInstallableUnit> sourceUnits = new ArrayList<>();
+            for (IArtifactFacade sourceArtifact : sourceArtifacts) {
+                File sourceFile = sourceArtifact.getLocation();
+                try {
+                    Manifest manifest;
+                    try (JarFile jar = new JarFile(sourceFile)) {
+                        manifest = Objects.requireNonNullElseGet(jar.getManifest(), Manifest::new);
+                    }
+                    IInstallableUnit unit;
+                    if (isValidSourceManifest(manifest)) {
+                        unit = publish(BundlesAction.createBundleDescription(sourceFile), sourceFile, sourceArtifact);
+                    } else {
+                        unit = generateSourceBundle(resolvedArtifact.symbolicName(), resolvedArtifact.bundleVersion(),
+                                manifest, sourceFile, sourceArtifact);
+                    }
+                    sourceUnits.add(unit);
+                    if (unit != null && logger.isDebugEnabled()) {
+                        logger.debug("MavenResolver: source-artifact " + asDebugString(sourceArtifact)
+                                + ":sources at location " + sourceFile + " resolves installable unit "
+                                + new VersionedId(unit.getId(), unit.getVersion()));
+                    }
+                } catch (IOException | BundleException e) {
+                    logger.warn("MavenResolver: source-artifact " + asDebugString(sourceArtifact)
+                            + ":sources at location " + sourceFile + " cannot be converted to a source bundle: " + e);
+                }
+            }
+            return resolvedArtifact.withSources(sourceUnits);
+        }
+
+        <T> CompletableFuture<T> supplyAsync(Supplier<T> supplier) {
+            if (executor == null) {
+                try {
+                    return CompletableFuture.completedFuture(supplier.get());
+                } catch (RuntimeException e) {
+                    return CompletableFuture.failedFuture(e);
+                }
+            }
+            ClassLoader contextClassLoader = Thread.currentThread().getContextClassLoader();
+            return CompletableFuture.supplyAsync(() -> {
+                Thread thread = Thread.currentThread();
+                ClassLoader threadClassLoader = thread.getContextClassLoader();
+                thread.setContextClassLoader(contextClassLoader);
+                try {
+                    return supplier.get();
+                } finally {
+                    thread.setContextClassLoader(threadClassLoader);
+                }
+            }, executor);
+        }
+    }
+
+    /**
+     * @return the executor for processing the artifacts of a location concurrently or
+     *         <code>null</code> if they should be processed sequentially
+     */
+    private static synchronized ExecutorService getExecutor() {
+        int threads = Integer.getInteger(THREADS_PROPERTY, Runtime.getRuntime().availableProcessors());
+        if (threads < 2) {
+            return null;
+        }
+        if (executor == null) {
+            executor = Executors.newFixedThreadPool(threads, new ThreadFactory() {
+
+                private AtomicInteger cnt = new AtomicInteger();
+
+                @Override
+                public Thread newThread(Runnable r) {
+                    Thread thread = new Thread(r);
+                    thread.setName("Tycho-Maven-Target-" + cnt.getAndIncrement());
+                    thread.setDaemon(true);
+                    return thread;
+                }
+            });
+        }
+        return executor;
+    }
+
+    private static <T> T join(CompletableFuture<T> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            Throwable cause = e.getCause();
+            throw cause instanceof RuntimeException runtimeEx ? runtimeEx : e;
+        }
+    }
+
     private IInstallableUnit generateSourceBundle(String symbolicName, String bundleVersion, Manifest manifest,
             File sourceFile, IArtifactFacade sourceArtifact) throws IOException, BundleException {
 
@@ -406,6 +621,13 @@ public class MavenTargetDefinitionContent implements TargetDefinitionContent {
         return iu;
     }
 
+    private IInstallableUnit publish(IInstallableUnit unit, File bundleLocation) {
+        IArtifactDescriptor descriptor = FileArtifactRepository.forFile(bundleLocation,
+                unit.getArtifacts().iterator().next(), artifactRepository);
+        repositoryContent.put(descriptor, unit);
+        return unit;
+    }
+
     private String asDebugString(IArtifactFacade mavenArtifact) {
         return new GAV(mavenArtifact.getGroupId(), mavenArtifact.getArtifactId(), mavenArtifact.getVersion())
                 .toString();
@@ -12,6 +12,9 @@
  *******************************************************************************/
 package org.eclipse.tycho.core.resolver;
 
+import java.util.function.Supplier;
+
+import org.apache.maven.execution.MavenSession;
 import org.apache.maven.plugin.LegacySupport;
 import org.apache.maven.repository.RepositorySystem;
 import org.codehaus.plexus.component.annotations.Component;
@@ -50,7 +53,17 @@ public class MavenTargetLocationFactory {
 
     public TargetDefinitionContent resolveTargetDefinitionContent(MavenGAVLocation location,
             IncludeSourceMode includeSourceMode) {
-        return new MavenTargetDefinitionContent(location, dependenciesResolver, includeSourceMode, provisioningAgent,
-                mavenContext, syncContextFactory, repositorySystem, legacySupport.getSession(), repositorySystem2);
+        return prepareTargetDefinitionContent(location, includeSourceMode).get();
+    }
+
+    /**
+     * Prepares the resolution of the given location with the session of the calling thread, so the
+     * returned resolution can be performed on a different thread.
+     */
+    public Supplier<TargetDefinitionContent> prepareTargetDefinitionContent(MavenGAVLocation location,
+            IncludeSourceMode includeSourceMode) {
+        MavenSession session = legacySupport.getSession();
+        return () -> new MavenTargetDefinitionContent(location, dependenciesResolver, includeSourceMode,
+                provisioningAgent, mavenContext, syncContextFactory, repositorySystem, session, repositorySystem2);
     }
 }
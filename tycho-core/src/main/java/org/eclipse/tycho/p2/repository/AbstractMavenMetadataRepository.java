@@ -33,6 +33,8 @@ import org.eclipse.equinox.p2.repository.IRepositoryReference;
 import org.eclipse.equinox.p2.repository.metadata.spi.AbstractMetadataRepository;
 import org.eclipse.tycho.ArtifactType;
 import org.eclipse.tycho.TychoConstants;
+import org.eclipse.tycho.core.shared.MavenContext;
+import org.eclipse.tycho.p2.repository.LocalMetadataCache.FileStamp;
 
 public abstract class AbstractMavenMetadataRepository extends AbstractMetadataRepository {
 
@@ -60,6 +62,9 @@ public abstract class AbstractMavenMetadataRepository extends AbstractMetadataRe
 
     protected void load() {
         MetadataIO io = new MetadataIO();
+        MavenContext mavenContext = metadataIndex.getMavenContext();
+        LocalMetadataCache cache = LocalMetadataCache.open(new File(getLocation()), metadataIndex.getFileLockService(),
+                mavenContext != null ? mavenContext.getLogger() : null);
 
         for (GAV gav : metadataIndex.getProjectGAVs()) {
             try {
@@ -69,12 +74,18 @@ public abstract class AbstractMavenMetadataRepository extends AbstractMetadataRe
                     // if files have been manually removed from the repository, simply remove them from the index (bug 351080)
                     metadataIndex.removeGav(gav);
                 } else {
-                    try (InputStream is = new FileInputStream(localArtifactFileLocation)) {
-                        Set<IInstallableUnit> gavUnits = io.readXML(is);
-
-                        unitsMap.put(gav, gavUnits);
-                        units.addAll(gavUnits);
+                    // take the stamp before reading so a concurrent change is detected next time
+                    FileStamp stamp = FileStamp.of(localArtifactFileLocation);
+                    Set<IInstallableUnit> gavUnits = cache.get(gav, stamp);
+                    if (gavUnits == null) {
+                        try (InputStream is = new FileInputStream(localArtifactFileLocation)) {
+                            gavUnits = io.readXML(is);
+                        }
+                        cache.put(gav, stamp, gavUnits);
                     }
+
+                    unitsMap.put(gav, gavUnits);
+                    units.addAll(gavUnits);
                 }
             } catch (IOException e) {
                 // TODO throw properly typed exception if repository cannot be loaded
@@ -82,6 +93,7 @@ public abstract class AbstractMavenMetadataRepository extends AbstractMetadataRe
             }
 
         }
+        cache.save();
     }
 
     @Override
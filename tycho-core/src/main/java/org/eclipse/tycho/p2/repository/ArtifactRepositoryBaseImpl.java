@@ -162,7 +162,7 @@ public abstract class ArtifactRepositoryBaseImpl<ArtifactDescriptorT extends IAr
         internalAddInternalDescriptor(getInternalDescriptorForAdding(descriptor));
     }
 
-    protected final void internalAddInternalDescriptor(ArtifactDescriptorT internalDescriptor) {
+    protected void internalAddInternalDescriptor(ArtifactDescriptorT internalDescriptor) {
         Set<ArtifactDescriptorT> descriptorsForKey = descriptorsMap.computeIfAbsent(internalDescriptor.getArtifactKey(),
                 k -> ConcurrentHashMap.newKeySet());
         descriptorsForKey.add(internalDescriptor);
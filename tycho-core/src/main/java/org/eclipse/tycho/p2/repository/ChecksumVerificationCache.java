@@ -0,0 +1,340 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Christoph Läubrich and others.
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *    Christoph Läubrich - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.tycho.p2.repository;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import org.eclipse.tycho.core.shared.MavenLogger;
+
+/**
+ * Remembers the checksums computed for files in the local repository, so a file that was verified
+ * once is not hashed again as long as its size, modification time and file key (e.g. the inode)
+ * are unchanged. The results are appended to a file below the local repository so they survive
+ * the build.
+ */
+final class ChecksumVerificationCache {
+
+    static final String RELPATH = ".cache/tycho/verified-checksums.txt";
+
+    static final String SHA_256 = "SHA-256";
+    static final String MD5 = "MD5";
+
+    private static final boolean ENABLED = Boolean
+            .parseBoolean(System.getProperty("tycho.checksums.cache", "true"));
+
+    private static final int BUFFER_SIZE = 1024 * 1024;
+
+    private static final int MIN_COMPACT_RECORDS = 1000;
+
+    private static final ExecutorService VERIFY_EXECUTOR = Executors
+            .newFixedThreadPool(Math.max(1, Runtime.getRuntime().availableProcessors() / 2), new ThreadFactory() {
+
+                private AtomicInteger cnt = new AtomicInteger();
+
+                @Override
+                public Thread newThread(Runnable r) {
+                    Thread thread = new Thread(r);
+                    thread.setName("Tycho-Checksum-" + cnt.getAndIncrement());
+                    thread.setDaemon(true);
+                    return thread;
+                }
+            });
+
+    private record Stamp(long size, long lastModified, String fileKey) {
+
+        static Stamp of(Path file) throws IOException {
+            BasicFileAttributes attributes = Files.readAttributes(file, BasicFileAttributes.class);
+            return new Stamp(attributes.size(), attributes.lastModifiedTime().toMillis(),
+                    String.valueOf(attributes.fileKey()));
+        }
+    }
+
+    private record Verified(Stamp stamp, String digest) {
+    }
+
+    private record Key(Path file, String algorithm) {
+    }
+
+    /**
+     * A file to verify with the given algorithm
+     */
+    record FileToVerify(Path file, String algorithm) {
+    }
+
+    private final Path storage;
+    private final MavenLogger logger;
+    private final Map<Key, Verified> verified = new ConcurrentHashMap<>();
+    private final Map<Key, CompletableFuture<String>> inFlight = new ConcurrentHashMap<>();
+    private final Set<Object> scheduled = ConcurrentHashMap.newKeySet();
+    private int records;
+
+    ChecksumVerificationCache(File localRepositoryRoot, MavenLogger logger) {
+        this.storage = new File(localRepositoryRoot, RELPATH).toPath();
+        this.logger = logger;
+        if (ENABLED) {
+            load();
+        }
+    }
+
+    /**
+     * Checks if the given file has the expected checksum, computing the checksum only if the file
+     * was not verified before or has changed since.
+     *
+     * @param file
+     *            the file to check
+     * @param algorithm
+     *            the digest algorithm, e.g. {@link #SHA_256}
+     * @param expected
+     *            the expected checksum as hex string
+     * @return <code>true</code> if the checksum of the file matches
+     * @throws IOException
+     *             if reading the file failed
+     */
+    boolean matches(Path file, String algorithm, String expected) throws IOException {
+        return getDigest(file, algorithm).equalsIgnoreCase(expected);
+    }
+
+    /**
+     * Computes the checksums of the given files in the background, so later calls to
+     * {@link #matches(Path, String, String)} only need to compare them.
+     *
+     * @return a future that completes once all files are processed
+     */
+    CompletableFuture<Void> verifyInBackground(Collection<Path> files, String algorithm) {
+        List<CompletableFuture<Void>> futures = files.stream().map(file -> verifyInBackground(file, algorithm))
+                .toList();
+        return CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new));
+    }
+
+    /**
+     * Like {@link #verifyInBackground(Collection, String)} but also looks up the files of the given
+     * items in the background, as this might be expensive as well (e.g. walking the artifact
+     * descriptors). Each item with a file is only scheduled once for the lifetime of this cache, so
+     * callers can pass everything they are likely to request without knowing what was already
+     * scheduled.
+     *
+     * @param lookup
+     *            returns the file to verify for an item or <code>null</code> if there is none
+     * @return a future that completes once all files are processed
+     */
+    <T> CompletableFuture<Void> verifyInBackground(Collection<T> items, Function<T, FileToVerify> lookup) {
+        List<T> pending = items.stream().filter(scheduled::add).toList();
+        if (pending.isEmpty()) {
+            return CompletableFuture.completedFuture(null);
+        }
+        return CompletableFuture.supplyAsync(() -> {
+            List<CompletableFuture<Void>> futures = new ArrayList<>();
+            for (T item : pending) {
+                FileToVerify file;
+                try {
+                    file = lookup.apply(item);
+                } catch (RuntimeException e) {
+                    // reported when the file is actually checked
+                    continue;
+                }
+                if (file != null) {
+                    futures.add(verifyInBackground(file.file(), file.algorithm()));
+                } else {
+                    // e.g. not mirrored yet, so give a later call the chance to verify it
+                    scheduled.remove(item);
+                }
+            }
+            return futures;
+        }, VERIFY_EXECUTOR).thenCompose(futures -> CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new)));
+    }
+
+    private CompletableFuture<Void> verifyInBackground(Path file, String algorithm) {
+        return CompletableFuture.runAsync(() -> {
+            try {
+                getDigest(file, algorithm);
+            } catch (IOException e) {
+                // reported when the file is actually checked
+            }
+        }, VERIFY_EXECUTOR);
+    }
+
+    /**
+     * Returns the digest of the file, if the same digest is already computed by another thread the
+     * caller waits for that computation instead of reading the file again.
+     */
+    String getDigest(Path file, String algorithm) throws IOException {
+        Path normalized = file.toAbsolutePath().normalize();
+        Key key = new Key(normalized, algorithm);
+        Stamp stamp = Stamp.of(normalized);
+        Verified known = verified.get(key);
+        if (known != null && known.stamp().equals(stamp)) {
+            return known.digest();
+        }
+        CompletableFuture<String> future = new CompletableFuture<>();
+        CompletableFuture<String> pending = inFlight.putIfAbsent(key, future);
+        if (pending != null) {
+            String digest = await(pending);
+            Verified result = verified.get(key);
+            if (result != null && result.stamp().equals(stamp) && result.digest().equals(digest)) {
+                return digest;
+            }
+            // the file was changed meanwhile (or nothing is recorded), so we can't share the result
+            return computeDigest(normalized, algorithm);
+        }
+        try {
+            String digest = computeDigest(normalized, algorithm);
+            // the file might have been changed while we were reading it
+            if (stamp.equals(Stamp.of(normalized)) && ENABLED) {
+                Verified result = new Verified(stamp, digest);
+                verified.put(key, result);
+                append(key, result);
+            }
+            future.complete(digest);
+            return digest;
+        } catch (IOException | RuntimeException e) {
+            future.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, future);
+        }
+    }
+
+    private static String await(CompletableFuture<String> pending) throws IOException {
+        try {
+            return pending.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException();
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException io) {
+                throw io;
+            }
+            if (cause instanceof RuntimeException rte) {
+                throw rte;
+            }
+            throw new IOException(cause);
+        }
+    }
+
+    static String computeDigest(Path file, String algorithm) throws IOException {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance(algorithm);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalArgumentException(algorithm + " not available", e);
+        }
+        ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            while (channel.read(buffer) >= 0) {
+                buffer.flip();
+                digest.update(buffer);
+                buffer.clear();
+            }
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    private void load() {
+        if (!Files.isRegularFile(storage)) {
+            return;
+        }
+        try {
+            String content = Files.readString(storage, StandardCharsets.UTF_8);
+            content.lines().forEach(this::readRecord);
+            // rewrite the file if the last record is incomplete, otherwise the next one would be appended to it
+            boolean incomplete = !content.isEmpty() && !content.endsWith("\n");
+            if (incomplete || (records >= MIN_COMPACT_RECORDS && records > 2 * verified.size())) {
+                compact();
+            }
+        } catch (IOException | RuntimeException e) {
+            debug("Can't read verified checksums from " + storage + ": " + e);
+        }
+    }
+
+    private void readRecord(String line) {
+        // algorithm, size, modification time, file key, digest and finally the path as it might contain tabs
+        String[] fields = line.split("\t", 6);
+        if (fields.length != 6) {
+            // incomplete record of a crashed process
+            return;
+        }
+        try {
+            records++;
+            Stamp stamp = new Stamp(Long.parseLong(fields[1]), Long.parseLong(fields[2]), fields[3]);
+            verified.put(new Key(Path.of(fields[5]), fields[0]), new Verified(stamp, fields[4]));
+        } catch (RuntimeException e) {
+            // ignore invalid record
+        }
+    }
+
+    private static String toRecord(Key key, Verified value) {
+        Stamp stamp = value.stamp();
+        return key.algorithm() + "\t" + stamp.size() + "\t" + stamp.lastModified() + "\t" + stamp.fileKey() + "\t"
+                + value.digest() + "\t" + key.file() + "\n";
+    }
+
+    private synchronized void append(Key key, Verified value) {
+        try {
+            Files.createDirectories(storage.getParent());
+            Files.writeString(storage, toRecord(key, value), StandardCharsets.UTF_8, StandardOpenOption.CREATE,
+                    StandardOpenOption.APPEND);
+            records++;
+        } catch (IOException e) {
+            debug("Can't store verified checksum in " + storage + ": " + e);
+        }
+    }
+
+    private synchronized void compact() throws IOException {
+        Path tempFile = Files.createTempFile(storage.getParent(), storage.getFileName().toString(), ".tmp");
+        try {
+            try (BufferedWriter writer = Files.newBufferedWriter(tempFile, StandardCharsets.UTF_8)) {
+                for (Map.Entry<Key, Verified> entry : verified.entrySet()) {
+                    writer.write(toRecord(entry.getKey(), entry.getValue()));
+                }
+            }
+            Files.move(tempFile, storage, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            records = verified.size();
+        } finally {
+            Files.deleteIfExists(tempFile);
+        }
+    }
+
+    private void debug(String message) {
+        if (logger != null && logger.isDebugEnabled()) {
+            logger.debug(message);
+        }
+    }
+}
@@ -13,19 +13,21 @@
 package org.eclipse.tycho.p2.repository;
 
 import java.io.BufferedOutputStream;
-import java.io.BufferedReader;
 import java.io.File;
-import java.io.FileInputStream;
 import java.io.FileOutputStream;
 import java.io.IOException;
-import java.io.InputStream;
-import java.io.InputStreamReader;
 import java.io.OutputStream;
 import java.io.OutputStreamWriter;
 import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
 import java.util.Collections;
-import java.util.HashSet;
 import java.util.LinkedHashSet;
 import java.util.Set;
 
@@ -36,6 +38,13 @@ import org.eclipse.tycho.core.shared.MavenLogger;
 /**
  * Simplistic local Maven repository index to allow efficient lookup of all installed Tycho
  * projects. The content is persisted in a local file.
+ * <p>
+ * The file contains one GAV per line and is treated as an append-only journal: saving only appends
+ * the GAVs added since the last save and reads the records other processes appended in the
+ * meantime, so the cost of a save does not depend on the size of the index. Removals and files
+ * containing mostly duplicate records are handled by rewriting (compacting) the file, so the format
+ * stays readable by older versions. As all writers hold the file lock, an incomplete last line can
+ * only be left by a crashed process and is discarded.
  */
 public class FileBasedTychoRepositoryIndex implements TychoRepositoryIndex {
 
@@ -43,15 +52,28 @@ public class FileBasedTychoRepositoryIndex implements TychoRepositoryIndex {
     public static final String METADATA_INDEX_RELPATH = ".meta/p2-local-metadata.properties";
 
     private static final String EOL = "\n";
+    private static final int MIN_COMPACT_RECORDS = Integer.getInteger("tycho.p2.index.compact-records", 1000);
 
     private final File indexFile;
     private final MavenLogger logger;
     private final FileLockService fileLockService;
 
-    private Set<GAV> addedGavs = new HashSet<>();
-    private Set<GAV> removedGavs = new HashSet<>();
-    private Set<GAV> gavs = new HashSet<>();
+    private Set<GAV> addedGavs = new LinkedHashSet<>();
+    private Set<GAV> removedGavs = new LinkedHashSet<>();
+    private Set<GAV> gavs = new LinkedHashSet<>();
     private MavenContext mavenContext;
+    /**
+     * identity of the file that was read, used to detect if it was replaced in the meantime
+     */
+    private Object readFileKey;
+    /**
+     * number of bytes of complete records read from the file
+     */
+    private long readLength;
+    /**
+     * number of records read from the file
+     */
+    private int records;
 
     private FileBasedTychoRepositoryIndex(File indexFile, FileLockService fileLockService, MavenContext mavenContext) {
         super();
@@ -60,8 +82,8 @@ public class FileBasedTychoRepositoryIndex implements TychoRepositoryIndex {
         this.fileLockService = fileLockService;
         this.logger = mavenContext.getLogger();
         if (indexFile.isFile()) {
-            try (var locked = fileLockService.lock(indexFile)) {
-                gavs = read(new FileInputStream(indexFile));
+            try (var locked = fileLockService.lockShared(indexFile)) {
+                readChanges();
             } catch (IOException e) {
                 throw new RuntimeException(e);
             }
@@ -73,6 +95,11 @@ public class FileBasedTychoRepositoryIndex implements TychoRepositoryIndex {
         return mavenContext;
     }
 
+    @Override
+    public FileLockService getFileLockService() {
+        return fileLockService;
+    }
+
     @Override
     public synchronized Set<GAV> getProjectGAVs() {
         return Collections.unmodifiableSet(new LinkedHashSet<>(gavs));
@@ -108,35 +135,117 @@ public class FileBasedTychoRepositoryIndex implements TychoRepositoryIndex {
         }
         try (var locked = fileLockService.lock(indexFile)) {
             reconcile();
-            // minimize time window for corrupting the file by first writing to a temp file, then moving it
-            File tempFile = File.createTempFile("index", "tmp", indexFile.getParentFile());
-            write(new FileOutputStream(tempFile));
-            if (indexFile.isFile()) {
-                indexFile.delete();
+            if (!removedGavs.isEmpty() || (records >= MIN_COMPACT_RECORDS && records > 2 * gavs.size())) {
+                // removals are never appended as older versions sharing the same local repository
+                // would neither understand them nor stop reading the removed GAVs from the file
+                compact();
+            } else {
+                append();
             }
-            tempFile.renameTo(indexFile);
+            addedGavs.clear();
+            removedGavs.clear();
         }
     }
 
-    private synchronized void reconcile() throws IOException {
-        // re-read index from file system so that changes from other
-        // processes which happened in the meantime are not discarded
-        if (indexFile.isFile()) {
-            gavs = read(new FileInputStream(indexFile));
-            for (GAV addedGav : addedGavs) {
-                addGav(addedGav);
+    private void reconcile() throws IOException {
+        // read the changes other processes made in the meantime so that they are not discarded
+        readChanges();
+        for (GAV addedGav : addedGavs) {
+            gavs.add(addedGav);
+        }
+        for (GAV removedGav : removedGavs) {
+            gavs.remove(removedGav);
+        }
+    }
+
+    /**
+     * Reads the records appended to the index file since it was last read, or the whole file if it
+     * was replaced in the meantime.
+     */
+    private void readChanges() throws IOException {
+        Path path = indexFile.toPath();
+        if (!Files.isRegularFile(path)) {
+            return;
+        }
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            Object fileKey = Files.readAttributes(path, BasicFileAttributes.class).fileKey();
+            long size = channel.size();
+            if (fileKey == null || !fileKey.equals(readFileKey) || size < readLength) {
+                gavs = new LinkedHashSet<>();
+                readFileKey = fileKey;
+                readLength = 0;
+                records = 0;
+            }
+            if (size == readLength) {
+                return;
+            }
+            ByteBuffer buffer = ByteBuffer.allocate(Math.toIntExact(size - readLength));
+            while (buffer.hasRemaining() && channel.read(buffer, readLength + buffer.position()) >= 0) {
+                // read the remaining content
             }
-            for (GAV removedGav : removedGavs) {
-                removeGav(removedGav);
+            int lineStart = 0;
+            for (int i = 0; i < buffer.position(); i++) {
+                if (buffer.get(i) == '\n') {
+                    readRecord(new String(buffer.array(), lineStart, i - lineStart, StandardCharsets.UTF_8));
+                    lineStart = i + 1;
+                }
+            }
+            // an incomplete last line is not consumed
+            readLength += lineStart;
+        }
+    }
+
+    private void readRecord(String line) {
+        line = line.trim();
+        if (line.isEmpty()) {
+            return;
+        }
+        records++;
+        try {
+            gavs.add(GAV.parse(line));
+        } catch (IllegalArgumentException e) {
+            logger.warn("Ignoring invalid line '" + line + "' in " + indexFile);
+        }
+    }
+
+    private void append() throws IOException {
+        StringBuilder changes = new StringBuilder();
+        for (GAV gav : addedGavs) {
+            changes.append(gav.toExternalForm()).append(EOL);
+        }
+        ByteBuffer buffer = ByteBuffer.wrap(changes.toString().getBytes(StandardCharsets.UTF_8));
+        Path path = indexFile.toPath();
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE)) {
+            readFileKey = Files.readAttributes(path, BasicFileAttributes.class).fileKey();
+            // discard an incomplete record left by a crashed process
+            channel.truncate(readLength);
+            long position = readLength;
+            while (buffer.hasRemaining()) {
+                position += channel.write(buffer, position);
             }
+            readLength = position;
         }
-        addedGavs.clear();
-        removedGavs.clear();
+        records += addedGavs.size();
+    }
+
+    private void compact() throws IOException {
+        // minimize time window for corrupting the file by first writing to a temp file, then moving it
+        File tempFile = File.createTempFile("index", "tmp", indexFile.getParentFile());
+        try {
+            write(new FileOutputStream(tempFile));
+            Files.move(tempFile.toPath(), indexFile.toPath(), StandardCopyOption.REPLACE_EXISTING,
+                    StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            tempFile.delete();
+        }
+        readFileKey = Files.readAttributes(indexFile.toPath(), BasicFileAttributes.class).fileKey();
+        readLength = indexFile.length();
+        records = gavs.size();
     }
 
     private void write(OutputStream outStream) throws IOException {
         try (Writer out = new OutputStreamWriter(new BufferedOutputStream(outStream), StandardCharsets.UTF_8)) {
-            for (GAV gav : getProjectGAVs()) {
+            for (GAV gav : gavs) {
                 out.write(gav.toExternalForm());
                 out.write(EOL);
             }
@@ -144,25 +253,6 @@ public class FileBasedTychoRepositoryIndex implements TychoRepositoryIndex {
         }
     }
 
-    private Set<GAV> read(InputStream inStream) throws IOException {
-        LinkedHashSet<GAV> result = new LinkedHashSet<>();
-        try (BufferedReader reader = new BufferedReader(new InputStreamReader(inStream, StandardCharsets.UTF_8))) {
-            String line;
-            while ((line = reader.readLine()) != null) {
-                if (line.trim().isEmpty()) {
-                    continue;
-                }
-                try {
-                    GAV parsedGAV = GAV.parse(line);
-                    result.add(parsedGAV);
-                } catch (IllegalArgumentException e) {
-                    logger.warn("Ignoring invalid line '" + line + "' in " + indexFile);
-                }
-            }
-        }
-        return result;
-    }
-
     public static TychoRepositoryIndex createMetadataIndex(File basedir, FileLockService fileLockService,
             MavenContext context) {
         return new FileBasedTychoRepositoryIndex(new File(basedir, METADATA_INDEX_RELPATH), fileLockService, context);
@@ -0,0 +1,686 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Christoph Läubrich and others.
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *    Christoph Läubrich - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.tycho.p2.repository;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Set;
+import java.util.function.IntFunction;
+
+import org.eclipse.equinox.internal.p2.metadata.ArtifactKey;
+import org.eclipse.equinox.internal.p2.metadata.InstallableUnit;
+import org.eclipse.equinox.internal.p2.metadata.RequiredCapability;
+import org.eclipse.equinox.internal.p2.metadata.RequiredPropertiesMatch;
+import org.eclipse.equinox.p2.metadata.IArtifactKey;
+import org.eclipse.equinox.p2.metadata.ICopyright;
+import org.eclipse.equinox.p2.metadata.IInstallableUnit;
+import org.eclipse.equinox.p2.metadata.IInstallableUnitFragment;
+import org.eclipse.equinox.p2.metadata.IInstallableUnitPatch;
+import org.eclipse.equinox.p2.metadata.ILicense;
+import org.eclipse.equinox.p2.metadata.IProvidedCapability;
+import org.eclipse.equinox.p2.metadata.IRequirement;
+import org.eclipse.equinox.p2.metadata.ITouchpointData;
+import org.eclipse.equinox.p2.metadata.ITouchpointInstruction;
+import org.eclipse.equinox.p2.metadata.ITouchpointType;
+import org.eclipse.equinox.p2.metadata.IUpdateDescriptor;
+import org.eclipse.equinox.p2.metadata.MetadataFactory;
+import org.eclipse.equinox.p2.metadata.MetadataFactory.InstallableUnitDescription;
+import org.eclipse.equinox.p2.metadata.MetadataFactory.InstallableUnitFragmentDescription;
+import org.eclipse.equinox.p2.metadata.Version;
+import org.eclipse.equinox.p2.metadata.VersionRange;
+import org.eclipse.equinox.p2.metadata.expression.ExpressionUtil;
+import org.eclipse.equinox.p2.metadata.expression.IMatchExpression;
+
+/**
+ * Compact binary representation of {@link IInstallableUnit}s. Strings, provided capabilities and
+ * requirements are stored in tables shared by all units, so they are only stored (and decoded)
+ * once. Units that can't be represented (e.g. patches or requirements with arbitrary match
+ * expressions) are stored as p2 XML instead.
+ */
+public final class InstallableUnitCodec {
+
+    private static final int NULL = -1;
+
+    private static final byte UNIT_BINARY = 0;
+    private static final byte UNIT_XML = 1;
+
+    private static final byte REQUIREMENT_RANGE = 0;
+    private static final byte REQUIREMENT_PROPERTIES = 1;
+
+    private static final byte VALUE_STRING = 0;
+    private static final byte VALUE_VERSION = 1;
+    private static final byte VALUE_VERSION_RANGE = 2;
+    private static final byte VALUE_LONG = 3;
+    private static final byte VALUE_INTEGER = 4;
+    private static final byte VALUE_DOUBLE = 5;
+    private static final byte VALUE_BOOLEAN = 6;
+    private static final byte VALUE_LIST = 7;
+
+    private InstallableUnitCodec() {
+    }
+
+    /**
+     * Encodes the given units together with the tables they use into one self-contained block.
+     *
+     * @see #decode(byte[])
+     */
+    public static byte[] encode(Collection<IInstallableUnit> units) throws IOException {
+        Encoder encoder = new Encoder();
+        byte[] encodedUnits = encoder.encodeUnits(units, true);
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bytes);
+        writeTable(out, encoder.getStrings().stream().map(s -> s.getBytes(StandardCharsets.UTF_8)).toList());
+        writeTable(out, encoder.getCapabilities());
+        writeTable(out, encoder.getRequirements());
+        out.write(encodedUnits);
+        out.flush();
+        return bytes.toByteArray();
+    }
+
+    /**
+     * Decodes units previously encoded with {@link #encode(Collection)}.
+     */
+    public static Set<IInstallableUnit> decode(byte[] data) throws IOException {
+        ByteBuffer buffer = ByteBuffer.wrap(data);
+        ByteBuffer[] strings = readTable(buffer);
+        ByteBuffer[] capabilities = readTable(buffer);
+        ByteBuffer[] requirements = readTable(buffer);
+        Decoder decoder = new Decoder(index -> StandardCharsets.UTF_8.decode(strings[index].duplicate()).toString(),
+                index -> capabilities[index].duplicate(), index -> requirements[index].duplicate(), strings.length,
+                capabilities.length, requirements.length);
+        return decoder.decodeUnits(buffer);
+    }
+
+    private static void writeTable(DataOutputStream out, List<byte[]> entries) throws IOException {
+        out.writeInt(entries.size());
+        for (byte[] entry : entries) {
+            out.writeInt(entry.length);
+            out.write(entry);
+        }
+    }
+
+    private static ByteBuffer[] readTable(ByteBuffer buffer) {
+        ByteBuffer[] entries = new ByteBuffer[buffer.getInt()];
+        for (int i = 0; i < entries.length; i++) {
+            int length = buffer.getInt();
+            entries[i] = buffer.slice(buffer.position(), length);
+            buffer.position(buffer.position() + length);
+        }
+        return entries;
+    }
+
+    private static final class UnsupportedUnitException extends Exception {
+
+        private static final long serialVersionUID = 1L;
+
+        UnsupportedUnitException(String message) {
+            super(message);
+        }
+    }
+
+    /**
+     * Collects the shared tables while encoding units.
+     */
+    static final class Encoder {
+
+        private final Map<String, Integer> stringIndex = new HashMap<>();
+        private final List<String> strings = new ArrayList<>();
+        private final Map<ByteBuffer, Integer> capabilityIndex = new HashMap<>();
+        private final List<byte[]> capabilities = new ArrayList<>();
+        private final Map<ByteBuffer, Integer> requirementIndex = new HashMap<>();
+        private final List<byte[]> requirements = new ArrayList<>();
+        private final MetadataIO io = new MetadataIO();
+        private Decoder verifier;
+
+        List<String> getStrings() {
+            return strings;
+        }
+
+        List<byte[]> getCapabilities() {
+            return capabilities;
+        }
+
+        List<byte[]> getRequirements() {
+            return requirements;
+        }
+
+        /**
+         * Encodes the given units.
+         *
+         * @param units
+         *            the units to encode
+         * @param verify
+         *            if <code>true</code> the binary form of each unit is decoded again and must
+         *            produce the same p2 XML as the original unit, otherwise the unit is stored as
+         *            XML
+         * @return the encoded units
+         */
+        byte[] encodeUnits(Collection<IInstallableUnit> units, boolean verify) throws IOException {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            DataOutputStream out = new DataOutputStream(bytes);
+            out.writeInt(units.size());
+            for (IInstallableUnit unit : units) {
+                byte[] encoded = encodeBinary(unit, verify);
+                if (encoded != null) {
+                    out.writeByte(UNIT_BINARY);
+                    out.write(encoded);
+                } else {
+                    byte[] xml = toXML(unit);
+                    out.writeByte(UNIT_XML);
+                    out.writeInt(xml.length);
+                    out.write(xml);
+                }
+            }
+            out.flush();
+            return bytes.toByteArray();
+        }
+
+        private byte[] encodeBinary(IInstallableUnit unit, boolean verify) throws IOException {
+            byte[] encoded;
+            try {
+                encoded = encodeUnit(unit);
+            } catch (UnsupportedUnitException e) {
+                return null;
+            }
+            if (verify) {
+                try {
+                    if (verifier == null) {
+                        verifier = new Decoder(strings::get, index -> ByteBuffer.wrap(capabilities.get(index)),
+                                index -> ByteBuffer.wrap(requirements.get(index)), strings.size(),
+                                capabilities.size(), requirements.size());
+                    }
+                    IInstallableUnit decoded = verifier.decodeUnit(ByteBuffer.wrap(encoded));
+                    if (!Arrays.equals(toXML(unit), toXML(decoded))) {
+                        return null;
+                    }
+                } catch (RuntimeException e) {
+                    return null;
+                }
+            }
+            return encoded;
+        }
+
+        private byte[] toXML(IInstallableUnit unit) throws IOException {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            io.writeXML(List.of(unit), bytes);
+            return bytes.toByteArray();
+        }
+
+        private byte[] encodeUnit(IInstallableUnit unit) throws IOException, UnsupportedUnitException {
+            if (unit instanceof IInstallableUnitPatch) {
+                throw new UnsupportedUnitException("patches are not supported");
+            }
+            if (unit.isResolved()) {
+                throw new UnsupportedUnitException("resolved units are not supported");
+            }
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            DataOutputStream out = new DataOutputStream(bytes);
+            out.writeBoolean(unit instanceof IInstallableUnitFragment);
+            out.writeInt(string(unit.getId()));
+            out.writeInt(string(unit.getVersion().toString()));
+            out.writeBoolean(unit.isSingleton());
+            Map<String, String> properties = unit.getProperties();
+            out.writeInt(properties.size());
+            for (Entry<String, String> entry : properties.entrySet()) {
+                out.writeInt(string(entry.getKey()));
+                out.writeInt(string(entry.getValue()));
+            }
+            out.writeInt(filter(unit.getFilter()));
+            Collection<IProvidedCapability> providedCapabilities = unit.getProvidedCapabilities();
+            out.writeInt(providedCapabilities.size());
+            for (IProvidedCapability capability : providedCapabilities) {
+                out.writeInt(capability(capability));
+            }
+            writeRequirements(out, unit.getRequirements());
+            writeRequirements(out, unit.getMetaRequirements());
+            Collection<IArtifactKey> artifacts = unit.getArtifacts();
+            out.writeInt(artifacts.size());
+            for (IArtifactKey key : artifacts) {
+                out.writeInt(string(key.getClassifier()));
+                out.writeInt(string(key.getId()));
+                out.writeInt(string(key.getVersion().toString()));
+            }
+            ITouchpointType touchpointType = unit.getTouchpointType();
+            if (touchpointType == null || ITouchpointType.NONE.equals(touchpointType)) {
+                out.writeInt(NULL);
+            } else {
+                out.writeInt(string(touchpointType.getId()));
+                out.writeInt(string(touchpointType.getVersion().toString()));
+            }
+            Collection<ITouchpointData> touchpointData = unit.getTouchpointData();
+            out.writeInt(touchpointData.size());
+            for (ITouchpointData data : touchpointData) {
+                Map<String, ITouchpointInstruction> instructions = data.getInstructions();
+                out.writeInt(instructions.size());
+                for (Entry<String, ITouchpointInstruction> entry : instructions.entrySet()) {
+                    out.writeInt(string(entry.getKey()));
+                    out.writeInt(string(entry.getValue().getBody()));
+                    out.writeInt(string(entry.getValue().getImportAttribute()));
+                }
+            }
+            IUpdateDescriptor updateDescriptor = unit.getUpdateDescriptor();
+            out.writeBoolean(updateDescriptor != null);
+            if (updateDescriptor != null) {
+                Collection<IMatchExpression<IInstallableUnit>> updated = updateDescriptor.getIUsBeingUpdated();
+                out.writeInt(updated.size());
+                for (IMatchExpression<IInstallableUnit> expression : updated) {
+                    out.writeInt(string(ExpressionUtil.getOperand(expression).toString()));
+                    Object[] parameters = expression.getParameters();
+                    out.writeInt(parameters.length);
+                    for (Object parameter : parameters) {
+                        writeValue(out, parameter);
+                    }
+                }
+                out.writeInt(updateDescriptor.getSeverity());
+                out.writeInt(string(updateDescriptor.getDescription()));
+                out.writeInt(string(uri(updateDescriptor.getLocation())));
+            }
+            Collection<ILicense> licenses = unit.getLicenses();
+            out.writeInt(licenses.size());
+            for (ILicense license : licenses) {
+                out.writeInt(string(uri(license.getLocation())));
+                out.writeInt(string(license.getBody()));
+            }
+            ICopyright copyright = unit.getCopyright();
+            out.writeBoolean(copyright != null);
+            if (copyright != null) {
+                out.writeInt(string(uri(copyright.getLocation())));
+                out.writeInt(string(copyright.getBody()));
+            }
+            if (unit instanceof IInstallableUnitFragment fragment) {
+                writeRequirements(out, fragment.getHost());
+            }
+            out.flush();
+            return bytes.toByteArray();
+        }
+
+        private void writeRequirements(DataOutputStream out, Collection<IRequirement> requirements)
+                throws IOException, UnsupportedUnitException {
+            out.writeInt(requirements.size());
+            for (IRequirement requirement : requirements) {
+                out.writeInt(requirement(requirement));
+            }
+        }
+
+        int string(String value) {
+            if (value == null) {
+                return NULL;
+            }
+            return stringIndex.computeIfAbsent(value, v -> {
+                strings.add(v);
+                return strings.size() - 1;
+            });
+        }
+
+        private int filter(IMatchExpression<IInstallableUnit> filter) throws UnsupportedUnitException {
+            if (filter == null) {
+                return NULL;
+            }
+            Object[] parameters = filter.getParameters();
+            if (parameters.length != 1) {
+                throw new UnsupportedUnitException("unsupported filter " + filter);
+            }
+            return string(parameters[0].toString());
+        }
+
+        private int capability(IProvidedCapability capability) throws IOException, UnsupportedUnitException {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            DataOutputStream out = new DataOutputStream(bytes);
+            out.writeInt(string(capability.getNamespace()));
+            Map<String, Object> properties = capability.getProperties();
+            out.writeInt(properties.size());
+            for (Entry<String, Object> entry : properties.entrySet()) {
+                out.writeInt(string(entry.getKey()));
+                writeValue(out, entry.getValue());
+            }
+            out.flush();
+            return index(bytes.toByteArray(), capabilityIndex, capabilities);
+        }
+
+        private int requirement(IRequirement requirement) throws IOException, UnsupportedUnitException {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            DataOutputStream out = new DataOutputStream(bytes);
+            IMatchExpression<IInstallableUnit> matches = requirement.getMatches();
+            if (RequiredCapability.isVersionRangeRequirement(matches)) {
+                out.writeByte(REQUIREMENT_RANGE);
+                out.writeInt(string(RequiredCapability.extractNamespace(matches)));
+                out.writeInt(string(RequiredCapability.extractName(matches)));
+                out.writeInt(string(RequiredCapability.extractRange(matches).toString()));
+            } else if (RequiredPropertiesMatch.isPropertiesMatchRequirement(matches)) {
+                out.writeByte(REQUIREMENT_PROPERTIES);
+                out.writeInt(string(RequiredPropertiesMatch.extractNamespace(matches)));
+                out.writeInt(string(RequiredPropertiesMatch.extractPropertiesMatch(matches).toString()));
+            } else {
+                throw new UnsupportedUnitException("unsupported requirement " + requirement);
+            }
+            out.writeInt(filter(requirement.getFilter()));
+            out.writeInt(requirement.getMin());
+            out.writeInt(requirement.getMax());
+            out.writeBoolean(requirement.isGreedy());
+            out.writeInt(string(requirement.getDescription()));
+            out.flush();
+            return index(bytes.toByteArray(), requirementIndex, requirements);
+        }
+
+        private void writeValue(DataOutputStream out, Object value) throws IOException, UnsupportedUnitException {
+            if (value instanceof String string) {
+                out.writeByte(VALUE_STRING);
+                out.writeInt(string(string));
+            } else if (value instanceof Version version) {
+                out.writeByte(VALUE_VERSION);
+                out.writeInt(string(version.toString()));
+            } else if (value instanceof VersionRange range) {
+                out.writeByte(VALUE_VERSION_RANGE);
+                out.writeInt(string(range.toString()));
+            } else if (value instanceof Long number) {
+                out.writeByte(VALUE_LONG);
+                out.writeLong(number);
+            } else if (value instanceof Integer number) {
+                out.writeByte(VALUE_INTEGER);
+                out.writeInt(number);
+            } else if (value instanceof Double number) {
+                out.writeByte(VALUE_DOUBLE);
+                out.writeDouble(number);
+            } else if (value instanceof Boolean bool) {
+                out.writeByte(VALUE_BOOLEAN);
+                out.writeBoolean(bool);
+            } else if (value instanceof List<?> list) {
+                out.writeByte(VALUE_LIST);
+                out.writeInt(list.size());
+                for (Object element : list) {
+                    writeValue(out, element);
+                }
+            } else {
+                throw new UnsupportedUnitException("unsupported value " + value);
+            }
+        }
+
+        private static int index(byte[] data, Map<ByteBuffer, Integer> index, List<byte[]> table) {
+            return index.computeIfAbsent(ByteBuffer.wrap(data), key -> {
+                table.add(data);
+                return table.size() - 1;
+            });
+        }
+
+        private static String uri(URI uri) {
+            return uri == null ? null : uri.toString();
+        }
+    }
+
+    /**
+     * Decodes units, entries of the shared tables are only decoded once and the resulting objects
+     * are shared between all units referencing them.
+     */
+    static final class Decoder {
+
+        private final IntFunction<String> strings;
+        private final IntFunction<ByteBuffer> capabilityData;
+        private final IntFunction<ByteBuffer> requirementData;
+        // the tables of an encoder still grow while it is verifying units, so the caches grow as well
+        private String[] stringCache;
+        private Version[] versionCache;
+        private IProvidedCapability[] capabilityCache;
+        private IRequirement[] requirementCache;
+        private final MetadataIO io = new MetadataIO();
+
+        Decoder(IntFunction<String> strings, IntFunction<ByteBuffer> capabilityData,
+                IntFunction<ByteBuffer> requirementData, int stringCount, int capabilityCount,
+                int requirementCount) {
+            this.strings = strings;
+            this.capabilityData = capabilityData;
+            this.requirementData = requirementData;
+            this.stringCache = new String[stringCount];
+            this.versionCache = new Version[stringCount];
+            this.capabilityCache = new IProvidedCapability[capabilityCount];
+            this.requirementCache = new IRequirement[requirementCount];
+        }
+
+        /**
+         * Decodes units previously encoded with {@link Encoder#encodeUnits(Collection, boolean)}.
+         */
+        Set<IInstallableUnit> decodeUnits(ByteBuffer buffer) throws IOException {
+            int count = buffer.getInt();
+            Set<IInstallableUnit> units = new LinkedHashSet<>();
+            for (int i = 0; i < count; i++) {
+                byte type = buffer.get();
+                if (type == UNIT_BINARY) {
+                    units.add(decodeUnit(buffer));
+                } else if (type == UNIT_XML) {
+                    byte[] xml = new byte[buffer.getInt()];
+                    buffer.get(xml);
+                    units.addAll(io.readXML(new ByteArrayInputStream(xml)));
+                } else {
+                    throw new IllegalArgumentException("unknown unit type " + type);
+                }
+            }
+            return units;
+        }
+
+        IInstallableUnit decodeUnit(ByteBuffer in) {
+            boolean fragment = in.get() != 0;
+            InstallableUnitDescription description = fragment ? new InstallableUnitFragmentDescription()
+                    : new InstallableUnitDescription();
+            description.setId(string(in.getInt()));
+            description.setVersion(version(in.getInt()));
+            description.setSingleton(in.get() != 0);
+            int properties = in.getInt();
+            for (int i = 0; i < properties; i++) {
+                description.setProperty(string(in.getInt()), string(in.getInt()));
+            }
+            int filter = in.getInt();
+            if (filter != NULL) {
+                description.setFilter(InstallableUnit.parseFilter(string(filter)));
+            }
+            IProvidedCapability[] capabilities = new IProvidedCapability[in.getInt()];
+            for (int i = 0; i < capabilities.length; i++) {
+                capabilities[i] = capability(in.getInt());
+            }
+            description.setCapabilities(capabilities);
+            description.setRequirements(readRequirements(in));
+            description.setMetaRequirements(readRequirements(in));
+            IArtifactKey[] artifacts = new IArtifactKey[in.getInt()];
+            for (int i = 0; i < artifacts.length; i++) {
+                artifacts[i] = new ArtifactKey(string(in.getInt()), string(in.getInt()), version(in.getInt()));
+            }
+            description.setArtifacts(artifacts);
+            int touchpointType = in.getInt();
+            if (touchpointType != NULL) {
+                description.setTouchpointType(
+                        MetadataFactory.createTouchpointType(string(touchpointType), version(in.getInt())));
+            }
+            int touchpointData = in.getInt();
+            for (int i = 0; i < touchpointData; i++) {
+                int count = in.getInt();
+                Map<String, ITouchpointInstruction> instructions = new LinkedHashMap<>();
+                for (int j = 0; j < count; j++) {
+                    String key = string(in.getInt());
+                    String body = string(in.getInt());
+                    String importAttribute = string(in.getInt());
+                    instructions.put(key, MetadataFactory.createTouchpointInstruction(body, importAttribute));
+                }
+                description.addTouchpointData(MetadataFactory.createTouchpointData(instructions));
+            }
+            if (in.get() != 0) {
+                int count = in.getInt();
+                List<IMatchExpression<IInstallableUnit>> updated = new ArrayList<>(count);
+                for (int i = 0; i < count; i++) {
+                    String expression = string(in.getInt());
+                    Object[] parameters = new Object[in.getInt()];
+                    for (int j = 0; j < parameters.length; j++) {
+                        parameters[j] = readValue(in);
+                    }
+                    updated.add(ExpressionUtil.getFactory().matchExpression(ExpressionUtil.parse(expression),
+                            parameters));
+                }
+                int severity = in.getInt();
+                String updateDescription = string(in.getInt());
+                URI location = uri(string(in.getInt()));
+                description.setUpdateDescriptor(
+                        MetadataFactory.createUpdateDescriptor(updated, severity, updateDescription, location));
+            }
+            ILicense[] licenses = new ILicense[in.getInt()];
+            for (int i = 0; i < licenses.length; i++) {
+                URI location = uri(string(in.getInt()));
+                licenses[i] = MetadataFactory.createLicense(location, string(in.getInt()));
+            }
+            description.setLicenses(licenses);
+            if (in.get() != 0) {
+                URI location = uri(string(in.getInt()));
+                description.setCopyright(MetadataFactory.createCopyright(location, string(in.getInt())));
+            }
+            if (description instanceof InstallableUnitFragmentDescription fragmentDescription) {
+                fragmentDescription.setHost(readRequirements(in));
+                return MetadataFactory.createInstallableUnitFragment(fragmentDescription);
+            }
+            return MetadataFactory.createInstallableUnit(description);
+        }
+
+        private IRequirement[] readRequirements(ByteBuffer in) {
+            IRequirement[] requirements = new IRequirement[in.getInt()];
+            for (int i = 0; i < requirements.length; i++) {
+                requirements[i] = requirement(in.getInt());
+            }
+            return requirements;
+        }
+
+        private String string(int index) {
+            if (index == NULL) {
+                return null;
+            }
+            if (index >= stringCache.length) {
+                stringCache = Arrays.copyOf(stringCache, grow(stringCache.length, index));
+            }
+            String string = stringCache[index];
+            if (string == null) {
+                string = strings.apply(index);
+                stringCache[index] = string;
+            }
+            return string;
+        }
+
+        private Version version(int index) {
+            if (index >= versionCache.length) {
+                versionCache = Arrays.copyOf(versionCache, grow(versionCache.length, index));
+            }
+            Version version = versionCache[index];
+            if (version == null) {
+                version = Version.create(string(index));
+                versionCache[index] = version;
+            }
+            return version;
+        }
+
+        private IProvidedCapability capability(int index) {
+            if (index >= capabilityCache.length) {
+                capabilityCache = Arrays.copyOf(capabilityCache, grow(capabilityCache.length, index));
+            }
+            IProvidedCapability capability = capabilityCache[index];
+            if (capability == null) {
+                ByteBuffer in = capabilityData.apply(index);
+                String namespace = string(in.getInt());
+                int count = in.getInt();
+                Map<String, Object> properties = new LinkedHashMap<>();
+                for (int i = 0; i < count; i++) {
+                    properties.put(string(in.getInt()), readValue(in));
+                }
+                capability = MetadataFactory.createProvidedCapability(namespace, properties);
+                capabilityCache[index] = capability;
+            }
+            return capability;
+        }
+
+        private IRequirement requirement(int index) {
+            if (index >= requirementCache.length) {
+                requirementCache = Arrays.copyOf(requirementCache, grow(requirementCache.length, index));
+            }
+            IRequirement requirement = requirementCache[index];
+            if (requirement == null) {
+                ByteBuffer in = requirementData.apply(index);
+                byte type = in.get();
+                String namespace = string(in.getInt());
+                String match = string(in.getInt());
+                String range = type == REQUIREMENT_RANGE ? string(in.getInt()) : null;
+                int filterIndex = in.getInt();
+                IMatchExpression<IInstallableUnit> filter = filterIndex == NULL ? null
+                        : InstallableUnit.parseFilter(string(filterIndex));
+                int min = in.getInt();
+                int max = in.getInt();
+                boolean greedy = in.get() != 0;
+                String description = string(in.getInt());
+                if (type == REQUIREMENT_RANGE) {
+                    requirement = MetadataFactory.createRequirement(namespace, match, new VersionRange(range), filter,
+                            min, max, greedy, description);
+                } else if (type == REQUIREMENT_PROPERTIES) {
+                    requirement = MetadataFactory.createRequirement(namespace, ExpressionUtil.parseLDAP(match), filter,
+                            min, max, greedy, description);
+                } else {
+                    throw new IllegalArgumentException("unknown requirement type " + type);
+                }
+                requirementCache[index] = requirement;
+            }
+            return requirement;
+        }
+
+        private Object readValue(ByteBuffer in) {
+            byte type = in.get();
+            return switch (type) {
+            case VALUE_STRING -> string(in.getInt());
+            case VALUE_VERSION -> version(in.getInt());
+            case VALUE_VERSION_RANGE -> new VersionRange(string(in.getInt()));
+            case VALUE_LONG -> in.getLong();
+            case VALUE_INTEGER -> in.getInt();
+            case VALUE_DOUBLE -> in.getDouble();
+            case VALUE_BOOLEAN -> in.get() != 0;
+            case VALUE_LIST -> {
+                int count = in.getInt();
+                List<Object> list = new ArrayList<>(count);
+                for (int i = 0; i < count; i++) {
+                    list.add(readValue(in));
+                }
+                yield list;
+            }
+            default -> throw new IllegalArgumentException("unknown value type " + type);
+            };
+        }
+
+        private static int grow(int length, int index) {
+            return Math.max(index + 1, length * 2);
+        }
+
+        private static URI uri(String uri) {
+            if (uri == null) {
+                return null;
+            }
+            try {
+                return new URI(uri);
+            } catch (URISyntaxException e) {
+                throw new IllegalArgumentException(e);
+            }
+        }
+    }
+}
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2008, 2022 Sonatype Inc. and others.
+ * Copyright (c) 2008, 2026 Sonatype Inc. and others.
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
  * which accompanies this distribution, and is available at
@@ -14,32 +14,76 @@
 package org.eclipse.tycho.p2.repository;
 
 import java.io.BufferedOutputStream;
+import java.io.Closeable;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
-import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.locks.Lock;
-import java.util.concurrent.locks.ReentrantLock;
-import java.util.stream.Collectors;
+import java.util.concurrent.TimeUnit;
 
 import org.eclipse.equinox.p2.core.IProvisioningAgent;
 import org.eclipse.equinox.p2.metadata.IArtifactKey;
 import org.eclipse.equinox.p2.repository.artifact.IArtifactDescriptor;
 import org.eclipse.tycho.ArtifactType;
+import org.eclipse.tycho.FileLockService;
+import org.eclipse.tycho.LockTimeoutException;
 import org.eclipse.tycho.TychoConstants;
 
 public class LocalArtifactRepository extends ArtifactRepositoryBaseImpl<GAVArtifactDescriptor> {
 
-    private Set<IArtifactKey> descriptorsOnLastSave;
+    /**
+     * A batch of changes to the repository, see {@link LocalArtifactRepository#beginBatch()}.
+     */
+    public interface Batch extends AutoCloseable {
+
+        /**
+         * Ends the batch, if this was the last open batch all changes made in the meantime are
+         * saved.
+         */
+        @Override
+        void close();
+    }
+
+    private static final long DOWNLOAD_LOCK_TIMEOUT = Long.getLong("tycho.p2.download.lockTimeout",
+            TimeUnit.MINUTES.toMillis(10));
+
+    /**
+     * the downloads currently running in this VM, shared by all instances as there might be more
+     * than one for the same local repository
+     */
+    private static final Map<DownloadKey, CompletableFuture<Void>> RUNNING_DOWNLOADS = new ConcurrentHashMap<>();
+
+    private record DownloadKey(File basedir, IArtifactKey key) {
+    }
+
+    /**
+     * A download started with {@link LocalArtifactRepository#beginDownload(IArtifactKey)}.
+     */
+    public interface Download extends AutoCloseable {
+
+        /**
+         * Finishes the download and wakes up all threads waiting for it.
+         */
+        @Override
+        void close();
+    }
+
+    /**
+     * keys whose descriptors have changed since the last save
+     */
+    private final Set<IArtifactKey> unsavedKeys = ConcurrentHashMap.newKeySet();
+    private int openBatches;
+    private boolean savePending;
     private final LocalRepositoryP2Indices localRepoIndices;
     private final RepositoryReader contentLocator;
-    private final Map<IArtifactKey, Lock> downloadLocks = new ConcurrentHashMap<>();
+    private ChecksumVerificationCache checksumCache;
 
     public LocalArtifactRepository(IProvisioningAgent agent, LocalRepositoryP2Indices localRepoIndices) {
         this(agent, localRepoIndices, new LocalRepositoryReader(localRepoIndices.getMavenContext()));
@@ -89,20 +133,57 @@ public class LocalArtifactRepository extends ArtifactRepositoryBaseImpl<GAVArtif
             }
         }
 
-        descriptorsOnLastSave = currentKeys();
+        unsavedKeys.clear();
     }
 
+    /**
+     * Starts a batch of changes: calls to {@link #save()} are deferred until all batches (of any
+     * thread) are closed, so a sequence of changes that would otherwise save several times (e.g.
+     * mirroring an artifact and then its canonical format) only writes the changed descriptors and
+     * the local repository index once. Batches must be closed, preferably with a try-with-resources
+     * statement.
+     * 
+     * @return the started batch
+     */
+    public synchronized Batch beginBatch() {
+        openBatches++;
+        return new Batch() {
+
+            private boolean closed;
+
+            @Override
+            public void close() {
+                synchronized (LocalArtifactRepository.this) {
+                    if (closed) {
+                        return;
+                    }
+                    closed = true;
+                    openBatches--;
+                    if (openBatches == 0 && savePending) {
+                        save();
+                    }
+                }
+            }
+        };
+    }
+
+    /**
+     * Writes the descriptors that changed since the last save and updates the local repository
+     * index. If a {@link #beginBatch() batch} is open, saving is deferred until it is closed.
+     */
     public synchronized void save() {
+        if (openBatches > 0) {
+            savePending = true;
+            return;
+        }
+        savePending = false;
         TychoRepositoryIndex index = localRepoIndices.getArtifactsIndex();
 
         ArtifactsIO io = new ArtifactsIO();
 
-        Set<IArtifactKey> descriptors = currentKeys();
-
-        for (IArtifactKey key : descriptors) {
-            if (descriptorsOnLastSave.contains(key)) {
-                continue;
-            }
+        for (IArtifactKey key : List.copyOf(unsavedKeys)) {
+            // a concurrent change re-adds the key and is written by the next save
+            unsavedKeys.remove(key);
             Set<GAVArtifactDescriptor> keyDescriptors = descriptorsMap.get(key);
             if (keyDescriptors != null && !keyDescriptors.isEmpty()) {
                 // all descriptors should have the same GAV
@@ -128,13 +209,6 @@ public class LocalArtifactRepository extends ArtifactRepositoryBaseImpl<GAVArtif
         } catch (IOException e) {
             throw new RuntimeException(e);
         }
-
-        descriptorsOnLastSave = new HashSet<>(descriptors);
-    }
-
-    protected HashSet<IArtifactKey> currentKeys() {
-        return flattenedValues().map(IArtifactDescriptor::getArtifactKey)
-                .collect(Collectors.toCollection(HashSet::new));
     }
 
     @Override
@@ -186,19 +260,84 @@ public class LocalArtifactRepository extends ArtifactRepositoryBaseImpl<GAVArtif
         return contains(artifactKey);
     }
 
-    public Lock getLockForDownload(IArtifactKey key) {
-        return downloadLocks.computeIfAbsent(key, k -> new ReentrantLock());
+    /**
+     * Starts the download of the given artifact by the current thread. There is only one download
+     * of an artifact at a time in this VM, other threads wait for it to finish instead, and other
+     * processes using the same {@link FileLockService} are excluded as well.
+     * 
+     * @param key
+     *            the artifact to download
+     * @return the started download, which must be closed once the artifact has been stored, or
+     *         <code>null</code> if the artifact was downloaded by another thread meanwhile, in
+     *         which case the caller should check again if it is available now
+     */
+    public Download beginDownload(IArtifactKey key) {
+        DownloadKey downloadKey = new DownloadKey(getBasedir(), key);
+        CompletableFuture<Void> download = new CompletableFuture<>();
+        CompletableFuture<Void> running = RUNNING_DOWNLOADS.putIfAbsent(downloadKey, download);
+        if (running != null) {
+            // whatever the outcome is, the caller has to check the local repository again
+            running.exceptionally(e -> null).join();
+            return null;
+        }
+        Closeable processLock;
+        try {
+            processLock = lockForDownload(key);
+        } catch (RuntimeException e) {
+            RUNNING_DOWNLOADS.remove(downloadKey, download);
+            download.complete(null);
+            throw e;
+        }
+        return () -> {
+            try {
+                if (processLock != null) {
+                    processLock.close();
+                }
+            } catch (IOException e) {
+                // nothing we can do about it...
+            } finally {
+                RUNNING_DOWNLOADS.remove(downloadKey, download);
+                download.complete(null);
+            }
+        };
+    }
+
+    private Closeable lockForDownload(IArtifactKey key) {
+        FileLockService fileLockService = localRepoIndices.getFileLockService();
+        if (fileLockService == null) {
+            return null;
+        }
+        File artifactFile = internalGetArtifactStorageLocation(createArtifactDescriptor(key));
+        try {
+            return fileLockService.lock(artifactFile, DOWNLOAD_LOCK_TIMEOUT);
+        } catch (LockTimeoutException e) {
+            // the other process might be stuck, so better download it again than failing the build
+            localRepoIndices.getMavenContext().getLogger()
+                    .debug("Downloading " + key + " without lock: " + e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * @return the cache of checksums already computed for files of this repository
+     */
+    synchronized ChecksumVerificationCache getChecksumCache() {
+        if (checksumCache == null) {
+            checksumCache = new ChecksumVerificationCache(getBasedir(),
+                    localRepoIndices.getMavenContext().getLogger());
+        }
+        return checksumCache;
     }
 
     @Override
     protected void internalRemoveDescriptors(IArtifactKey key) {
         super.internalRemoveDescriptors(key);
-        descriptorsOnLastSave.remove(key);
+        unsavedKeys.remove(key);
     }
 
     @Override
-    public void internalAddDescriptor(IArtifactDescriptor descriptor) {
-        super.internalAddDescriptor(descriptor);
-        descriptorsOnLastSave.remove(descriptor.getArtifactKey());
+    protected void internalAddInternalDescriptor(GAVArtifactDescriptor internalDescriptor) {
+        super.internalAddInternalDescriptor(internalDescriptor);
+        unsavedKeys.add(internalDescriptor.getArtifactKey());
     }
 }
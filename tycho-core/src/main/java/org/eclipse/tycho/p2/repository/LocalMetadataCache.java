@@ -0,0 +1,320 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Christoph Läubrich and others.
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *    Christoph Läubrich - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.tycho.p2.repository;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Set;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedOutputStream;
+
+import org.eclipse.equinox.p2.metadata.IInstallableUnit;
+import org.eclipse.tycho.FileLockService;
+import org.eclipse.tycho.core.shared.MavenLogger;
+import org.eclipse.tycho.p2.repository.InstallableUnitCodec.Decoder;
+import org.eclipse.tycho.p2.repository.InstallableUnitCodec.Encoder;
+
+/**
+ * Caches the installable units of the p2 metadata files of the local maven repository in one
+ * binary file, so they do not need to be read and parsed from XML again on each build.
+ * Each entry records the size and modification time of the XML file it was created from and is only
+ * used as long as these are unchanged. The XML files stay the primary storage, the cache is
+ * rewritten whenever it does not match the content of the local repository anymore.
+ * <p>
+ * The cache file ends with a checksum of its content, it is read while holding a shared and
+ * written while holding an exclusive lock of the {@link FileLockService} so builds sharing the
+ * local repository do not see partially written files.
+ */
+final class LocalMetadataCache {
+
+    static final String RELPATH = ".meta/p2-local-metadata.bin";
+
+    private static final boolean ENABLED = Boolean
+            .parseBoolean(System.getProperty("tycho.p2.local-metadata.cache", "true"));
+
+    // "TYMD"
+    private static final int MAGIC = 0x54594D44;
+    private static final int VERSION = 2;
+    private static final int HEADER_SIZE = 6 * Integer.BYTES;
+
+    private final Path file;
+    private final FileLockService fileLockService;
+    private final MavenLogger logger;
+    private final Map<GAV, StoredEntry> storedEntries = new HashMap<>();
+    private final Map<GAV, CacheEntry> entries = new LinkedHashMap<>();
+    private Decoder decoder;
+    private boolean modified;
+
+    private LocalMetadataCache(Path file, FileLockService fileLockService, MavenLogger logger) {
+        this.file = file;
+        this.fileLockService = fileLockService;
+        this.logger = logger;
+    }
+
+    /**
+     * Opens the cache of the given local repository, if the cache can't be read for some reason it
+     * is simply treated as empty.
+     */
+    static LocalMetadataCache open(File basedir, FileLockService fileLockService, MavenLogger logger) {
+        LocalMetadataCache cache = new LocalMetadataCache(new File(basedir, RELPATH).toPath(), fileLockService,
+                logger);
+        if (ENABLED && Files.isRegularFile(cache.file)) {
+            try (Closeable locked = fileLockService.lockShared(cache.file.toFile())) {
+                cache.read();
+            } catch (IOException | RuntimeException e) {
+                cache.storedEntries.clear();
+                cache.decoder = null;
+                cache.modified = true;
+                debug(logger, "Ignoring unreadable metadata cache " + cache.file + ": " + e);
+            }
+        }
+        return cache;
+    }
+
+    /**
+     * @param gav
+     *            the GAV of the metadata file
+     * @param stamp
+     *            the current stamp of the metadata file
+     * @return the cached units of the given file or <code>null</code> if there are no (current)
+     *         cached units
+     */
+    Set<IInstallableUnit> get(GAV gav, FileStamp stamp) {
+        StoredEntry stored = storedEntries.get(gav);
+        if (stored == null || !stored.stamp().equals(stamp)) {
+            return null;
+        }
+        try {
+            Set<IInstallableUnit> units = decoder.decodeUnits(stored.units().duplicate());
+            entries.put(gav, new CacheEntry(stamp, units, false));
+            return units;
+        } catch (IOException | RuntimeException e) {
+            debug(logger, "Can't read cached metadata of " + gav + ": " + e);
+            return null;
+        }
+    }
+
+    /**
+     * Records the units parsed from the metadata file
+     * 
+     * @param stamp
+     *            the stamp of the metadata file taken before it was read
+     */
+    void put(GAV gav, FileStamp stamp, Set<IInstallableUnit> units) {
+        entries.put(gav, new CacheEntry(stamp, units, true));
+        modified = true;
+    }
+
+    /**
+     * Writes the cache if the recorded entries differ from the cached ones.
+     */
+    void save() {
+        if (!ENABLED || (!modified && storedEntries.keySet().equals(entries.keySet()))) {
+            return;
+        }
+        try (Closeable locked = fileLockService.lock(file.toFile())) {
+            write();
+        } catch (IOException | RuntimeException e) {
+            // the file might be in use (e.g. on windows), simply try again next time...
+            debug(logger, "Can't write metadata cache " + file + ": " + e);
+        }
+    }
+
+    private void read() throws IOException {
+        // read into the heap instead of mapping the file, a mapping would keep the file open as long
+        // as entries are referenced and on windows the file can't be replaced while it is open
+        byte[] content = Files.readAllBytes(file);
+        if (content.length < HEADER_SIZE + Long.BYTES) {
+            throw new IOException("truncated file");
+        }
+        int size = content.length - Long.BYTES;
+        ByteBuffer buffer = ByteBuffer.wrap(content, 0, size).slice();
+        CRC32 crc = new CRC32();
+        crc.update(content, 0, size);
+        if (ByteBuffer.wrap(content, size, Long.BYTES).getLong() != crc.getValue()) {
+            throw new IOException("checksum mismatch");
+        }
+        if (buffer.getInt() != MAGIC || buffer.getInt() != VERSION) {
+            throw new IOException("unknown format");
+        }
+        int strings = buffer.getInt();
+        int capabilities = buffer.getInt();
+        int requirements = buffer.getInt();
+        int entriesOffset = buffer.getInt();
+        Table stringTable = new Table(buffer, strings);
+        Table capabilityTable = new Table(buffer, capabilities);
+        Table requirementTable = new Table(buffer, requirements);
+        decoder = new Decoder(index -> StandardCharsets.UTF_8.decode(stringTable.get(index)).toString(),
+                capabilityTable::get, requirementTable::get, stringTable.size(), capabilityTable.size(),
+                requirementTable.size());
+        ByteBuffer entryBuffer = buffer.duplicate().position(entriesOffset);
+        int count = entryBuffer.getInt();
+        for (int i = 0; i < count; i++) {
+            GAV gav = GAV.parse(StandardCharsets.UTF_8.decode(stringTable.get(entryBuffer.getInt())).toString());
+            FileStamp stamp = new FileStamp(entryBuffer.getLong(), entryBuffer.getLong());
+            int unitsOffset = entryBuffer.getInt();
+            int unitsLength = entryBuffer.getInt();
+            storedEntries.put(gav, new StoredEntry(stamp, buffer.slice(unitsOffset, unitsLength)));
+        }
+    }
+
+    private void write() throws IOException {
+        Encoder encoder = new Encoder();
+        List<byte[]> units = new ArrayList<>(entries.size());
+        List<Integer> gavs = new ArrayList<>(entries.size());
+        for (Entry<GAV, CacheEntry> entry : entries.entrySet()) {
+            CacheEntry cacheEntry = entry.getValue();
+            // units read from the cache are already verified
+            units.add(encoder.encodeUnits(cacheEntry.units(), cacheEntry.verify()));
+            gavs.add(encoder.string(entry.getKey().toExternalForm()));
+        }
+        byte[] strings = table(encoder.getStrings().stream().map(s -> s.getBytes(StandardCharsets.UTF_8)).toList());
+        byte[] capabilities = table(encoder.getCapabilities());
+        byte[] requirements = table(encoder.getRequirements());
+        int offset = HEADER_SIZE + strings.length + capabilities.length + requirements.length;
+        int entriesOffset = offset;
+        for (byte[] unit : units) {
+            entriesOffset += unit.length;
+        }
+        Files.createDirectories(file.getParent());
+        Path tempFile = Files.createTempFile(file.getParent(), file.getFileName().toString(), ".tmp");
+        CRC32 crc = new CRC32();
+        try (OutputStream stream = new BufferedOutputStream(Files.newOutputStream(tempFile));
+                DataOutputStream out = new DataOutputStream(new CheckedOutputStream(stream, crc))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeInt(HEADER_SIZE);
+            out.writeInt(HEADER_SIZE + strings.length);
+            out.writeInt(HEADER_SIZE + strings.length + capabilities.length);
+            out.writeInt(entriesOffset);
+            out.write(strings);
+            out.write(capabilities);
+            out.write(requirements);
+            for (byte[] unit : units) {
+                out.write(unit);
+            }
+            out.writeInt(entries.size());
+            int index = 0;
+            for (CacheEntry entry : entries.values()) {
+                out.writeInt(gavs.get(index));
+                out.writeLong(entry.stamp().size());
+                out.writeLong(entry.stamp().lastModified());
+                out.writeInt(offset);
+                out.writeInt(units.get(index).length);
+                offset += units.get(index).length;
+                index++;
+            }
+            out.flush();
+            // the checksum covers everything written before
+            new DataOutputStream(stream).writeLong(crc.getValue());
+        }
+        try {
+            Files.move(tempFile, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(tempFile);
+        }
+    }
+
+    /**
+     * Encodes a table as count, offsets of each entry (relative to the table) and the entries
+     * itself.
+     */
+    private static byte[] table(Collection<byte[]> entries) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bytes);
+        out.writeInt(entries.size());
+        int offset = Integer.BYTES * (1 + entries.size() + 1);
+        for (byte[] entry : entries) {
+            out.writeInt(offset);
+            offset += entry.length;
+        }
+        // end of the last entry
+        out.writeInt(offset);
+        for (byte[] entry : entries) {
+            out.write(entry);
+        }
+        out.flush();
+        return bytes.toByteArray();
+    }
+
+    private static void debug(MavenLogger logger, String message) {
+        if (logger != null && logger.isDebugEnabled()) {
+            logger.debug(message);
+        }
+    }
+
+    /**
+     * A table in the cache file, entries are only sliced from the buffer when requested.
+     */
+    private static final class Table {
+
+        private final ByteBuffer buffer;
+        private final int start;
+        private final int size;
+
+        Table(ByteBuffer buffer, int start) {
+            this.buffer = buffer;
+            this.start = start;
+            this.size = buffer.getInt(start);
+            if (size < 0) {
+                throw new BufferUnderflowException();
+            }
+        }
+
+        int size() {
+            return size;
+        }
+
+        ByteBuffer get(int index) {
+            int offset = buffer.getInt(start + Integer.BYTES * (1 + index));
+            int end = buffer.getInt(start + Integer.BYTES * (2 + index));
+            return buffer.slice(start + offset, end - offset);
+        }
+    }
+
+    /**
+     * Identifies the state of a metadata file without reading it
+     */
+    static record FileStamp(long size, long lastModified) {
+
+        static FileStamp of(File file) throws IOException {
+            BasicFileAttributes attributes = Files.readAttributes(file.toPath(), BasicFileAttributes.class);
+            return new FileStamp(attributes.size(), attributes.lastModifiedTime().toMillis());
+        }
+    }
+
+    private static record StoredEntry(FileStamp stamp, ByteBuffer units) {
+    }
+
+    private static record CacheEntry(FileStamp stamp, Set<IInstallableUnit> units, boolean verify) {
+    }
+}
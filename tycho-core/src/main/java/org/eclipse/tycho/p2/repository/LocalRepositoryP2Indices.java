@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2011 SAP AG and others.
+ * Copyright (c) 2011, 2026 SAP AG and others.
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
  * which accompanies this distribution, and is available at
@@ -16,6 +16,7 @@ package org.eclipse.tycho.p2.repository;
 import java.io.File;
 import java.io.IOException;
 
+import org.eclipse.tycho.FileLockService;
 import org.eclipse.tycho.core.shared.MavenContext;
 
 /**
@@ -31,6 +32,8 @@ public interface LocalRepositoryP2Indices {
 
     MavenContext getMavenContext();
 
+    FileLockService getFileLockService();
+
     public void add(GAV gav) throws IOException;
 
 }
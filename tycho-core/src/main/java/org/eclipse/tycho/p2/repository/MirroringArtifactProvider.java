@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2012, 2023 SAP SE and others.
+ * Copyright (c) 2012, 2026 SAP SE and others.
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
  * which accompanies this distribution, and is available at
@@ -17,17 +17,14 @@ package org.eclipse.tycho.p2.repository;
 import static org.eclipse.tycho.p2.repository.BundleConstants.BUNDLE_ID;
 
 import java.io.File;
-import java.io.FileInputStream;
 import java.io.IOException;
 import java.util.Arrays;
+import java.util.Collection;
 import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.Objects;
 import java.util.TreeSet;
-import java.util.concurrent.TimeUnit;
-import java.util.concurrent.locks.Lock;
 
-import org.apache.commons.codec.digest.DigestUtils;
 import org.eclipse.core.runtime.IProgressMonitor;
 import org.eclipse.core.runtime.IStatus;
 import org.eclipse.core.runtime.NullProgressMonitor;
@@ -55,6 +52,8 @@ import org.eclipse.tycho.core.shared.MavenContext.ChecksumPolicy;
 import org.eclipse.tycho.core.shared.MavenLogger;
 import org.eclipse.tycho.core.shared.MultiLineLogger;
 import org.eclipse.tycho.core.shared.StatusTool;
+import org.eclipse.tycho.p2.repository.ChecksumVerificationCache.FileToVerify;
+import org.eclipse.tycho.p2.repository.LocalArtifactRepository.Download;
 
 /**
  * {@link IRawArtifactFileProvider} which caches all accessed artifacts in the local Maven
@@ -202,7 +201,8 @@ public class MirroringArtifactProvider implements IRawArtifactFileProvider {
      *             if a fatal error occurred while downloading the artifact.
      */
     private boolean makeLocallyAvailable(IArtifactKey key) throws MirroringFailedException {
-        try {
+        // both steps might change the local repository, but it only needs to be saved once
+        try (var batch = localArtifactRepository.beginBatch()) {
             boolean isAvailable = makeOneFormatLocallyAvailable(key);
 
             if (isAvailable) {
@@ -217,13 +217,10 @@ public class MirroringArtifactProvider implements IRawArtifactFileProvider {
             return isAvailable;
 
         } catch (ProvisionException e) {
-            if (ProvisionException.ARTIFACT_EXISTS == e.getStatus().getCode()) {
-                //there is some race condition here so we need to start over again
-                try {
-                    TimeUnit.MILLISECONDS.sleep(100);
-                } catch (InterruptedException e1) {
-                }
-                return makeLocallyAvailable(key);
+            if (ProvisionException.ARTIFACT_EXISTS == e.getStatus().getCode()
+                    && findCanonicalDescriptor(localArtifactRepository.getArtifactDescriptors(key)) != null) {
+                // stored by someone else meanwhile, e.g. through another instance of the local repository
+                return true;
             }
             throw new MirroringFailedException(
                     "Error while mirroring artifact " + key + " to the local Maven repository" + e.getMessage(), e);
@@ -239,35 +236,40 @@ public class MirroringArtifactProvider implements IRawArtifactFileProvider {
         if (isFileAlreadyAvailable(key)) {
             return true;
         } else if (remoteProviders.contains(key)) {
-            Lock downloadLock = localArtifactRepository.getLockForDownload(key);
-            downloadLock.lock();
-            try {
-                if (!isFileAlreadyAvailable(key)) { // check again within lock
-                    File artifactFile;
-                    if (localArtifactRepository.contains(key)) {
-                        artifactFile = localArtifactRepository.getArtifactFile(key);
-                        localArtifactRepository.removeDescriptor(key);
-                    } else {
-                        artifactFile = localArtifactRepository.internalGetArtifactStorageLocation(
-                                localArtifactRepository.createArtifactDescriptor(key));
-                    }
-                    if (artifactFile != null && artifactFile.isFile()) {
-                        //check if only properties has changed...
-                        GAVArtifactDescriptor descriptor = newLocalDescriptor(key);
-                        if (fileMatchesProperties(artifactFile, descriptor.getProperties(),
-                                mavenContext.getChecksumsMode() == ChecksumPolicy.STRICT)) {
-                            localArtifactRepository.internalAddDescriptor(descriptor);
-                            localArtifactRepository.save();
+            while (true) {
+                try (Download download = localArtifactRepository.beginDownload(key)) {
+                    if (download == null) {
+                        // another thread has finished downloading the artifact
+                        if (isFileAlreadyAvailable(key)) {
                             return true;
                         }
+                        continue;
+                    }
+                    if (!isFileAlreadyAvailable(key)) { // check again, another thread might have just finished
+                        File artifactFile;
+                        if (localArtifactRepository.contains(key)) {
+                            artifactFile = localArtifactRepository.getArtifactFile(key);
+                            localArtifactRepository.removeDescriptor(key);
+                        } else {
+                            artifactFile = localArtifactRepository.internalGetArtifactStorageLocation(
+                                    localArtifactRepository.createArtifactDescriptor(key));
+                        }
+                        if (artifactFile != null && artifactFile.isFile()) {
+                            //check if only properties has changed...
+                            GAVArtifactDescriptor descriptor = newLocalDescriptor(key);
+                            if (fileMatchesProperties(artifactFile, descriptor.getProperties(),
+                                    mavenContext.getChecksumsMode() == ChecksumPolicy.STRICT)) {
+                                localArtifactRepository.internalAddDescriptor(descriptor);
+                                localArtifactRepository.save();
+                                return true;
+                            }
+                        }
+                        downloadArtifact(key);
+                        localArtifactRepository.save();
                     }
-                    downloadArtifact(key);
-                    localArtifactRepository.save();
+                    return true;
                 }
-            } finally {
-                downloadLock.unlock();
             }
-            return true;
         } else {
             return false;
         }
@@ -285,39 +287,69 @@ public class MirroringArtifactProvider implements IRawArtifactFileProvider {
         }
         String sha256 = properties.get("download.checksum.sha-256");
         if (sha256 != null) {
-            try (FileInputStream stream = new FileInputStream(file)) {
-                String fileSha256 = DigestUtils.sha256Hex(stream);
-                if (fileSha256.equalsIgnoreCase(sha256)) {
-                    return true;
-                }
-            } catch (IOException e) {
-                mavenContext.getLogger().debug("Computing hash sum failed, assume file is corrupted (" + e + ")");
-            }
-            if (logFailure) {
-                mavenContext.getLogger().warn("sha-256 checksum for " + file.getAbsolutePath()
-                        + " does not match, attempting to download file again...");
-            }
-            return false;
+            return checksumMatches(file, ChecksumVerificationCache.SHA_256, sha256, "sha-256", logFailure);
         }
         String md5 = properties.get("download.checksum.md5");
         if (md5 != null) {
-            try (FileInputStream stream = new FileInputStream(file)) {
-                String fileMd5 = DigestUtils.md5Hex(stream);
-                if (fileMd5.equalsIgnoreCase(md5)) {
-                    return true;
-                }
-            } catch (IOException e) {
-                mavenContext.getLogger().debug("Computing hash sum failed, assume file is corrupted (" + e + ")");
-            }
-            if (logFailure) {
-                mavenContext.getLogger().warn("md5 checksum for " + file.getAbsolutePath()
-                        + " does not match, attempting to download file again...");
+            return checksumMatches(file, ChecksumVerificationCache.MD5, md5, "md5", logFailure);
+        }
+        return false;
+    }
+
+    private boolean checksumMatches(File file, String algorithm, String expected, String name, boolean logFailure) {
+        try {
+            if (localArtifactRepository.getChecksumCache().matches(file.toPath(), algorithm, expected)) {
+                return true;
             }
-            return false;
+        } catch (IOException e) {
+            mavenContext.getLogger().debug("Computing hash sum failed, assume file is corrupted (" + e + ")");
+        }
+        if (logFailure) {
+            mavenContext.getLogger().warn(name + " checksum for " + file.getAbsolutePath()
+                    + " does not match, attempting to download file again...");
         }
         return false;
     }
 
+    /**
+     * Computes the checksums of the local files of the given artifacts in parallel, so the
+     * verification done in {@link #isFileAlreadyAvailable(IArtifactKey)} for
+     * {@link ChecksumPolicy#STRICT strict} checksums does not need to hash them one after the
+     * other when they are requested. This method does not wait for the computation to finish.
+     * 
+     * @param keys
+     *            the artifacts that are likely to be requested
+     */
+    public void verifyChecksumsInBackground(Collection<IArtifactKey> keys) {
+        if (mavenContext.isOffline() || mavenContext.getChecksumsMode() != ChecksumPolicy.STRICT) {
+            return;
+        }
+        localArtifactRepository.getChecksumCache().verifyInBackground(keys, this::getFileToVerify);
+    }
+
+    private FileToVerify getFileToVerify(IArtifactKey key) {
+        if (!localArtifactRepository.contains(key)) {
+            return null;
+        }
+        // the local descriptor keeps the checksums of the mirrored artifact, this avoids loading remote
+        // repositories just to find out which algorithm will be used
+        IArtifactDescriptor localDescriptor = findCanonicalDescriptor(localArtifactRepository.getArtifactDescriptors(key));
+        if (localDescriptor == null) {
+            return null;
+        }
+        File artifactFile = localArtifactRepository.getArtifactFile(localDescriptor);
+        if (artifactFile == null || !artifactFile.isFile()) {
+            return null;
+        }
+        Map<String, String> properties = localDescriptor.getProperties();
+        String algorithm = properties.containsKey("download.checksum.sha-256") ? ChecksumVerificationCache.SHA_256
+                : properties.containsKey("download.checksum.md5") ? ChecksumVerificationCache.MD5 : null;
+        if (algorithm == null) {
+            return null;
+        }
+        return new FileToVerify(artifactFile.toPath(), algorithm);
+    }
+
     protected final void downloadArtifact(IArtifactKey key)
             throws MirroringFailedException, ProvisionException, ArtifactSinkException {
 
@@ -357,8 +389,15 @@ public class MirroringArtifactProvider implements IRawArtifactFileProvider {
 
     private void ensureArtifactIsPresentInCanonicalFormat(IArtifactKey key)
             throws ProvisionException, ArtifactSinkException {
-        if (findCanonicalDescriptor(localArtifactRepository.getArtifactDescriptors(key)) == null) {
-            downloadCanonicalArtifact(key);
+        while (findCanonicalDescriptor(localArtifactRepository.getArtifactDescriptors(key)) == null) {
+            try (Download download = localArtifactRepository.beginDownload(key)) {
+                if (download != null) {
+                    if (findCanonicalDescriptor(localArtifactRepository.getArtifactDescriptors(key)) == null) {
+                        downloadCanonicalArtifact(key);
+                    }
+                    return;
+                }
+            }
         }
     }
 
@@ -15,6 +15,7 @@ package org.eclipse.tycho.p2.repository;
 import java.io.IOException;
 import java.util.Set;
 
+import org.eclipse.tycho.FileLockService;
 import org.eclipse.tycho.core.shared.MavenContext;
 
 public interface TychoRepositoryIndex {
@@ -55,4 +56,10 @@ public interface TychoRepositoryIndex {
 
     MavenContext getMavenContext();
 
+    /**
+     * @return the service used to lock the files of this index, also used for other files stored
+     *         next to it
+     */
+    FileLockService getFileLockService();
+
 }
@@ -49,6 +49,7 @@ public class FileTargetDefinitionContent implements TargetDefinitionContent {
     private File location;
 
     private boolean loaded;
+    private TargetDefinitionResolutionException failure;
 
     public FileTargetDefinitionContent(IProvisioningAgent agent, File location) {
         this.location = location;
@@ -78,6 +79,10 @@ public class FileTargetDefinitionContent implements TargetDefinitionContent {
         if (loaded) {
             return;
         }
+        if (failure != null) {
+            // the content read so far is incomplete, don't read it (again) on top of it
+            throw failure;
+        }
         try {
             SubMonitor subMonitor = SubMonitor.convert(monitor, 200);
             File pluginsPath = new File(location, "plugins");
@@ -97,7 +102,8 @@ public class FileTargetDefinitionContent implements TargetDefinitionContent {
                 readFeatures(location, repositoryContent::put, artifactRepository, subMonitor.split(100));
             }
         } catch (ResolverException e) {
-            throw new TargetDefinitionResolutionException("resolving location " + location + " failed", e);
+            failure = new TargetDefinitionResolutionException("resolving location " + location + " failed", e);
+            throw failure;
 
         }
         loaded = true;
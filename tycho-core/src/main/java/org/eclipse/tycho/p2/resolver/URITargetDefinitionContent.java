@@ -17,6 +17,7 @@ import java.util.Collection;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.function.BiFunction;
 
 import org.eclipse.core.runtime.IProgressMonitor;
 import org.eclipse.core.runtime.SubMonitor;
@@ -50,6 +51,8 @@ public class URITargetDefinitionContent implements TargetDefinitionContent {
     private IMetadataRepository metadataRepository;
     private ReferencedRepositoryMode referencedRepositoryMode;
     private MavenLogger logger;
+    private Map<URI, String> repositoryIds;
+    private RuntimeException failure;
 
     public URITargetDefinitionContent(IProvisioningAgent agent, URI location, String id,
             ReferencedRepositoryMode referencedRepositoryMode, MavenLogger logger) {
@@ -75,36 +78,52 @@ public class URITargetDefinitionContent implements TargetDefinitionContent {
     }
 
     private synchronized void preload(IProgressMonitor monitor) {
+        if (failure != null) {
+            // don't load (and wait for) a failing repository again
+            throw failure;
+        }
         if (metadataRepository == null) {
-            Map<URI, IMetadataRepository> metadataRepositoriesMap = new LinkedHashMap<>();
-            Map<URI, IArtifactRepository> artifactRepositoriesMap = new LinkedHashMap<>();
-            URI uri = location;
             try {
-                loadMetadataRepositories(uri, id, metadataRepositoriesMap, artifactRepositoriesMap,
-                        referencedRepositoryMode == ReferencedRepositoryMode.include, agent, monitor, logger);
-                loadArtifactRepositories(uri, artifactRepositoriesMap, agent, false, logger);
-            } catch (ProvisionException e) {
-                throw new TargetDefinitionResolutionException(
-                        "Failed to load p2 metadata repository from location " + uri, e);
-            }
-            Collection<IMetadataRepository> metadataRepositories = metadataRepositoriesMap.values();
-            if (metadataRepositories.size() == 1) {
-                metadataRepository = metadataRepositories.iterator().next();
-            } else {
-                metadataRepository = new ListCompositeMetadataRepository(List.copyOf(metadataRepositories), agent);
-            }
-            Collection<IArtifactRepository> artifactRepositories = artifactRepositoriesMap.values();
-            if (artifactRepositories.size() == 1) {
-                artifactRepository = artifactRepositories.iterator().next();
-            } else {
-                artifactRepository = new ListCompositeArtifactRepository(List.copyOf(artifactRepositories), agent);
+                load(monitor);
+            } catch (RuntimeException e) {
+                failure = e;
+                throw e;
             }
         }
     }
 
+    private void load(IProgressMonitor monitor) {
+        Map<URI, IMetadataRepository> metadataRepositoriesMap = new LinkedHashMap<>();
+        Map<URI, IArtifactRepository> artifactRepositoriesMap = new LinkedHashMap<>();
+        Map<URI, String> repositoryIdsMap = new LinkedHashMap<>();
+        URI uri = location;
+        try {
+            loadMetadataRepositories(uri, id, metadataRepositoriesMap, artifactRepositoriesMap, repositoryIdsMap,
+                    referencedRepositoryMode == ReferencedRepositoryMode.include, agent, monitor, logger);
+            loadArtifactRepositories(uri, artifactRepositoriesMap, agent, false, logger);
+        } catch (ProvisionException e) {
+            throw new TargetDefinitionResolutionException(
+                    "Failed to load p2 metadata repository from location " + uri, e);
+        }
+        Collection<IMetadataRepository> metadataRepositories = metadataRepositoriesMap.values();
+        if (metadataRepositories.size() == 1) {
+            metadataRepository = metadataRepositories.iterator().next();
+        } else {
+            metadataRepository = new ListCompositeMetadataRepository(List.copyOf(metadataRepositories), agent);
+        }
+        Collection<IArtifactRepository> artifactRepositories = artifactRepositoriesMap.values();
+        if (artifactRepositories.size() == 1) {
+            artifactRepository = artifactRepositories.iterator().next();
+        } else {
+            artifactRepository = new ListCompositeArtifactRepository(List.copyOf(artifactRepositories), agent);
+        }
+        repositoryIds = repositoryIdsMap;
+    }
+
     private static void loadMetadataRepositories(URI uri, String id, Map<URI, IMetadataRepository> metadataRepositories,
-            Map<URI, IArtifactRepository> artifactRepositories, boolean includeReferenced, IProvisioningAgent agent,
-            IProgressMonitor monitor, MavenLogger logger) throws ProvisionException {
+            Map<URI, IArtifactRepository> artifactRepositories, Map<URI, String> repositoryIds,
+            boolean includeReferenced, IProvisioningAgent agent, IProgressMonitor monitor, MavenLogger logger)
+            throws ProvisionException {
         URI key = uri.normalize();
         if (metadataRepositories.containsKey(key)) {
             //already loaded...
@@ -115,9 +134,9 @@ public class URITargetDefinitionContent implements TargetDefinitionContent {
         if (metadataManager == null) {
             throw new TargetDefinitionResolutionException("IMetadataRepositoryManager is null in IProvisioningAgent");
         }
-        IRepositoryIdManager repositoryIdManager = agent.getService(IRepositoryIdManager.class);
-        if (repositoryIdManager != null) {
-            repositoryIdManager.addMapping(id, uri);
+        addRepositoryIdMapping(id, uri, agent);
+        if (id != null) {
+            repositoryIds.put(uri, id);
         }
         IMetadataRepository repository = metadataManager.loadRepository(uri, subMonitor.split(50));
         metadataRepositories.put(key, repository);
@@ -130,7 +149,8 @@ public class URITargetDefinitionContent implements TargetDefinitionContent {
                     if (reference.getType() == IRepository.TYPE_METADATA) {
                         try {
                             loadMetadataRepositories(location, reference.getNickname(), metadataRepositories,
-                                    artifactRepositories, includeReferenced, agent, subMonitor.split(1), logger);
+                                    artifactRepositories, repositoryIds, includeReferenced, agent, subMonitor.split(1),
+                                    logger);
                         } catch (ProvisionException e) {
                             logger.warn("Skip referenced repository: " + location + ": " + e);
                         }
@@ -151,10 +171,22 @@ public class URITargetDefinitionContent implements TargetDefinitionContent {
             //already loaded...
             return;
         }
+        artifactRepositories.put(key, createArtifactRepository(uri, referenced, agent, logger));
+    }
+
+    /**
+     * Creates the artifact repository for the given location the same way as it is done when this
+     * content is loaded.
+     * 
+     * @param referenced
+     *            <code>true</code> if the repository is only referenced by another repository, in
+     *            this case failures to load the repository are only logged
+     */
+    public static IArtifactRepository createArtifactRepository(URI uri, boolean referenced, IProvisioningAgent agent,
+            MavenLogger logger) {
         //artifact repositories are resolved lazy here as loading them might not be always necessary (e.g only dependency resolution required) and could be expensive (net I/O)
-        LazyArtifactRepository repository;
         if (referenced) {
-            repository = new LazyArtifactRepository(agent, uri, (u, a) -> {
+            return new ReferencedArtifactRepository(agent, uri, (u, a) -> {
                 IArtifactRepositoryManager repositoryManager = agent.getService(IArtifactRepositoryManager.class);
                 if (repositoryManager != null) {
                     try {
@@ -165,10 +197,19 @@ public class URITargetDefinitionContent implements TargetDefinitionContent {
                 }
                 return new EmptyArtifactRepository(a, u);
             });
-        } else {
-            repository = new LazyArtifactRepository(agent, uri, RepositoryArtifactProvider::loadRepository);
         }
-        artifactRepositories.put(key, repository);
+        return new LazyArtifactRepository(agent, uri, RepositoryArtifactProvider::loadRepository);
+    }
+
+    /**
+     * Registers the id of a repository so that e.g. mirrors and credentials configured for this id
+     * are used when accessing the repository.
+     */
+    public static void addRepositoryIdMapping(String id, URI location, IProvisioningAgent agent) {
+        IRepositoryIdManager repositoryIdManager = agent.getService(IRepositoryIdManager.class);
+        if (repositoryIdManager != null) {
+            repositoryIdManager.addMapping(id, location);
+        }
     }
 
     @Override
@@ -177,4 +218,41 @@ public class URITargetDefinitionContent implements TargetDefinitionContent {
         return artifactRepository;
     }
 
+    /**
+     * @return the locations of all artifact repositories of this content, mapped to whether the
+     *         repository is only referenced by another repository
+     * @see #createArtifactRepository(URI, boolean, IProvisioningAgent, MavenLogger)
+     */
+    public Map<URI, Boolean> getArtifactRepositoryLocations() {
+        preload(null);
+        Map<URI, Boolean> locations = new LinkedHashMap<>();
+        for (IArtifactRepository repository : getArtifactRepositories(artifactRepository)) {
+            locations.put(repository.getLocation(), repository instanceof ReferencedArtifactRepository);
+        }
+        return locations;
+    }
+
+    /**
+     * @return the ids of all loaded metadata repositories of this content by their location
+     */
+    public Map<URI, String> getRepositoryIds() {
+        preload(null);
+        return repositoryIds;
+    }
+
+    private static List<IArtifactRepository> getArtifactRepositories(IArtifactRepository repository) {
+        if (repository instanceof ListCompositeArtifactRepository composite) {
+            return composite.artifactRepositories;
+        }
+        return List.of(repository);
+    }
+
+    private static final class ReferencedArtifactRepository extends LazyArtifactRepository {
+
+        ReferencedArtifactRepository(IProvisioningAgent agent, URI uri,
+                BiFunction<URI, IProvisioningAgent, IArtifactRepository> loader) {
+            super(agent, uri, loader);
+        }
+    }
+
 }
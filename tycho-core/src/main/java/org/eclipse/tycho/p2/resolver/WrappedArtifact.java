@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2020, 2022 Christoph Läubrich and others.
+ * Copyright (c) 2020, 2026 Christoph Läubrich and others.
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
  * which accompanies this distribution, and is available at
@@ -16,13 +16,19 @@ import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.IOException;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Properties;
 import java.util.jar.JarFile;
 import java.util.jar.Manifest;
 
+import org.apache.maven.artifact.ArtifactUtils;
 import org.eclipse.tycho.IArtifactFacade;
 import org.eclipse.tycho.p2.metadata.ArtifactFacadeProxy;
+import org.eclipse.tycho.p2.resolver.WrappedBundleCache.CachedBundle;
 
 import aQute.bnd.osgi.Analyzer;
 import aQute.bnd.osgi.Jar;
@@ -119,17 +125,41 @@ public final class WrappedArtifact extends ArtifactFacadeProxy {
 
     public static WrappedArtifact createWrappedArtifact(IArtifactFacade mavenArtifact, String prefix, File wrappedFile)
             throws Exception {
-        return createWrappedArtifact(mavenArtifact, createPropertiesForPrefix(prefix), wrappedFile);
+        return createWrappedArtifact(mavenArtifact, prefix, wrappedFile, null);
+    }
+
+    public static WrappedArtifact createWrappedArtifact(IArtifactFacade mavenArtifact, String prefix, File wrappedFile,
+            WrappedBundleCache cache) throws Exception {
+        return createWrappedArtifact(mavenArtifact, createPropertiesForPrefix(prefix), wrappedFile, cache);
     }
 
     public static WrappedArtifact createWrappedArtifact(IArtifactFacade mavenArtifact, Properties bndInstructions,
             File wrappedFile) throws Exception {
+        return createWrappedArtifact(mavenArtifact, bndInstructions, wrappedFile, null);
+    }
+
+    /**
+     * Wraps the artifact into a bundle written to the given file, if a cache is given a bundle
+     * previously generated for the same input is used instead of running the analysis again.
+     */
+    public static WrappedArtifact createWrappedArtifact(IArtifactFacade mavenArtifact, Properties bndInstructions,
+            File wrappedFile, WrappedBundleCache cache) throws Exception {
         String wrappedClassifier = WRAPPED_CLASSIFIER;
         String classifier = mavenArtifact.getClassifier();
         if (classifier != null && !classifier.isEmpty()) {
             wrappedClassifier = classifier + "-" + WRAPPED_CLASSIFIER;
         }
         wrappedFile.getParentFile().mkdirs();
+        // a snapshot is likely to change with the next build, so caching it would only fill the cache
+        String cacheKey = cache != null && !ArtifactUtils.isSnapshot(mavenArtifact.getVersion())
+                ? WrappedBundleCache.getKey(mavenArtifact, Map.of("", bndInstructions))
+                : null;
+        CachedBundle cached = cacheKey != null ? cache.get(cacheKey) : null;
+        if (cached != null) {
+            Files.copy(cached.file().toPath(), wrappedFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+            return new WrappedArtifact(wrappedFile, mavenArtifact, wrappedClassifier, cached.symbolicName(),
+                    cached.version(), null);
+        }
         try (Jar jar = new Jar(mavenArtifact.getLocation())) {
             Manifest originalManifest = jar.getManifest();
             try (Analyzer analyzer = new Analyzer()) {
@@ -147,9 +177,14 @@ public final class WrappedArtifact extends ArtifactFacadeProxy {
                 Manifest manifest = analyzer.calcManifest();
                 jar.setManifest(manifest);
                 jar.write(wrappedFile);
-                return new WrappedArtifact(wrappedFile, mavenArtifact, wrappedClassifier,
+                WrappedArtifact wrappedArtifact = new WrappedArtifact(wrappedFile, mavenArtifact, wrappedClassifier,
                         manifest.getMainAttributes().getValue(Analyzer.BUNDLE_SYMBOLICNAME).trim(),
                         manifest.getMainAttributes().getValue(Analyzer.BUNDLE_VERSION).trim(), manifest);
+                if (cacheKey != null) {
+                    cache.put(cacheKey, new CachedBundle(wrappedFile, wrappedArtifact.getWrappedBsn(),
+                            wrappedArtifact.getWrappedVersion(), List.of(), null));
+                }
+                return wrappedArtifact;
             }
         }
     }
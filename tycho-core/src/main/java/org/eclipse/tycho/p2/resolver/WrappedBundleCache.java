@@ -0,0 +1,258 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Christoph Läubrich and others.
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *    Christoph Läubrich - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.tycho.p2.resolver;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Properties;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import org.apache.commons.io.FileUtils;
+import org.eclipse.equinox.p2.metadata.IInstallableUnit;
+import org.eclipse.tycho.IArtifactFacade;
+import org.eclipse.tycho.p2.repository.InstallableUnitCodec;
+import org.eclipse.tycho.version.TychoVersion;
+
+/**
+ * A content addressed store for bundles generated from plain jars. An entry is identified by the
+ * checksum of the original jar, its maven coordinates, the (normalized) bnd instructions and the
+ * Tycho version, so a bundle generated once can be reused by later builds without running the bnd
+ * analysis again.
+ * <p>
+ * Entries are never modified once written, a changed input simply leads to a new entry. Therefore
+ * entries that were not used for {@link #MAX_AGE_PROPERTY} days are deleted the first time something
+ * is written to a cache directory in a session.
+ */
+public final class WrappedBundleCache {
+
+    static final String RELPATH = ".cache/tycho/wrapped-bundles";
+
+    private static final boolean ENABLED = Boolean.parseBoolean(System.getProperty("tycho.wrap.cache", "true"));
+
+    static final String MAX_AGE_PROPERTY = "tycho.wrap.cache.maxAge";
+
+    private static final long DEFAULT_MAX_AGE_DAYS = 30;
+
+    // instances are created where needed, so the pruned directories are remembered globally
+    private static final Set<Path> PRUNED = ConcurrentHashMap.newKeySet();
+
+    private static final String BUNDLE_FILE = "bundle.jar";
+    private static final String INFO_FILE = "bundle.properties";
+    private static final String UNIT_FILE = "unit.bin";
+
+    private static final String SYMBOLIC_NAME = "symbolicName";
+    private static final String VERSION = "version";
+    private static final String MESSAGE_PREFIX = "message.";
+
+    private final Path directory;
+    private final long maxAge;
+
+    public WrappedBundleCache(File localRepositoryRoot) {
+        this.directory = new File(localRepositoryRoot, RELPATH).toPath().toAbsolutePath();
+        this.maxAge = TimeUnit.DAYS.toMillis(Long.getLong(MAX_AGE_PROPERTY, DEFAULT_MAX_AGE_DAYS));
+    }
+
+    /**
+     * A bundle stored in the cache.
+     *
+     * @param file
+     *            the generated bundle
+     * @param symbolicName
+     *            the symbolic name of the generated bundle
+     * @param version
+     *            the version of the generated bundle
+     * @param messages
+     *            the (non fatal) messages reported while the bundle was generated
+     * @param unit
+     *            the unit generated for the bundle or <code>null</code> if none was stored
+     */
+    public static record CachedBundle(File file, String symbolicName, String version, List<String> messages,
+            IInstallableUnit unit) {
+    }
+
+    /**
+     * Computes the key for wrapping an artifact with the given instructions.
+     *
+     * @param artifact
+     *            the artifact to wrap
+     * @param instructions
+     *            the instructions that might be used, mapped by the reference they apply to
+     * @return the key or <code>null</code> if caching is disabled or the artifact can't be read
+     */
+    public static String getKey(IArtifactFacade artifact, Map<String, Properties> instructions) {
+        if (!ENABLED || artifact.getLocation() == null) {
+            return null;
+        }
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            try (InputStream stream = Files.newInputStream(artifact.getLocation().toPath());
+                    OutputStream out = new DigestOutputStream(OutputStream.nullOutputStream(), digest)) {
+                stream.transferTo(out);
+            }
+            StringBuilder description = new StringBuilder();
+            description.append(HexFormat.of().formatHex(digest.digest())).append('\n');
+            description.append(TychoVersion.getTychoVersion()).append('\n');
+            description.append(artifact.getGroupId()).append(':').append(artifact.getArtifactId()).append(':')
+                    .append(artifact.getVersion()).append(':').append(artifact.getClassifier()).append(':')
+                    .append(artifact.getPackagingType()).append('\n');
+            for (Entry<String, Properties> entry : new TreeMap<>(instructions).entrySet()) {
+                Properties properties = entry.getValue();
+                for (String name : new TreeSet<>(properties.stringPropertyNames())) {
+                    description.append(entry.getKey()).append('|').append(name).append('=')
+                            .append(properties.getProperty(name).trim()).append('\n');
+                }
+            }
+            return HexFormat.of()
+                    .formatHex(digest.digest(description.toString().getBytes(StandardCharsets.UTF_8)));
+        } catch (IOException e) {
+            return null;
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    /**
+     * @return the cached bundle for the given key or <code>null</code> if there is none
+     */
+    public CachedBundle get(String key) {
+        if (!ENABLED || key == null) {
+            return null;
+        }
+        Path entry = directory.resolve(key);
+        Path infoFile = entry.resolve(INFO_FILE);
+        Path bundleFile = entry.resolve(BUNDLE_FILE);
+        if (!Files.isRegularFile(infoFile) || !Files.isRegularFile(bundleFile)) {
+            return null;
+        }
+        try {
+            Properties info = new Properties();
+            try (InputStream stream = Files.newInputStream(infoFile)) {
+                info.load(stream);
+            }
+            List<String> messages = new ArrayList<>();
+            for (int i = 0; info.containsKey(MESSAGE_PREFIX + i); i++) {
+                messages.add(info.getProperty(MESSAGE_PREFIX + i));
+            }
+            IInstallableUnit unit = null;
+            Path unitFile = entry.resolve(UNIT_FILE);
+            if (Files.isRegularFile(unitFile)) {
+                Set<IInstallableUnit> units = InstallableUnitCodec.decode(Files.readAllBytes(unitFile));
+                unit = units.isEmpty() ? null : units.iterator().next();
+            }
+            // records the last access for pruning
+            touch(entry);
+            return new CachedBundle(bundleFile.toFile(), info.getProperty(SYMBOLIC_NAME), info.getProperty(VERSION),
+                    messages, unit);
+        } catch (IOException | RuntimeException e) {
+            // treat as not cached and remove it so it can be written again...
+            FileUtils.deleteQuietly(entry.toFile());
+            return null;
+        }
+    }
+
+    /**
+     * Stores a generated bundle, if there is already an entry for the key it is kept.
+     *
+     * @param key
+     *            the key as computed by {@link #getKey(IArtifactFacade, Map)}
+     * @param bundle
+     *            the cached bundle, the file is copied into the cache
+     */
+    public void put(String key, CachedBundle bundle) {
+        if (!ENABLED || key == null) {
+            return;
+        }
+        Path entry = directory.resolve(key);
+        if (Files.isDirectory(entry)) {
+            return;
+        }
+        Path tempDirectory = null;
+        try {
+            Files.createDirectories(directory);
+            tempDirectory = Files.createTempDirectory(directory, key);
+            Files.copy(bundle.file().toPath(), tempDirectory.resolve(BUNDLE_FILE));
+            if (bundle.unit() != null) {
+                Files.write(tempDirectory.resolve(UNIT_FILE), InstallableUnitCodec.encode(List.of(bundle.unit())));
+            }
+            Properties info = new Properties();
+            info.setProperty(SYMBOLIC_NAME, bundle.symbolicName());
+            info.setProperty(VERSION, bundle.version());
+            for (int i = 0; i < bundle.messages().size(); i++) {
+                info.setProperty(MESSAGE_PREFIX + i, bundle.messages().get(i));
+            }
+            // written last, an entry without it is considered incomplete
+            try (OutputStream stream = Files.newOutputStream(tempDirectory.resolve(INFO_FILE))) {
+                info.store(stream, null);
+            }
+            Files.move(tempDirectory, entry, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException | RuntimeException e) {
+            // someone else might have stored the entry concurrently, simply try again next time...
+        } finally {
+            if (tempDirectory != null) {
+                FileUtils.deleteQuietly(tempDirectory.toFile());
+            }
+        }
+        if (PRUNED.add(directory)) {
+            prune();
+        }
+    }
+
+    /**
+     * Deletes all entries (and left over temporary directories) that were neither written nor used
+     * within the maximum age.
+     */
+    void prune() {
+        long oldest = System.currentTimeMillis() - maxAge;
+        try (Stream<Path> entries = Files.list(directory)) {
+            for (Path entry : (Iterable<Path>) entries::iterator) {
+                try {
+                    if (Files.getLastModifiedTime(entry).toMillis() < oldest) {
+                        FileUtils.forceDelete(entry.toFile());
+                    }
+                } catch (IOException e) {
+                    // might be in use by another build, try again next time...
+                }
+            }
+        } catch (IOException e) {
+            // nothing to prune then...
+        }
+    }
+
+    private static void touch(Path entry) {
+        try {
+            Files.setLastModifiedTime(entry, FileTime.fromMillis(System.currentTimeMillis()));
+        } catch (IOException e) {
+            // then it might be pruned a bit earlier...
+        }
+    }
+}
@@ -43,6 +43,7 @@ import org.eclipse.equinox.p2.metadata.expression.IMatchExpression;
 import org.eclipse.equinox.p2.publisher.actions.JREAction;
 import org.eclipse.equinox.p2.query.IQueryResult;
 import org.eclipse.equinox.p2.query.IQueryable;
+import org.eclipse.equinox.p2.query.QueryUtil;
 import org.eclipse.tycho.core.shared.MavenLogger;
 import org.eclipse.tycho.core.shared.StatusTool;
 import org.eclipse.tycho.p2.resolver.ResolverException;
@@ -78,10 +79,20 @@ abstract class AbstractSlicerResolutionStrategy extends AbstractResolutionStrate
             }
         }
 
-        Set<IInstallableUnit> availableIUs = new LinkedHashSet<>(data.getAvailableIUs());
-        availableIUs.addAll(data.getEEResolutionHints().getTemporaryAdditions());
-        availableIUs.addAll(data.getEEResolutionHints().getMandatoryUnits());
-        availableIUs.addAll(additionalUnits);
+        Set<IInstallableUnit> extraIUs = new LinkedHashSet<>(data.getEEResolutionHints().getTemporaryAdditions());
+        extraIUs.addAll(data.getEEResolutionHints().getMandatoryUnits());
+        extraIUs.addAll(additionalUnits);
+        IQueryable<IInstallableUnit> baseIUCollection;
+        IQueryable<IInstallableUnit> availableIUsIndex = data.getAvailableIUsIndex();
+        if (availableIUsIndex != null) {
+            // reuse the existing indices and only index the (few) extra units
+            baseIUCollection = extraIUs.isEmpty() ? availableIUsIndex
+                    : QueryUtil.compoundQueryable(availableIUsIndex, new QueryableArray(extraIUs, false));
+        } else {
+            Set<IInstallableUnit> availableIUs = new LinkedHashSet<>(data.getAvailableIUs());
+            availableIUs.addAll(extraIUs);
+            baseIUCollection = new QueryableArray(availableIUs, false);
+        }
 
         Set<IInstallableUnit> seedIUs = new LinkedHashSet<>(data.getRootIUs());
         if (data.getAdditionalRequirements() != null && !data.getAdditionalRequirements().isEmpty()) {
@@ -94,7 +105,6 @@ abstract class AbstractSlicerResolutionStrategy extends AbstractResolutionStrate
             seedIUs.add(createUnitRequiring("tycho-ee", null, data.getEEResolutionHints().getMandatoryRequires()));
         }
 
-        IQueryable<IInstallableUnit> baseIUCollection = new QueryableArray(availableIUs, false);
         Slicer slicer = newSlicer((query, monitor1) -> {
 //
             IQueryResult<IInstallableUnit> queryResult = baseIUCollection.query(query, monitor1);
@@ -0,0 +1,32 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Christoph Läubrich and others.
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *    Christoph Läubrich - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.tycho.p2resolver;
+
+import java.util.Collection;
+
+import org.eclipse.equinox.p2.metadata.IInstallableUnit;
+import org.eclipse.equinox.p2.query.IQueryable;
+
+/**
+ * A store of units a resolution falls back to if the target platform does not provide a unit for
+ * a requirement. Units returned by a query are recorded as used by the store (e.g. to add them to
+ * the project dependencies).
+ */
+interface AdditionalUnitStore extends IQueryable<IInstallableUnit> {
+
+    /**
+     * @return all units of this store, in contrast to a query they are not recorded as used
+     */
+    Collection<IInstallableUnit> getUnits();
+
+}
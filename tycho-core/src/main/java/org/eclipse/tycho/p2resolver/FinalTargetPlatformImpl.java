@@ -18,6 +18,7 @@ import java.util.Map;
 import java.util.Set;
 
 import org.eclipse.equinox.p2.metadata.IInstallableUnit;
+import org.eclipse.equinox.p2.query.IQueryable;
 import org.eclipse.equinox.p2.repository.artifact.IArtifactRepository;
 import org.eclipse.equinox.p2.repository.metadata.IMetadataRepository;
 import org.eclipse.tycho.ExecutionEnvironmentResolutionHints;
@@ -30,7 +31,7 @@ import org.eclipse.tycho.p2.repository.LocalArtifactRepository;
 public class FinalTargetPlatformImpl extends TargetPlatformBaseImpl {
 
     private IArtifactRepository artifactRepository;
-    private IMetadataRepository metadataRepository;
+    private ImmutableInMemoryMetadataRepository metadataRepository;
 
     public FinalTargetPlatformImpl(LinkedHashSet<IInstallableUnit> installableUnits,
             ExecutionEnvironmentResolutionHints executionEnvironment, IRawArtifactFileProvider jointArtifacts,
@@ -53,6 +54,12 @@ public class FinalTargetPlatformImpl extends TargetPlatformBaseImpl {
         return metadataRepository;
     }
 
+    @Override
+    IQueryable<IInstallableUnit> getIndexedInstallableUnits() {
+        // the metadata repository already indexes the installable units
+        return metadataRepository;
+    }
+
     @Override
     public IArtifactRepository getArtifactRepository() {
         return artifactRepository;
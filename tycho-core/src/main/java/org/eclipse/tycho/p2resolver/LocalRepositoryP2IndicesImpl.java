@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2011, 2022 SAP SE and others.
+ * Copyright (c) 2011, 2026 SAP SE and others.
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
  * which accompanies this distribution, and is available at
@@ -77,6 +77,11 @@ public class LocalRepositoryP2IndicesImpl implements LocalRepositoryP2Indices {
         return mavenContext;
     }
 
+    @Override
+    public FileLockService getFileLockService() {
+        return fileLockService;
+    }
+
     @Override
     public synchronized void add(GAV gav) throws IOException {
         TychoRepositoryIndex artifactsIndex = getArtifactsIndex();
@@ -0,0 +1,189 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Christoph Läubrich and others.
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *    Christoph Läubrich - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.tycho.p2resolver;
+
+import java.net.URI;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import org.eclipse.equinox.p2.core.ProvisionException;
+import org.eclipse.equinox.p2.repository.IRepository;
+import org.eclipse.equinox.p2.repository.IRepositoryReference;
+import org.eclipse.equinox.p2.repository.metadata.IMetadataRepository;
+import org.eclipse.equinox.p2.repository.metadata.IMetadataRepositoryManager;
+import org.eclipse.tycho.MavenRepositoryLocation;
+import org.eclipse.tycho.core.shared.DuplicateFilteringLoggingProgressMonitor;
+import org.eclipse.tycho.core.shared.MavenLogger;
+
+/**
+ * Loads metadata repositories and their referenced metadata repositories in parallel. All
+ * locations (and the references of each loaded repository) are scheduled as soon as they are
+ * known, each distinct location is only loaded once. The result is collected in the same
+ * depth-first order a sequential load would produce, so the outcome does not depend on which
+ * repository finishes loading first.
+ */
+class MetadataRepositoryLoader {
+
+    private static final int LOAD_THREADS = Integer.getInteger("tycho.p2.repository.load-threads",
+            Math.min(8, Runtime.getRuntime().availableProcessors() * 2));
+
+    private static final ExecutorService LOAD_EXECUTOR = Executors.newFixedThreadPool(Math.max(1, LOAD_THREADS),
+            new ThreadFactory() {
+
+                private AtomicInteger cnt = new AtomicInteger();
+
+                @Override
+                public Thread newThread(Runnable r) {
+                    Thread thread = new Thread(r);
+                    thread.setName("Tycho-Repository-Loader-" + cnt.getAndIncrement());
+                    thread.setDaemon(true);
+                    return thread;
+                }
+            });
+
+    private final IMetadataRepositoryManager repositoryManager;
+    private final MavenLogger logger;
+    private final boolean includeReferences;
+    private final Map<URI, CompletableFuture<IMetadataRepository>> repositories = new ConcurrentHashMap<>();
+
+    MetadataRepositoryLoader(IMetadataRepositoryManager repositoryManager, MavenLogger logger,
+            boolean includeReferences) {
+        this.repositoryManager = repositoryManager;
+        this.logger = logger;
+        this.includeReferences = includeReferences;
+    }
+
+    /**
+     * Schedules loading of the given locations without waiting for the result.
+     */
+    void schedule(Collection<MavenRepositoryLocation> locations) {
+        for (MavenRepositoryLocation location : locations) {
+            schedule(location.getURL());
+        }
+    }
+
+    /**
+     * Collects the repository of the given location and (if enabled) its referenced repositories
+     * that are not already part of the visited set.
+     *
+     * @param location
+     *            the location to collect
+     * @param visited
+     *            the (normalized) locations already collected
+     * @param metadataRepositories
+     *            receives the loaded metadata repositories
+     * @param artifactRepositories
+     *            receives the locations of referenced artifact repositories
+     * @throws ProvisionException
+     *             if loading the given location failed, failures of referenced repositories are
+     *             only logged
+     */
+    void collect(MavenRepositoryLocation location, Set<URI> visited, List<IMetadataRepository> metadataRepositories,
+            Set<URI> artifactRepositories) throws ProvisionException {
+        if (!visited.add(location.getURL().normalize())) {
+            return;
+        }
+        IMetadataRepository repository = await(location.getURL());
+        metadataRepositories.add(repository);
+        if (includeReferences) {
+            for (IRepositoryReference reference : repository.getReferences()) {
+                if ((reference.getOptions() | IRepository.ENABLED) != 0) {
+                    if (reference.getType() == IRepository.TYPE_METADATA) {
+                        try {
+                            collect(new MavenRepositoryLocation(reference.getNickname(), reference.getLocation()),
+                                    visited, metadataRepositories, artifactRepositories);
+                        } catch (ProvisionException e) {
+                            logger.warn("Loading referenced repository failed: " + e.getMessage(),
+                                    logger.isDebugEnabled() ? e : null);
+                        }
+                    } else if (reference.getType() == IRepository.TYPE_ARTIFACT) {
+                        artifactRepositories.add(reference.getLocation());
+                    }
+                }
+            }
+        }
+    }
+
+    private CompletableFuture<IMetadataRepository> schedule(URI location) {
+        return repositories.computeIfAbsent(location.normalize(), nil -> supplyAsync(() -> load(location)));
+    }
+
+    /**
+     * Runs the supplier in the load executor passing on the context class loader of the caller,
+     * p2 and OSGi service lookups rely on it.
+     */
+    private static <T> CompletableFuture<T> supplyAsync(Supplier<T> supplier) {
+        ClassLoader contextClassLoader = Thread.currentThread().getContextClassLoader();
+        return CompletableFuture.supplyAsync(() -> {
+            Thread thread = Thread.currentThread();
+            ClassLoader threadClassLoader = thread.getContextClassLoader();
+            thread.setContextClassLoader(contextClassLoader);
+            try {
+                return supplier.get();
+            } finally {
+                thread.setContextClassLoader(threadClassLoader);
+            }
+        }, LOAD_EXECUTOR);
+    }
+
+    private IMetadataRepository load(URI location) {
+        long start = System.nanoTime();
+        IMetadataRepository repository;
+        try {
+            repository = repositoryManager.loadRepository(location,
+                    new DuplicateFilteringLoggingProgressMonitor(logger));
+        } catch (ProvisionException e) {
+            throw new CompletionException(e);
+        }
+        if (logger.isDebugEnabled()) {
+            logger.debug("Loaded metadata repository " + location + " in "
+                    + TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) + " ms");
+        }
+        if (includeReferences) {
+            // start loading the references right away, they are collected later on
+            for (IRepositoryReference reference : repository.getReferences()) {
+                if (reference.getType() == IRepository.TYPE_METADATA) {
+                    schedule(reference.getLocation());
+                }
+            }
+        }
+        return repository;
+    }
+
+    private IMetadataRepository await(URI location) throws ProvisionException {
+        try {
+            return schedule(location).join();
+        } catch (CompletionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof ProvisionException provisionException) {
+                throw provisionException;
+            }
+            if (cause instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw e;
+        }
+    }
+
+}
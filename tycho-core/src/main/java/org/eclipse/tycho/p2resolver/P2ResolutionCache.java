@@ -0,0 +1,312 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Christoph Läubrich and others.
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *    Christoph Läubrich - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.tycho.p2resolver;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.codehaus.plexus.component.annotations.Component;
+import org.codehaus.plexus.component.annotations.Requirement;
+import org.codehaus.plexus.logging.Logger;
+import org.eclipse.equinox.p2.metadata.IInstallableUnit;
+import org.eclipse.equinox.p2.metadata.IInstallableUnitFragment;
+import org.eclipse.equinox.p2.metadata.IProvidedCapability;
+import org.eclipse.equinox.p2.metadata.IRequirement;
+import org.eclipse.equinox.p2.query.IQueryResult;
+import org.eclipse.equinox.p2.query.IQueryable;
+import org.eclipse.equinox.p2.query.QueryUtil;
+import org.eclipse.tycho.ExecutionEnvironmentResolutionHints;
+import org.eclipse.tycho.TargetEnvironment;
+import org.eclipse.tycho.p2.resolver.ResolverException;
+import org.eclipse.tycho.targetplatform.P2TargetPlatform;
+
+/**
+ * Remembers the outcome of the p2 resolver for the current build so that the same resolution (same
+ * target platform content, root units, environment, filter properties and additional requirements)
+ * performed for different projects or by different mojos does not need to run the solver again.
+ * <p>
+ * Target platforms and root units are identified by a digest of the content of the units relevant
+ * for the resolution (id, version, filter, requirements and provided capabilities) so equivalent
+ * target platforms computed for different projects share their entries, while a unit that was
+ * rebuilt with different requirements but the same version does not. The cache is cleared at the end
+ * of each build.
+ * <p>
+ * Strategies might record side effects while resolving (e.g. the shadowed units used), those are
+ * remembered with the result and replayed when it is reused. The same applies to the units a
+ * resolution took from an {@link AdditionalUnitStore} (e.g. the pom dependencies of a project),
+ * whose content is part of the key as well.
+ */
+@Component(role = P2ResolutionCache.class)
+public class P2ResolutionCache {
+
+    private static final boolean ENABLED = Boolean
+            .parseBoolean(System.getProperty("tycho.p2.resolver.cache", "true"));
+
+    @Requirement
+    private Logger logger;
+
+    private final Map<P2TargetPlatform, String> fingerprints = Collections.synchronizedMap(new WeakHashMap<>());
+
+    private final Map<AdditionalUnitStore, String> unitStoreFingerprints = Collections
+            .synchronizedMap(new WeakHashMap<>());
+
+    private final Map<CacheKey, CachedResolution> results = new ConcurrentHashMap<>();
+
+    private final AtomicLong hits = new AtomicLong();
+
+    private final AtomicLong misses = new AtomicLong();
+
+    public P2ResolutionCache() {
+        // needed for plexus
+    }
+
+    // needed for unit tests
+    P2ResolutionCache(Logger logger) {
+        this.logger = logger;
+    }
+
+    interface Resolution {
+        Collection<IInstallableUnit> resolve() throws ResolverException;
+    }
+
+    /**
+     * Returns the result of a previous equivalent resolution or performs the given resolution and
+     * remembers its result.
+     *
+     * @param targetPlatform
+     *            the target platform the resolution is performed against
+     * @param data
+     *            the data used for the resolution, while resolving its additional unit store is
+     *            replaced by one that records the units taken from it
+     * @param additionalUnits
+     *            units available in addition to the ones of the target platform
+     * @param environment
+     *            the environment to resolve for
+     * @param strategy
+     *            the strategy performing the resolution, results of different strategy types are
+     *            never shared
+     * @param usedShadowedUnits
+     *            the set the strategy records the used shadowed units in during this resolution or
+     *            <code>null</code> if it doesn't record them, when a result is reused the units
+     *            recorded by the original resolution are added
+     * @param resolution
+     *            performs the actual resolution
+     * @return the resolved units, units are always taken from the available units or the additional
+     *         unit store of the given data
+     * @throws ResolverException
+     *             if the resolution failed, failures are not cached
+     */
+    Collection<IInstallableUnit> resolve(P2TargetPlatform targetPlatform, ResolutionDataImpl data,
+            Collection<IInstallableUnit> additionalUnits, TargetEnvironment environment,
+            AbstractResolutionStrategy strategy, Set<IInstallableUnit> usedShadowedUnits, Resolution resolution)
+            throws ResolverException {
+        IQueryable<IInstallableUnit> queryable = data.getAdditionalUnitStore();
+        if (!ENABLED || (queryable != null && !(queryable instanceof AdditionalUnitStore))) {
+            // we can't compare the content of arbitrary queryables
+            return resolution.resolve();
+        }
+        AdditionalUnitStore unitStore = (AdditionalUnitStore) queryable;
+        CacheKey key = new CacheKey(getFingerprint(targetPlatform), digest(data.getRootIUs()),
+                digest(additionalUnits), unitStore == null ? null : getFingerprint(unitStore), environment,
+                new HashMap<>(data.getAdditionalFilterProperties()), List.copyOf(data.getAdditionalRequirements()),
+                data.getEEResolutionHints(), strategy.getClass().getName());
+        CachedResolution cached = results.get(key);
+        if (cached != null) {
+            long hitCount = hits.incrementAndGet();
+            if (logger.isDebugEnabled()) {
+                logger.debug("Reusing p2 resolution result for " + environment + " (" + hitCount + " hits, "
+                        + misses.get() + " misses)");
+            }
+            if (usedShadowedUnits != null) {
+                usedShadowedUnits.addAll(cached.usedShadowedUnits());
+            }
+            if (unitStore == null) {
+                return fromAvailableUnits(cached.units(), data.getAvailableIUs());
+            }
+            for (IInstallableUnit unit : cached.usedStoreUnits()) {
+                // let the store record the unit as used as the original resolution did
+                unitStore.query(QueryUtil.createIUQuery(unit), null);
+            }
+            List<IInstallableUnit> availableUnits = new ArrayList<>(data.getAvailableIUs());
+            availableUnits.addAll(unitStore.getUnits());
+            return fromAvailableUnits(cached.units(), availableUnits);
+        }
+        misses.incrementAndGet();
+        Set<IInstallableUnit> usedStoreUnits = Collections.synchronizedSet(new LinkedHashSet<>());
+        Collection<IInstallableUnit> resolved;
+        if (unitStore == null) {
+            resolved = resolution.resolve();
+        } else {
+            data.setAdditionalUnitStore((query, monitor) -> {
+                IQueryResult<IInstallableUnit> result = unitStore.query(query, monitor);
+                result.forEach(usedStoreUnits::add);
+                return result;
+            });
+            try {
+                resolved = resolution.resolve();
+            } finally {
+                data.setAdditionalUnitStore(unitStore);
+            }
+        }
+        results.putIfAbsent(key, new CachedResolution(List.copyOf(resolved),
+                usedShadowedUnits == null ? Set.of() : Set.copyOf(usedShadowedUnits), Set.copyOf(usedStoreUnits)));
+        return resolved;
+    }
+
+    /**
+     * Logs the statistics of the current build and forgets all results.
+     */
+    public void clear() {
+        long hitCount = hits.getAndSet(0);
+        long missCount = misses.getAndSet(0);
+        if (hitCount > 0) {
+            logger.info("p2 resolution cache: " + hitCount + " of " + (hitCount + missCount)
+                    + " resolutions reused a previous result");
+        }
+        results.clear();
+        fingerprints.clear();
+        unitStoreFingerprints.clear();
+    }
+
+    private String getFingerprint(P2TargetPlatform targetPlatform) {
+        String fingerprint = fingerprints.get(targetPlatform);
+        if (fingerprint == null) {
+            fingerprint = digest(targetPlatform.getInstallableUnits());
+            fingerprints.put(targetPlatform, fingerprint);
+        }
+        return fingerprint;
+    }
+
+    private String getFingerprint(AdditionalUnitStore unitStore) {
+        String fingerprint = unitStoreFingerprints.get(unitStore);
+        if (fingerprint == null) {
+            fingerprint = digest(unitStore.getUnits());
+            unitStoreFingerprints.put(unitStore, fingerprint);
+        }
+        return fingerprint;
+    }
+
+    /**
+     * @return a digest of the given units that does not depend on their order
+     */
+    static String digest(Collection<IInstallableUnit> units) {
+        MessageDigest digest = newDigest();
+        List<String> entries = new ArrayList<>(units.size());
+        for (IInstallableUnit unit : units) {
+            entries.add(unitDigest(unit, digest));
+        }
+        Collections.sort(entries);
+        for (String entry : entries) {
+            digest.update(entry.getBytes(StandardCharsets.UTF_8));
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    /**
+     * Computes a digest of everything of the unit that can influence the resolution, as
+     * {@link IInstallableUnit#equals(Object)} only compares id and version.
+     */
+    private static String unitDigest(IInstallableUnit unit, MessageDigest digest) {
+        digest.reset();
+        update(digest, unit.getId());
+        update(digest, unit.getVersion());
+        update(digest, unit.getFilter());
+        update(digest, unit.isSingleton());
+        for (IRequirement requirement : unit.getRequirements()) {
+            update(digest, requirement);
+        }
+        update(digest, "meta");
+        for (IRequirement requirement : unit.getMetaRequirements()) {
+            update(digest, requirement);
+        }
+        update(digest, "provides");
+        for (IProvidedCapability capability : unit.getProvidedCapabilities()) {
+            update(digest, capability.getNamespace());
+            update(digest, capability.getName());
+            update(digest, capability.getVersion());
+            update(digest, new TreeMap<>(capability.getProperties()));
+        }
+        if (unit instanceof IInstallableUnitFragment fragment) {
+            update(digest, "hosts");
+            for (IRequirement host : fragment.getHost()) {
+                update(digest, host);
+            }
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    private static void update(MessageDigest digest, IRequirement requirement) {
+        update(digest, requirement.getMatches());
+        // the expression might only refer to its parameters
+        update(digest, Arrays.toString(requirement.getMatches().getParameters()));
+        update(digest, requirement.getFilter());
+        update(digest, requirement.getMin());
+        update(digest, requirement.getMax());
+        update(digest, requirement.isGreedy());
+    }
+
+    private static void update(MessageDigest digest, Object value) {
+        digest.update(String.valueOf(value).getBytes(StandardCharsets.UTF_8));
+        digest.update((byte) 0);
+    }
+
+    private static MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    /**
+     * Equivalent target platforms contain equal but not necessarily identical units, so the cached
+     * units are replaced by the instances of the current resolution.
+     */
+    private static Collection<IInstallableUnit> fromAvailableUnits(List<IInstallableUnit> cached,
+            Collection<IInstallableUnit> availableUnits) {
+        Map<IInstallableUnit, IInstallableUnit> index = new HashMap<>();
+        for (IInstallableUnit unit : availableUnits) {
+            index.putIfAbsent(unit, unit);
+        }
+        List<IInstallableUnit> result = new ArrayList<>(cached.size());
+        for (IInstallableUnit unit : cached) {
+            result.add(index.getOrDefault(unit, unit));
+        }
+        return result;
+    }
+
+    private static record CacheKey(String targetPlatform, String rootUnits, String additionalUnits,
+            String additionalUnitStore, TargetEnvironment environment, Map<String, String> filterProperties,
+            List<IRequirement> additionalRequirements, ExecutionEnvironmentResolutionHints eeHints,
+            String strategy) {
+    }
+
+    private static record CachedResolution(List<IInstallableUnit> units, Set<IInstallableUnit> usedShadowedUnits,
+            Set<IInstallableUnit> usedStoreUnits) {
+    }
+}
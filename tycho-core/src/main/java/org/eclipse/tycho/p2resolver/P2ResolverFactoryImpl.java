@@ -88,6 +88,9 @@ public class P2ResolverFactoryImpl implements P2ResolverFactory {
     @Requirement
     private TargetPlatformFactory targetPlatformFactory;
 
+    @Requirement
+    private P2ResolutionCache resolutionCache;
+
     private IProvisioningAgent getAgent() {
         //force triggering service loads... just in case not initialized yet ...
         agent.getService(IArtifactRepositoryManager.class);
@@ -98,6 +101,10 @@ public class P2ResolverFactoryImpl implements P2ResolverFactory {
         return pomUnits;
     }
 
+    P2ResolutionCache getResolutionCache() {
+        return resolutionCache;
+    }
+
     @Override
     public PomDependencyCollector newPomDependencyCollector(ReactorProject project) {
         return new PomDependencyCollectorImpl(logger, project, getAgent());
@@ -30,9 +30,15 @@ import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Consumer;
+import java.util.function.Supplier;
 
-import org.apache.felix.resolver.util.CopyOnWriteSet;
 import org.eclipse.core.runtime.IProgressMonitor;
 import org.eclipse.equinox.p2.metadata.IArtifactKey;
 import org.eclipse.equinox.p2.metadata.IInstallableUnit;
@@ -80,6 +86,11 @@ import org.eclipse.tycho.targetplatform.P2TargetPlatform;
 
 public class P2ResolverImpl implements P2Resolver {
 
+    private static final boolean PARALLEL_ENVIRONMENTS = Boolean
+            .getBoolean("tycho.p2.resolver.parallel-environments");
+    static final String THREADS_PROPERTY = "tycho.p2.resolver.threads";
+    private static ExecutorService executor;
+
     private final MavenLogger logger;
 
     private final IProgressMonitor monitor;
@@ -95,6 +106,8 @@ public class P2ResolverImpl implements P2Resolver {
 
     private P2ResolverFactoryImpl p2ResolverFactoryImpl;
 
+    private boolean parallelEnvironments = PARALLEL_ENVIRONMENTS;
+
     public P2ResolverImpl(TargetPlatformFactory targetPlatformFactory, P2ResolverFactoryImpl p2ResolverFactoryImpl,
             MavenLogger logger, Collection<TargetEnvironment> environments) {
         this.targetPlatformFactory = targetPlatformFactory;
@@ -118,18 +131,32 @@ public class P2ResolverImpl implements P2Resolver {
         // we need a linked hashmap to maintain iteration-order, some of the code relies on it!
         Map<TargetEnvironment, P2ResolutionResult> results = new LinkedHashMap<>();
         Set<IInstallableUnit> usedTargetPlatformUnits = new LinkedHashSet<>();
-        Set<IInstallableUnit> usedShadowedUnits = new CopyOnWriteSet<>();
+        Set<IInstallableUnit> usedShadowedUnits = new LinkedHashSet<>();
+        // the environments are independent from each other, so they can be resolved concurrently
+        // if enabled, the results are merged in the order of the environments afterwards
+        ExecutorService executor = parallelEnvironments && environments.size() > 1 ? getExecutor() : null;
+        List<CompletableFuture<EnvironmentResult>> futures = new ArrayList<>();
         for (TargetEnvironment environment : environments) {
-            results.put(environment,
-                    resolveDependencies(Collections.emptySet(), project, new ProjectorResolutionStrategy(logger) {
-                        @Override
-                        protected Slicer newSlicer(IQueryable<IInstallableUnit> availableUnits,
-                                Map<String, String> properties) {
-                            return super.newSlicer(
-                                    new ShadowedUnitsQueryable(targetPlatform, availableUnits, usedShadowedUnits),
-                                    properties);
-                        }
-                    }, environment, targetPlatform, usedTargetPlatformUnits));
+            futures.add(supplyAsync(() -> {
+                Set<IInstallableUnit> usedUnits = new LinkedHashSet<>();
+                Set<IInstallableUnit> shadowedUnits = Collections.synchronizedSet(new LinkedHashSet<>());
+                P2ResolutionResult result = resolveDependencies(Collections.emptySet(), project,
+                        new ProjectorResolutionStrategy(logger) {
+                            @Override
+                            protected Slicer newSlicer(IQueryable<IInstallableUnit> availableUnits,
+                                    Map<String, String> properties) {
+                                return super.newSlicer(new ShadowedUnitsQueryable(targetPlatform, availableUnits,
+                                        shadowedUnits), properties);
+                            }
+                        }, environment, targetPlatform, usedUnits, shadowedUnits);
+                return new EnvironmentResult(environment, result, usedUnits, shadowedUnits);
+            }, executor));
+        }
+        List<EnvironmentResult> environmentResults = futures.stream().map(P2ResolverImpl::join).toList();
+        for (EnvironmentResult environmentResult : environmentResults) {
+            results.put(environmentResult.environment(), environmentResult.result());
+            usedTargetPlatformUnits.addAll(environmentResult.usedUnits());
+            usedShadowedUnits.addAll(environmentResult.usedShadowedUnits());
         }
         targetPlatform.reportUsedLocalIUs(usedTargetPlatformUnits);
         for (IInstallableUnit unit : usedShadowedUnits) {
@@ -155,7 +182,7 @@ public class P2ResolverImpl implements P2Resolver {
         Map<TargetEnvironment, P2ResolutionResult> results = new LinkedHashMap<>();
         for (TargetEnvironment environment : environments) {
             results.put(environment, resolveDependencies(roots, null, new ProjectorResolutionStrategy(logger),
-                    environment, targetPlatform, null));
+                    environment, targetPlatform, null, null));
         }
         return results;
     }
@@ -203,14 +230,14 @@ public class P2ResolverImpl implements P2Resolver {
 
     protected P2ResolutionResult resolveDependencies(Collection<IInstallableUnit> rootUIs, ReactorProject project,
             AbstractResolutionStrategy strategy, TargetEnvironment environment, P2TargetPlatform targetPlatform,
-            Set<IInstallableUnit> usedTargetPlatformUnits) {
+            Set<IInstallableUnit> usedTargetPlatformUnits, Set<IInstallableUnit> usedShadowedUnits) {
         ResolutionDataImpl data = new ResolutionDataImpl(targetPlatform.getEEResolutionHints());
 
         Set<IInstallableUnit> availableUnits = targetPlatform.getInstallableUnits();
+        Collection<IInstallableUnit> projectSecondaryIUs = Collections.emptySet();
         if (project != null) {
             data.setRootIUs(project.getDependencyMetadata(DependencyMetadataType.SEED));
-            Collection<IInstallableUnit> projectSecondaryIUs = project
-                    .getDependencyMetadata(DependencyMetadataType.RESOLVE);
+            projectSecondaryIUs = project.getDependencyMetadata(DependencyMetadataType.RESOLVE);
             if (!projectSecondaryIUs.isEmpty()) {
                 availableUnits = new LinkedHashSet<>(availableUnits);
                 availableUnits.addAll(projectSecondaryIUs);
@@ -220,6 +247,14 @@ public class P2ResolverImpl implements P2Resolver {
         }
         data.setAdditionalRequirements(additionalRequirements);
         data.setAvailableIUs(availableUnits);
+        if (targetPlatform instanceof TargetPlatformBaseImpl targetPlatformImpl) {
+            IQueryable<IInstallableUnit> availableUnitsIndex = targetPlatformImpl.getIndexedInstallableUnits();
+            if (!projectSecondaryIUs.isEmpty()) {
+                availableUnitsIndex = QueryUtil.compoundQueryable(availableUnitsIndex,
+                        new QueryableArray(projectSecondaryIUs));
+            }
+            data.setAvailableIUsIndex(availableUnitsIndex);
+        }
         data.setAdditionalFilterProperties(additionalFilterProperties);
 
         strategy.setData(data);
@@ -228,7 +263,13 @@ public class P2ResolverImpl implements P2Resolver {
             if (project != null && p2ResolverFactoryImpl != null && pomDependencies != PomDependencies.ignore) {
                 data.setAdditionalUnitStore(p2ResolverFactoryImpl.getPomUnits().createPomQueryable(project));
             }
-            newState = strategy.resolve(environment, monitor);
+            if (p2ResolverFactoryImpl != null) {
+                newState = p2ResolverFactoryImpl.getResolutionCache().resolve(targetPlatform, data,
+                        projectSecondaryIUs, environment, strategy, usedShadowedUnits,
+                        () -> strategy.resolve(environment, monitor));
+            } else {
+                newState = strategy.resolve(environment, monitor);
+            }
         } catch (ResolverException e) {
             logger.info(e.getSelectionContext());
             logger.error("Cannot resolve project dependencies:");
@@ -479,4 +520,74 @@ public class P2ResolverImpl implements P2Resolver {
         this.pomDependencies = pomDependencies;
     }
 
+    /**
+     * Runs the supplier with the executor passing on the context class loader of the caller, p2
+     * and OSGi service lookups rely on it. If no executor is given the supplier is run in the
+     * calling thread.
+     */
+    private static <T> CompletableFuture<T> supplyAsync(Supplier<T> supplier, ExecutorService executor) {
+        if (executor == null) {
+            try {
+                return CompletableFuture.completedFuture(supplier.get());
+            } catch (RuntimeException e) {
+                return CompletableFuture.failedFuture(e);
+            }
+        }
+        ClassLoader contextClassLoader = Thread.currentThread().getContextClassLoader();
+        return CompletableFuture.supplyAsync(() -> {
+            Thread thread = Thread.currentThread();
+            ClassLoader threadClassLoader = thread.getContextClassLoader();
+            thread.setContextClassLoader(contextClassLoader);
+            try {
+                return supplier.get();
+            } finally {
+                thread.setContextClassLoader(threadClassLoader);
+            }
+        }, executor);
+    }
+
+    private static <T> T join(CompletableFuture<T> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            Throwable cause = e.getCause();
+            throw cause instanceof RuntimeException runtimeEx ? runtimeEx : e;
+        }
+    }
+
+    /**
+     * @return the executor shared by all resolvers for resolving environments concurrently, it is
+     *         bounded so it does not compete too much with the threads of a parallel reactor build
+     */
+    private static synchronized ExecutorService getExecutor() {
+        if (executor == null) {
+            int threads = Math.max(1, Integer.getInteger(THREADS_PROPERTY, Runtime.getRuntime().availableProcessors()));
+            executor = Executors.newFixedThreadPool(threads, new ThreadFactory() {
+
+                private AtomicInteger cnt = new AtomicInteger();
+
+                @Override
+                public Thread newThread(Runnable r) {
+                    Thread thread = new Thread(r);
+                    thread.setName("Tycho-P2-Resolver-" + cnt.getAndIncrement());
+                    thread.setDaemon(true);
+                    return thread;
+                }
+            });
+        }
+        return executor;
+    }
+
+    /**
+     * Enables or disables resolving the environments concurrently, by default this is controlled by
+     * the <code>tycho.p2.resolver.parallel-environments</code> system property
+     */
+    void setParallelEnvironments(boolean parallelEnvironments) {
+        this.parallelEnvironments = parallelEnvironments;
+    }
+
+    private static record EnvironmentResult(TargetEnvironment environment, P2ResolutionResult result,
+            Set<IInstallableUnit> usedUnits, Set<IInstallableUnit> usedShadowedUnits) {
+    }
+
 }
@@ -40,6 +40,7 @@ import org.eclipse.equinox.p2.query.CollectionResult;
 import org.eclipse.equinox.p2.query.IQuery;
 import org.eclipse.equinox.p2.query.IQueryResult;
 import org.eclipse.equinox.p2.query.IQueryable;
+import org.eclipse.equinox.p2.query.QueryUtil;
 import org.eclipse.tycho.IArtifactFacade;
 import org.eclipse.tycho.ReactorProject;
 import org.eclipse.tycho.core.TargetPlatformConfiguration;
@@ -49,10 +50,11 @@ import org.eclipse.tycho.core.resolver.shared.PomDependencies;
 import org.eclipse.tycho.p2.metadata.ReactorProjectFacade;
 import org.eclipse.tycho.p2.repository.RepositoryLayoutHelper;
 import org.eclipse.tycho.p2.resolver.WrappedArtifact;
+import org.eclipse.tycho.p2.resolver.WrappedBundleCache;
 import org.eclipse.tycho.p2maven.InstallableUnitGenerator;
 import org.eclipse.tycho.p2tools.copiedfromp2.QueryableArray;
 
-class PomInstallableUnitStore implements IQueryable<IInstallableUnit> {
+class PomInstallableUnitStore implements AdditionalUnitStore {
 
     private static final IQueryResult<IInstallableUnit> EMPTY_RESULT = new CollectionResult<>(Collections.emptyList());
     private IQueryable<IInstallableUnit> collection;
@@ -101,6 +103,14 @@ class PomInstallableUnitStore implements IQueryable<IInstallableUnit> {
         return result;
     }
 
+    @Override
+    public Collection<IInstallableUnit> getUnits() {
+        if (considerPomDependencies == PomDependencies.ignore) {
+            return List.of();
+        }
+        return getPomIUs().query(QueryUtil.ALL_UNITS, null).toUnmodifiableSet();
+    }
+
     static final record PomDependency(IArtifactFacade artifactFacade, Collection<IInstallableUnit> installableUnit,
             File location) {
     }
@@ -154,7 +164,7 @@ class PomInstallableUnitStore implements IQueryable<IInstallableUnit> {
                         //check that it might be a bundle...
                         try {
                             WrappedArtifact wrappedArtifact = WrappedArtifact.createWrappedArtifact(artifactFacade,
-                                    reactorProject.getGroupId(), wrappedFile);
+                                    reactorProject.getGroupId(), wrappedFile, getWrappedBundleCache());
                             artifactFacade = wrappedArtifact;
                             File wrappedLocation = artifactFacade.getLocation();
                             a.setFile(wrappedLocation);
@@ -207,6 +217,14 @@ class PomInstallableUnitStore implements IQueryable<IInstallableUnit> {
         return collection;
     }
 
+    private WrappedBundleCache getWrappedBundleCache() {
+        MavenSession mavenSession = reactorProject.adapt(MavenSession.class);
+        if (mavenSession == null || mavenSession.getLocalRepository() == null) {
+            return null;
+        }
+        return new WrappedBundleCache(new File(mavenSession.getLocalRepository().getBasedir()));
+    }
+
     private void addBuildReactorProjects(Collection<Artifact> initalArtifacts) {
         MavenSession mavenSession = reactorProject.adapt(MavenSession.class);
         if (mavenSession != null) {
@@ -45,6 +45,13 @@ public interface ResolutionData {
 
     IQueryable<IInstallableUnit> getAdditionalUnitStore();
 
+    /**
+     * 
+     * @return a queryable containing exactly the {@link #getAvailableIUs() available units} that
+     *         keeps its indices across resolutions, or <code>null</code> if there is none
+     */
+    IQueryable<IInstallableUnit> getAvailableIUsIndex();
+
     default IQueryable<IInstallableUnit> units() {
         ListQueryable<IInstallableUnit> listQueryable = new ListQueryable<>();
         listQueryable.add(new CollectionResult<>(getAvailableIUs()));
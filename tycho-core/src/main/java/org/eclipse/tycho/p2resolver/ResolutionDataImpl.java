@@ -41,6 +41,8 @@ public class ResolutionDataImpl implements ResolutionData {
 
     private IQueryable<IInstallableUnit> additionalUnitStore;
 
+    private IQueryable<IInstallableUnit> availableIUsIndex;
+
     public ResolutionDataImpl(ExecutionEnvironmentResolutionHints eeResolutionHints) {
         this.eeResolutionHints = eeResolutionHints;
     }
@@ -59,6 +61,7 @@ public class ResolutionDataImpl implements ResolutionData {
      */
     public void setAvailableIUs(Collection<IInstallableUnit> availableIUs) {
         this.availableIUs = availableIUs;
+        this.availableIUsIndex = null;
     }
 
     /**
@@ -69,6 +72,7 @@ public class ResolutionDataImpl implements ResolutionData {
      */
     public void setAvailableIUsAndFilter(IQueryable<IInstallableUnit> unfilteredAvailableUnits) {
         this.availableIUs = new LinkedHashSet<>();
+        this.availableIUsIndex = null;
 
         IQueryResult<IInstallableUnit> allUnits = unfilteredAvailableUnits.query(QueryUtil.ALL_UNITS,
                 new NullProgressMonitor());
@@ -138,4 +142,16 @@ public class ResolutionDataImpl implements ResolutionData {
         this.additionalUnitStore = additionalUnitStore;
     }
 
+    @Override
+    public IQueryable<IInstallableUnit> getAvailableIUsIndex() {
+        return availableIUsIndex;
+    }
+
+    /**
+     * Sets a queryable of the available units that maintains its indices across resolutions, it
+     * must contain the same units as passed to {@link #setAvailableIUs(Collection)}.
+     */
+    public void setAvailableIUsIndex(IQueryable<IInstallableUnit> availableIUsIndex) {
+        this.availableIUsIndex = availableIUsIndex;
+    }
 }
@@ -0,0 +1,347 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Christoph Läubrich and others.
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *    Christoph Läubrich - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.tycho.p2resolver;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
+
+import org.eclipse.equinox.p2.metadata.IInstallableUnit;
+import org.eclipse.tycho.core.shared.MavenContext;
+import org.eclipse.tycho.core.shared.MavenLogger;
+import org.eclipse.tycho.p2.repository.InstallableUnitCodec;
+import org.eclipse.tycho.p2maven.transport.SharedHttpCacheStorage;
+
+/**
+ * Stores the resolved content of target definitions in the local maven repository so that
+ * subsequent builds can use it without loading the p2 repositories and running the slicer again.
+ * <p>
+ * Entries are identified by a hash of everything the resolution depends on. Local repositories are
+ * part of the hash by the size and modification time of their index files, for remote repositories
+ * there is no cheap way to detect a change, so entries depending on remote repositories are only
+ * used as long as the transport would use its cached copies of the repository index files (see
+ * {@link SharedHttpCacheStorage#MIN_CACHE_PERIOD}), always in offline mode and never if updates are
+ * forced.
+ * <p>
+ * As every change of a target definition (or of its local repositories) produces a new entry, entries
+ * that were not used for {@link #MAX_AGE_PROPERTY} days are deleted the first time something is
+ * written to the cache in a session.
+ */
+final class TargetDefinitionContentCache {
+
+    static final String RELPATH = ".cache/tycho/target-content";
+
+    private static final boolean ENABLED = Boolean.parseBoolean(System.getProperty("tycho.target.cache", "true"));
+
+    static final String MAX_AGE_PROPERTY = "tycho.target.cache.maxAge";
+
+    private static final long DEFAULT_MAX_AGE_DAYS = 30;
+
+    // "TYTC"
+    private static final int MAGIC = 0x54595443;
+    private static final int VERSION = 1;
+
+    private static final int INDEX_FILE_DEPTH = 3;
+
+    private final Path directory;
+    private final boolean offline;
+    private final boolean updateSnapshots;
+    private final MavenLogger logger;
+    private final long maxAge;
+    private final AtomicBoolean pruned = new AtomicBoolean();
+
+    TargetDefinitionContentCache(MavenContext mavenContext) {
+        this(new File(mavenContext.getLocalRepositoryRoot(), RELPATH), mavenContext.isOffline(),
+                mavenContext.isUpdateSnapshots(), mavenContext.getLogger());
+    }
+
+    TargetDefinitionContentCache(File directory, boolean offline, boolean updateSnapshots, MavenLogger logger) {
+        this.directory = directory.toPath();
+        this.offline = offline;
+        this.updateSnapshots = updateSnapshots;
+        this.logger = logger;
+        this.maxAge = TimeUnit.DAYS.toMillis(Long.getLong(MAX_AGE_PROPERTY, DEFAULT_MAX_AGE_DAYS));
+    }
+
+    static boolean isEnabled() {
+        return ENABLED;
+    }
+
+    /**
+     * The resolved content of a target definition.
+     *
+     * @param units
+     *            the units of the target definition
+     * @param artifactRepositories
+     *            the locations of the artifact repositories, mapped to whether the repository is
+     *            only referenced by another repository
+     * @param repositoryIds
+     *            the ids of the repositories by their location
+     */
+    static record CachedContent(Set<IInstallableUnit> units, Map<URI, Boolean> artifactRepositories,
+            Map<URI, String> repositoryIds) {
+
+        boolean isRemote() {
+            return Stream.concat(artifactRepositories.keySet().stream(), repositoryIds.keySet().stream())
+                    .anyMatch(location -> !isLocal(location));
+        }
+    }
+
+    /**
+     * Describes all inputs of a resolution, the description must contain everything the result of
+     * the resolution depends on.
+     */
+    static final class Key {
+
+        private final StringBuilder description = new StringBuilder();
+        private boolean remote;
+
+        Key add(Object value) {
+            description.append(value).append('\n');
+            return this;
+        }
+
+        /**
+         * Adds a repository location, local repositories are identified by their index files.
+         */
+        Key addRepository(URI location) {
+            add(location.normalize());
+            if (isLocal(location)) {
+                try {
+                    addIndexFiles(Path.of(location));
+                } catch (IOException | RuntimeException e) {
+                    // might not exist (yet) or is no directory, the resolution will tell...
+                    remote = true;
+                }
+            } else {
+                remote = true;
+            }
+            return this;
+        }
+
+        private void addIndexFiles(Path repository) throws IOException {
+            if (!Files.isDirectory(repository)) {
+                remote = true;
+                return;
+            }
+            List<String> entries = new ArrayList<>();
+            try (Stream<Path> files = Files.find(repository, INDEX_FILE_DEPTH,
+                    (path, attributes) -> attributes.isRegularFile() && isIndexFile(path))) {
+                for (Path file : (Iterable<Path>) files::iterator) {
+                    BasicFileAttributes attributes = Files.readAttributes(file, BasicFileAttributes.class);
+                    entries.add(repository.relativize(file) + " " + attributes.size() + " "
+                            + attributes.lastModifiedTime().toMillis());
+                }
+            }
+            entries.stream().sorted().forEach(this::add);
+        }
+
+        private boolean isIndexFile(Path file) {
+            String name = file.getFileName().toString();
+            if (name.startsWith("compositeContent.") || name.startsWith("compositeArtifacts.")) {
+                // children might be remote repositories
+                remote = true;
+            }
+            return name.startsWith("content.") || name.startsWith("compositeContent.")
+                    || name.startsWith("artifacts.") || name.startsWith("compositeArtifacts.")
+                    || name.equals("p2.index");
+        }
+
+        boolean isRemote() {
+            return remote;
+        }
+
+        String hash() {
+            try {
+                MessageDigest digest = MessageDigest.getInstance("SHA-256");
+                byte[] hash = digest.digest(description.toString().getBytes(StandardCharsets.UTF_8));
+                return HexFormat.of().formatHex(hash);
+            } catch (NoSuchAlgorithmException e) {
+                throw new IllegalStateException("SHA-256 not available", e);
+            }
+        }
+    }
+
+    /**
+     * @return the cached content for the given key or <code>null</code> if there is no (current)
+     *         cached content
+     */
+    CachedContent get(Key key) {
+        if (!ENABLED) {
+            return null;
+        }
+        Path file = getFile(key);
+        try {
+            if (!Files.isRegularFile(file)) {
+                return null;
+            }
+            CachedContent content = read(file);
+            // local repositories might reference remote ones
+            if (key.isRemote() || content.isRemote()) {
+                if (updateSnapshots) {
+                    return null;
+                }
+                long age = System.currentTimeMillis() - Files.getLastModifiedTime(file).toMillis();
+                if (!offline && age > TimeUnit.MINUTES.toMillis(SharedHttpCacheStorage.MIN_CACHE_PERIOD)) {
+                    return null;
+                }
+            } else {
+                // the age of local entries is not relevant, so it records the last access for pruning
+                touch(file);
+            }
+            return content;
+        } catch (IOException | RuntimeException e) {
+            debug("Can't read cached target content " + file + ": " + e);
+            return null;
+        }
+    }
+
+    /**
+     * Stores the content for the given key.
+     */
+    void put(Key key, CachedContent content) {
+        if (!ENABLED) {
+            return;
+        }
+        Path file = getFile(key);
+        try {
+            write(file, content);
+        } catch (IOException | RuntimeException e) {
+            // the file might be in use (e.g. on windows), simply try again next time...
+            debug("Can't write cached target content " + file + ": " + e);
+        }
+        if (pruned.compareAndSet(false, true)) {
+            prune();
+        }
+    }
+
+    /**
+     * Deletes all entries (and left over temporary files) that were neither written nor used
+     * within the maximum age.
+     */
+    void prune() {
+        long oldest = System.currentTimeMillis() - maxAge;
+        try (Stream<Path> files = Files.list(directory)) {
+            for (Path file : (Iterable<Path>) files::iterator) {
+                String name = file.getFileName().toString();
+                if (!name.endsWith(".bin") && !name.endsWith(".tmp")) {
+                    continue;
+                }
+                try {
+                    if (Files.getLastModifiedTime(file).toMillis() < oldest) {
+                        Files.deleteIfExists(file);
+                        debug("Deleted unused cached target content " + file);
+                    }
+                } catch (IOException e) {
+                    // might be in use by another build, try again next time...
+                    debug("Can't delete cached target content " + file + ": " + e);
+                }
+            }
+        } catch (IOException e) {
+            debug("Can't prune cached target content in " + directory + ": " + e);
+        }
+    }
+
+    private void touch(Path file) {
+        try {
+            Files.setLastModifiedTime(file, FileTime.fromMillis(System.currentTimeMillis()));
+        } catch (IOException e) {
+            debug("Can't update access time of cached target content " + file + ": " + e);
+        }
+    }
+
+    private static boolean isLocal(URI location) {
+        return "file".equalsIgnoreCase(location.getScheme());
+    }
+
+    private Path getFile(Key key) {
+        return directory.resolve(key.hash() + ".bin");
+    }
+
+    private static CachedContent read(Path file) throws IOException {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+            if (in.readInt() != MAGIC || in.readInt() != VERSION) {
+                throw new IOException("unknown format");
+            }
+            Map<URI, Boolean> artifactRepositories = new LinkedHashMap<>();
+            int count = in.readInt();
+            for (int i = 0; i < count; i++) {
+                artifactRepositories.put(URI.create(in.readUTF()), in.readBoolean());
+            }
+            Map<URI, String> repositoryIds = new LinkedHashMap<>();
+            count = in.readInt();
+            for (int i = 0; i < count; i++) {
+                repositoryIds.put(URI.create(in.readUTF()), in.readUTF());
+            }
+            byte[] units = new byte[in.readInt()];
+            in.readFully(units);
+            return new CachedContent(InstallableUnitCodec.decode(units), artifactRepositories, repositoryIds);
+        }
+    }
+
+    private static void write(Path file, CachedContent content) throws IOException {
+        byte[] units = InstallableUnitCodec.encode(content.units());
+        Files.createDirectories(file.getParent());
+        Path tempFile = Files.createTempFile(file.getParent(), file.getFileName().toString(), ".tmp");
+        try {
+            try (DataOutputStream out = new DataOutputStream(
+                    new BufferedOutputStream(Files.newOutputStream(tempFile)))) {
+                out.writeInt(MAGIC);
+                out.writeInt(VERSION);
+                out.writeInt(content.artifactRepositories().size());
+                for (Entry<URI, Boolean> entry : content.artifactRepositories().entrySet()) {
+                    out.writeUTF(entry.getKey().toString());
+                    out.writeBoolean(entry.getValue());
+                }
+                out.writeInt(content.repositoryIds().size());
+                for (Entry<URI, String> entry : content.repositoryIds().entrySet()) {
+                    out.writeUTF(entry.getKey().toString());
+                    out.writeUTF(entry.getValue());
+                }
+                out.writeInt(units.length);
+                out.write(units);
+            }
+            Files.move(tempFile, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(tempFile);
+        }
+    }
+
+    private void debug(String message) {
+        if (logger != null && logger.isDebugEnabled()) {
+            logger.debug(message);
+        }
+    }
+}
@@ -24,11 +24,19 @@ import java.net.URI;
 import java.net.URISyntaxException;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 import org.eclipse.core.runtime.IProgressMonitor;
@@ -55,6 +63,7 @@ import org.eclipse.tycho.core.shared.LoggingProgressMonitor;
 import org.eclipse.tycho.core.shared.MavenContext;
 import org.eclipse.tycho.core.shared.MavenLogger;
 import org.eclipse.tycho.core.shared.MultiLineLogger;
+import org.eclipse.tycho.p2resolver.TargetDefinitionContentCache.CachedContent;
 import org.eclipse.tycho.p2.repository.ListCompositeMetadataRepository;
 import org.eclipse.tycho.p2.resolver.FileTargetDefinitionContent;
 import org.eclipse.tycho.p2.resolver.ResolverException;
@@ -72,6 +81,7 @@ import org.eclipse.tycho.targetplatform.TargetDefinition.ProfileLocation;
 import org.eclipse.tycho.targetplatform.TargetDefinition.Repository;
 import org.eclipse.tycho.targetplatform.TargetDefinition.RepositoryLocation;
 import org.eclipse.tycho.targetplatform.TargetDefinition.TargetReferenceLocation;
+import org.eclipse.tycho.targetplatform.TargetDefinition.Unit;
 import org.eclipse.tycho.targetplatform.TargetDefinitionContent;
 import org.eclipse.tycho.targetplatform.TargetDefinitionFile;
 import org.eclipse.tycho.targetplatform.TargetDefinitionResolutionException;
@@ -87,6 +97,10 @@ public final class TargetDefinitionResolver {
 
     private static final SiteXMLAction CATEGORY_FACTORY = new SiteXMLAction((URI) null, (String) null);
 
+    static final String LOCATION_THREADS_PROPERTY = "tycho.target.location-threads";
+
+    private static ExecutorService locationExecutor;
+
     private final MavenLogger logger;
 
     private final List<TargetEnvironment> environments;
@@ -99,10 +113,22 @@ public final class TargetDefinitionResolver {
 
     private ReferencedRepositoryMode referencedRepositoryMode;
 
+    private final TargetDefinitionContentCache contentCache;
+
     public TargetDefinitionResolver(List<TargetEnvironment> environments,
             ExecutionEnvironmentResolutionHints executionEnvironment, IncludeSourceMode includeSourceMode,
             ReferencedRepositoryMode referencedRepositoryMode, MavenContext mavenContext,
             MavenTargetLocationFactory mavenDependenciesResolver, TargetDefinitionVariableResolver varResolver) {
+        this(environments, executionEnvironment, includeSourceMode, referencedRepositoryMode, mavenContext,
+                mavenDependenciesResolver, varResolver, null);
+    }
+
+    TargetDefinitionResolver(List<TargetEnvironment> environments,
+            ExecutionEnvironmentResolutionHints executionEnvironment, IncludeSourceMode includeSourceMode,
+            ReferencedRepositoryMode referencedRepositoryMode, MavenContext mavenContext,
+            MavenTargetLocationFactory mavenDependenciesResolver, TargetDefinitionVariableResolver varResolver,
+            TargetDefinitionContentCache contentCache) {
+        this.contentCache = contentCache;
         this.environments = environments;
         this.executionEnvironment = executionEnvironment;
         this.includeSourceMode = includeSourceMode;
@@ -113,8 +139,13 @@ public final class TargetDefinitionResolver {
     }
 
     public TargetDefinitionContent resolveContent(TargetDefinition definition, IProvisioningAgent provisioningAgent) {
+        return resolveContent(definition, provisioningAgent, true);
+    }
+
+    private TargetDefinitionContent resolveContent(TargetDefinition definition, IProvisioningAgent provisioningAgent,
+            boolean useCache) {
         try {
-            return resolveContentWithExceptions(definition, provisioningAgent);
+            return resolveContentWithExceptions(definition, provisioningAgent, useCache);
         } catch (TargetDefinitionSyntaxException e) {
             throw new BuildFailureException(
                     "Invalid syntax in target definition " + definition.getOrigin() + ": " + e.getMessage(), e);
@@ -136,6 +167,21 @@ public final class TargetDefinitionResolver {
     public TargetDefinitionContent resolveContentWithExceptions(TargetDefinition definition,
             IProvisioningAgent provisioningAgent)
             throws TargetDefinitionSyntaxException, TargetDefinitionResolutionException, ResolverException {
+        return resolveContentWithExceptions(definition, provisioningAgent, true);
+    }
+
+    private TargetDefinitionContent resolveContentWithExceptions(TargetDefinition definition,
+            IProvisioningAgent provisioningAgent, boolean useCache)
+            throws TargetDefinitionSyntaxException, TargetDefinitionResolutionException, ResolverException {
+        TargetDefinitionContentCache.Key cacheKey = useCache && contentCache != null ? createCacheKey(definition)
+                : null;
+        if (cacheKey != null) {
+            CachedContent cachedContent = contentCache.get(cacheKey);
+            if (cachedContent != null) {
+                logger.info("Using cached content of target definition " + definition.getOrigin());
+                return new CachedTargetDefinitionContent(cachedContent, definition, provisioningAgent);
+            }
+        }
         Collector<IInstallableUnit> unitResultSet = new Collector<>();
         InstallableUnitResolver installableUnitResolver = null;
         Map<String, FileTargetDefinitionContent> fileRepositories = new LinkedHashMap<>();
@@ -143,28 +189,21 @@ public final class TargetDefinitionResolver {
         List<TargetDefinitionContent> mavenLocations = new ArrayList<>();
         List<TargetDefinitionContent> referencedTargetLocations = new ArrayList<>();
         List<TargetDefinitionContent> repositoryLocations = new ArrayList<>();
-        for (Location locationDefinition : definition.getLocations()) {
+        List<? extends Location> locationDefinitions = definition.getLocations();
+        List<CompletableFuture<TargetDefinitionContent>> prefetchedContents = prefetchLocations(definition,
+                provisioningAgent, fileRepositories, uriRepositories);
+        for (int i = 0; i < locationDefinitions.size(); i++) {
+            Location locationDefinition = locationDefinitions.get(i);
+            CompletableFuture<TargetDefinitionContent> prefetchedContent = prefetchedContents.get(i);
             if (locationDefinition instanceof InstallableUnitLocation installableUnitLocation) {
                 if (installableUnitResolver == null) {
                     installableUnitResolver = new InstallableUnitResolver(environments, executionEnvironment,
                             includeSourceMode, logger);
                 }
                 List<URITargetDefinitionContent> locations = new ArrayList<>();
-                var followRepositoryReferences = installableUnitLocation.followRepositoryReferences();
-                final ReferencedRepositoryMode followReferences;
-                if (followRepositoryReferences == FollowRepositoryReferences.DEFAULT) {
-                    followReferences = referencedRepositoryMode;
-                } else if (followRepositoryReferences == FollowRepositoryReferences.ENABLED) {
-                    followReferences = ReferencedRepositoryMode.include;
-                } else {
-                    followReferences = ReferencedRepositoryMode.ignore;
-                }
+                ReferencedRepositoryMode followReferences = getReferencedRepositoryMode(installableUnitLocation);
                 for (Repository repository : installableUnitLocation.getRepositories()) {
-                    URI location = resolveRepositoryLocation(repository.getLocation());
-                    String key = location.normalize().toASCIIString();
-                    locations.add(
-                            uriRepositories.computeIfAbsent(key, s -> new URITargetDefinitionContent(provisioningAgent,
-                                    location, repository.getId(), followReferences, logger)));
+                    locations.add(getURIContent(repository, followReferences, uriRepositories, provisioningAgent));
                 }
                 IQueryable<IInstallableUnit> locationUnits = QueryUtil.compoundQueryable(locations);
                 Collection<IInstallableUnit> rootUnits = installableUnitResolver
@@ -174,16 +213,10 @@ public final class TargetDefinitionResolver {
                                 .collect(Collectors.joining(", ")), new CollectionResult<>(rootUnits)));
             } else if (locationDefinition instanceof PathLocation pathLocation) {
                 String resolvePath = resolvePath(pathLocation.getPath(), definition);
-                File fileLocation;
-                try {
-                    fileLocation = new File(resolvePath).getCanonicalFile();
-                } catch (IOException e) {
-                    throw new ResolverException("I/O Error while resolving path " + resolvePath, e);
-                }
+                File fileLocation = getFileLocation(resolvePath);
                 if (fileLocation.exists()) {
-                    FileTargetDefinitionContent fileRepositoryRolver = fileRepositories.computeIfAbsent(
-                            fileLocation.getAbsolutePath(),
-                            key -> new FileTargetDefinitionContent(provisioningAgent, fileLocation));
+                    FileTargetDefinitionContent fileRepositoryRolver = getFileContent(fileLocation, fileRepositories,
+                            provisioningAgent);
                     IQueryResult<IInstallableUnit> result;
                     if (pathLocation instanceof DirectoryLocation || pathLocation instanceof ProfileLocation) {
                         result = fileRepositoryRolver.query(QueryUtil.ALL_UNITS, new LoggingProgressMonitor(logger));
@@ -202,8 +235,8 @@ public final class TargetDefinitionResolver {
                             + "' does not exist, target resolution might be incomplete.");
                 }
             } else if (locationDefinition instanceof MavenGAVLocation mavenLocation) {
-                TargetDefinitionContent targetDefinitionContent = mavenDependenciesResolver
-                        .resolveTargetDefinitionContent(mavenLocation, includeSourceMode);
+                TargetDefinitionContent targetDefinitionContent = prefetchedContent != null ? join(prefetchedContent)
+                        : mavenDependenciesResolver.resolveTargetDefinitionContent(mavenLocation, includeSourceMode);
                 mavenLocations.add(targetDefinitionContent);
                 IQueryResult<IInstallableUnit> result = targetDefinitionContent.query(QueryUtil.ALL_UNITS,
                         new LoggingProgressMonitor(logger));
@@ -233,17 +266,20 @@ public final class TargetDefinitionResolver {
                 unitResultSet.addAll(result);
                 referencedTargetLocations.add(content);
             } else if (locationDefinition instanceof RepositoryLocation repositoryLocation) {
-                URI resolvedUri;
                 String uri = repositoryLocation.getUri();
-                try {
-                    resolvedUri = new URI(convertRawToUri(resolvePath(uri, definition)));
-                } catch (URISyntaxException e) {
-                    throw new ResolverException("Invalid URI " + resolvePath(uri, definition) + ": " + e.getMessage(),
-                            e);
+                TargetDefinitionContent content;
+                if (prefetchedContent != null) {
+                    content = join(prefetchedContent);
+                } else {
+                    URI resolvedUri;
+                    try {
+                        resolvedUri = new URI(convertRawToUri(resolvePath(uri, definition)));
+                    } catch (URISyntaxException e) {
+                        throw new ResolverException(
+                                "Invalid URI " + resolvePath(uri, definition) + ": " + e.getMessage(), e);
+                    }
+                    content = loadRepositoryLocation(resolvedUri, repositoryLocation, provisioningAgent);
                 }
-                logger.info("Loading " + resolvedUri + "...");
-                RepositoryLocationContent content = new RepositoryLocationContent(resolvedUri,
-                        repositoryLocation.getRequirements(), provisioningAgent, logger);
                 repositoryLocations.add(content);
                 IQueryResult<IInstallableUnit> result = content.query(QueryUtil.ALL_UNITS,
                         new LoggingProgressMonitor(logger));
@@ -294,6 +330,16 @@ public final class TargetDefinitionResolver {
                     provisioningAgent);
             unitResultSet.addAll(installableUnitResolver.resolve(metadataRepository));
         }
+        if (cacheKey != null) {
+            Map<URI, Boolean> artifactRepositoryLocations = new LinkedHashMap<>();
+            Map<URI, String> repositoryIds = new LinkedHashMap<>();
+            for (URITargetDefinitionContent uriDefinitionContent : uriRepositories.values()) {
+                artifactRepositoryLocations.putAll(uriDefinitionContent.getArtifactRepositoryLocations());
+                repositoryIds.putAll(uriDefinitionContent.getRepositoryIds());
+            }
+            contentCache.put(cacheKey,
+                    new CachedContent(unitResultSet.toUnmodifiableSet(), artifactRepositoryLocations, repositoryIds));
+        }
         return new TargetDefinitionContent() {
 
             private ListCompositeArtifactRepository artifactRepository;
@@ -324,6 +370,242 @@ public final class TargetDefinitionResolver {
         };
     }
 
+    private URITargetDefinitionContent getURIContent(Repository repository, ReferencedRepositoryMode followReferences,
+            Map<String, URITargetDefinitionContent> uriRepositories, IProvisioningAgent provisioningAgent) {
+        URI location = resolveRepositoryLocation(repository.getLocation());
+        String key = location.normalize().toASCIIString();
+        return uriRepositories.computeIfAbsent(key, s -> new URITargetDefinitionContent(provisioningAgent, location,
+                repository.getId(), followReferences, logger));
+    }
+
+    private static File getFileLocation(String resolvePath) throws ResolverException {
+        try {
+            return new File(resolvePath).getCanonicalFile();
+        } catch (IOException e) {
+            throw new ResolverException("I/O Error while resolving path " + resolvePath, e);
+        }
+    }
+
+    private static FileTargetDefinitionContent getFileContent(File fileLocation,
+            Map<String, FileTargetDefinitionContent> fileRepositories, IProvisioningAgent provisioningAgent) {
+        return fileRepositories.computeIfAbsent(fileLocation.getAbsolutePath(),
+                key -> new FileTargetDefinitionContent(provisioningAgent, fileLocation));
+    }
+
+    private RepositoryLocationContent loadRepositoryLocation(URI resolvedUri, RepositoryLocation repositoryLocation,
+            IProvisioningAgent provisioningAgent) {
+        logger.info("Loading " + resolvedUri + "...");
+        return new RepositoryLocationContent(resolvedUri, repositoryLocation.getRequirements(), provisioningAgent,
+                logger);
+    }
+
+    /**
+     * Starts loading the locations of the given definition concurrently if enabled. The contents
+     * are still merged by the caller in the order of declaration, so the result does not depend on
+     * which location finishes first. Installable unit and path locations are only preloaded, their
+     * contents remember a failure and report it when used by the caller without loading the
+     * location again. Target references are not prefetched as they are resolved with their own
+     * locations.
+     * 
+     * @return the contents of maven and repository locations by the index of the location,
+     *         <code>null</code> for all other locations
+     */
+    private List<CompletableFuture<TargetDefinitionContent>> prefetchLocations(TargetDefinition definition,
+            IProvisioningAgent provisioningAgent, Map<String, FileTargetDefinitionContent> fileRepositories,
+            Map<String, URITargetDefinitionContent> uriRepositories) {
+        List<? extends Location> locationDefinitions = definition.getLocations();
+        List<CompletableFuture<TargetDefinitionContent>> contents = new ArrayList<>(
+                Collections.nCopies(locationDefinitions.size(), null));
+        ExecutorService executor = getLocationExecutor();
+        if (executor == null || locationDefinitions.size() < 2) {
+            return contents;
+        }
+        for (int i = 0; i < locationDefinitions.size(); i++) {
+            Location locationDefinition = locationDefinitions.get(i);
+            try {
+                if (locationDefinition instanceof InstallableUnitLocation installableUnitLocation) {
+                    ReferencedRepositoryMode followReferences = getReferencedRepositoryMode(installableUnitLocation);
+                    for (Repository repository : installableUnitLocation.getRepositories()) {
+                        URITargetDefinitionContent content = getURIContent(repository, followReferences,
+                                uriRepositories, provisioningAgent);
+                        supplyAsync(content::getMetadataRepository, executor);
+                    }
+                } else if (locationDefinition instanceof PathLocation pathLocation) {
+                    File fileLocation = getFileLocation(resolvePath(pathLocation.getPath(), definition));
+                    if (fileLocation.exists()) {
+                        FileTargetDefinitionContent content = getFileContent(fileLocation, fileRepositories,
+                                provisioningAgent);
+                        supplyAsync(content::getMetadataRepository, executor);
+                    }
+                } else if (locationDefinition instanceof MavenGAVLocation mavenLocation) {
+                    if (mavenDependenciesResolver != null) {
+                        contents.set(i, supplyAsync(mavenDependenciesResolver
+                                .prepareTargetDefinitionContent(mavenLocation, includeSourceMode), executor));
+                    }
+                } else if (locationDefinition instanceof RepositoryLocation repositoryLocation) {
+                    URI resolvedUri = new URI(convertRawToUri(resolvePath(repositoryLocation.getUri(), definition)));
+                    contents.set(i, supplyAsync(
+                            () -> loadRepositoryLocation(resolvedUri, repositoryLocation, provisioningAgent),
+                            executor));
+                }
+            } catch (ResolverException | URISyntaxException | RuntimeException e) {
+                // reported when the location is resolved
+            }
+        }
+        return contents;
+    }
+
+    /**
+     * @return the executor for loading locations concurrently or <code>null</code> if locations
+     *         should be loaded sequentially
+     */
+    private static synchronized ExecutorService getLocationExecutor() {
+        int threads = Integer.getInteger(LOCATION_THREADS_PROPERTY, 1);
+        if (threads < 2) {
+            return null;
+        }
+        if (locationExecutor == null) {
+            locationExecutor = Executors.newFixedThreadPool(threads, new ThreadFactory() {
+
+                private AtomicInteger cnt = new AtomicInteger();
+
+                @Override
+                public Thread newThread(Runnable r) {
+                    Thread thread = new Thread(r);
+                    thread.setName("Tycho-Target-Location-" + cnt.getAndIncrement());
+                    thread.setDaemon(true);
+                    return thread;
+                }
+            });
+        }
+        return locationExecutor;
+    }
+
+    private static <T> CompletableFuture<T> supplyAsync(Supplier<T> supplier, ExecutorService executor) {
+        ClassLoader contextClassLoader = Thread.currentThread().getContextClassLoader();
+        return CompletableFuture.supplyAsync(() -> {
+            Thread thread = Thread.currentThread();
+            ClassLoader threadClassLoader = thread.getContextClassLoader();
+            thread.setContextClassLoader(contextClassLoader);
+            try {
+                return supplier.get();
+            } finally {
+                thread.setContextClassLoader(threadClassLoader);
+            }
+        }, executor);
+    }
+
+    private static TargetDefinitionContent join(CompletableFuture<TargetDefinitionContent> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            Throwable cause = e.getCause();
+            throw cause instanceof RuntimeException runtimeEx ? runtimeEx : e;
+        }
+    }
+
+    private ReferencedRepositoryMode getReferencedRepositoryMode(InstallableUnitLocation installableUnitLocation) {
+        var followRepositoryReferences = installableUnitLocation.followRepositoryReferences();
+        if (followRepositoryReferences == FollowRepositoryReferences.DEFAULT) {
+            return referencedRepositoryMode;
+        } else if (followRepositoryReferences == FollowRepositoryReferences.ENABLED) {
+            return ReferencedRepositoryMode.include;
+        } else {
+            return ReferencedRepositoryMode.ignore;
+        }
+    }
+
+    /**
+     * Describes everything the resolution of the given target definition depends on, currently
+     * only target definitions consisting of installable unit locations are cached as other
+     * locations depend on too many external factors (e.g. the content of maven repositories or
+     * folders).
+     * 
+     * @return the key or <code>null</code> if the target definition can't be cached
+     */
+    private TargetDefinitionContentCache.Key createCacheKey(TargetDefinition definition) {
+        if (definition.getLocations().isEmpty() || definition.hasIncludedBundles()) {
+            return null;
+        }
+        TargetDefinitionContentCache.Key key = new TargetDefinitionContentCache.Key();
+        for (Location location : definition.getLocations()) {
+            if (!(location instanceof InstallableUnitLocation installableUnitLocation)) {
+                return null;
+            }
+            key.add(InstallableUnitLocation.TYPE).add(installableUnitLocation.getIncludeMode())
+                    .add(installableUnitLocation.includeAllEnvironments())
+                    .add(installableUnitLocation.includeSource())
+                    .add(getReferencedRepositoryMode(installableUnitLocation));
+            for (Repository repository : installableUnitLocation.getRepositories()) {
+                key.addRepository(resolveRepositoryLocation(repository.getLocation())).add(repository.getId());
+            }
+            for (Unit unit : installableUnitLocation.getUnits()) {
+                key.add(unit.getId() + " " + unit.getVersion());
+            }
+        }
+        key.add(environments).add(includeSourceMode);
+        if (executionEnvironment != null) {
+            key.add(executionEnvironment.getClass().getName());
+            for (IInstallableUnit unit : executionEnvironment.getMandatoryUnits()) {
+                key.add(unit).add(unit.getProvidedCapabilities());
+            }
+            for (IInstallableUnit unit : executionEnvironment.getTemporaryAdditions()) {
+                key.add(unit).add(unit.getProvidedCapabilities());
+            }
+            key.add(executionEnvironment.getMandatoryRequires());
+        }
+        return key;
+    }
+
+    /**
+     * The content of a target definition read from the {@link TargetDefinitionContentCache}, the
+     * repositories are only loaded if the metadata repository is requested.
+     */
+    private final class CachedTargetDefinitionContent implements TargetDefinitionContent {
+
+        private final CachedContent cachedContent;
+        private final TargetDefinition definition;
+        private final IProvisioningAgent provisioningAgent;
+        private final CollectionResult<IInstallableUnit> units;
+        private IArtifactRepository artifactRepository;
+        private IMetadataRepository metadataRepository;
+
+        CachedTargetDefinitionContent(CachedContent cachedContent, TargetDefinition definition,
+                IProvisioningAgent provisioningAgent) {
+            this.cachedContent = cachedContent;
+            this.definition = definition;
+            this.provisioningAgent = provisioningAgent;
+            this.units = new CollectionResult<>(cachedContent.units());
+        }
+
+        @Override
+        public IQueryResult<IInstallableUnit> query(IQuery<IInstallableUnit> query, IProgressMonitor monitor) {
+            return units.query(query, monitor);
+        }
+
+        @Override
+        public synchronized IMetadataRepository getMetadataRepository() {
+            if (metadataRepository == null) {
+                metadataRepository = resolveContent(definition, provisioningAgent, false).getMetadataRepository();
+            }
+            return metadataRepository;
+        }
+
+        @Override
+        public synchronized IArtifactRepository getArtifactRepository() {
+            if (artifactRepository == null) {
+                cachedContent.repositoryIds().forEach((location, id) -> URITargetDefinitionContent
+                        .addRepositoryIdMapping(id, location, provisioningAgent));
+                List<IArtifactRepository> artifactRepositories = new ArrayList<>();
+                cachedContent.artifactRepositories().forEach((location, referenced) -> artifactRepositories.add(
+                        URITargetDefinitionContent.createArtifactRepository(location, referenced, provisioningAgent,
+                                logger)));
+                artifactRepository = new ListCompositeArtifactRepository(artifactRepositories, provisioningAgent);
+            }
+            return artifactRepository;
+        }
+    }
+
     private static IInstallableUnit createCategory(String label, IQueryResult<IInstallableUnit> result) {
         SiteCategory category = new SiteCategory();
         category.setLabel(label);
@@ -19,11 +19,19 @@ package org.eclipse.tycho.p2resolver;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Objects;
+import java.util.Queue;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
 
+import org.apache.maven.execution.MavenSession;
+import org.apache.maven.plugin.LegacySupport;
 import org.codehaus.plexus.component.annotations.Component;
 import org.codehaus.plexus.component.annotations.Requirement;
 import org.eclipse.equinox.p2.core.IProvisioningAgent;
@@ -33,21 +41,38 @@ import org.eclipse.tycho.core.resolver.MavenTargetLocationFactory;
 import org.eclipse.tycho.core.resolver.shared.IncludeSourceMode;
 import org.eclipse.tycho.core.resolver.shared.ReferencedRepositoryMode;
 import org.eclipse.tycho.core.shared.MavenContext;
+import org.eclipse.tycho.core.shared.MavenLogger;
 import org.eclipse.tycho.targetplatform.TargetDefinition;
 import org.eclipse.tycho.targetplatform.TargetDefinitionContent;
 
 /**
  * Service instance for resolving target definitions. Results are cached so that there is no
  * redundant computations in the common case where all modules have the same target definition file
- * configured.
+ * configured. Results of target definitions that only consist of p2 repositories are additionally
+ * kept in the local repository for subsequent builds, see {@link TargetDefinitionContentCache}.
  */
 @Component(role = TargetDefinitionResolverService.class)
 public class TargetDefinitionResolverService {
 
     private static final String CACHE_MISS_MESSAGE = "Target definition content cache miss: ";
 
+    private static final ExecutorService RESOLVE_EXECUTOR = Executors.newCachedThreadPool(new ThreadFactory() {
+
+        private AtomicInteger cnt = new AtomicInteger();
+
+        @Override
+        public Thread newThread(Runnable r) {
+            Thread thread = new Thread(r);
+            thread.setName("Tycho-Target-Resolver-" + cnt.getAndIncrement());
+            thread.setDaemon(true);
+            return thread;
+        }
+    });
+
     private ConcurrentMap<ResolutionArguments, CompletableFuture<TargetDefinitionContent>> resolutionCache = new ConcurrentHashMap<>();
 
+    private final Queue<ResolutionStatistic> statistics = new ConcurrentLinkedQueue<>();
+
     @Requirement
     private MavenContext mavenContext;
 
@@ -57,6 +82,11 @@ public class TargetDefinitionResolverService {
     @Requirement
     private TargetDefinitionVariableResolver varResolver;
 
+    @Requirement
+    private LegacySupport legacySupport;
+
+    private TargetDefinitionContentCache contentCache;
+
     // constructor for DS
     public TargetDefinitionResolverService() {
     }
@@ -65,11 +95,31 @@ public class TargetDefinitionResolverService {
             List<TargetEnvironment> environments, ExecutionEnvironmentResolutionHints jreIUs,
             IncludeSourceMode includeSourceMode, ReferencedRepositoryMode referencedRepositoryMode,
             IProvisioningAgent agent) {
+        return getTargetDefinitionContent(scheduleTargetDefinitionContent(definition, environments, jreIUs,
+                includeSourceMode, referencedRepositoryMode, agent));
+    }
+
+    /**
+     * Starts the resolution of the given target definition (if it is not already resolved or in
+     * progress) without waiting for the result.
+     * 
+     * @return the future result to be passed to
+     *         {@link #getTargetDefinitionContent(CompletableFuture)}
+     */
+    public CompletableFuture<TargetDefinitionContent> scheduleTargetDefinitionContent(TargetDefinition definition,
+            List<TargetEnvironment> environments, ExecutionEnvironmentResolutionHints jreIUs,
+            IncludeSourceMode includeSourceMode, ReferencedRepositoryMode referencedRepositoryMode,
+            IProvisioningAgent agent) {
         ResolutionArguments arguments = new ResolutionArguments(definition, environments, jreIUs, includeSourceMode,
                 referencedRepositoryMode, agent);
-        CompletableFuture<TargetDefinitionContent> future = resolutionCache.computeIfAbsent(arguments,
-                this::resolveFromArguments);
+        return resolutionCache.computeIfAbsent(arguments, this::resolveFromArguments);
+    }
 
+    /**
+     * Waits for the result of a resolution started with
+     * {@link #scheduleTargetDefinitionContent(TargetDefinition, List, ExecutionEnvironmentResolutionHints, IncludeSourceMode, ReferencedRepositoryMode, IProvisioningAgent)}.
+     */
+    public TargetDefinitionContent getTargetDefinitionContent(CompletableFuture<TargetDefinitionContent> future) {
         try {
             return future.get();
         } catch (InterruptedException e) {
@@ -84,19 +134,68 @@ public class TargetDefinitionResolverService {
 
     // this method must only have the cache key as parameter (to make sure that the key is complete)
     private CompletableFuture<TargetDefinitionContent> resolveFromArguments(ResolutionArguments arguments) {
-        mavenContext.getLogger().info("Resolving " + arguments);
         if (mavenContext.getLogger().isDebugEnabled()) {
             debugCacheMiss(arguments);
         }
+        // the resolution runs outside of the map, so the map is only blocked while scheduling
+        MavenSession session = legacySupport != null ? legacySupport.getSession() : null;
+        ClassLoader contextClassLoader = Thread.currentThread().getContextClassLoader();
+        return CompletableFuture.supplyAsync(() -> {
+            Thread thread = Thread.currentThread();
+            ClassLoader threadClassLoader = thread.getContextClassLoader();
+            MavenSession threadSession = session != null ? legacySupport.getSession() : null;
+            thread.setContextClassLoader(contextClassLoader);
+            if (session != null) {
+                // e.g. maven locations need the session of the caller
+                legacySupport.setSession(session);
+            }
+            long started = System.currentTimeMillis();
+            try {
+                mavenContext.getLogger().info("Resolving " + arguments);
+                TargetDefinitionResolver resolver = new TargetDefinitionResolver(arguments.environments,
+                        arguments.jreIUs, arguments.includeSourceMode, arguments.referencedRepositoryMode,
+                        mavenContext, dependenciesResolver, varResolver, getContentCache());
+                return resolver.resolveContent(arguments.definition, arguments.agent);
+            } finally {
+                ResolutionStatistic statistic = new ResolutionStatistic(arguments.definition.getOrigin(),
+                        System.currentTimeMillis() - started);
+                statistics.add(statistic);
+                if (mavenContext.getLogger().isDebugEnabled()) {
+                    mavenContext.getLogger().debug(statistic.toString());
+                }
+                thread.setContextClassLoader(threadClassLoader);
+                if (session != null) {
+                    legacySupport.setSession(threadSession);
+                }
+            }
+        }, RESOLVE_EXECUTOR);
+    }
+
+    /**
+     * Logs the time spent resolving target definitions in the current build at debug level.
+     */
+    public void logStatistics() {
+        List<ResolutionStatistic> list = new ArrayList<>();
+        for (ResolutionStatistic statistic; (statistic = statistics.poll()) != null;) {
+            list.add(statistic);
+        }
+        if (list.isEmpty() || mavenContext == null) {
+            return;
+        }
+        MavenLogger logger = mavenContext.getLogger();
+        if (logger.isDebugEnabled()) {
+            logger.debug("Target definition resolution statistics:");
+            for (ResolutionStatistic statistic : list) {
+                logger.debug("  " + statistic);
+            }
+        }
+    }
 
-        TargetDefinitionResolver resolver = new TargetDefinitionResolver(arguments.environments, arguments.jreIUs,
-                arguments.includeSourceMode, arguments.referencedRepositoryMode, mavenContext, dependenciesResolver,
-                varResolver);
-        try {
-            return CompletableFuture.completedFuture(resolver.resolveContent(arguments.definition, arguments.agent));
-        } catch (Exception e) {
-            return CompletableFuture.failedFuture(e);
+    private synchronized TargetDefinitionContentCache getContentCache() {
+        if (contentCache == null && TargetDefinitionContentCache.isEnabled()) {
+            contentCache = new TargetDefinitionContentCache(mavenContext);
         }
+        return contentCache;
     }
 
     private void debugCacheMiss(ResolutionArguments arguments) {
@@ -195,6 +294,14 @@ public class TargetDefinitionResolverService {
 
     }
 
+    private static record ResolutionStatistic(String target, long resolveMillis) {
+
+        @Override
+        public String toString() {
+            return target + " resolved in " + resolveMillis + " ms";
+        }
+    }
+
     static <T> void addIfNonEqual(List<String> result, String stringToAdd, T left, T right) {
         if (!Objects.equals(left, right)) {
             result.add(stringToAdd);
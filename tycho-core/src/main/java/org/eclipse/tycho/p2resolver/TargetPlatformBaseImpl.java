@@ -25,6 +25,7 @@ import org.eclipse.equinox.p2.metadata.IArtifactKey;
 import org.eclipse.equinox.p2.metadata.IInstallableUnit;
 import org.eclipse.equinox.p2.metadata.Version;
 import org.eclipse.equinox.p2.metadata.VersionRange;
+import org.eclipse.equinox.p2.query.IQueryable;
 import org.eclipse.tycho.ArtifactType;
 import org.eclipse.tycho.DefaultArtifactKey;
 import org.eclipse.tycho.DependencyResolutionException;
@@ -36,6 +37,7 @@ import org.eclipse.tycho.ReactorProjectIdentities;
 import org.eclipse.tycho.core.resolver.target.ArtifactMatcher;
 import org.eclipse.tycho.core.resolver.target.ArtifactTypeHelper;
 import org.eclipse.tycho.p2.repository.LocalArtifactRepository;
+import org.eclipse.tycho.p2tools.copiedfromp2.QueryableArray;
 import org.eclipse.tycho.targetplatform.P2TargetPlatform;
 
 abstract class TargetPlatformBaseImpl implements P2TargetPlatform {
@@ -48,9 +50,10 @@ abstract class TargetPlatformBaseImpl implements P2TargetPlatform {
      * preliminary target platform where the reactor build order isn't known yet). Configured and
      * automatic filters have been applied.
      */
-    // TODO store as QueryableCollection, which contains indices to speed up queries?
     protected final LinkedHashSet<IInstallableUnit> installableUnits;
 
+    private IQueryable<IInstallableUnit> installableUnitsIndex;
+
     // reverse lookup from target platform content to the contributing artifact/project 
 
     /**
@@ -97,6 +100,18 @@ abstract class TargetPlatformBaseImpl implements P2TargetPlatform {
         return installableUnits;
     }
 
+    /**
+     * @return a queryable of the {@link #getInstallableUnits() installable units} that keeps its
+     *         indices (e.g. of the provided capabilities) for the lifetime of the target platform, so
+     *         they are not computed again for each resolution
+     */
+    synchronized IQueryable<IInstallableUnit> getIndexedInstallableUnits() {
+        if (installableUnitsIndex == null) {
+            installableUnitsIndex = new QueryableArray(installableUnits, false);
+        }
+        return installableUnitsIndex;
+    }
+
     @Override
     public final org.eclipse.tycho.ArtifactKey resolveArtifact(String type, String id, String version)
             throws IllegalArtifactReferenceException, DependencyResolutionException {
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2008, 2022 Sonatype Inc. and others.
+ * Copyright (c) 2008, 2026 Sonatype Inc. and others.
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
  * which accompanies this distribution, and is available at
@@ -36,6 +36,7 @@ import java.util.Map.Entry;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 
 import org.apache.maven.execution.MavenSession;
 import org.apache.maven.project.MavenProject;
@@ -58,8 +59,6 @@ import org.eclipse.equinox.p2.query.IQuery;
 import org.eclipse.equinox.p2.query.IQueryResult;
 import org.eclipse.equinox.p2.query.IQueryable;
 import org.eclipse.equinox.p2.query.QueryUtil;
-import org.eclipse.equinox.p2.repository.IRepository;
-import org.eclipse.equinox.p2.repository.IRepositoryReference;
 import org.eclipse.equinox.p2.repository.artifact.IArtifactRepository;
 import org.eclipse.equinox.p2.repository.artifact.IArtifactRepositoryManager;
 import org.eclipse.equinox.p2.repository.metadata.IMetadataRepository;
@@ -287,7 +286,7 @@ public class TargetPlatformFactoryImpl implements TargetPlatformFactory {
                 shadowed);
 
         IRawArtifactFileProvider externalArtifactFileProvider = createExternalArtifactProvider(artifactRepositories,
-                targetFileContent, extraMavenBundles);
+                targetFileContent, extraMavenBundles, externalUIs);
         PreliminaryTargetPlatformImpl targetPlatform = new PreliminaryTargetPlatformImpl(reactorProjectUIs, //
                 externalUIs, //
                 eeResolutionHandler.getResolutionHints(), //
@@ -373,14 +372,22 @@ public class TargetPlatformFactoryImpl implements TargetPlatformFactory {
             ExecutionEnvironmentResolutionHints eeResolutionHints) {
         List<TargetDefinitionContent> result = new ArrayList<>();
 
-        for (TargetDefinition definition : tpConfiguration.getTargetDefinitions()) {
+        // start all resolutions first so multiple target definitions are resolved concurrently
+        List<TargetDefinition> definitions = tpConfiguration.getTargetDefinitions();
+        List<CompletableFuture<TargetDefinitionContent>> futures = new ArrayList<>();
+        for (TargetDefinition definition : definitions) {
+            futures.add(targetDefinitionResolverService.scheduleTargetDefinitionContent(definition,
+                    tpConfiguration.getEnvironments(), eeResolutionHints, tpConfiguration.getIncludeSourceMode(),
+                    tpConfiguration.getIncludeRefererenced(), remoteAgent));
+        }
+        for (int i = 0; i < definitions.size(); i++) {
+            TargetDefinition definition = definitions.get(i);
             if (logger.isDebugEnabled()) {
                 logger.debug("Adding target definition file \"" + definition.getOrigin() + "\"");
             }
 
-            TargetDefinitionContent targetFileContent = targetDefinitionResolverService.getTargetDefinitionContent(
-                    definition, tpConfiguration.getEnvironments(), eeResolutionHints,
-                    tpConfiguration.getIncludeSourceMode(), tpConfiguration.getIncludeRefererenced(), remoteAgent);
+            TargetDefinitionContent targetFileContent = targetDefinitionResolverService
+                    .getTargetDefinitionContent(futures.get(i));
             result.add(targetFileContent);
 
             if (logger.isDebugEnabled()) {
@@ -419,10 +426,13 @@ public class TargetPlatformFactoryImpl implements TargetPlatformFactory {
 
         List<IMetadataRepository> metadataRepositories = new ArrayList<>();
         Set<URI> loaded = new HashSet<>();
+        MetadataRepositoryLoader loader = new MetadataRepositoryLoader(remoteMetadataRepositoryManager, logger,
+                includeReferences);
+        loader.schedule(completeRepositories);
         for (MavenRepositoryLocation location : completeRepositories) {
             artifactRepositories.add(location.getURL());
             try {
-                loadMetadataRepository(location, metadataRepositories, loaded, artifactRepositories, includeReferences);
+                loader.collect(location, loaded, metadataRepositories, artifactRepositories);
             } catch (ProvisionException e) {
                 String idMessage = location.getId() == null ? "" : " with ID '" + location.getId() + "'";
                 throw new RuntimeException(
@@ -448,34 +458,6 @@ public class TargetPlatformFactoryImpl implements TargetPlatformFactory {
         return result;
     }
 
-    private void loadMetadataRepository(MavenRepositoryLocation location,
-            List<IMetadataRepository> metadataRepositories, Set<URI> loaded, Set<URI> artifactRepositories,
-            boolean includeReferences) throws ProvisionException {
-        if (loaded.add(location.getURL().normalize())) {
-            IMetadataRepository repository = remoteMetadataRepositoryManager.loadRepository(location.getURL(), monitor);
-            metadataRepositories.add(repository);
-            if (includeReferences) {
-                for (IRepositoryReference reference : repository.getReferences()) {
-                    if ((reference.getOptions() | IRepository.ENABLED) != 0) {
-                        if (reference.getType() == IRepository.TYPE_METADATA) {
-                            try {
-                                loadMetadataRepository(
-                                        new MavenRepositoryLocation(reference.getNickname(), reference.getLocation()),
-                                        metadataRepositories, loaded, artifactRepositories, includeReferences);
-                            } catch (ProvisionException e) {
-                                logger.warn("Loading referenced repository failed: " + e.getMessage(),
-                                        logger.isDebugEnabled() ? e : null);
-                            }
-                        } else if (reference.getType() == IRepository.TYPE_ARTIFACT) {
-                            artifactRepositories.add(reference.getLocation());
-                        }
-                    }
-                }
-            }
-
-        }
-    }
-
     private static final class SortedRepositories {
 
         private SortedRepositories(List<FileArtifactRepository> local, List<IArtifactRepository> remote) {
@@ -519,13 +501,16 @@ public class TargetPlatformFactoryImpl implements TargetPlatformFactory {
      * Provider for all target platform artifacts from outside the reactor.
      */
     private IRawArtifactFileProvider createExternalArtifactProvider(Set<URI> completeRepositories,
-            List<TargetDefinitionContent> targetDefinitionsContent, IRawArtifactFileProvider extraMavenBundles) {
+            List<TargetDefinitionContent> targetDefinitionsContent, IRawArtifactFileProvider extraMavenBundles,
+            Collection<IInstallableUnit> externalUIs) {
         SortedRepositories repos = SortedRepositories
                 .sort(targetDefinitionsContent.stream().map(TargetDefinitionContent::getArtifactRepository).toList());
         RepositoryArtifactProvider remoteArtifactProvider = createRemoteArtifactProvider(completeRepositories,
                 repos.remoteRepositories);
         MirroringArtifactProvider remoteArtifactProviderWithCache = MirroringArtifactProvider
                 .createInstance(localArtifactRepository, remoteArtifactProvider, mavenContext);
+        remoteArtifactProviderWithCache.verifyChecksumsInBackground(
+                externalUIs.stream().flatMap(unit -> unit.getArtifacts().stream()).toList());
 
         return new CompositeArtifactProvider(
                 new FileRepositoryArtifactProvider(repos.localRepositories,
@@ -20,6 +20,7 @@ import static org.junit.Assert.assertTrue;
 
 import java.io.File;
 import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.nio.channels.FileChannel;
 import java.nio.channels.FileLock;
 import java.nio.channels.OverlappingFileLockException;
@@ -27,8 +28,11 @@ import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.StandardOpenOption;
 import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
 
 import org.eclipse.tycho.LockTimeoutException;
+import org.eclipse.tycho.core.locking.FileLockServiceImpl.LockStatistics;
 import org.junit.Before;
 import org.junit.Rule;
 import org.junit.Test;
@@ -139,6 +143,50 @@ public class FileLockServiceTest {
         }
     }
 
+    @Test
+    public void testSharedLocks() throws Exception {
+        File file = newTestFile();
+        try (var first = subject.lockShared(file)) {
+            assertTrue(isLocked(file));
+            // other readers are not blocked...
+            CompletableFuture.runAsync(() -> {
+                try (var second = subject.lockShared(file, 0L)) {
+                    assertTrue(isLocked(file));
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }).get();
+            // ... but writers are
+            CompletableFuture<Void> writer = CompletableFuture.runAsync(() -> subject.lock(file, 0L));
+            ExecutionException e = assertThrows(ExecutionException.class, writer::get);
+            assertTrue(e.getCause() instanceof LockTimeoutException);
+        }
+        assertFalse(isLocked(file));
+        lockAndRelease(file);
+    }
+
+    @Test
+    public void testSharedLockWhileLocked() throws IOException {
+        File file = newTestFile();
+        try (var locked = subject.lock(file)) {
+            assertThrows(LockTimeoutException.class, () -> subject.lockShared(file, 0L));
+        }
+        try (var locked = subject.lockShared(file)) {
+            assertTrue(isLocked(file));
+        }
+    }
+
+    @Test
+    public void testStatistics() throws IOException {
+        File file = newTestFile();
+        lockAndRelease(file);
+        try (var locked = subject.lockShared(file)) {
+        }
+        LockStatistics statistics = subject.getStatistics();
+        assertEquals(1, statistics.exclusiveLocks());
+        assertEquals(1, statistics.sharedLocks());
+    }
+
     private File newTestFile() throws IOException {
         File testFile = tempFolder.newFile("testfile-" + new Random().nextInt());
         return testFile;
@@ -0,0 +1,184 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Christoph Läubrich and others.
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *    Christoph Läubrich - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.tycho.core.osgitools;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assume.assumeTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.jar.Attributes;
+import java.util.jar.Manifest;
+
+import org.codehaus.plexus.logging.Logger;
+import org.codehaus.plexus.logging.LoggerManager;
+import org.eclipse.osgi.container.Module;
+import org.eclipse.osgi.container.ModuleContainer;
+import org.eclipse.osgi.container.ModuleWire;
+import org.eclipse.tycho.ArtifactType;
+import org.eclipse.tycho.DefaultArtifactKey;
+import org.eclipse.tycho.core.osgitools.targetplatform.DefaultDependencyArtifacts;
+import org.eclipse.tycho.test.util.ReactorProjectStub;
+import org.eclipse.tycho.testing.TychoPlexusTestCase;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.osgi.framework.Constants;
+import org.osgi.framework.namespace.PackageNamespace;
+
+public class EquinoxResolverTest extends TychoPlexusTestCase {
+
+    private static final String SHARED_PROPERTY = "tycho.equinox.resolver.shared";
+
+    private EquinoxResolver subject;
+
+    private ScheduledExecutorService executorService;
+
+    @Before
+    public void setUp() throws Exception {
+        subject = (EquinoxResolver) lookup(DependenciesResolver.class, EquinoxResolver.HINT);
+        executorService = Executors.newScheduledThreadPool(1);
+    }
+
+    @After
+    public void shutdown() {
+        executorService.shutdownNow();
+        System.clearProperty(SHARED_PROPERTY);
+    }
+
+    @Test
+    public void testSharedPlatformStateResolvesLikeNewState() throws Exception {
+        List<File> platform = createPlatformBundles(50);
+        for (int i = 0; i < 3; i++) {
+            File project = createProjectBundle(i, 50);
+            DefaultDependencyArtifacts artifacts = createArtifacts(platform, project, i);
+
+            List<String> expected = getPackageProviders(
+                    resolve(artifacts, newConfiguration(false)).getModule(project.getAbsolutePath()));
+            List<String> actual = getPackageProviders(
+                    resolve(artifacts, newConfiguration(true)).getModule(project.getAbsolutePath()));
+
+            assertFalse(expected.isEmpty());
+            assertEquals(expected, actual);
+        }
+    }
+
+    /**
+     * Compares resolving many projects against a large target platform with and without a shared
+     * state, enable with <code>-Dtycho.equinox.resolver.benchmark=true</code>.
+     */
+    @Test
+    public void benchmarkSharedPlatformState() throws Exception {
+        assumeTrue(Boolean.getBoolean("tycho.equinox.resolver.benchmark"));
+        Logger logger = lookup(LoggerManager.class).getLoggerForComponent(getClass().getName());
+        List<File> platform = createPlatformBundles(3000);
+        List<DefaultDependencyArtifacts> projects = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            projects.add(createArtifacts(platform, createProjectBundle(i, 3000), i));
+        }
+        for (boolean shared : new boolean[] { false, true }) {
+            EquinoxResolverConfiguration config = newConfiguration(shared);
+            long start = System.nanoTime();
+            for (DefaultDependencyArtifacts artifacts : projects) {
+                resolve(artifacts, config);
+            }
+            logger.info("Resolved " + projects.size() + " projects against " + platform.size()
+                    + " bundles " + (shared ? "with" : "without") + " shared state in "
+                    + TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) + " ms");
+        }
+    }
+
+    private ModuleContainer resolve(DefaultDependencyArtifacts artifacts, EquinoxResolverConfiguration config)
+            throws Exception {
+        Properties properties = new Properties();
+        properties.setProperty(Constants.FRAMEWORK_SYSTEMPACKAGES, "java.lang");
+        ModuleContainer container = subject.newState(artifacts, properties, null, executorService, config);
+        container.resolve(null, false);
+        return container;
+    }
+
+    private static EquinoxResolverConfiguration newConfiguration(boolean shared) {
+        System.setProperty(SHARED_PROPERTY, String.valueOf(shared));
+        try {
+            return new EquinoxResolverConfiguration();
+        } finally {
+            System.clearProperty(SHARED_PROPERTY);
+        }
+    }
+
+    private static List<String> getPackageProviders(Module module) {
+        List<String> providers = new ArrayList<>();
+        for (ModuleWire wire : module.getCurrentRevision().getWiring()
+                .getRequiredModuleWires(PackageNamespace.PACKAGE_NAMESPACE)) {
+            providers.add(wire.getProvider().getSymbolicName() + "@" + wire.getProvider().getRevisionInfo());
+        }
+        return providers;
+    }
+
+    private DefaultDependencyArtifacts createArtifacts(List<File> platform, File project, int index) {
+        DefaultDependencyArtifacts artifacts = new DefaultDependencyArtifacts();
+        for (File bundle : platform) {
+            artifacts.addArtifactFile(new DefaultArtifactKey(ArtifactType.TYPE_ECLIPSE_PLUGIN, bundle.getName(),
+                    "1.0.0"), bundle, Set.of());
+        }
+        artifacts.addReactorArtifact(
+                new DefaultArtifactKey(ArtifactType.TYPE_ECLIPSE_PLUGIN, project.getName(), "1.0.0"),
+                new ReactorProjectStub(project, project.getName()), null, Set.of());
+        return artifacts;
+    }
+
+    private List<File> createPlatformBundles(int count) throws IOException {
+        List<File> bundles = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            // each bundle uses the package of another one, so there is something to resolve
+            bundles.add(createBundle("platform.bundle" + i, "platform.pkg" + i,
+                    i > 0 ? "platform.pkg" + (i / 2) : null));
+        }
+        return bundles;
+    }
+
+    private File createProjectBundle(int index, int platformSize) throws IOException {
+        return createBundle("project.bundle" + index, "project.pkg" + index, "platform.pkg" + (index % platformSize)
+                + ",platform.pkg" + ((index * 7 + 1) % platformSize));
+    }
+
+    private File createBundle(String symbolicName, String exportPackage, String importPackage) throws IOException {
+        File bundle = temporaryFolder.newFolder(symbolicName);
+        Manifest manifest = new Manifest();
+        Attributes attributes = manifest.getMainAttributes();
+        attributes.put(Attributes.Name.MANIFEST_VERSION, "1.0");
+        attributes.putValue(Constants.BUNDLE_MANIFESTVERSION, "2");
+        attributes.putValue(Constants.BUNDLE_SYMBOLICNAME, symbolicName);
+        attributes.putValue(Constants.BUNDLE_VERSION, "1.0.0");
+        attributes.putValue(Constants.EXPORT_PACKAGE, exportPackage);
+        if (importPackage != null) {
+            attributes.putValue(Constants.IMPORT_PACKAGE, importPackage);
+        }
+        File manifestFile = new File(bundle, "META-INF/MANIFEST.MF");
+        manifestFile.getParentFile().mkdirs();
+        try (OutputStream stream = Files.newOutputStream(manifestFile.toPath())) {
+            manifest.write(stream);
+        }
+        return bundle;
+    }
+}
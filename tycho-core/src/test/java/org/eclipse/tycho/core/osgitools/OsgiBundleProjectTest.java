@@ -0,0 +1,140 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Christoph Läubrich and others.
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *    Christoph Läubrich - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.tycho.core.osgitools;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import org.apache.maven.execution.MavenSession;
+import org.apache.maven.project.MavenProject;
+import org.eclipse.tycho.ReactorProject;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class OsgiBundleProjectTest {
+
+    private MavenSession session;
+    private ExecutorService executor;
+
+    @Before
+    public void setUp() {
+        session = mock(MavenSession.class);
+        executor = Executors.newFixedThreadPool(4);
+    }
+
+    @After
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void testClassPathIsResolvedOncePerProject() throws Exception {
+        ReactorProject project = newProject("bundle");
+        AtomicInteger resolutions = new AtomicInteger();
+        CountDownLatch resolving = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        OsgiBundleProject subject = newSubject(mavenProject -> {
+            resolutions.incrementAndGet();
+            resolving.countDown();
+            await(release);
+            return new BundleClassPath(List.of(), List.of(), List.of());
+        });
+
+        List<Future<BundleClassPath>> classPaths = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            classPaths.add(executor.submit(() -> subject.getBundleClassPath(project)));
+        }
+        assertTrue(resolving.await(10, TimeUnit.SECONDS));
+        // give the other callers the chance to request the class path while it is resolved
+        Thread.sleep(100);
+        release.countDown();
+
+        BundleClassPath classPath = classPaths.get(0).get(10, TimeUnit.SECONDS);
+        for (Future<BundleClassPath> other : classPaths) {
+            assertSame(classPath, other.get(10, TimeUnit.SECONDS));
+        }
+        assertEquals(1, resolutions.get());
+    }
+
+    @Test
+    public void testClassPathsOfDifferentProjectsAreResolvedInParallel() throws Exception {
+        ReactorProject first = newProject("first");
+        ReactorProject second = newProject("second");
+        Map<String, Boolean> overlapped = new ConcurrentHashMap<>();
+        CountDownLatch resolving = new CountDownLatch(2);
+        OsgiBundleProject subject = newSubject(mavenProject -> {
+            resolving.countDown();
+            try {
+                // only returns true if the other project is resolved at the same time
+                overlapped.put(mavenProject.getArtifactId(), resolving.await(10, TimeUnit.SECONDS));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return new BundleClassPath(List.of(), List.of(), List.of());
+        });
+
+        Future<BundleClassPath> firstClassPath = executor.submit(() -> subject.getBundleClassPath(first));
+        Future<BundleClassPath> secondClassPath = executor.submit(() -> subject.getBundleClassPath(second));
+        firstClassPath.get(30, TimeUnit.SECONDS);
+        secondClassPath.get(30, TimeUnit.SECONDS);
+
+        assertEquals(Map.of("first", true, "second", true), overlapped);
+    }
+
+    private OsgiBundleProject newSubject(Function<MavenProject, BundleClassPath> resolver) {
+        return new OsgiBundleProject() {
+
+            @Override
+            protected MavenSession getMavenSession(ReactorProject reactorProject) {
+                return session;
+            }
+
+            @Override
+            BundleClassPath resolveClassPath(MavenSession session, MavenProject project) {
+                return resolver.apply(project);
+            }
+        };
+    }
+
+    private static ReactorProject newProject(String artifactId) {
+        MavenProject project = new MavenProject();
+        project.setGroupId("test");
+        project.setArtifactId(artifactId);
+        project.setVersion("1.0.0");
+        return DefaultReactorProject.adapt(project);
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+}
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2010, 2019 SAP AG and others.
+ * Copyright (c) 2010, 2026 SAP AG and others.
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
  * which accompanies this distribution, and is available at
@@ -19,6 +19,8 @@ import static org.junit.Assert.assertThrows;
 import static org.junit.Assert.assertTrue;
 
 import java.io.File;
+import java.nio.file.Files;
+import java.util.Arrays;
 
 import org.codehaus.plexus.util.FileUtils;
 import org.eclipse.tycho.core.osgitools.BundleReader;
@@ -125,6 +127,32 @@ public class DefaultBundleReaderTest extends TychoPlexusTestCase {
         assertEquals("org.eclipse.tycho.test", manifest.getBundleSymbolicName());
     }
 
+    @Test
+    public void testLoadManifestFromIndex() throws Exception {
+        File jar = new File(cacheDir, "test.jar");
+        Files.copy(new File("src/test/resources/bundlereader/jarshape/test.jar").toPath(), jar.toPath());
+        bundleReader.loadManifest(jar);
+
+        // overwrite the jar without changing its size and timestamp, so only the index can provide the manifest
+        long lastModified = jar.lastModified();
+        byte[] garbage = new byte[(int) jar.length()];
+        Arrays.fill(garbage, (byte) 42);
+        Files.write(jar.toPath(), garbage);
+        jar.setLastModified(lastModified);
+
+        DefaultBundleReader otherReader = new DefaultBundleReader();
+        otherReader.setLocationRepository(cacheDir);
+        OsgiManifest manifest = otherReader.loadManifest(jar);
+        assertEquals("org.eclipse.tycho.test", manifest.getBundleSymbolicName());
+
+        // a modified jar must be read again
+        jar.setLastModified(lastModified + 10000);
+        otherReader = new DefaultBundleReader();
+        otherReader.setLocationRepository(cacheDir);
+        DefaultBundleReader reader = otherReader;
+        assertThrows(OsgiManifestParserException.class, () -> reader.loadManifest(jar));
+    }
+
     @Test
     public void testLoadManifestFromInvalidDir() throws Exception {
         // dir has no META-INF/MANIFEST.MF nor plugin.xml/fragment.xml
@@ -0,0 +1,191 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Christoph Läubrich and others.
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *    Christoph Läubrich - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.tycho.p2.repository;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import org.apache.commons.codec.digest.DigestUtils;
+import org.eclipse.tycho.p2.repository.ChecksumVerificationCache.FileToVerify;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class ChecksumVerificationCacheTest {
+
+    @Rule
+    public final TemporaryFolder tempManager = new TemporaryFolder();
+
+    private File localRepository;
+
+    private Path artifact;
+
+    @Before
+    public void setUp() throws Exception {
+        localRepository = tempManager.newFolder("localRepo");
+        artifact = tempManager.newFile("artifact.jar").toPath();
+        Files.writeString(artifact, "some content", StandardCharsets.UTF_8);
+    }
+
+    @Test
+    public void testDigestMatchesCommonsCodec() throws Exception {
+        ChecksumVerificationCache subject = new ChecksumVerificationCache(localRepository, null);
+        byte[] content = Files.readAllBytes(artifact);
+
+        assertTrue(subject.matches(artifact, ChecksumVerificationCache.SHA_256, DigestUtils.sha256Hex(content)));
+        assertTrue(subject.matches(artifact, ChecksumVerificationCache.MD5, DigestUtils.md5Hex(content).toUpperCase()));
+        assertFalse(subject.matches(artifact, ChecksumVerificationCache.SHA_256, DigestUtils.md5Hex(content)));
+    }
+
+    @Test
+    public void testVerifiedDigestIsPersisted() throws Exception {
+        String sha256 = DigestUtils.sha256Hex(Files.readAllBytes(artifact));
+        new ChecksumVerificationCache(localRepository, null).getDigest(artifact, ChecksumVerificationCache.SHA_256);
+        Path storage = new File(localRepository, ChecksumVerificationCache.RELPATH).toPath();
+        assertEquals(1, Files.readAllLines(storage).size());
+
+        // an incomplete record must be ignored
+        Files.writeString(storage, "SHA-256\t12", StandardOpenOption.APPEND);
+        ChecksumVerificationCache subject = new ChecksumVerificationCache(localRepository, null);
+        assertEquals(sha256, subject.getDigest(artifact, ChecksumVerificationCache.SHA_256));
+        // served from the cache and the incomplete record was dropped
+        assertEquals(1, Files.readAllLines(storage).size());
+    }
+
+    @Test
+    public void testModifiedFileIsHashedAgain() throws Exception {
+        ChecksumVerificationCache subject = new ChecksumVerificationCache(localRepository, null);
+        String original = subject.getDigest(artifact, ChecksumVerificationCache.SHA_256);
+
+        Files.writeString(artifact, "other content", StandardCharsets.UTF_8);
+        Files.setLastModifiedTime(artifact, FileTime.fromMillis(System.currentTimeMillis() + 10000));
+
+        String modified = subject.getDigest(artifact, ChecksumVerificationCache.SHA_256);
+        assertEquals(DigestUtils.sha256Hex(Files.readAllBytes(artifact)), modified);
+        assertFalse(original.equals(modified));
+    }
+
+    @Test
+    public void testVerifyInBackground() throws Exception {
+        Path other = tempManager.newFile("other.jar").toPath();
+        Files.writeString(other, "other content", StandardCharsets.UTF_8);
+        ChecksumVerificationCache subject = new ChecksumVerificationCache(localRepository, null);
+
+        subject.verifyInBackground(List.of(artifact, other), ChecksumVerificationCache.SHA_256).get(10,
+                TimeUnit.SECONDS);
+
+        Path storage = new File(localRepository, ChecksumVerificationCache.RELPATH).toPath();
+        assertEquals(2, Files.readAllLines(storage).size());
+        assertTrue(subject.matches(other, ChecksumVerificationCache.SHA_256,
+                DigestUtils.sha256Hex(Files.readAllBytes(other))));
+        assertEquals(2, Files.readAllLines(storage).size());
+    }
+
+    @Test
+    public void testItemsAreLookedUpOnceAndOffTheCallingThread() throws Exception {
+        Path other = tempManager.newFile("other.jar").toPath();
+        Files.writeString(other, "other content", StandardCharsets.UTF_8);
+        Map<Path, String> items = Map.of(artifact, "artifact", other, "other");
+        ChecksumVerificationCache subject = new ChecksumVerificationCache(localRepository, null);
+        List<String> lookups = Collections.synchronizedList(new ArrayList<>());
+        Set<Thread> lookupThreads = ConcurrentHashMap.newKeySet();
+        Function<Path, FileToVerify> lookup = file -> {
+            lookups.add(items.get(file));
+            lookupThreads.add(Thread.currentThread());
+            return new FileToVerify(file, ChecksumVerificationCache.SHA_256);
+        };
+
+        subject.verifyInBackground(List.of(artifact, other), lookup).get(10, TimeUnit.SECONDS);
+        // e.g. the next project of the reactor requests the same artifacts
+        subject.verifyInBackground(List.of(other, artifact), lookup).get(10, TimeUnit.SECONDS);
+
+        assertEquals(2, lookups.size());
+        assertEquals(Set.of("artifact", "other"), Set.copyOf(lookups));
+        assertFalse(lookupThreads.contains(Thread.currentThread()));
+        Path storage = new File(localRepository, ChecksumVerificationCache.RELPATH).toPath();
+        assertEquals(2, Files.readAllLines(storage).size());
+    }
+
+    @Test
+    public void testItemsWithoutFileAreLookedUpAgain() throws Exception {
+        ChecksumVerificationCache subject = new ChecksumVerificationCache(localRepository, null);
+        AtomicInteger lookups = new AtomicInteger();
+
+        subject.verifyInBackground(List.of(artifact), file -> {
+            lookups.incrementAndGet();
+            return null;
+        }).get(10, TimeUnit.SECONDS);
+        subject.verifyInBackground(List.of(artifact), file -> {
+            lookups.incrementAndGet();
+            return new FileToVerify(file, ChecksumVerificationCache.SHA_256);
+        }).get(10, TimeUnit.SECONDS);
+
+        assertEquals(2, lookups.get());
+        Path storage = new File(localRepository, ChecksumVerificationCache.RELPATH).toPath();
+        assertEquals(1, Files.readAllLines(storage).size());
+    }
+
+    @Test
+    public void testConcurrentRequestsShareTheComputation() throws Exception {
+        Path large = tempManager.newFile("large.jar").toPath();
+        byte[] content = new byte[64 * 1024 * 1024];
+        new Random(42).nextBytes(content);
+        Files.write(large, content);
+        String sha256 = DigestUtils.sha256Hex(content);
+        ChecksumVerificationCache subject = new ChecksumVerificationCache(localRepository, null);
+        int threads = 8;
+        CyclicBarrier barrier = new CyclicBarrier(threads);
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<String>> digests = new ArrayList<>();
+            for (int i = 0; i < threads; i++) {
+                digests.add(executor.submit(() -> {
+                    barrier.await(10, TimeUnit.SECONDS);
+                    return subject.getDigest(large, ChecksumVerificationCache.SHA_256);
+                }));
+            }
+            for (Future<String> digest : digests) {
+                assertEquals(sha256, digest.get(30, TimeUnit.SECONDS));
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        // only one of the threads has hashed (and recorded) the file
+        Path storage = new File(localRepository, ChecksumVerificationCache.RELPATH).toPath();
+        assertEquals(1, Files.readAllLines(storage).size());
+    }
+}
@@ -0,0 +1,161 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Christoph Läubrich and others.
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *    Christoph Läubrich - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.tycho.p2.repository;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.Mockito.mock;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.Set;
+
+import org.eclipse.tycho.core.shared.MavenLogger;
+import org.eclipse.tycho.test.util.MockMavenContext;
+import org.eclipse.tycho.test.util.NoopFileLockService;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class FileBasedTychoRepositoryIndexTest {
+
+    private static final GAV GAV_1 = new GAV("group", "artifact1", "1.0.0");
+    private static final GAV GAV_2 = new GAV("group", "artifact2", "1.0.0");
+    private static final GAV GAV_3 = new GAV("group", "artifact3", "1.0.0");
+
+    @Rule
+    public TemporaryFolder tempFolder = new TemporaryFolder();
+
+    private File basedir;
+
+    private File indexFile;
+
+    @Before
+    public void setUp() throws IOException {
+        basedir = tempFolder.newFolder();
+        indexFile = new File(basedir, FileBasedTychoRepositoryIndex.ARTIFACTS_INDEX_RELPATH);
+    }
+
+    @Test
+    public void testChangesAreAppended() throws IOException {
+        TychoRepositoryIndex index = createIndex();
+        index.addGav(GAV_1);
+        index.addGav(GAV_2);
+        index.save();
+        assertEquals(List.of("group:artifact1:1.0.0", "group:artifact2:1.0.0"), readLines());
+
+        index.addGav(GAV_3);
+        index.save();
+        assertEquals(List.of("group:artifact1:1.0.0", "group:artifact2:1.0.0", "group:artifact3:1.0.0"),
+                readLines());
+        assertEquals(Set.of(GAV_1, GAV_2, GAV_3), createIndex().getProjectGAVs());
+    }
+
+    @Test
+    public void testRemovalsRewriteTheFile() throws IOException {
+        TychoRepositoryIndex index = createIndex();
+        index.addGav(GAV_1);
+        index.addGav(GAV_2);
+        index.save();
+
+        index.removeGav(GAV_1);
+        index.addGav(GAV_3);
+        index.save();
+        // only plain GAV lines, so older versions reading the file do not see the removed GAV
+        assertEquals(List.of("group:artifact2:1.0.0", "group:artifact3:1.0.0"), readLines());
+        assertEquals(Set.of(GAV_2, GAV_3), createIndex().getProjectGAVs());
+
+        // appending still works after the rewrite
+        index.addGav(GAV_1);
+        index.save();
+        assertEquals(List.of("group:artifact2:1.0.0", "group:artifact3:1.0.0", "group:artifact1:1.0.0"),
+                readLines());
+    }
+
+    @Test
+    public void testChangesOfOtherIndexInstancesAreKept() throws IOException {
+        TychoRepositoryIndex index1 = createIndex();
+        TychoRepositoryIndex index2 = createIndex();
+        index1.addGav(GAV_1);
+        index1.addGav(GAV_2);
+        index1.save();
+        index2.addGav(GAV_3);
+        index2.save();
+        assertEquals(Set.of(GAV_1, GAV_2, GAV_3), index2.getProjectGAVs());
+
+        index2.removeGav(GAV_1);
+        index2.save();
+        index1.addGav(GAV_3);
+        index1.save();
+        assertEquals(Set.of(GAV_2, GAV_3), index1.getProjectGAVs());
+        assertEquals(Set.of(GAV_2, GAV_3), createIndex().getProjectGAVs());
+    }
+
+    @Test
+    public void testReplacedFileIsReadAgain() throws IOException {
+        TychoRepositoryIndex index = createIndex();
+        index.addGav(GAV_1);
+        index.addGav(GAV_2);
+        index.save();
+        // e.g. edited by hand or written by an older version
+        Files.write(indexFile.toPath(), List.of("group:artifact2:1.0.0"), StandardCharsets.UTF_8);
+
+        index.addGav(GAV_3);
+        index.save();
+        assertEquals(Set.of(GAV_2, GAV_3), index.getProjectGAVs());
+        assertEquals(Set.of(GAV_2, GAV_3), createIndex().getProjectGAVs());
+    }
+
+    @Test
+    public void testIncompleteRecordIsDiscarded() throws IOException {
+        TychoRepositoryIndex index = createIndex();
+        index.addGav(GAV_1);
+        index.save();
+        Files.write(indexFile.toPath(), "group:artif".getBytes(StandardCharsets.UTF_8), StandardOpenOption.APPEND);
+
+        index = createIndex();
+        assertEquals(Set.of(GAV_1), index.getProjectGAVs());
+        index.addGav(GAV_2);
+        index.save();
+        assertEquals(List.of("group:artifact1:1.0.0", "group:artifact2:1.0.0"), readLines());
+    }
+
+    @Test
+    public void testCompaction() throws IOException {
+        for (int i = 0; i < 1000; i++) {
+            // each instance already knows the GAV but re-adding it appends a duplicate record
+            TychoRepositoryIndex index = createIndex();
+            index.addGav(GAV_1);
+            index.save();
+        }
+        assertEquals(1000, readLines().size());
+        TychoRepositoryIndex index = createIndex();
+        index.addGav(GAV_2);
+        index.save();
+        assertEquals(List.of("group:artifact1:1.0.0", "group:artifact2:1.0.0"), readLines());
+        assertEquals(Set.of(GAV_1, GAV_2), createIndex().getProjectGAVs());
+    }
+
+    private TychoRepositoryIndex createIndex() {
+        return FileBasedTychoRepositoryIndex.createArtifactsIndex(basedir, new NoopFileLockService(),
+                new MockMavenContext(basedir, mock(MavenLogger.class)));
+    }
+
+    private List<String> readLines() throws IOException {
+        return Files.readAllLines(indexFile.toPath(), StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,174 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Christoph Läubrich and others.
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *    Christoph Läubrich - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.tycho.p2.repository;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+import org.eclipse.core.runtime.NullProgressMonitor;
+import org.eclipse.equinox.p2.core.IProvisioningAgent;
+import org.eclipse.equinox.p2.metadata.IInstallableUnit;
+import org.eclipse.equinox.p2.query.QueryUtil;
+import org.eclipse.equinox.p2.repository.metadata.IMetadataRepositoryManager;
+import org.eclipse.tycho.core.shared.MavenLogger;
+import org.eclipse.tycho.p2.repository.InstallableUnitCodec.Decoder;
+import org.eclipse.tycho.p2.repository.InstallableUnitCodec.Encoder;
+import org.eclipse.tycho.p2.repository.LocalMetadataCache.FileStamp;
+import org.eclipse.tycho.test.util.NoopFileLockService;
+import org.eclipse.tycho.testing.TychoPlexusTestCase;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class LocalMetadataCacheTest extends TychoPlexusTestCase {
+
+    private static final String[] REPOSITORIES = { "repositories/e342", "repositories/fragments",
+            "repositories/patch", "repositories/requirejreius", "repositories/launchers", "targetresolver/with-filters",
+            "p2repo" };
+
+    private static final GAV GAV = new GAV("group", "artifact", "1.0.0");
+
+    @Rule
+    public TemporaryFolder tempFolder = new TemporaryFolder();
+
+    @Test
+    public void testEncodedUnitsAreEqual() throws Exception {
+        for (String repository : REPOSITORIES) {
+            Set<IInstallableUnit> units = loadUnits(repository);
+            Encoder encoder = new Encoder();
+            byte[] encoded = encoder.encodeUnits(units, true);
+            Decoder decoder = new Decoder(encoder.getStrings()::get,
+                    index -> ByteBuffer.wrap(encoder.getCapabilities().get(index)),
+                    index -> ByteBuffer.wrap(encoder.getRequirements().get(index)), encoder.getStrings().size(),
+                    encoder.getCapabilities().size(), encoder.getRequirements().size());
+            Set<IInstallableUnit> decoded = decoder.decodeUnits(ByteBuffer.wrap(encoded));
+            assertEquals(repository, toXML(units), toXML(decoded));
+        }
+    }
+
+    @Test
+    public void testCachedUnitsAreUsedUntilContentChanges() throws Exception {
+        File basedir = tempFolder.newFolder();
+        Set<IInstallableUnit> units = loadUnits("repositories/e342");
+        File xml = writeXML(units);
+        FileStamp stamp = FileStamp.of(xml);
+
+        LocalMetadataCache cache = open(basedir);
+        assertNull(cache.get(GAV, stamp));
+        cache.put(GAV, stamp, units);
+        cache.save();
+        assertTrue(new File(basedir, LocalMetadataCache.RELPATH).isFile());
+        assertArrayEquals(new String[] { new File(LocalMetadataCache.RELPATH).getName() },
+                new File(basedir, LocalMetadataCache.RELPATH).getParentFile().list());
+
+        cache = open(basedir);
+        Set<IInstallableUnit> cached = cache.get(GAV, stamp);
+        assertNotNull(cached);
+        assertEquals(units, cached);
+        assertEquals(toXML(units), toXML(cached));
+
+        Files.writeString(xml.toPath(), toXML(loadUnits("repositories/fragments")));
+        assertNull(cache.get(GAV, FileStamp.of(xml)));
+        assertNull(cache.get(GAV, new FileStamp(stamp.size(), stamp.lastModified() + 2000)));
+    }
+
+    @Test
+    public void testBrokenCacheIsIgnored() throws Exception {
+        File basedir = tempFolder.newFolder();
+        File file = new File(basedir, LocalMetadataCache.RELPATH);
+        file.getParentFile().mkdirs();
+        Files.write(file.toPath(), new byte[] { 1, 2, 3 });
+
+        LocalMetadataCache cache = open(basedir);
+        assertNull(cache.get(GAV, new FileStamp(0, 0)));
+    }
+
+    @Test
+    public void testCorruptedCacheIsIgnored() throws Exception {
+        File basedir = tempFolder.newFolder();
+        Set<IInstallableUnit> units = loadUnits("repositories/e342");
+        FileStamp stamp = FileStamp.of(writeXML(units));
+        LocalMetadataCache cache = open(basedir);
+        cache.put(GAV, stamp, units);
+        cache.save();
+
+        File file = new File(basedir, LocalMetadataCache.RELPATH);
+        byte[] bytes = Files.readAllBytes(file.toPath());
+        bytes[bytes.length / 2] ^= 0x55;
+        Files.write(file.toPath(), bytes);
+
+        assertNull(open(basedir).get(GAV, stamp));
+    }
+
+    @Test
+    public void testCacheIsRewrittenAfterReading() throws Exception {
+        File basedir = tempFolder.newFolder();
+        GAV other = new GAV("group", "other", "1.0.0");
+        Set<IInstallableUnit> units = loadUnits("repositories/e342");
+        Set<IInstallableUnit> otherUnits = loadUnits("repositories/fragments");
+        FileStamp stamp = FileStamp.of(writeXML(units));
+        FileStamp otherStamp = FileStamp.of(writeXML(otherUnits));
+        LocalMetadataCache cache = open(basedir);
+        cache.put(GAV, stamp, units);
+        cache.save();
+
+        // like a repository load, entries read from the file are still in use while it is replaced
+        cache = open(basedir);
+        Set<IInstallableUnit> cached = cache.get(GAV, stamp);
+        cache.put(other, otherStamp, otherUnits);
+        cache.save();
+
+        LocalMetadataCache reopened = open(basedir);
+        assertEquals(toXML(units), toXML(cached));
+        assertEquals(toXML(units), toXML(reopened.get(GAV, stamp)));
+        assertEquals(toXML(otherUnits), toXML(reopened.get(other, otherStamp)));
+    }
+
+    private static LocalMetadataCache open(File basedir) {
+        return LocalMetadataCache.open(basedir, new NoopFileLockService(), mock(MavenLogger.class));
+    }
+
+    private File writeXML(Set<IInstallableUnit> units) throws IOException {
+        File xml = tempFolder.newFile();
+        Files.writeString(xml.toPath(), toXML(units));
+        return xml;
+    }
+
+    private Set<IInstallableUnit> loadUnits(String repository) throws Exception {
+        IMetadataRepositoryManager manager = lookup(IProvisioningAgent.class)
+                .getService(IMetadataRepositoryManager.class);
+        File location = new File("src/test/resources", repository).getAbsoluteFile();
+        return new LinkedHashSet<>(manager.loadRepository(location.toURI(), new NullProgressMonitor())
+                .query(QueryUtil.ALL_UNITS, null).toUnmodifiableSet());
+    }
+
+    private static String toXML(Collection<IInstallableUnit> units) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        new MetadataIO().writeXML(units, out);
+        return out.toString(StandardCharsets.UTF_8);
+    }
+}
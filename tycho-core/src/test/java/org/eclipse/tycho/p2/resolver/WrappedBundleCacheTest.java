@@ -0,0 +1,155 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Christoph Läubrich and others.
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *    Christoph Läubrich - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.tycho.p2.resolver;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+import java.util.jar.Attributes;
+import java.util.jar.JarOutputStream;
+import java.util.jar.Manifest;
+import java.util.zip.ZipEntry;
+
+import org.eclipse.equinox.p2.metadata.IInstallableUnit;
+import org.eclipse.tycho.p2.resolver.WrappedBundleCache.CachedBundle;
+import org.eclipse.tycho.test.util.ArtifactMock;
+import org.eclipse.tycho.test.util.InstallableUnitUtil;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class WrappedBundleCacheTest {
+
+    @Rule
+    public final TemporaryFolder tempManager = new TemporaryFolder();
+
+    private File localRepository;
+
+    private WrappedBundleCache subject;
+
+    @Before
+    public void setUp() throws Exception {
+        localRepository = tempManager.newFolder("localRepo");
+        subject = new WrappedBundleCache(localRepository);
+    }
+
+    @Test
+    public void testKeyDependsOnContentAndInstructions() throws Exception {
+        ArtifactMock artifact = new ArtifactMock(createPlainJar("content"), "org.example", "plain", "1.0.0", "jar");
+        Properties instructions = WrappedArtifact.createPropertiesForPrefix("wrapped");
+        String key = WrappedBundleCache.getKey(artifact, Map.of("", instructions));
+
+        assertEquals(key, WrappedBundleCache.getKey(artifact, Map.of("", instructions)));
+        assertNotEquals(key,
+                WrappedBundleCache.getKey(artifact, Map.of("", WrappedArtifact.createPropertiesForPrefix("other"))));
+        ArtifactMock modified = new ArtifactMock(createPlainJar("modified"), "org.example", "plain", "1.0.0", "jar");
+        assertNotEquals(key, WrappedBundleCache.getKey(modified, Map.of("", instructions)));
+    }
+
+    @Test
+    public void testStoredBundleIsReturned() throws Exception {
+        File bundle = createPlainJar("content");
+        assertNull(subject.get("key"));
+
+        IInstallableUnit unit = InstallableUnitUtil.createBundleIU("example.bundle", "1.0.0");
+        subject.put("key", new CachedBundle(bundle, "example.bundle", "1.0.0", List.of("some warning"), unit));
+
+        CachedBundle cached = subject.get("key");
+        assertNotNull(cached);
+        assertEquals("example.bundle", cached.symbolicName());
+        assertEquals("1.0.0", cached.version());
+        assertEquals(List.of("some warning"), cached.messages());
+        assertEquals(unit, cached.unit());
+        assertEquals(unit.getArtifacts(), cached.unit().getArtifacts());
+        assertArrayEquals(Files.readAllBytes(bundle.toPath()), Files.readAllBytes(cached.file().toPath()));
+    }
+
+    @Test
+    public void testWrappedArtifactIsReused() throws Exception {
+        ArtifactMock artifact = new ArtifactMock(createPlainJar("content"), "org.example", "plain", "1.0.0", "jar");
+        File first = new File(tempManager.getRoot(), "first/plain-wrapped.jar");
+        WrappedArtifact wrapped = WrappedArtifact.createWrappedArtifact(artifact, "wrapped", first, subject);
+        assertEquals(1, new File(localRepository, WrappedBundleCache.RELPATH).list().length);
+
+        File second = new File(tempManager.getRoot(), "second/plain-wrapped.jar");
+        WrappedArtifact reused = WrappedArtifact.createWrappedArtifact(artifact, "wrapped", second, subject);
+        assertEquals(1, new File(localRepository, WrappedBundleCache.RELPATH).list().length);
+        assertEquals(wrapped.getWrappedBsn(), reused.getWrappedBsn());
+        assertEquals(wrapped.getWrappedVersion(), reused.getWrappedVersion());
+        assertEquals(second, reused.getLocation());
+        assertArrayEquals(Files.readAllBytes(first.toPath()), Files.readAllBytes(second.toPath()));
+    }
+
+    @Test
+    public void testSnapshotsAreNotCached() throws Exception {
+        ArtifactMock artifact = new ArtifactMock(createPlainJar("content"), "org.example", "plain",
+                "1.0.0-SNAPSHOT", "jar");
+        File wrappedFile = new File(tempManager.getRoot(), "snapshot/plain-wrapped.jar");
+
+        WrappedArtifact wrapped = WrappedArtifact.createWrappedArtifact(artifact, "wrapped", wrappedFile, subject);
+
+        assertTrue(wrapped.getLocation().isFile());
+        assertFalse(new File(localRepository, WrappedBundleCache.RELPATH).exists());
+    }
+
+    @Test
+    public void testUnusedEntriesArePruned() throws Exception {
+        File bundle = createPlainJar("content");
+        CachedBundle cachedBundle = new CachedBundle(bundle, "example.bundle", "1.0.0", List.of(), null);
+        subject.put("used", cachedBundle);
+        subject.put("unused", cachedBundle);
+        Path directory = new File(localRepository, WrappedBundleCache.RELPATH).toPath();
+        FileTime old = FileTime.fromMillis(System.currentTimeMillis() - TimeUnit.DAYS.toMillis(31));
+        Files.setLastModifiedTime(directory.resolve("used"), old);
+        Files.setLastModifiedTime(directory.resolve("unused"), old);
+        Path leftOver = Files.createDirectory(directory.resolve("left-over.tmp"));
+        Files.setLastModifiedTime(leftOver, old);
+
+        assertNotNull(subject.get("used"));
+        subject.prune();
+
+        assertNotNull(subject.get("used"));
+        assertNull(subject.get("unused"));
+        assertFalse(Files.exists(directory.resolve("unused")));
+        assertFalse(Files.exists(leftOver));
+    }
+
+    private File createPlainJar(String content) throws IOException {
+        File file = tempManager.newFile();
+        Manifest manifest = new Manifest();
+        manifest.getMainAttributes().put(Attributes.Name.MANIFEST_VERSION, "1.0");
+        try (JarOutputStream stream = new JarOutputStream(new FileOutputStream(file), manifest)) {
+            stream.putNextEntry(new ZipEntry("org/example/content.txt"));
+            stream.write(content.getBytes(StandardCharsets.UTF_8));
+            stream.closeEntry();
+        }
+        return file;
+    }
+}
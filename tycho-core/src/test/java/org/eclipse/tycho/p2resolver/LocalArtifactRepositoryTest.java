@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2008, 2019 Sonatype Inc. and others.
+ * Copyright (c) 2008, 2026 Sonatype Inc. and others.
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
  * which accompanies this distribution, and is available at
@@ -15,6 +15,8 @@ package org.eclipse.tycho.p2resolver;
 import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
 import static org.mockito.Mockito.mock;
 
@@ -22,6 +24,8 @@ import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.IOException;
 import java.io.OutputStream;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
 
 import org.codehaus.plexus.component.repository.exception.ComponentLookupException;
 import org.eclipse.core.runtime.IProgressMonitor;
@@ -33,6 +37,7 @@ import org.eclipse.equinox.p2.core.IProvisioningAgent;
 import org.eclipse.equinox.p2.core.ProvisionException;
 import org.eclipse.equinox.p2.metadata.IArtifactKey;
 import org.eclipse.equinox.p2.metadata.Version;
+import org.eclipse.equinox.p2.repository.artifact.ArtifactKeyQuery;
 import org.eclipse.equinox.p2.repository.artifact.IArtifactRepository;
 import org.eclipse.equinox.p2.repository.artifact.IArtifactRequest;
 import org.eclipse.equinox.p2.repository.artifact.spi.ArtifactDescriptor;
@@ -41,6 +46,7 @@ import org.eclipse.tycho.TychoConstants;
 import org.eclipse.tycho.core.shared.MavenLogger;
 import org.eclipse.tycho.p2.repository.FileBasedTychoRepositoryIndex;
 import org.eclipse.tycho.p2.repository.LocalArtifactRepository;
+import org.eclipse.tycho.p2.repository.LocalArtifactRepository.Download;
 import org.eclipse.tycho.p2.repository.TychoRepositoryIndex;
 import org.eclipse.tycho.test.util.MockMavenContext;
 import org.eclipse.tycho.test.util.NoopFileLockService;
@@ -229,6 +235,43 @@ public class LocalArtifactRepositoryTest extends TychoPlexusTestCase {
         assertTrue(repo.contains(p2Artifact.getArtifactKey()));
     }
 
+    @Test
+    public void saveInBatchIsDeferred() throws Exception {
+        LocalArtifactRepository repo = new LocalArtifactRepository(lookup(IProvisioningAgent.class),
+                mvnRepo.getLocalRepositoryIndex());
+        ArtifactDescriptor p2Artifact = newBundleArtifactDescriptor(false);
+
+        try (LocalArtifactRepository.Batch batch = repo.beginBatch()) {
+            writeDummyArtifact(repo, p2Artifact);
+            repo.save();
+            assertTrue(createArtifactsIndex(mvnRepo.getLocalRepositoryRoot()).getProjectGAVs().isEmpty());
+        }
+        assertEquals(1, createArtifactsIndex(mvnRepo.getLocalRepositoryRoot()).getProjectGAVs().size());
+
+        repo = new LocalArtifactRepository(lookup(IProvisioningAgent.class), mvnRepo.getLocalRepositoryIndex());
+        assertTrue(repo.contains(p2Artifact.getArtifactKey()));
+    }
+
+    @Test
+    public void saveManyArtifactsInBatch() throws Exception {
+        LocalArtifactRepository repo = new LocalArtifactRepository(lookup(IProvisioningAgent.class),
+                mvnRepo.getLocalRepositoryIndex());
+        int count = 5000;
+        try (LocalArtifactRepository.Batch batch = repo.beginBatch()) {
+            for (int i = 0; i < count; i++) {
+                ArtifactKey key = new ArtifactKey(PublisherHelper.OSGI_BUNDLE_CLASSIFIER, "org.eclipse.tycho.test." + i,
+                        Version.createOSGi(1, 0, 0));
+                writeDummyArtifact(repo, new ArtifactDescriptor(key));
+                // as done by the mirroring artifact provider after each artifact
+                repo.save();
+            }
+        }
+        assertEquals(count, createArtifactsIndex(mvnRepo.getLocalRepositoryRoot()).getProjectGAVs().size());
+
+        repo = new LocalArtifactRepository(lookup(IProvisioningAgent.class), mvnRepo.getLocalRepositoryIndex());
+        assertEquals(count, repo.query(ArtifactKeyQuery.ALL_KEYS, null).toUnmodifiableSet().size());
+    }
+
     @Test
     public void testGetArtifactsNoRequests() throws ComponentLookupException {
         LocalArtifactRepository repo = new LocalArtifactRepository(lookup(IProvisioningAgent.class),
@@ -273,4 +316,26 @@ public class LocalArtifactRepositoryTest extends TychoPlexusTestCase {
         assertArrayEquals(content, destination.toByteArray());
     }
 
+    @Test
+    public void testConcurrentDownloadWaitsForRunningDownload() throws Exception {
+        LocalArtifactRepository repo = new LocalArtifactRepository(lookup(IProvisioningAgent.class),
+                mvnRepo.getLocalRepositoryIndex());
+        // a second instance for the same local repository shares the running downloads
+        LocalArtifactRepository otherRepo = new LocalArtifactRepository(lookup(IProvisioningAgent.class),
+                mvnRepo.getLocalRepositoryIndex());
+        IArtifactKey key = newBundleArtifactDescriptor(false).getArtifactKey();
+
+        Download download = repo.beginDownload(key);
+        assertNotNull(download);
+        CompletableFuture<Download> follower = CompletableFuture.supplyAsync(() -> otherRepo.beginDownload(key));
+        Thread.sleep(200);
+        assertFalse(follower.isDone());
+
+        download.close();
+        assertNull(follower.get(10, TimeUnit.SECONDS));
+        try (Download next = otherRepo.beginDownload(key)) {
+            assertNotNull(next);
+        }
+    }
+
 }
@@ -0,0 +1,137 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Christoph Läubrich and others.
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *    Christoph Läubrich - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.tycho.p2resolver;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.net.URI;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.apache.maven.plugin.testing.SilentLog;
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.equinox.p2.core.ProvisionException;
+import org.eclipse.equinox.p2.repository.IRepository;
+import org.eclipse.equinox.p2.repository.IRepositoryReference;
+import org.eclipse.equinox.p2.repository.metadata.IMetadataRepository;
+import org.eclipse.equinox.p2.repository.metadata.IMetadataRepositoryManager;
+import org.eclipse.tycho.MavenRepositoryLocation;
+import org.eclipse.tycho.osgi.adapters.MavenLoggerAdapter;
+import org.junit.Before;
+import org.junit.Test;
+
+public class MetadataRepositoryLoaderTest {
+
+    private static final URI ROOT = URI.create("https://example.org/root");
+    private static final URI LEFT = URI.create("https://example.org/left");
+    private static final URI RIGHT = URI.create("https://example.org/right");
+    private static final URI SHARED = URI.create("https://example.org/shared");
+    private static final URI ARTIFACTS = URI.create("https://example.org/artifacts");
+
+    private IMetadataRepositoryManager repositoryManager;
+    private Map<URI, IMetadataRepository> repositories;
+    private Map<URI, ClassLoader> loadingClassLoaders;
+
+    @Before
+    public void setup() throws ProvisionException {
+        repositoryManager = mock(IMetadataRepositoryManager.class);
+        repositories = Map.of(//
+                ROOT, repository(ROOT, reference(LEFT, IRepository.TYPE_METADATA),
+                        reference(RIGHT, IRepository.TYPE_METADATA)), //
+                LEFT, repository(LEFT, reference(SHARED, IRepository.TYPE_METADATA)), //
+                RIGHT, repository(RIGHT, reference(SHARED, IRepository.TYPE_METADATA),
+                        reference(ARTIFACTS, IRepository.TYPE_ARTIFACT)), //
+                SHARED, repository(SHARED));
+        loadingClassLoaders = new ConcurrentHashMap<>();
+        when(repositoryManager.loadRepository(any(URI.class), any(IProgressMonitor.class))).then(invocation -> {
+            URI location = invocation.getArgument(0);
+            loadingClassLoaders.put(location, Thread.currentThread().getContextClassLoader());
+            return repositories.get(location);
+        });
+    }
+
+    @Test
+    public void testSharedReferenceIsLoadedOnceAndCollectedDepthFirst() throws ProvisionException {
+        List<IMetadataRepository> metadataRepositories = new ArrayList<>();
+        Set<URI> artifactRepositories = new HashSet<>();
+
+        collect(metadataRepositories, artifactRepositories);
+
+        assertEquals(List.of(repositories.get(ROOT), repositories.get(LEFT), repositories.get(SHARED),
+                repositories.get(RIGHT)), metadataRepositories);
+        assertEquals(Set.of(ARTIFACTS), artifactRepositories);
+        verify(repositoryManager, times(1)).loadRepository(eq(SHARED), any(IProgressMonitor.class));
+    }
+
+    @Test
+    public void testRepositoriesAreLoadedWithCallersContextClassLoader() throws ProvisionException {
+        // new pool threads inherit the context class loader of their creator, so make sure all
+        // threads exist before, 4 loads per collect are more than the pool ever holds
+        for (int i = 0; i < 4; i++) {
+            collect(new ArrayList<>(), new HashSet<>());
+        }
+        loadingClassLoaders.clear();
+        Thread thread = Thread.currentThread();
+        ClassLoader original = thread.getContextClassLoader();
+        ClassLoader contextClassLoader = new URLClassLoader(new URL[0], original);
+        thread.setContextClassLoader(contextClassLoader);
+        try {
+            collect(new ArrayList<>(), new HashSet<>());
+        } finally {
+            thread.setContextClassLoader(original);
+        }
+
+        assertEquals(repositories.keySet(), loadingClassLoaders.keySet());
+        for (ClassLoader classLoader : loadingClassLoaders.values()) {
+            assertSame(contextClassLoader, classLoader);
+        }
+    }
+
+    private void collect(List<IMetadataRepository> metadataRepositories, Set<URI> artifactRepositories)
+            throws ProvisionException {
+        MetadataRepositoryLoader loader = new MetadataRepositoryLoader(repositoryManager,
+                new MavenLoggerAdapter(new SilentLog(), false), true);
+        MavenRepositoryLocation root = new MavenRepositoryLocation("root", ROOT);
+        loader.schedule(List.of(root));
+        loader.collect(root, new HashSet<>(), metadataRepositories, artifactRepositories);
+    }
+
+    private static IMetadataRepository repository(URI location, IRepositoryReference... references) {
+        IMetadataRepository repository = mock(IMetadataRepository.class);
+        when(repository.getLocation()).thenReturn(location);
+        when(repository.getReferences()).thenReturn(List.of(references));
+        return repository;
+    }
+
+    private static IRepositoryReference reference(URI location, int type) {
+        IRepositoryReference reference = mock(IRepositoryReference.class);
+        when(reference.getLocation()).thenReturn(location);
+        when(reference.getType()).thenReturn(type);
+        when(reference.getOptions()).thenReturn(IRepository.ENABLED);
+        return reference;
+    }
+
+}
@@ -0,0 +1,256 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Christoph Läubrich and others.
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *    Christoph Läubrich - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.tycho.p2resolver;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.maven.plugin.testing.SilentLog;
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.equinox.p2.metadata.IInstallableUnit;
+import org.eclipse.equinox.p2.query.IQuery;
+import org.eclipse.equinox.p2.query.IQueryResult;
+import org.eclipse.equinox.p2.query.QueryUtil;
+import org.eclipse.tycho.TargetEnvironment;
+import org.eclipse.tycho.core.ee.impl.NoExecutionEnvironmentResolutionHints;
+import org.eclipse.tycho.core.shared.MavenLogger;
+import org.eclipse.tycho.osgi.adapters.MavenLoggerAdapter;
+import org.eclipse.tycho.p2.resolver.ResolverException;
+import org.eclipse.tycho.targetplatform.P2TargetPlatform;
+import org.eclipse.tycho.test.util.InstallableUnitUtil;
+import org.junit.Before;
+import org.junit.Test;
+
+public class P2ResolutionCacheTest {
+
+    private static final TargetEnvironment ENVIRONMENT = new TargetEnvironment("linux", "gtk", "x86_64");
+    private static final MavenLogger LOGGER = new MavenLoggerAdapter(new SilentLog(), false);
+
+    private P2ResolutionCache cache;
+    private AtomicInteger resolutions;
+
+    @Before
+    public void setup() {
+        cache = new P2ResolutionCache(new SilentLog());
+        resolutions = new AtomicInteger();
+    }
+
+    @Test
+    public void testEquivalentTargetPlatformsShareResult() throws ResolverException {
+        IInstallableUnit root = InstallableUnitUtil.createIU("root", "1.0.0");
+        IInstallableUnit dependency = InstallableUnitUtil.createIU("dependency", "1.0.0");
+        IInstallableUnit equalDependency = InstallableUnitUtil.createIU("dependency", "1.0.0");
+
+        Collection<IInstallableUnit> first = resolve(targetPlatform(root, dependency), root, List.of(root, dependency));
+        Collection<IInstallableUnit> second = resolve(targetPlatform(root, equalDependency), root,
+                List.of(root, dependency));
+
+        assertEquals(1, resolutions.get());
+        assertEquals(first, second);
+        // units must be the ones of the current target platform
+        assertSame(equalDependency, List.copyOf(second).get(1));
+    }
+
+    @Test
+    public void testDifferentRootsAreResolvedAgain() throws ResolverException {
+        IInstallableUnit root1 = InstallableUnitUtil.createIU("root1", "1.0.0");
+        IInstallableUnit root2 = InstallableUnitUtil.createIU("root2", "1.0.0");
+        P2TargetPlatform targetPlatform = targetPlatform(root1, root2);
+
+        resolve(targetPlatform, root1, List.of(root1));
+        resolve(targetPlatform, root2, List.of(root2));
+        resolve(targetPlatform, root1, List.of(root1));
+
+        assertEquals(2, resolutions.get());
+    }
+
+    @Test
+    public void testClearForgetsResults() throws ResolverException {
+        IInstallableUnit root = InstallableUnitUtil.createIU("root", "1.0.0");
+        P2TargetPlatform targetPlatform = targetPlatform(root);
+
+        resolve(targetPlatform, root, List.of(root));
+        cache.clear();
+        resolve(targetPlatform, root, List.of(root));
+
+        assertEquals(2, resolutions.get());
+    }
+
+    @Test
+    public void testChangedRequirementsWithSameVersionAreResolvedAgain() throws ResolverException {
+        IInstallableUnit root = InstallableUnitUtil.createIURequirement("root", "1.0.0.qualifier", "dependency",
+                "[1.0.0,2.0.0)");
+        IInstallableUnit rebuiltRoot = InstallableUnitUtil.createIURequirement("root", "1.0.0.qualifier",
+                "dependency", "[2.0.0,3.0.0)");
+        IInstallableUnit dependency = InstallableUnitUtil.createIU("dependency", "1.0.0");
+        IInstallableUnit rebuiltDependency = InstallableUnitUtil.createIURequirement("dependency", "1.0.0", "other",
+                "0.0.0");
+
+        resolve(targetPlatform(root, dependency), root, List.of(root, dependency));
+        // same id and version of the root but different requirements
+        resolve(targetPlatform(rebuiltRoot, dependency), rebuiltRoot, List.of(rebuiltRoot));
+        // same id and version of a target platform unit but different requirements
+        resolve(targetPlatform(root, rebuiltDependency), root, List.of(root, rebuiltDependency));
+
+        assertEquals(3, resolutions.get());
+    }
+
+    @Test
+    public void testDifferentStrategiesAreResolvedAgain() throws ResolverException {
+        IInstallableUnit root = InstallableUnitUtil.createIU("root", "1.0.0");
+        P2TargetPlatform targetPlatform = targetPlatform(root);
+
+        resolve(targetPlatform, root, List.of(root), new ProjectorResolutionStrategy(LOGGER), null,
+                Set.of());
+        resolve(targetPlatform, root, List.of(root), new ProjectorResolutionStrategy(LOGGER) {
+        }, null, Set.of());
+
+        assertEquals(2, resolutions.get());
+    }
+
+    @Test
+    public void testUsedShadowedUnitsAreReplayed() throws ResolverException {
+        IInstallableUnit root = InstallableUnitUtil.createIU("root", "1.0.0");
+        IInstallableUnit shadowed = InstallableUnitUtil.createIU("shadowed", "1.0.0");
+        P2TargetPlatform targetPlatform = targetPlatform(root, shadowed);
+        AbstractResolutionStrategy strategy = new ProjectorResolutionStrategy(LOGGER);
+
+        Set<IInstallableUnit> first = new HashSet<>();
+        resolve(targetPlatform, root, List.of(root, shadowed), strategy, first, Set.of(shadowed));
+        Set<IInstallableUnit> second = new HashSet<>();
+        resolve(targetPlatform, root, List.of(root, shadowed), strategy, second, Set.of(shadowed));
+
+        assertEquals(1, resolutions.get());
+        assertEquals(Set.of(shadowed), first);
+        assertEquals(Set.of(shadowed), second);
+    }
+
+    @Test
+    public void testResolutionWithEquivalentUnitStoreIsReused() throws ResolverException {
+        IInstallableUnit root = InstallableUnitUtil.createIU("root", "1.0.0");
+        IInstallableUnit pomUnit = InstallableUnitUtil.createIU("pom.dependency", "1.0.0");
+        IInstallableUnit equalPomUnit = InstallableUnitUtil.createIU("pom.dependency", "1.0.0");
+        IInstallableUnit unusedPomUnit = InstallableUnitUtil.createIU("pom.unused", "1.0.0");
+        P2TargetPlatform targetPlatform = targetPlatform(root);
+        TestUnitStore firstStore = new TestUnitStore(pomUnit, unusedPomUnit);
+        TestUnitStore secondStore = new TestUnitStore(equalPomUnit, unusedPomUnit);
+
+        Collection<IInstallableUnit> first = resolve(targetPlatform, root, firstStore, "pom.dependency");
+        Collection<IInstallableUnit> second = resolve(targetPlatform, root, secondStore, "pom.dependency");
+
+        assertEquals(1, resolutions.get());
+        assertEquals(first, second);
+        // units must be the ones of the current store and recorded as used there
+        assertSame(equalPomUnit, List.copyOf(second).get(1));
+        assertEquals(Set.of(pomUnit), firstStore.used);
+        assertEquals(Set.of(equalPomUnit), secondStore.used);
+    }
+
+    @Test
+    public void testDifferentUnitStoreContentIsResolvedAgain() throws ResolverException {
+        IInstallableUnit root = InstallableUnitUtil.createIU("root", "1.0.0");
+        P2TargetPlatform targetPlatform = targetPlatform(root);
+
+        resolve(targetPlatform, root, new TestUnitStore(InstallableUnitUtil.createIU("pom.dependency", "1.0.0")),
+                "pom.dependency");
+        resolve(targetPlatform, root, new TestUnitStore(InstallableUnitUtil.createIU("pom.dependency", "2.0.0")),
+                "pom.dependency");
+        resolve(targetPlatform, root, List.of(root));
+
+        assertEquals(3, resolutions.get());
+    }
+
+    private Collection<IInstallableUnit> resolve(P2TargetPlatform targetPlatform, IInstallableUnit root,
+            TestUnitStore unitStore, String... storeUnitIds) throws ResolverException {
+        ResolutionDataImpl data = newData(targetPlatform, root);
+        data.setAdditionalUnitStore(unitStore);
+        return cache.resolve(targetPlatform, data, Collections.emptySet(), ENVIRONMENT,
+                new ProjectorResolutionStrategy(LOGGER), null, () -> {
+                    resolutions.incrementAndGet();
+                    List<IInstallableUnit> result = new ArrayList<>(List.of(root));
+                    for (String id : storeUnitIds) {
+                        // like the slicer does for requirements the target platform can't satisfy
+                        data.getAdditionalUnitStore().query(QueryUtil.createIUQuery(id), null).forEach(result::add);
+                    }
+                    return result;
+                });
+    }
+
+    private Collection<IInstallableUnit> resolve(P2TargetPlatform targetPlatform, IInstallableUnit root,
+            Collection<IInstallableUnit> result) throws ResolverException {
+        return resolve(targetPlatform, root, result, new ProjectorResolutionStrategy(LOGGER), null,
+                Set.of());
+    }
+
+    private Collection<IInstallableUnit> resolve(P2TargetPlatform targetPlatform, IInstallableUnit root,
+            Collection<IInstallableUnit> result, AbstractResolutionStrategy strategy,
+            Set<IInstallableUnit> usedShadowedUnits, Set<IInstallableUnit> shadowedUnits) throws ResolverException {
+        ResolutionDataImpl data = newData(targetPlatform, root);
+        return cache.resolve(targetPlatform, data, Collections.emptySet(), ENVIRONMENT, strategy, usedShadowedUnits,
+                () -> {
+                    resolutions.incrementAndGet();
+                    if (usedShadowedUnits != null) {
+                        usedShadowedUnits.addAll(shadowedUnits);
+                    }
+                    return result;
+                });
+    }
+
+    private static ResolutionDataImpl newData(P2TargetPlatform targetPlatform, IInstallableUnit root) {
+        ResolutionDataImpl data = new ResolutionDataImpl(NoExecutionEnvironmentResolutionHints.INSTANCE);
+        data.setAvailableIUs(targetPlatform.getInstallableUnits());
+        data.setRootIUs(Set.of(root));
+        data.setAdditionalRequirements(Collections.emptyList());
+        data.setAdditionalFilterProperties(Collections.emptyMap());
+        return data;
+    }
+
+    private static P2TargetPlatform targetPlatform(IInstallableUnit... units) {
+        P2TargetPlatform targetPlatform = mock(P2TargetPlatform.class);
+        when(targetPlatform.getInstallableUnits()).thenReturn(new LinkedHashSet<>(List.of(units)));
+        return targetPlatform;
+    }
+
+    private static final class TestUnitStore implements AdditionalUnitStore {
+
+        private final List<IInstallableUnit> units;
+        private final Set<IInstallableUnit> used = new HashSet<>();
+
+        TestUnitStore(IInstallableUnit... units) {
+            this.units = List.of(units);
+        }
+
+        @Override
+        public IQueryResult<IInstallableUnit> query(IQuery<IInstallableUnit> query, IProgressMonitor monitor) {
+            IQueryResult<IInstallableUnit> result = query.perform(units.iterator());
+            result.forEach(used::add);
+            return result;
+        }
+
+        @Override
+        public Collection<IInstallableUnit> getUnits() {
+            return units;
+        }
+    }
+}
@@ -449,6 +449,37 @@ public class P2ResolverTest extends P2ResolverTestBase {
         assertEquals(0, macosx.getNonReactorUnits().size());
     }
 
+    @Test
+    public void testParallelEnvironmentsKeepOrderAndContent() throws Exception {
+        List<TargetEnvironment> environments = new ArrayList<>();
+        environments.add(new TargetEnvironment("linux", "gtk", "x86_64"));
+        environments.add(new TargetEnvironment("macosx", "cocoa", "x86_64"));
+        environments.add(new TargetEnvironment("win32", "win32", "x86_64"));
+        environments.add(new TargetEnvironment("macosx", "cocoa", "aarch64"));
+        environments.add(new TargetEnvironment("linux", "gtk", "aarch64"));
+        projectToResolve = createReactorProject(resourceFile("resolver/feature.multienv.p2-inf"), TYPE_ECLIPSE_FEATURE,
+                "feature.multienv.p2-inf");
+        P2TargetPlatform targetPlatform = getTargetPlatform();
+
+        P2ResolverImpl sequential = createFor(environments);
+        sequential.setParallelEnvironments(false);
+        Map<TargetEnvironment, P2ResolutionResult> expected = sequential.resolveTargetDependencies(targetPlatform,
+                projectToResolve);
+        P2ResolverImpl parallel = createFor(environments);
+        parallel.setParallelEnvironments(true);
+        Map<TargetEnvironment, P2ResolutionResult> actual = parallel.resolveTargetDependencies(targetPlatform,
+                projectToResolve);
+
+        assertEquals(environments, new ArrayList<>(actual.keySet()));
+        for (TargetEnvironment environment : environments) {
+            assertEquals(environment.toString(), installableUnitIds(expected.get(environment)),
+                    installableUnitIds(actual.get(environment)));
+        }
+        // the macosx specific unit is only resolved for macosx environments
+        assertEquals(2, installableUnitIds(actual.get(environments.get(1))).size());
+        assertEquals(1, installableUnitIds(actual.get(environments.get(2))).size());
+    }
+
     @Test
     public void testAdditionalFilterProperties() throws Exception {
         tpConfig.addP2Repository(resourceFile("repositories/e342_2").toURI());
@@ -497,6 +528,16 @@ public class P2ResolverTest extends P2ResolverTestBase {
         }
     }
 
+    private static Set<String> installableUnitIds(P2ResolutionResult result) {
+        Set<String> ids = new HashSet<>();
+        for (Entry entry : result.getArtifacts()) {
+            for (IInstallableUnit unit : entry.getInstallableUnits()) {
+                ids.add(unit.getId());
+            }
+        }
+        return ids;
+    }
+
     private static P2ResolutionResult singleEnv(Map<TargetEnvironment, P2ResolutionResult> map) {
         assertEquals(1, map.size());
         return map.values().iterator().next();
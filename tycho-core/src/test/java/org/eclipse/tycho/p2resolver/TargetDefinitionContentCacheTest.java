@@ -0,0 +1,190 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Christoph Läubrich and others.
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *    Christoph Läubrich - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.tycho.p2resolver;
+
+import static org.eclipse.tycho.p2resolver.TargetDefinitionResolverTest.OPTIONAL_BUNDLE;
+import static org.eclipse.tycho.p2resolver.TargetDefinitionResolverTest.REFERENCED_BUNDLE_V1;
+import static org.eclipse.tycho.p2resolver.TargetDefinitionResolverTest.defaultEnvironments;
+import static org.eclipse.tycho.p2resolver.TargetDefinitionResolverTest.definitionWith;
+import static org.eclipse.tycho.p2resolver.TargetDefinitionResolverTest.versionedIdsOf;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.startsWith;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.nio.file.attribute.FileTime;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.codehaus.plexus.logging.Logger;
+import org.eclipse.equinox.p2.core.IProvisioningAgent;
+import org.eclipse.equinox.p2.metadata.IVersionedId;
+import org.eclipse.equinox.p2.repository.artifact.IArtifactRepository;
+import org.eclipse.tycho.core.resolver.shared.IncludeSourceMode;
+import org.eclipse.tycho.core.resolver.shared.ReferencedRepositoryMode;
+import org.eclipse.tycho.core.shared.MavenContext;
+import org.eclipse.tycho.core.shared.MavenLogger;
+import org.eclipse.tycho.core.test.utils.ResourceUtil;
+import org.eclipse.tycho.p2maven.ListCompositeArtifactRepository;
+import org.eclipse.tycho.targetplatform.TargetDefinition;
+import org.eclipse.tycho.targetplatform.TargetDefinition.Repository;
+import org.eclipse.tycho.targetplatform.TargetDefinitionContent;
+import org.eclipse.tycho.test.util.MockMavenContext;
+import org.eclipse.tycho.testing.TychoPlexusTestCase;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class TargetDefinitionContentCacheTest extends TychoPlexusTestCase {
+
+    private static final String CACHED_MESSAGE = "Using cached content of target definition";
+
+    @Rule
+    public final TemporaryFolder tempManager = new TemporaryFolder();
+
+    private File repository;
+
+    private File cacheDirectory;
+
+    private MavenLogger logger;
+
+    private MavenContext mavenContext;
+
+    @Before
+    public void setUp() throws Exception {
+        repository = tempManager.newFolder("repository");
+        Files.copy(ResourceUtil.resourceFile("targetresolver/v1_content/content.xml").toPath(),
+                new File(repository, "content.xml").toPath());
+        cacheDirectory = tempManager.newFolder("cache");
+        logger = mock(MavenLogger.class);
+        mavenContext = new MockMavenContext(tempManager.newFolder("localRepo"), logger);
+    }
+
+    @Test
+    public void testCachedContentIsUsed() throws Exception {
+        TargetDefinition definition = definitionWith(
+                new TargetDefinitionResolverTest.LocationStub(OPTIONAL_BUNDLE, REFERENCED_BUNDLE_V1) {
+                    @Override
+                    public List<? extends Repository> getRepositories() {
+                        return List.of(new TemporaryRepository());
+                    }
+                });
+        Set<IVersionedId> expected = Set.of(OPTIONAL_BUNDLE, REFERENCED_BUNDLE_V1);
+
+        TargetDefinitionContent resolved = createResolver().resolveContent(definition,
+                lookup(IProvisioningAgent.class));
+        assertEquals(expected, Set.copyOf(versionedIdsOf(resolved)));
+        verify(logger, never()).info(startsWith(CACHED_MESSAGE));
+        assertEquals(1, cacheDirectory.list().length);
+
+        TargetDefinitionContent cached = createResolver().resolveContent(definition,
+                lookup(IProvisioningAgent.class));
+        verify(logger, times(1)).info(startsWith(CACHED_MESSAGE));
+        assertEquals(expected, Set.copyOf(versionedIdsOf(cached)));
+        IArtifactRepository artifactRepository = cached.getArtifactRepository();
+        assertTrue(artifactRepository instanceof ListCompositeArtifactRepository);
+        assertEquals(List.of(repository.toURI()),
+                ((ListCompositeArtifactRepository) artifactRepository).artifactRepositories.stream()
+                        .map(IArtifactRepository::getLocation).toList());
+
+        // a modified repository must be resolved again
+        File content = new File(repository, "content.xml");
+        Files.setLastModifiedTime(content.toPath(), FileTime.fromMillis(content.lastModified() - 60_000));
+        createResolver().resolveContent(definition, lookup(IProvisioningAgent.class));
+        verify(logger, times(1)).info(startsWith(CACHED_MESSAGE));
+        assertEquals(2, cacheDirectory.list().length);
+    }
+
+    @Test
+    public void testUsingAnEntryRecordsTheAccess() throws Exception {
+        TargetDefinition definition = localDefinition();
+        createResolver().resolveContent(definition, lookup(IProvisioningAgent.class));
+        File entry = cacheDirectory.listFiles()[0];
+        long lastWeek = System.currentTimeMillis() - TimeUnit.DAYS.toMillis(7);
+        Files.setLastModifiedTime(entry.toPath(), FileTime.fromMillis(lastWeek));
+
+        createResolver().resolveContent(definition, lookup(IProvisioningAgent.class));
+
+        verify(logger, times(1)).info(startsWith(CACHED_MESSAGE));
+        assertTrue(entry.lastModified() > lastWeek);
+    }
+
+    @Test
+    public void testUnusedEntriesArePruned() throws Exception {
+        long expired = System.currentTimeMillis() - TimeUnit.DAYS.toMillis(31);
+        File unused = createEntry("unused.bin", expired);
+        File leftOver = createEntry("unused.bin.tmp", expired);
+        File recent = createEntry("recent.bin", System.currentTimeMillis() - TimeUnit.DAYS.toMillis(29));
+        File unrelated = createEntry("unrelated.txt", expired);
+
+        createResolver().resolveContent(localDefinition(), lookup(IProvisioningAgent.class));
+
+        assertFalse(unused.exists());
+        assertFalse(leftOver.exists());
+        assertTrue(recent.exists());
+        assertTrue(unrelated.exists());
+        // the recent and the new entry
+        assertEquals(3, cacheDirectory.list().length);
+    }
+
+    @Test
+    public void testTargetWithoutInstallableUnitLocationsIsNotCached() throws Exception {
+        createResolver().resolveContent(definitionWith(), lookup(IProvisioningAgent.class));
+        assertEquals(0, cacheDirectory.list().length);
+    }
+
+    private TargetDefinition localDefinition() {
+        return definitionWith(new TargetDefinitionResolverTest.LocationStub(OPTIONAL_BUNDLE, REFERENCED_BUNDLE_V1) {
+            @Override
+            public List<? extends Repository> getRepositories() {
+                return List.of(new TemporaryRepository());
+            }
+        });
+    }
+
+    private File createEntry(String name, long lastModified) throws Exception {
+        File file = new File(cacheDirectory, name);
+        Files.writeString(file.toPath(), name);
+        Files.setLastModifiedTime(file.toPath(), FileTime.fromMillis(lastModified));
+        return file;
+    }
+
+    private TargetDefinitionResolver createResolver() {
+        return new TargetDefinitionResolver(defaultEnvironments(),
+                ExecutionEnvironmentTestUtils.NOOP_EE_RESOLUTION_HINTS, IncludeSourceMode.honor,
+                ReferencedRepositoryMode.ignore, mavenContext, null,
+                new DefaultTargetDefinitionVariableResolver(mavenContext, mock(Logger.class)),
+                new TargetDefinitionContentCache(cacheDirectory, false, false, logger));
+    }
+
+    private class TemporaryRepository implements Repository {
+
+        @Override
+        public String getLocation() {
+            return repository.toURI().toString();
+        }
+
+        @Override
+        public String getId() {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,107 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Christoph Läubrich and others.
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *    Christoph Läubrich - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.tycho.p2resolver;
+
+import static org.eclipse.tycho.p2resolver.TargetDefinitionResolverTest.MAIN_BUNDLE;
+import static org.eclipse.tycho.p2resolver.TargetDefinitionResolverTest.OPTIONAL_BUNDLE;
+import static org.eclipse.tycho.p2resolver.TargetDefinitionResolverTest.TARGET_FEATURE;
+import static org.eclipse.tycho.p2resolver.TargetDefinitionResolverTest.defaultEnvironments;
+import static org.eclipse.tycho.p2resolver.TargetDefinitionResolverTest.definitionWith;
+import static org.eclipse.tycho.p2resolver.TargetDefinitionResolverTest.versionedIdsOf;
+import static org.hamcrest.CoreMatchers.hasItem;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.Assert.assertSame;
+import static org.mockito.ArgumentMatchers.contains;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.concurrent.CompletableFuture;
+
+import org.codehaus.plexus.logging.Logger;
+import org.eclipse.equinox.p2.core.IProvisioningAgent;
+import org.eclipse.tycho.core.resolver.shared.IncludeSourceMode;
+import org.eclipse.tycho.core.resolver.shared.ReferencedRepositoryMode;
+import org.eclipse.tycho.core.shared.MavenContext;
+import org.eclipse.tycho.core.shared.MavenLogger;
+import org.eclipse.tycho.p2resolver.TargetDefinitionResolverTest.LocationStub;
+import org.eclipse.tycho.targetplatform.TargetDefinition;
+import org.eclipse.tycho.targetplatform.TargetDefinitionContent;
+import org.eclipse.tycho.test.util.MockMavenContext;
+import org.eclipse.tycho.testing.TychoPlexusTestCase;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class TargetDefinitionResolverServiceTest extends TychoPlexusTestCase {
+
+    @Rule
+    public final TemporaryFolder tempManager = new TemporaryFolder();
+
+    private MavenLogger logger;
+
+    private TargetDefinitionResolverService subject;
+
+    @Before
+    public void setUp() throws Exception {
+        logger = mock(MavenLogger.class);
+        MavenContext mavenContext = new MockMavenContext(tempManager.newFolder("localRepo"), logger);
+        subject = new TargetDefinitionResolverService();
+        subject.setMavenContext(mavenContext);
+        subject.setTargetDefinitionVariableResolver(
+                new DefaultTargetDefinitionVariableResolver(mavenContext, mock(Logger.class)));
+    }
+
+    @Test
+    public void testTargetsAreResolvedConcurrently() throws Exception {
+        TargetDefinition first = definitionWith(new LocationStub(TARGET_FEATURE));
+        TargetDefinition second = definitionWith(new LocationStub(OPTIONAL_BUNDLE));
+
+        CompletableFuture<TargetDefinitionContent> firstFuture = schedule(first);
+        CompletableFuture<TargetDefinitionContent> secondFuture = schedule(second);
+        assertSame(firstFuture, schedule(first));
+
+        assertThat(versionedIdsOf(subject.getTargetDefinitionContent(secondFuture)), hasItem(OPTIONAL_BUNDLE));
+        assertThat(versionedIdsOf(subject.getTargetDefinitionContent(firstFuture)), hasItem(MAIN_BUNDLE));
+    }
+
+    @Test
+    public void testStatisticsAreLoggedAtDebugLevel() throws Exception {
+        when(logger.isDebugEnabled()).thenReturn(true);
+        subject.getTargetDefinitionContent(schedule(definitionWith()));
+        subject.logStatistics();
+        verify(logger, times(1)).debug("Target definition resolution statistics:");
+        verify(logger, never()).info(contains("resolved in"));
+
+        // statistics are only logged once
+        subject.logStatistics();
+        verify(logger, times(1)).debug("Target definition resolution statistics:");
+    }
+
+    @Test
+    public void testStatisticsAreNotLoggedWithoutDebug() throws Exception {
+        subject.getTargetDefinitionContent(schedule(definitionWith()));
+        subject.logStatistics();
+        verify(logger, never()).info(contains("resolved in"));
+        verify(logger, never()).debug(contains("resolved in"));
+    }
+
+    private CompletableFuture<TargetDefinitionContent> schedule(TargetDefinition definition) throws Exception {
+        return subject.scheduleTargetDefinitionContent(definition, defaultEnvironments(),
+                ExecutionEnvironmentTestUtils.NOOP_EE_RESOLUTION_HINTS, IncludeSourceMode.honor,
+                ReferencedRepositoryMode.ignore, lookup(IProvisioningAgent.class));
+    }
+}
@@ -15,7 +15,13 @@ package org.eclipse.tycho.p2resolver;
 
 import static org.hamcrest.CoreMatchers.hasItem;
 import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.Assert.assertThrows;
 import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
 
 import java.io.File;
 import java.net.MalformedURLException;
@@ -26,16 +32,24 @@ import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
 
 import org.codehaus.plexus.component.repository.exception.ComponentLookupException;
 import org.eclipse.equinox.p2.core.IProvisioningAgent;
 import org.eclipse.equinox.p2.core.ProvisionException;
 import org.eclipse.equinox.p2.metadata.IInstallableUnit;
 import org.eclipse.equinox.p2.metadata.IVersionedId;
+import org.eclipse.equinox.p2.metadata.MetadataFactory;
+import org.eclipse.equinox.p2.metadata.MetadataFactory.InstallableUnitDescription;
 import org.eclipse.equinox.p2.metadata.Version;
 import org.eclipse.equinox.p2.metadata.VersionedId;
+import org.eclipse.equinox.p2.query.CollectionResult;
 import org.eclipse.equinox.p2.query.QueryUtil;
+import org.eclipse.equinox.p2.repository.metadata.IMetadataRepositoryManager;
 import org.eclipse.tycho.TargetEnvironment;
+import org.eclipse.tycho.core.resolver.MavenTargetLocationFactory;
 import org.eclipse.tycho.core.resolver.shared.IncludeSourceMode;
 import org.eclipse.tycho.core.resolver.shared.ReferencedRepositoryMode;
 import org.eclipse.tycho.core.shared.MavenContext;
@@ -44,6 +58,7 @@ import org.eclipse.tycho.targetplatform.TargetDefinition;
 import org.eclipse.tycho.targetplatform.TargetDefinition.IncludeMode;
 import org.eclipse.tycho.targetplatform.TargetDefinition.InstallableUnitLocation;
 import org.eclipse.tycho.targetplatform.TargetDefinition.Location;
+import org.eclipse.tycho.targetplatform.TargetDefinition.MavenGAVLocation;
 import org.eclipse.tycho.targetplatform.TargetDefinition.Repository;
 import org.eclipse.tycho.targetplatform.TargetDefinition.Unit;
 import org.eclipse.tycho.targetplatform.TargetDefinitionContent;
@@ -97,6 +112,31 @@ public class TargetDefinitionResolverTest extends TychoPlexusTestCase {
                 new DefaultTargetDefinitionVariableResolver(mavenCtx, logVerifier.getLogger()));
     }
 
+    private TargetDefinitionResolver createResolver(MavenTargetLocationFactory locationFactory) throws Exception {
+        MavenContext mavenCtx = new MockMavenContext(tempManager.newFolder(), logVerifier.getLogger());
+        return new TargetDefinitionResolver(defaultEnvironments(),
+                ExecutionEnvironmentTestUtils.NOOP_EE_RESOLUTION_HINTS, IncludeSourceMode.honor,
+                ReferencedRepositoryMode.ignore, mavenCtx, locationFactory,
+                new DefaultTargetDefinitionVariableResolver(mavenCtx, logVerifier.getLogger()));
+    }
+
+    private static Supplier<TargetDefinitionContent> awaiting(CyclicBarrier barrier, String unitId) {
+        return () -> {
+            try {
+                barrier.await(10, TimeUnit.SECONDS);
+            } catch (Exception e) {
+                throw new AssertionError("locations were not loaded concurrently", e);
+            }
+            InstallableUnitDescription description = new InstallableUnitDescription();
+            description.setId(unitId);
+            description.setVersion(Version.parseVersion("1.0.0"));
+            List<IInstallableUnit> units = List.of(MetadataFactory.createInstallableUnit(description));
+            TargetDefinitionContent content = mock(TargetDefinitionContent.class);
+            when(content.query(any(), any())).thenAnswer(invocation -> new CollectionResult<>(units));
+            return content;
+        };
+    }
+
     static List<TargetEnvironment> defaultEnvironments() {
         return Collections.singletonList(new TargetEnvironment(null, null, null));
     }
@@ -143,6 +183,60 @@ public class TargetDefinitionResolverTest extends TychoPlexusTestCase {
         assertThat(versionedIdsOf(units), bagEquals(versionedIdList(REFERENCED_BUNDLE_V1, OPTIONAL_BUNDLE)));
     }
 
+    @Test
+    public void testResolveMultipleLocationsConcurrently() throws Exception {
+        System.setProperty(TargetDefinitionResolver.LOCATION_THREADS_PROPERTY, "4");
+        try {
+            TargetDefinition definition = definitionWith(new LocationStub(OPTIONAL_BUNDLE),
+                    new LocationStub(TestRepositories.V2, REFERENCED_BUNDLE_V2), new OtherLocationStub());
+            TargetDefinitionContent units = subject.resolveContent(definition, lookup(IProvisioningAgent.class));
+            assertThat(versionedIdsOf(units), bagEquals(versionedIdList(REFERENCED_BUNDLE_V2, OPTIONAL_BUNDLE)));
+            logVerifier.expectWarning("Target location type 'OtherLocation' is not supported");
+        } finally {
+            System.clearProperty(TargetDefinitionResolver.LOCATION_THREADS_PROPERTY);
+        }
+    }
+
+    @Test
+    public void testLocationsAreLoadedConcurrently() throws Exception {
+        // both locations must be loaded at the same time to pass the barrier
+        CyclicBarrier barrier = new CyclicBarrier(2);
+        MavenGAVLocation first = mock(MavenGAVLocation.class);
+        MavenGAVLocation second = mock(MavenGAVLocation.class);
+        MavenTargetLocationFactory locationFactory = mock(MavenTargetLocationFactory.class);
+        when(locationFactory.prepareTargetDefinitionContent(first, IncludeSourceMode.honor))
+                .thenReturn(awaiting(barrier, "maven.first"));
+        when(locationFactory.prepareTargetDefinitionContent(second, IncludeSourceMode.honor))
+                .thenReturn(awaiting(barrier, "maven.second"));
+        System.setProperty(TargetDefinitionResolver.LOCATION_THREADS_PROPERTY, "2");
+        try {
+            TargetDefinitionContent units = createResolver(locationFactory)
+                    .resolveContentWithExceptions(definitionWith(first, second), lookup(IProvisioningAgent.class));
+            assertThat(versionedIdsOf(units), bagEquals(versionedIdList(new VersionedId("maven.first", "1.0.0"),
+                    new VersionedId("maven.second", "1.0.0"))));
+        } finally {
+            System.clearProperty(TargetDefinitionResolver.LOCATION_THREADS_PROPERTY);
+        }
+    }
+
+    @Test
+    public void testFailedPrefetchIsNotLoadedAgain() throws Exception {
+        IMetadataRepositoryManager repositoryManager = mock(IMetadataRepositoryManager.class);
+        when(repositoryManager.loadRepository(any(), any())).thenThrow(new ProvisionException("unavailable"));
+        IProvisioningAgent agent = mock(IProvisioningAgent.class);
+        when(agent.getService(IMetadataRepositoryManager.class)).thenReturn(repositoryManager);
+        TargetDefinition definition = definitionWith(new LocationStub(TestRepositories.V1, OPTIONAL_BUNDLE),
+                new LocationStub(TestRepositories.V1, REFERENCED_BUNDLE_V1));
+        System.setProperty(TargetDefinitionResolver.LOCATION_THREADS_PROPERTY, "2");
+        try {
+            assertThrows(TargetDefinitionResolutionException.class,
+                    () -> subject.resolveContentWithExceptions(definition, agent));
+        } finally {
+            System.clearProperty(TargetDefinitionResolver.LOCATION_THREADS_PROPERTY);
+        }
+        verify(repositoryManager, times(1)).loadRepository(any(), any());
+    }
+
     @Test
     public void testResolveMultipleRepositories() throws Exception {
         TargetDefinition definition = definitionWith(